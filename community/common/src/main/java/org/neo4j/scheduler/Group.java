@@ -34,6 +34,8 @@ public enum Group
     PAGE_CACHE_EVICTION( "PageCacheEviction" ),
     /* Page cache background eviction. */
     PAGE_CACHE_PRE_FETCHER( "PageCachePreFetcher", ExecutorServiceFactory.cachedWithDiscard() ),
+    /** Page cache warmup profiling and reheating. */
+    PAGE_CACHE_WARMUP( "PageCacheWarmup" ),
     /** Watch out for, and report, external manipulation of store files. */
     FILE_WATCHER( "FileWatcher" ),
     /** Monitor and report system-wide pauses, in case they lead to service interruption. */
@@ -44,6 +46,8 @@ public enum Group
     CHECKPOINT( "CheckPoint" ),
     /** Various little periodic tasks that need to be done on a regular basis to keep the store in good shape. */
     STORAGE_MAINTENANCE( "StorageMaintenance" ),
+    /** Writes the record changes of independent transactions of a committed batch concurrently. */
+    PARALLEL_APPLY( "ParallelApply" ),
     /** Index recovery cleanup. */
     INDEX_CLEANUP( "IndexCleanup" ),
     /** Index recovery cleanup work. */
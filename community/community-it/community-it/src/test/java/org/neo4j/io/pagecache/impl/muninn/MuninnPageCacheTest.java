@@ -39,22 +39,28 @@ import org.neo4j.io.fs.DelegatingFileSystemAbstraction;
 import org.neo4j.io.fs.DelegatingStoreChannel;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.mem.MemoryAllocator;
 import org.neo4j.io.memory.ByteBuffers;
 import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.PageCacheTest;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.PageSwapper;
 import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
 import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
 import org.neo4j.io.pagecache.tracing.DelegatingPageCacheTracer;
 import org.neo4j.io.pagecache.tracing.EvictionRunEvent;
 import org.neo4j.io.pagecache.tracing.MajorFlushEvent;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.io.pagecache.tracing.cursor.context.EmptyVersionContextSupplier;
 import org.neo4j.io.pagecache.tracing.cursor.context.VersionContext;
 import org.neo4j.io.pagecache.tracing.cursor.context.VersionContextSupplier;
 import org.neo4j.io.pagecache.tracing.recording.RecordingPageCacheTracer;
 import org.neo4j.io.pagecache.tracing.recording.RecordingPageCursorTracer;
 import org.neo4j.io.pagecache.tracing.recording.RecordingPageCursorTracer.Fault;
+import org.neo4j.memory.LocalMemoryTracker;
+import org.neo4j.time.Clocks;
 
 import static java.time.Duration.ofMillis;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -269,6 +275,114 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
         }
     }
 
+    @Test
+    void evictionPartitionCountMustRespectMinimumPartitionSize()
+    {
+        assertThat( MuninnPageCache.evictionPartitionCount( 2, 8, 1024 ) ).isEqualTo( 1 );
+        assertThat( MuninnPageCache.evictionPartitionCount( 1024, 8, 1024 ) ).isEqualTo( 1 );
+        assertThat( MuninnPageCache.evictionPartitionCount( 4096, 8, 1024 ) ).isEqualTo( 4 );
+        assertThat( MuninnPageCache.evictionPartitionCount( 1_000_000, 8, 1024 ) ).isEqualTo( 8 );
+        assertThat( MuninnPageCache.evictionPartitionCount( 1_000_000, 0, 1024 ) ).isEqualTo( 1 );
+    }
+
+    @Test
+    void evictionPartitionCountMustNotLeaveEmptyPartitions()
+    {
+        // 9 pages over 4 partitions gives partitions of 3 pages, and thus only 3 partitions are needed.
+        assertThat( MuninnPageCache.evictionPartitionCount( 9, 4, 1 ) ).isEqualTo( 3 );
+        assertThat( MuninnPageCache.evictionPartitionCount( 10, 4, 1 ) ).isEqualTo( 4 );
+    }
+
+    @Test
+    void mustFaultAndEvictPagesWithSeveralEvictionPartitions() throws IOException
+    {
+        int maxPages = 64;
+        int filePages = 1000;
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        MemoryAllocator allocator = MemoryAllocator.createAllocator(
+                String.valueOf( MuninnPageCache.memoryRequiredForPages( maxPages ) ), new LocalMemoryTracker() );
+        try ( MuninnPageCache pageCache = new MuninnPageCache( new SingleFilePageSwapperFactory( fs ), allocator, PageCache.PAGE_SIZE, tracer,
+                EmptyVersionContextSupplier.EMPTY, jobScheduler, Clocks.nanoClock(), PageReplacementPolicy.CLOCK, 4, 16 );
+                PagedFile pagedFile = map( pageCache, file( "a" ), 8 ) )
+        {
+            assertThat( pageCache.toString() ).contains( "evictionPartitions:4" );
+            try ( var cursorTracer = tracer.createPageCursorTracer( "mustFaultAndEvictPagesWithSeveralEvictionPartitions" ) )
+            {
+                try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK, cursorTracer ) )
+                {
+                    for ( long pageId = 0; pageId < filePages; pageId++ )
+                    {
+                        assertTrue( cursor.next() );
+                        cursor.putLong( pageId );
+                    }
+                }
+                try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK, cursorTracer ) )
+                {
+                    for ( long pageId = 0; pageId < filePages; pageId++ )
+                    {
+                        assertTrue( cursor.next() );
+                        long value;
+                        do
+                        {
+                            value = cursor.getLong();
+                            cursor.setOffset( 0 );
+                        }
+                        while ( cursor.shouldRetry() );
+                        assertEquals( pageId, value );
+                    }
+                }
+            }
+            assertThat( tracer.evictions() ).isGreaterThan( (long) filePages );
+        }
+        finally
+        {
+            allocator.close();
+        }
+    }
+
+    @Test
+    void flushMustWriteSmallGapsOfCleanPagesAsPartOfTheSurroundingVector() throws Exception
+    {
+        writeInitialDataTo( file( "a" ) );
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        try ( MuninnPageCache pageCache = createPageCache( fs, 4, tracer );
+                PagedFile pagedFile = map( pageCache, file( "a" ), 8 ) )
+        {
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK, NULL ) )
+            {
+                assertTrue( cursor.next() );
+                cursor.putLong( x );
+                assertTrue( cursor.next() );
+                cursor.putLong( x );
+                assertTrue( cursor.next() );
+                cursor.putLong( x );
+            }
+            pagedFile.flushAndForce();
+
+            // Dirty the first and the last page, leaving a loaded, clean page between them.
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK, NULL ) )
+            {
+                assertTrue( cursor.next( 0 ) );
+                cursor.putLong( y );
+                assertTrue( cursor.next( 2 ) );
+                cursor.putLong( y );
+            }
+            long flushesBefore = tracer.flushes();
+            pagedFile.flushAndForce();
+            assertThat( tracer.flushes() - flushesBefore ).isEqualTo( 3 );
+        }
+
+        ByteBuffer buf = ByteBuffers.allocate( 24 );
+        try ( StoreChannel channel = fs.read( file( "a" ) ) )
+        {
+            channel.readAll( buf );
+        }
+        buf.flip();
+        assertThat( buf.getLong() ).isEqualTo( y );
+        assertThat( buf.getLong() ).isEqualTo( x );
+        assertThat( buf.getLong() ).isEqualTo( y );
+    }
+
     @Test
     void trackPageModificationTransactionId() throws Exception
     {
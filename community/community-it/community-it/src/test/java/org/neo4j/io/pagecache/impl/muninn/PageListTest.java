@@ -1256,6 +1256,25 @@ public class PageListTest
         assertTrue( pageList.decrementUsage( pageRef ) );
     }
 
+    @Test
+    public void incrementingUsageToOneMustNotGoBeyondOne()
+    {
+        pageList.incrementUsageToOne( pageRef );
+        pageList.incrementUsageToOne( pageRef );
+        pageList.incrementUsageToOne( pageRef );
+        assertTrue( pageList.decrementUsage( pageRef ) );
+    }
+
+    @Test
+    public void incrementingUsageToOneMustNotLowerHigherUsageCounter()
+    {
+        pageList.incrementUsage( pageRef );
+        pageList.incrementUsage( pageRef );
+        pageList.incrementUsageToOne( pageRef );
+        assertFalse( pageList.decrementUsage( pageRef ) );
+        assertTrue( pageList.decrementUsage( pageRef ) );
+    }
+
     @Test
     public void incrementingUsageCounterMustNotInterfereWithAdjacentUsageCounters()
     {
@@ -116,6 +116,12 @@ public class DelegatingPageCacheTracer implements PageCacheTracer
         return delegate.evictionExceptions();
     }
 
+    @Override
+    public long warmupPages()
+    {
+        return delegate.warmupPages();
+    }
+
     @Override
     public double hitRatio()
     {
@@ -188,6 +194,12 @@ public class DelegatingPageCacheTracer implements PageCacheTracer
         delegate.maxPages( maxPages );
     }
 
+    @Override
+    public void warmupPages( long pages )
+    {
+        delegate.warmupPages( pages );
+    }
+
     @Override
     public long filesMapped()
     {
@@ -151,6 +151,12 @@ public final class LinearHistoryPageCacheTracer implements PageCacheTracer
         return 0;
     }
 
+    @Override
+    public long warmupPages()
+    {
+        return 0;
+    }
+
     @Override
     public double hitRatio()
     {
@@ -212,4 +218,9 @@ public final class LinearHistoryPageCacheTracer implements PageCacheTracer
     public void maxPages( long maxPages )
     {
     }
+
+    @Override
+    public void warmupPages( long pages )
+    {
+    }
 }
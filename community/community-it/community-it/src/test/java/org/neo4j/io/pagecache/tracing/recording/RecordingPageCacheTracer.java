@@ -156,6 +156,12 @@ public class RecordingPageCacheTracer extends RecordingTracer implements PageCac
         return 0;
     }
 
+    @Override
+    public long warmupPages()
+    {
+        return 0;
+    }
+
     @Override
     public double hitRatio()
     {
@@ -221,6 +227,11 @@ public class RecordingPageCacheTracer extends RecordingTracer implements PageCac
     {
     }
 
+    @Override
+    public void warmupPages( long pages )
+    {
+    }
+
     private void evicted( long filePageId, PageSwapper swapper )
     {
         record( new Evict( swapper, filePageId ) );
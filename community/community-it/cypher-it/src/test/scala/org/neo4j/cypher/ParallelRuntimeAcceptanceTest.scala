@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher
+
+import java.lang.Boolean.TRUE
+
+import org.neo4j.configuration.GraphDatabaseSettings
+import org.neo4j.cypher.ExecutionEngineHelper.createEngine
+import org.neo4j.cypher.internal.InterpretedRuntimeName
+import org.neo4j.cypher.internal.ParallelRuntimeName
+import org.neo4j.cypher.internal.plandescription.Arguments.RuntimeImpl
+import org.neo4j.exceptions.RuntimeUnsupportedException
+import org.neo4j.graphdb.InputPosition
+import org.neo4j.graphdb.impl.notification.NotificationCode.RUNTIME_UNSUPPORTED
+
+class ParallelRuntimeAcceptanceTest extends ExecutionEngineFunSuite {
+
+  private val NODES = 10000
+
+  private def createNodes(): Unit = {
+    execute(s"UNWIND range(1, $NODES) AS i CREATE (n:A {x: i, g: i % 3}) WITH n, i WHERE i % 2 = 0 CREATE (:B {x: i})")
+  }
+
+  private def shouldMatchInterpreted(query: String, params: (String, Any)*): Unit = {
+    val parallel = execute(s"CYPHER runtime=parallel $query", params: _*)
+    val interpreted = execute(s"CYPHER runtime=interpreted $query", params: _*)
+
+    parallel.executionPlanDescription().arguments should contain(RuntimeImpl(ParallelRuntimeName.name))
+    parallel.toSet should equal(interpreted.toSet)
+  }
+
+  test("should aggregate all nodes without grouping") {
+    createNodes()
+
+    shouldMatchInterpreted("MATCH (n) RETURN count(*) AS c, count(n.x) AS cx, sum(n.x) AS s, min(n.x) AS mi, max(n.x) AS ma")
+  }
+
+  test("should aggregate label scan with grouping") {
+    createNodes()
+
+    shouldMatchInterpreted("MATCH (n:A) RETURN n.g AS g, count(*) AS c, sum(n.x * 2) AS s, min(n.x) AS mi, max(n.x) AS ma")
+  }
+
+  test("should aggregate filtered nodes") {
+    createNodes()
+
+    shouldMatchInterpreted("MATCH (n:A) WHERE n.x > $min AND n.g <> 1 RETURN n.g AS g, count(n) AS c, sum(n.x) AS s", "min" -> 100)
+    shouldMatchInterpreted("MATCH (n) WHERE n.g IS NULL OR n.x < 10 RETURN count(*) AS c")
+  }
+
+  test("should aggregate empty and unknown scans") {
+    shouldMatchInterpreted("MATCH (n) RETURN count(*) AS c, sum(n.x) AS s, min(n.x) AS mi")
+    shouldMatchInterpreted("MATCH (n:Unknown) RETURN n.x AS x, count(*) AS c")
+  }
+
+  test("should sum durations when not all workers see one") {
+    // only nodes of the first morsel have a duration
+    execute(s"UNWIND range(1, $NODES) AS i CREATE (:D {d: CASE WHEN i <= 100 THEN duration({days: i}) END, g: i % 2})")
+
+    shouldMatchInterpreted("MATCH (n:D) RETURN sum(n.d) AS s, min(n.d) AS mi, count(n.d) AS c")
+    shouldMatchInterpreted("MATCH (n:D) RETURN n.g AS g, sum(n.d) AS s")
+    shouldMatchInterpreted("MATCH (n:D) WHERE n.g = 3 RETURN sum(n.d) AS s")
+  }
+
+  test("should see nodes created in the transaction") {
+    createNodes()
+
+    graph.withTx { tx =>
+      tx.execute("CREATE (:A {x: -1, g: 5})")
+      val result = execute("CYPHER runtime=parallel MATCH (n:A) RETURN n.g AS g, count(*) AS c, min(n.x) AS mi", Map.empty[String, Any], tx)
+
+      result.toSet should contain(Map("g" -> 5, "c" -> 1, "mi" -> -1))
+      result.executionPlanDescription().arguments should contain(RuntimeImpl(ParallelRuntimeName.name))
+    }
+  }
+
+  test("should fall back to interpreted for queries without parallel aggregation") {
+    val result = execute("CYPHER runtime=parallel EXPLAIN MATCH (n:A)-[r]->(m) RETURN count(m.x) AS c")
+
+    result.executionPlanDescription().arguments should contain(RuntimeImpl(InterpretedRuntimeName.name))
+    result.notifications.map(_.getCode) should contain(RUNTIME_UNSUPPORTED.notification(InputPosition.empty).getCode)
+  }
+
+  test("should fail queries without parallel aggregation when configured to fail hard") {
+    restartWithConfig(Map(GraphDatabaseSettings.cypher_hints_error -> TRUE))
+    eengine = createEngine(graph)
+
+    intercept[RuntimeUnsupportedException](execute("CYPHER runtime=parallel EXPLAIN MATCH (n:A)-[r]->(m) RETURN count(m.x) AS c"))
+    execute("CYPHER runtime=parallel EXPLAIN MATCH (n:A) RETURN count(n.x) AS c")
+      .executionPlanDescription().arguments should contain(RuntimeImpl(ParallelRuntimeName.name))
+  }
+}
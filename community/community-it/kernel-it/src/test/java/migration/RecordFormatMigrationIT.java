@@ -19,6 +19,7 @@
  */
 package migration;
 
+import org.apache.commons.lang3.StringUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -29,6 +30,8 @@ import org.neo4j.dbms.api.DatabaseManagementService;
 import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.Transaction;
 import org.neo4j.internal.recordstorage.RecordStorageEngine;
+import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.format.compressed.CompressedV4_1;
 import org.neo4j.kernel.impl.store.format.standard.Standard;
 import org.neo4j.kernel.impl.store.format.standard.StandardV3_4;
 import org.neo4j.kernel.impl.store.format.standard.StandardV4_0;
@@ -45,9 +48,11 @@ import static org.apache.commons.lang3.exception.ExceptionUtils.getRootCause;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAME;
 import static org.neo4j.configuration.GraphDatabaseSettings.allow_upgrade;
 import static org.neo4j.configuration.GraphDatabaseSettings.record_format;
+import static org.neo4j.internal.helpers.collection.Iterables.single;
 
 @TestDirectoryExtension
 class RecordFormatMigrationIT
@@ -184,6 +189,66 @@ class RecordFormatMigrationIT
         }
     }
 
+    @Test
+    void migrateStandardFormatToCompressedFormat()
+    {
+        String longString = StringUtils.repeat( "compressible ", 1_000 );
+        DatabaseManagementService managementService = startManagementService( StandardV4_0.NAME );
+        GraphDatabaseAPI database = getDefaultDatabase( managementService );
+        try ( Transaction transaction = database.beginTx() )
+        {
+            Node node = transaction.createNode();
+            node.setProperty( "a", longString );
+            transaction.commit();
+        }
+        managementService.shutdown();
+
+        managementService = startDatabaseServiceWithUpgrade( databaseDirectory, CompressedV4_1.NAME );
+        try
+        {
+            database = getDefaultDatabase( managementService );
+            RecordStorageEngine storageEngine = database.getDependencyResolver().resolveDependency( RecordStorageEngine.class );
+            PropertyStore propertyStore = storageEngine.testAccessNeoStores().getPropertyStore();
+            assertEquals( CompressedV4_1.NAME, storageEngine.testAccessNeoStores().getRecordFormats().name() );
+            assertTrue( propertyStore.compressStrings() );
+            assertTrue( propertyStore.getStringStore().getHighId() < longString.length() / propertyStore.getStringStore().getRecordDataSize() );
+            try ( Transaction transaction = database.beginTx() )
+            {
+                assertEquals( longString, single( transaction.getAllNodes() ).getProperty( "a" ) );
+            }
+        }
+        finally
+        {
+            managementService.shutdown();
+        }
+    }
+
+    @Test
+    void failToMigrateCompressedFormatToStandardFormat()
+    {
+        DatabaseManagementService managementService = startManagementService( CompressedV4_1.NAME );
+        GraphDatabaseAPI database = getDefaultDatabase( managementService );
+        try ( Transaction transaction = database.beginTx() )
+        {
+            Node node = transaction.createNode();
+            node.setProperty( "a", StringUtils.repeat( "compressible ", 1_000 ) );
+            transaction.commit();
+        }
+        managementService.shutdown();
+
+        managementService = startDatabaseServiceWithUpgrade( databaseDirectory, StandardV4_0.NAME );
+        database = getDefaultDatabase( managementService );
+        try
+        {
+            Throwable throwable = assertDefaultDatabaseFailed( database );
+            assertSame( StoreUpgrader.UnexpectedUpgradingStoreFormatException.class, getRootCause( throwable ).getClass() );
+        }
+        finally
+        {
+            managementService.shutdown();
+        }
+    }
+
     private Throwable assertDefaultDatabaseFailed( GraphDatabaseAPI database )
     {
         assertThrows( Throwable.class, database::beginTx );
@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.newapi;
+
+import org.eclipse.collections.api.list.primitive.LongList;
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.eclipse.collections.impl.factory.primitive.LongSets;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+import org.neo4j.graphdb.Label;
+import org.neo4j.internal.kernel.api.CursorFactory;
+import org.neo4j.internal.kernel.api.IndexQuery;
+import org.neo4j.internal.kernel.api.IndexReadSession;
+import org.neo4j.internal.kernel.api.NodeValueIndexCursor;
+import org.neo4j.internal.kernel.api.Scan;
+import org.neo4j.internal.kernel.api.Write;
+import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotApplicableKernelException;
+import org.neo4j.kernel.api.KernelTransaction;
+
+import static java.lang.String.format;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.kernel.impl.newapi.TestUtils.assertDistinct;
+import static org.neo4j.kernel.impl.newapi.TestUtils.concat;
+import static org.neo4j.kernel.impl.newapi.TestUtils.randomBatchWorker;
+import static org.neo4j.values.storable.CoordinateReferenceSystem.Cartesian;
+import static org.neo4j.values.storable.Values.intValue;
+import static org.neo4j.values.storable.Values.pointValue;
+
+public abstract class ParallelNodeIndexSeekTestBase<G extends KernelAPIWriteTestSupport> extends KernelAPIWriteTestBase<G>
+{
+    private static final int NUMBER_OF_NODES = 5000;
+    private static final String INDEX_NAME = "myIndex";
+    private static final ToLongFunction<NodeValueIndexCursor> NODE_GET = NodeValueIndexCursor::nodeReference;
+
+    @Test
+    void shouldSeekAllMatchingNodesFromMultipleThreads() throws Exception
+    {
+        // given
+        long[] nodes = createNodesAndIndex();
+        MutableLongSet expected = LongSets.mutable.empty();
+        for ( int i = 1000; i < 4000; i++ )
+        {
+            expected.add( nodes[i] );
+        }
+        ExecutorService service = Executors.newFixedThreadPool( 4 );
+
+        try ( KernelTransaction tx = beginTransaction() )
+        {
+            int prop = tx.tokenRead().propertyKey( "prop" );
+            IndexReadSession index = tx.dataRead().indexReadSession( tx.schemaRead().indexGetForName( INDEX_NAME ) );
+            Scan<NodeValueIndexCursor> scan = tx.dataRead().nodeIndexSeek( index, 4, IndexQuery.range( prop, 1000, true, 4000, false ) );
+            CursorFactory cursors = testSupport.kernelToTest().cursors();
+
+            // when
+            List<Future<LongList>> futures = new ArrayList<>();
+            for ( int i = 0; i < 4; i++ )
+            {
+                futures.add( service.submit( randomBatchWorker( scan, cursors::allocateNodeValueIndexCursor, NODE_GET ) ) );
+            }
+
+            // then
+            List<LongList> lists = futures.stream().map( TestUtils::unsafeGet ).collect( Collectors.toList() );
+            assertDistinct( lists );
+            assertEquals( expected, LongSets.immutable.withAll( concat( lists ) ) );
+        }
+        finally
+        {
+            service.shutdown();
+            service.awaitTermination( 1, TimeUnit.MINUTES );
+        }
+    }
+
+    @Test
+    void shouldScanAllNodesInPartitions() throws Exception
+    {
+        // given
+        long[] nodes = createNodesAndIndex();
+
+        try ( KernelTransaction tx = beginTransaction();
+              NodeValueIndexCursor cursor = tx.cursors().allocateNodeValueIndexCursor() )
+        {
+            IndexReadSession index = tx.dataRead().indexReadSession( tx.schemaRead().indexGetForName( INDEX_NAME ) );
+
+            // when
+            Scan<NodeValueIndexCursor> scan = tx.dataRead().nodeIndexScan( index, 10 );
+            MutableLongSet seen = LongSets.mutable.empty();
+            int batches = 0;
+            while ( scan.reserveBatch( cursor, 100 ) )
+            {
+                batches++;
+                while ( cursor.next() )
+                {
+                    long node = cursor.nodeReference();
+                    assertTrue( seen.add( node ), format( "%d was seen multiple times", node ) );
+                }
+            }
+
+            // then
+            assertEquals( LongSets.immutable.of( nodes ), seen );
+            assertTrue( batches > 1, "expected more than one partition" );
+        }
+    }
+
+    @Test
+    void shouldSeeChangesInTransaction() throws Exception
+    {
+        // given
+        long[] nodes = createNodesAndIndex();
+
+        try ( KernelTransaction tx = beginTransaction();
+              NodeValueIndexCursor cursor = tx.cursors().allocateNodeValueIndexCursor() )
+        {
+            Write write = tx.dataWrite();
+            int label = tx.tokenRead().nodeLabel( "Node" );
+            int prop = tx.tokenRead().propertyKey( "prop" );
+            MutableLongSet expected = LongSets.mutable.empty();
+            for ( int i = 1000; i < 4000; i++ )
+            {
+                if ( i % 10 == 0 )
+                {
+                    write.nodeDelete( nodes[i] );
+                }
+                else if ( i % 10 == 1 )
+                {
+                    write.nodeSetProperty( nodes[i], prop, intValue( -i ) );
+                }
+                else
+                {
+                    expected.add( nodes[i] );
+                }
+            }
+            for ( int i = 0; i < 100; i++ )
+            {
+                write.nodeSetProperty( nodes[i], prop, intValue( 2000 + i ) );
+                expected.add( nodes[i] );
+
+                long node = write.nodeCreate();
+                write.nodeAddLabel( node, label );
+                write.nodeSetProperty( node, prop, intValue( 3000 + i ) );
+                expected.add( node );
+            }
+            IndexReadSession index = tx.dataRead().indexReadSession( tx.schemaRead().indexGetForName( INDEX_NAME ) );
+
+            // when
+            Scan<NodeValueIndexCursor> scan = tx.dataRead().nodeIndexSeek( index, 3, IndexQuery.range( prop, 1000, true, 4000, false ) );
+            MutableLongSet seen = LongSets.mutable.empty();
+            while ( scan.reserveBatch( cursor, 100 ) )
+            {
+                while ( cursor.next() )
+                {
+                    long node = cursor.nodeReference();
+                    assertTrue( seen.add( node ), format( "%d was seen multiple times", node ) );
+                }
+            }
+
+            // then
+            assertEquals( expected, seen );
+        }
+    }
+
+    @Test
+    void shouldFailForSizeHintZero() throws Exception
+    {
+        // given
+        createNodesAndIndex();
+
+        try ( KernelTransaction tx = beginTransaction();
+              NodeValueIndexCursor cursor = tx.cursors().allocateNodeValueIndexCursor() )
+        {
+            IndexReadSession index = tx.dataRead().indexReadSession( tx.schemaRead().indexGetForName( INDEX_NAME ) );
+            Scan<NodeValueIndexCursor> scan = tx.dataRead().nodeIndexScan( index, 2 );
+
+            // when
+            assertThrows( IllegalArgumentException.class, () -> scan.reserveBatch( cursor, 0 ) );
+        }
+    }
+
+    @Test
+    void shouldRefuseQueriesThatCantBePartitioned() throws Exception
+    {
+        // given
+        createNodesAndIndex();
+
+        try ( KernelTransaction tx = beginTransaction() )
+        {
+            int prop = tx.tokenRead().propertyKey( "prop" );
+            IndexReadSession index = tx.dataRead().indexReadSession( tx.schemaRead().indexGetForName( INDEX_NAME ) );
+            IndexQuery geometryRange = IndexQuery.range( prop, pointValue( Cartesian, 0, 0 ), true, pointValue( Cartesian, 10, 10 ), true );
+
+            // when
+            assertThrows( IndexNotApplicableKernelException.class, () -> tx.dataRead().nodeIndexSeek( index, 4, geometryRange ) );
+        }
+    }
+
+    private long[] createNodesAndIndex() throws Exception
+    {
+        long[] nodes = new long[NUMBER_OF_NODES];
+        try ( KernelTransaction tx = beginTransaction() )
+        {
+            Write write = tx.dataWrite();
+            int label = tx.tokenWrite().labelGetOrCreateForName( "Node" );
+            int prop = tx.tokenWrite().propertyKeyGetOrCreateForName( "prop" );
+            for ( int i = 0; i < NUMBER_OF_NODES; i++ )
+            {
+                nodes[i] = write.nodeCreate();
+                write.nodeAddLabel( nodes[i], label );
+                write.nodeSetProperty( nodes[i], prop, intValue( i ) );
+            }
+            tx.commit();
+        }
+
+        try ( org.neo4j.graphdb.Transaction tx = graphDb.beginTx() )
+        {
+            tx.schema().indexFor( Label.label( "Node" ) ).on( "prop" ).withName( INDEX_NAME ).create();
+            tx.commit();
+        }
+
+        try ( org.neo4j.graphdb.Transaction tx = graphDb.beginTx() )
+        {
+            tx.schema().awaitIndexesOnline( 1, TimeUnit.MINUTES );
+        }
+        return nodes;
+    }
+}
@@ -154,7 +154,8 @@ public class GraphDatabaseSettings implements SettingsDeclaration
             "value. For optimal performance this value shouldn't be greater than the number of available processors." )
     public static final Setting<Integer> upgrade_processors = newBuilder( "dbms.upgrade_max_processors", INT, 0 ).addConstraint( min( 0 ) ).dynamic().build();
 
-    @Description( "Database record format. Valid values: `standard`, `high_limit`. " +
+    @Description( "Database record format. Valid values: `standard`, `compressed`, `high_limit`. " +
+            "The `compressed` format is the `standard` format with long string properties stored compressed. " +
             "The `high_limit` format is available for Enterprise Edition only. " +
             "It is required if you have a graph that is larger than 34 billion nodes, 34 billion relationships, or 68 billion properties. " +
             "A change of the record format is irreversible. " +
@@ -761,6 +762,22 @@ public class GraphDatabaseSettings implements SettingsDeclaration
     @Description( "Specify if Neo4j should try to preallocate logical log file in advance." )
     public static final Setting<Boolean> preallocate_logical_logs = newBuilder( "dbms.tx_log.preallocate", BOOL, true ).dynamic().build();
 
+    @Description( "Use direct I/O with synchronous writes for the logical log files. This keeps the logical logs out of the operating " +
+            "system file cache, leaving that memory to the page cache. Setting is supported only on Linux." )
+    public static final Setting<Boolean> logical_logs_direct_io = newBuilder( "dbms.tx_log.directio", BOOL, false ).build();
+
+    @Description( "Maximum time a committing transaction may hold back forcing the logical log to disk, in order to let concurrently " +
+            "committing transactions join the same force. The wait only lasts while other transactions are still appending to " +
+            "the logical log, and ends early once `dbms.tx_log.group_commit.max_bytes` have been appended but not yet forced. " +
+            "Zero disables the group commit window." )
+    public static final Setting<Duration> logical_log_group_commit_max_wait =
+            newBuilder( "dbms.tx_log.group_commit.max_wait", DURATION, Duration.ZERO ).addConstraint( range( Duration.ZERO, ofSeconds( 1 ) ) ).build();
+
+    @Description( "Amount of appended but not yet forced logical log data that ends the group commit window early, " +
+            "see `dbms.tx_log.group_commit.max_wait`." )
+    public static final Setting<Long> logical_log_group_commit_max_bytes =
+            newBuilder( "dbms.tx_log.group_commit.max_bytes", BYTES, mebiBytes( 1 ) ).addConstraint( min( 1L ) ).build();
+
     @Description( "If `true`, Neo4j will abort recovery if any errors are encountered in the logical log. Setting " +
             "this to `false` will allow Neo4j to restore as much as possible from the corrupted log files and ignore " +
             "the rest, but, the integrity of the database might be compromised." )
@@ -801,16 +818,25 @@ public class GraphDatabaseSettings implements SettingsDeclaration
     public static final Setting<Integer> pagecache_scan_prefetch = newBuilder( "dbms.memory.pagecache.scan.prefetchers", INT, 4 )
             .addConstraint( range( 0, 255 ) ).build();
 
+    public enum PageCacheReplacementPolicy
+    {
+        CLOCK, SCAN_RESISTANT
+    }
+    @Description( "The policy the page cache uses to decide which pages to evict. `CLOCK` treats all page accesses " +
+            "equally. `SCAN_RESISTANT` gives pages that are only accessed by sequential scans a low priority, so that " +
+            "large scans, e.g. of label or relationship stores, do not push frequently used pages out of the cache." )
+    public static final Setting<PageCacheReplacementPolicy> pagecache_replacement_policy =
+            newBuilder( "dbms.memory.pagecache.replacement_policy", ofEnum( PageCacheReplacementPolicy.class ), PageCacheReplacementPolicy.CLOCK ).build();
+
     @Description( "The profiling frequency for the page cache. Accurate profiles allow the page cache to do active " +
-            "warmup after a restart, reducing the mean time to performance. " +
-            "This feature available in Neo4j Enterprise Edition." )
+            "warmup after a restart, reducing the mean time to performance." )
     public static final Setting<Duration> pagecache_warmup_profiling_interval =
             newBuilder( "dbms.memory.pagecache.warmup.profile.interval", DURATION, ofMinutes( 1 ) ).build();
 
     @Description( "Page cache can be configured to perform usage sampling of loaded pages that can be used to construct active load profile. " +
             "According to that profile pages can be reloaded on the restart, replication, etc. " +
             "This setting allows disabling that behavior. " +
-            "This feature available in Neo4j Enterprise Edition." )
+            "The profiles are kept in the `profiles` directory of each database, which is not included in dumps." )
     public static final Setting<Boolean> pagecache_warmup_enabled =
             newBuilder( "dbms.memory.pagecache.warmup.enable", BOOL, true ).build();
 
@@ -829,6 +855,12 @@ public class GraphDatabaseSettings implements SettingsDeclaration
     public static final Setting<Boolean> pagecache_direct_io =
             newBuilder( "dbms.memory.pagecache.directio", BOOL, false ).build();
 
+    @Description( "Advise the operating system to back the page cache memory with transparent huge pages. This reduces the " +
+            "address translation overhead of randomly accessing a large page cache. Setting is supported only on Linux, " +
+            "and has no effect if transparent huge pages are disabled in the operating system." )
+    public static final Setting<Boolean> pagecache_huge_pages =
+            newBuilder( "dbms.memory.pagecache.huge_pages", BOOL, false ).build();
+
     @Description( "Allows the enabling or disabling of the file watcher service." +
             " This is an auxiliary service but should be left enabled in almost all cases." )
     public static final Setting<Boolean> filewatcher_enabled = newBuilder( "dbms.filewatcher.enabled", BOOL, true ).build();
@@ -1161,6 +1193,13 @@ public class GraphDatabaseSettings implements SettingsDeclaration
     public static final Setting<Integer> tx_state_off_heap_block_cache_size =
             newBuilder( "dbms.memory.off_heap.block_cache_size", INT, 128 ).addConstraint( min( 16 ) ).build();
 
+    @Internal
+    @Description( "Directory where transactions put the property values of their transaction state when it reaches " +
+            "dbms.memory.off_heap.max_size and spilling values to disk is enabled. Its content is removed on startup." )
+    public static final Setting<Path> tx_state_spill_directory =
+            newBuilder( "unsupported.dbms.directories.tx_state_spill", PATH, Path.of( "tx-state-spill" ) )
+                    .setDependency( data_directory ).immutable().build();
+
     @Description( "Defines whether the dbms may retry reconciling a database to its desired state." )
     public static final Setting<Boolean> reconciler_may_retry = newBuilder( "dbms.reconciler.may_retry", BOOL, false ).build();
 
@@ -1191,6 +1230,13 @@ public class GraphDatabaseSettings implements SettingsDeclaration
     public static final Setting<Boolean> consistency_check_on_apply =
             newBuilder( "unsupported.dbms.storage.consistency_check_on_apply", BOOL, Boolean.FALSE ).build();
 
+    @Internal
+    @Description( "Number of threads applying the transactions of a batch to the record store concurrently, where the transactions don't " +
+            "change the same records. Counts and index updates are still applied in commit order. Zero applies the transactions of a " +
+            "batch one after another." )
+    public static final Setting<Integer> parallel_apply_threads =
+            newBuilder( "unsupported.dbms.storage.parallel_apply_threads", INT, 0 ).addConstraint( min( 0 ) ).build();
+
     /**
      * Default settings for connectors. The default values are assumes to be default for embedded deployments through the code.
      * This map contains default connector settings that you can pass to the builders.
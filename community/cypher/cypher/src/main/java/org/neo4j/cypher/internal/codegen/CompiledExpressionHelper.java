@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.codegen;
+
+import org.neo4j.cypher.operations.CypherBoolean;
+import org.neo4j.cypher.operations.CypherMath;
+import org.neo4j.util.CalledFromGeneratedCode;
+import org.neo4j.values.AnyValue;
+import org.neo4j.values.storable.Value;
+
+import static org.neo4j.values.storable.Values.FALSE;
+import static org.neo4j.values.storable.Values.NO_VALUE;
+import static org.neo4j.values.storable.Values.TRUE;
+
+/**
+ * Helper methods called by compiled command expressions, with the same null handling as the interpreted commands.
+ */
+@SuppressWarnings( "unused" )
+public final class CompiledExpressionHelper
+{
+    /**
+     * Do not instantiate this class
+     */
+    private CompiledExpressionHelper()
+    {
+    }
+
+    @CalledFromGeneratedCode
+    public static Value equals( AnyValue lhs, AnyValue rhs )
+    {
+        switch ( lhs.ternaryEquals( rhs ) )
+        {
+        case TRUE:
+            return TRUE;
+        case FALSE:
+            return FALSE;
+        default:
+            return NO_VALUE;
+        }
+    }
+
+    @CalledFromGeneratedCode
+    public static Value not( AnyValue in )
+    {
+        return in == NO_VALUE ? NO_VALUE : CypherBoolean.not( in );
+    }
+
+    @CalledFromGeneratedCode
+    public static AnyValue add( AnyValue lhs, AnyValue rhs )
+    {
+        return lhs == NO_VALUE || rhs == NO_VALUE ? NO_VALUE : CypherMath.add( lhs, rhs );
+    }
+
+    @CalledFromGeneratedCode
+    public static AnyValue subtract( AnyValue lhs, AnyValue rhs )
+    {
+        return lhs == NO_VALUE || rhs == NO_VALUE ? NO_VALUE : CypherMath.subtract( lhs, rhs );
+    }
+
+    @CalledFromGeneratedCode
+    public static AnyValue multiply( AnyValue lhs, AnyValue rhs )
+    {
+        return lhs == NO_VALUE || rhs == NO_VALUE ? NO_VALUE : CypherMath.multiply( lhs, rhs );
+    }
+}
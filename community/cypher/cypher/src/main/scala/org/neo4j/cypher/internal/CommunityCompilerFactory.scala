@@ -74,8 +74,10 @@ class CommunityCompilerFactory(graph: GraphDatabaseQueryService,
         case CypherVersion.v3_5 => throw new SyntaxException("Commands towards system database are not supported in this Cypher version.")
         case _ => CommunityAdministrationCommandRuntime(executionEngineProvider(), graph.getDependencyResolver)
       }
-    else
-      CommunityRuntimeFactory.getRuntime(cypherRuntime, plannerConfig.useErrorsOverWarnings)
+    else {
+      val parallel = if (cypherRuntime == CypherRuntimeOption.parallel) Some(ParallelRuntime(graph.getDependencyResolver)) else None
+      CommunityRuntimeFactory.getRuntime(cypherRuntime, plannerConfig.useErrorsOverWarnings, parallel)
+    }
 
     CypherCurrentCompiler(
       planner,
@@ -27,10 +27,18 @@ object CommunityRuntimeFactory {
   val interpreted = new FallbackRuntime[RuntimeContext](List(SchemaCommandRuntime, InterpretedRuntime), CypherRuntimeOption.interpreted)
   val default = new FallbackRuntime[RuntimeContext](List(SchemaCommandRuntime, InterpretedRuntime), CypherRuntimeOption.default)
 
-  def getRuntime(cypherRuntime: CypherRuntimeOption, disallowFallback: Boolean): CypherRuntime[RuntimeContext] =
+  def getRuntime(cypherRuntime: CypherRuntimeOption,
+                 disallowFallback: Boolean,
+                 parallel: Option[ParallelRuntime] = None): CypherRuntime[RuntimeContext] =
     cypherRuntime match {
       case CypherRuntimeOption.interpreted => interpreted
 
+      case CypherRuntimeOption.parallel if parallel.isDefined && disallowFallback =>
+        new FallbackRuntime[RuntimeContext](List(SchemaCommandRuntime, parallel.get), CypherRuntimeOption.parallel)
+
+      case CypherRuntimeOption.parallel if parallel.isDefined =>
+        new FallbackRuntime[RuntimeContext](List(SchemaCommandRuntime, parallel.get, InterpretedRuntime), CypherRuntimeOption.parallel)
+
       case CypherRuntimeOption.default => default
 
       case unsupported if disallowFallback =>
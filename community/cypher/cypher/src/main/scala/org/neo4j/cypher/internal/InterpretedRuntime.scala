@@ -19,6 +19,7 @@
  */
 package org.neo4j.cypher.internal
 
+import org.neo4j.cypher.internal.codegen.ExpressionCompilation
 import org.neo4j.cypher.internal.plandescription.Argument
 import org.neo4j.cypher.internal.runtime.ExecutionMode
 import org.neo4j.cypher.internal.runtime.ExplainMode
@@ -32,9 +33,11 @@ import org.neo4j.cypher.internal.runtime.interpreted.ExecutionResultBuilderFacto
 import org.neo4j.cypher.internal.runtime.interpreted.InterpretedExecutionResultBuilderFactory
 import org.neo4j.cypher.internal.runtime.interpreted.InterpretedPipeMapper
 import org.neo4j.cypher.internal.runtime.interpreted.UpdateCountingQueryContext
+import org.neo4j.cypher.internal.runtime.interpreted.VariableSlots
 import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.CommunityExpressionConverter
 import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.ExpressionConverters
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.NestedPipeExpressions
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.PipeMapper
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.PipeTreeBuilder
 import org.neo4j.cypher.internal.runtime.interpreted.profiler.InterpretedProfileInformation
 import org.neo4j.cypher.internal.runtime.interpreted.profiler.Profiler
@@ -48,14 +51,25 @@ import org.neo4j.values.virtual.MapValue
 object InterpretedRuntime extends CypherRuntime[RuntimeContext] {
   override def name: String = "interpreted"
 
-  override def compileToExecutable(query: LogicalQuery, context: RuntimeContext): ExecutionPlan = {
+  override def compileToExecutable(query: LogicalQuery, context: RuntimeContext): ExecutionPlan =
+    compileToExecutable(query, context, InterpretedRuntimeName, identity)
+
+  /**
+   * Builds an interpreted execution plan, letting the caller wrap the pipe mapper to replace some of the pipes.
+   */
+  def compileToExecutable(query: LogicalQuery,
+                          context: RuntimeContext,
+                          runtimeName: RuntimeName,
+                          decorateMapper: PipeMapper => PipeMapper): ExecutionPlan = {
     val Result(logicalPlan, nExpressionSlots, availableExpressionVars) = expressionVariableAllocation.allocate(query.logicalPlan)
     val (withSlottedParameters, parameterMapping) = slottedParameters(logicalPlan)
 
     val converters = new ExpressionConverters(CommunityExpressionConverter(context.tokenContext))
     val queryIndexRegistrator = new QueryIndexRegistrator(context.schemaRead)
-    val pipeMapper = InterpretedPipeMapper(query.readOnly, converters, context.tokenContext, queryIndexRegistrator)(query.semanticTable)
-    val pipeTreeBuilder = PipeTreeBuilder(pipeMapper)
+    val variableSlots = VariableSlots.allocate(withSlottedParameters)
+    val pipeMapper = InterpretedPipeMapper(query.readOnly, converters, context.tokenContext, queryIndexRegistrator, Some(variableSlots),
+      Some(ExpressionCompilation))(query.semanticTable)
+    val pipeTreeBuilder = PipeTreeBuilder(decorateMapper(pipeMapper))
     val logicalPlanWithConvertedNestedPlans = NestedPipeExpressions.build(pipeTreeBuilder, withSlottedParameters, availableExpressionVars)
     val pipe = pipeTreeBuilder.build(logicalPlanWithConvertedNestedPlans)
     val columns = query.resultColumns
@@ -72,7 +86,7 @@ object InterpretedRuntime extends CypherRuntime[RuntimeContext] {
 
     new InterpretedExecutionPlan(query.periodicCommitInfo,
       resultBuilderFactory,
-      InterpretedRuntimeName,
+      runtimeName,
       query.readOnly,
       IndexedSeq.empty)
   }
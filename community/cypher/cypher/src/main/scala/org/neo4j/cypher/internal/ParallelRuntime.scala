@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal
+
+import org.neo4j.common.DependencyResolver
+import org.neo4j.cypher.internal.parallel.ParallelPipeMapper
+import org.neo4j.exceptions.CantCompileQueryException
+import org.neo4j.internal.kernel.api.CursorFactory
+import org.neo4j.kernel.api.Kernel
+import org.neo4j.scheduler.JobScheduler
+
+/**
+ * Runtime selected with `CYPHER runtime=parallel`.
+ *
+ * Aggregations over a node scan, with optional filters, are run by several workers that each take morsels of the scan
+ * and merge their partial aggregates at the end. The rest of the query is run by the interpreted pipes. Queries that
+ * write, or that have no such aggregation, are left to the next runtime.
+ *
+ * @param cursors      thread safe cursors for the workers
+ * @param jobScheduler runs the workers
+ * @param workers      number of workers per aggregation
+ */
+class ParallelRuntime(cursors: CursorFactory, jobScheduler: JobScheduler, workers: Int) extends CypherRuntime[RuntimeContext] {
+  override def name: String = "parallel"
+
+  override def compileToExecutable(query: LogicalQuery, context: RuntimeContext): ExecutionPlan = {
+    if (!query.readOnly) {
+      throw new CantCompileQueryException("Parallel runtime does not support updates")
+    }
+    var mapper: ParallelPipeMapper = null
+    val executionPlan = InterpretedRuntime.compileToExecutable(query, context, ParallelRuntimeName, inner => {
+      mapper = new ParallelPipeMapper(inner, cursors, jobScheduler, workers)
+      mapper
+    })
+    if (!mapper.hasParallelAggregations) {
+      throw new CantCompileQueryException("Parallel runtime only supports aggregations over node scans")
+    }
+    executionPlan
+  }
+}
+
+object ParallelRuntime {
+  def apply(dependencies: DependencyResolver): ParallelRuntime =
+    new ParallelRuntime(dependencies.resolveDependency(classOf[Kernel]).cursors(),
+      dependencies.resolveDependency(classOf[JobScheduler]),
+      Runtime.getRuntime.availableProcessors())
+}
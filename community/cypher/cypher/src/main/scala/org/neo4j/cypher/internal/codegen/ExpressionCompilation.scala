@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.codegen
+
+import java.util.concurrent.atomic.AtomicLong
+
+import org.neo4j.codegen.CodeBlock
+import org.neo4j.codegen.CodeGenerator.generateCode
+import org.neo4j.codegen.Expression.NULL
+import org.neo4j.codegen.Expression.and
+import org.neo4j.codegen.Expression.arrayLoad
+import org.neo4j.codegen.Expression.cast
+import org.neo4j.codegen.Expression.constant
+import org.neo4j.codegen.Expression.constantInt
+import org.neo4j.codegen.Expression.equal
+import org.neo4j.codegen.Expression.getStatic
+import org.neo4j.codegen.Expression.instanceOf
+import org.neo4j.codegen.Expression.invoke
+import org.neo4j.codegen.Expression.isNull
+import org.neo4j.codegen.Expression.load
+import org.neo4j.codegen.Expression.notEqual
+import org.neo4j.codegen.Expression.notNull
+import org.neo4j.codegen.Expression.ternary
+import org.neo4j.codegen.FieldReference
+import org.neo4j.codegen.FieldReference.field
+import org.neo4j.codegen.MethodDeclaration.method
+import org.neo4j.codegen.MethodReference
+import org.neo4j.codegen.MethodReference.methodReference
+import org.neo4j.codegen.Parameter.param
+import org.neo4j.codegen.TypeReference.typeReference
+import org.neo4j.codegen.bytecode.ByteCode.BYTECODE
+import org.neo4j.cypher.internal.runtime.ReadableRow
+import org.neo4j.cypher.internal.runtime.interpreted.ArrayCypherRow
+import org.neo4j.cypher.internal.runtime.interpreted.CommandExpressionCompiler
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Add
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.CompiledExpression
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Literal
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Multiply
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Subtract
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.VariableFromSlot
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Ands
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Equals
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.GreaterThan
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.GreaterThanOrEqual
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.LessThan
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.LessThanOrEqual
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Not
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Ors
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Predicate
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.cypher.operations.CypherBoolean
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.BooleanValue
+import org.neo4j.values.storable.Value
+import org.neo4j.values.storable.Values
+
+import scala.collection.mutable.ArrayBuffer
+import scala.util.control.NonFatal
+
+/**
+ * Compiles command expressions into generated classes that evaluate comparisons, boolean connectives and arithmetic
+ * through the static helpers in [[CypherBoolean]] and [[CompiledExpressionHelper]], instead of walking the command tree.
+ *
+ * Any sub-expression without a compiled form is kept as a command and called from the generated code, so every
+ * expression can be compiled as long as its root can. Expressions that fail to compile are left to be interpreted.
+ */
+object ExpressionCompilation extends CommandExpressionCompiler {
+
+  private val PACKAGE = "org.neo4j.cypher.internal.codegen"
+  private val COMMANDS = "COMMANDS"
+  private val LITERALS = "LITERALS"
+  private val classCounter = new AtomicLong()
+
+  private val EVALUATE = method(classOf[AnyValue], "evaluate", param(classOf[ReadableRow], "row"), param(classOf[QueryState], "state"))
+  private val APPLY = methodReference(classOf[Expression], classOf[AnyValue], "apply", classOf[ReadableRow], classOf[QueryState])
+  private val GET_BY_NAME = methodReference(classOf[ReadableRow], classOf[AnyValue], "getByName", classOf[String])
+  private val GET_BY_OFFSET = methodReference(classOf[ArrayCypherRow], classOf[AnyValue], "getByOffset", Integer.TYPE, classOf[String])
+
+  private val TRUE = valuesField(classOf[BooleanValue], "TRUE")
+  private val FALSE = valuesField(classOf[BooleanValue], "FALSE")
+  private val NO_VALUE = valuesField(classOf[Value], "NO_VALUE")
+
+  override def compile(expression: Expression): Option[CompiledExpression] =
+    if (!hasCompiledForm(expression)) None
+    else try {
+      Some(generate(expression))
+    } catch {
+      case NonFatal(_) => None
+    }
+
+  private def hasCompiledForm(expression: Expression): Boolean = expression match {
+    case _: Ands | _: Ors | _: Not | _: Equals | _: LessThan | _: LessThanOrEqual | _: GreaterThan | _: GreaterThanOrEqual |
+         _: Add | _: Subtract | _: Multiply => true
+    case _ => false
+  }
+
+  private def generate(expression: Expression): CompiledExpression = {
+    val className = "CompiledExpression" + classCounter.incrementAndGet()
+    val codeGenerator = generateCode(getClass.getClassLoader, BYTECODE)
+    val generator = codeGenerator.generateClass(PACKAGE, className, classOf[CompiledExpression])
+    val (handle, body) = try {
+      val commands = generator.publicStaticField(typeReference(classOf[Array[Expression]]), COMMANDS)
+      val literals = generator.publicStaticField(typeReference(classOf[Array[AnyValue]]), LITERALS)
+      val method = generator.generate(EVALUATE)
+      val body = try {
+        val body = new MethodBody(method, commands, literals)
+        method.returns(body.emit(method, expression))
+        body
+      } finally {
+        method.close()
+      }
+      (generator.handle(), body)
+    } finally {
+      generator.close()
+    }
+
+    val clazz = handle.loadClass()
+    clazz.getDeclaredField(COMMANDS).set(null, body.commands.toArray)
+    clazz.getDeclaredField(LITERALS).set(null, body.literals.toArray)
+    clazz.getConstructor().newInstance().asInstanceOf[CompiledExpression]
+  }
+
+  private def valuesField(fieldType: Class[_], name: String): FieldReference =
+    field(typeReference(classOf[Values]), typeReference(fieldType), name)
+
+  private def within(block: CodeBlock)(f: CodeBlock => Unit): Unit =
+    try {
+      f(block)
+    } finally {
+      block.close()
+    }
+
+  /**
+   * Emits the code for one expression tree. Every node stores its result in a local of its own, so that sub-expressions
+   * are evaluated in the same order as by the interpreted commands.
+   */
+  private class MethodBody(method: CodeBlock, commandsField: FieldReference, literalsField: FieldReference) {
+    val commands = new ArrayBuffer[Expression]()
+    val literals = new ArrayBuffer[AnyValue]()
+    private var localCounter = 0
+
+    private def row = method.load("row")
+    private def state = method.load("state")
+
+    def emit(block: CodeBlock, expression: Expression): org.neo4j.codegen.Expression = expression match {
+      case Ands(predicates) => composite(block, predicates.toIndexedSeq, exitWhen = FALSE, otherwise = TRUE)
+      case Ors(predicates) => composite(block, predicates.toIndexedSeq, exitWhen = TRUE, otherwise = FALSE)
+      case Not(a) => unary(block, "not", a)
+      case Equals(a, b) => binary(block, classOf[CompiledExpressionHelper], "equals", a, b)
+      case LessThan(a, b) => binary(block, classOf[CypherBoolean], "lessThan", a, b)
+      case LessThanOrEqual(a, b) => binary(block, classOf[CypherBoolean], "lessThanOrEqual", a, b)
+      case GreaterThan(a, b) => binary(block, classOf[CypherBoolean], "greaterThan", a, b)
+      case GreaterThanOrEqual(a, b) => binary(block, classOf[CypherBoolean], "greaterThanOrEqual", a, b)
+      case Add(a, b) => binary(block, classOf[CompiledExpressionHelper], "add", a, b)
+      case Subtract(a, b) => binary(block, classOf[CompiledExpressionHelper], "subtract", a, b)
+      case Multiply(a, b) => binary(block, classOf[CompiledExpressionHelper], "multiply", a, b)
+      case literal: Literal =>
+        literals += literal.anyVal
+        arrayLoad(getStatic(literalsField), constantInt(literals.size - 1))
+      case VariableFromSlot(offset, name) =>
+        store(block, ternary(instanceOf(typeReference(classOf[ArrayCypherRow]), row),
+          invoke(cast(classOf[ArrayCypherRow], row), GET_BY_OFFSET, constantInt(offset), constant(name)),
+          invoke(row, GET_BY_NAME, constant(name))))
+      case command =>
+        commands += command
+        store(block, invoke(arrayLoad(getStatic(commandsField), constantInt(commands.size - 1)), APPLY, row, state))
+    }
+
+    private def unary(block: CodeBlock, name: String, a: Expression): org.neo4j.codegen.Expression = {
+      val in = emit(block, a)
+      store(block, invoke(helper(classOf[CompiledExpressionHelper], name, 1), in))
+    }
+
+    private def binary(block: CodeBlock, owner: Class[_], name: String, a: Expression, b: Expression): org.neo4j.codegen.Expression = {
+      val lhs = emit(block, a)
+      val rhs = emit(block, b)
+      store(block, invoke(helper(owner, name, 2), lhs, rhs))
+    }
+
+    /**
+     * Same evaluation as [[org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.CompositeBooleanPredicate]]:
+     * stop at the first exit value, and hold on to the first error until it is known that no exit value follows.
+     */
+    private def composite(block: CodeBlock,
+                          predicates: Seq[Predicate],
+                          exitWhen: FieldReference,
+                          otherwise: FieldReference): org.neo4j.codegen.Expression = {
+      val exit = getStatic(exitWhen)
+      val noValue = getStatic(NO_VALUE)
+      val result = block.declare(typeReference(classOf[AnyValue]), nextName())
+      val error = block.declare(typeReference(classOf[Exception]), nextName())
+      block.assign(result, getStatic(otherwise))
+      block.assign(error, NULL)
+      predicates.foreach { predicate =>
+        within(block.ifStatement(notEqual(load(result), exit))) { notDone =>
+          val value = notDone.declare(typeReference(classOf[AnyValue]), nextName())
+          val caught = nextName()
+          notDone.assign(value, NULL)
+          notDone.tryCatch(
+            (body: CodeBlock) => body.assign(value, emit(body, predicate)),
+            (onError: CodeBlock) => within(onError.ifStatement(isNull(load(error)))) { _.assign(error, onError.load(caught)) },
+            param(classOf[Exception], caught))
+          notDone.ifElseStatement(equal(load(value), exit),
+            (isExit: CodeBlock) => {
+              isExit.assign(result, exit)
+              isExit.assign(error, NULL)
+            },
+            (notExit: CodeBlock) => within(notExit.ifStatement(and(equal(load(value), noValue), isNull(load(error))))) {
+              _.assign(result, noValue)
+            })
+        }
+      }
+      within(block.ifStatement(and(notEqual(load(result), exit), notNull(load(error))))) { _.throwException(load(error)) }
+      load(result)
+    }
+
+    private def store(block: CodeBlock, value: org.neo4j.codegen.Expression): org.neo4j.codegen.Expression = {
+      val local = block.declare(typeReference(classOf[AnyValue]), nextName())
+      block.assign(local, value)
+      load(local)
+    }
+
+    private def nextName(): String = {
+      localCounter += 1
+      "v" + localCounter
+    }
+  }
+
+  private def helper(owner: Class[_], name: String, arity: Int): MethodReference = {
+    val returnType = owner.getMethods.find(m => m.getName == name && m.getParameterCount == arity).get.getReturnType
+    methodReference(owner, returnType, name, Seq.fill(arity)(classOf[AnyValue]): _*)
+  }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.parallel
+
+import java.util.concurrent.atomic.AtomicReference
+
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.NoMemoryTracker
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.AggregationTableFactory
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.CommunityExecutionContextFactory
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ExecutionContextFactory
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.LazyLabel
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.Pipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.graphdb.TransactionTerminatedException
+import org.neo4j.internal.kernel.api.CursorFactory
+import org.neo4j.internal.kernel.api.NodeCursor
+import org.neo4j.internal.kernel.api.NodeLabelIndexCursor
+import org.neo4j.internal.kernel.api.PropertyCursor
+import org.neo4j.internal.kernel.api.Read
+import org.neo4j.internal.kernel.api.Scan
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer
+import org.neo4j.kernel.api.KernelTransaction
+import org.neo4j.kernel.api.txstate.TxStateHolder
+import org.neo4j.scheduler.Group
+import org.neo4j.scheduler.JobScheduler
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.VirtualValues
+
+import scala.collection.mutable.ArrayBuffer
+
+/**
+ * Aggregates the nodes of a scan, optionally filtered by `predicates`, on `workers` threads.
+ *
+ * Every worker reserves morsels of the scan and pushes each node of the morsel through the filter into an aggregation
+ * table of its own, reading node properties with its own cursors. Transactions with changes are aggregated by a single
+ * worker, since their transaction state can't be read concurrently. When all workers are done their partial results are
+ * merged in a second aggregation table. The expressions given to this pipe must only read the scanned node, its
+ * properties (as `propertyColumns`) and parameters, since they are evaluated concurrently.
+ *
+ * @param ident           the scanned node
+ * @param label           label to scan, or all nodes if `None`
+ * @param propertyKeys    properties of the node read by the expressions
+ * @param propertyColumns the names under which `propertyKeys` are set in the rows
+ * @param predicates      filters of the scanned nodes, in the order they are applied
+ * @param workerTable     partial aggregation done per worker
+ * @param mergeTable      aggregation of the partial results, with one column per column of `workerTable`
+ * @param rowFactory      creates the rows of the scan
+ */
+case class ParallelAggregationPipe(ident: String,
+                                   label: Option[LazyLabel],
+                                   propertyKeys: Array[String],
+                                   propertyColumns: Array[String],
+                                   predicates: Array[Expression],
+                                   workerTable: AggregationTableFactory,
+                                   mergeTable: AggregationTableFactory,
+                                   rowFactory: ExecutionContextFactory,
+                                   cursors: CursorFactory,
+                                   jobScheduler: JobScheduler,
+                                   workers: Int)
+                                  (val id: Id = Id.INVALID_ID) extends Pipe {
+
+  protected def internalCreateResults(state: QueryState): Iterator[CypherRow] = {
+    val transactionalContext = state.query.transactionalContext
+    val read = transactionalContext.dataRead
+    val propertyTokens = propertyKeys.map(transactionalContext.tokenRead.propertyKey)
+    val morsels: Option[NodeCursor => MorselCursor] = label match {
+      case None =>
+        val scan = read.allNodesScan()
+        Some(node => new AllNodesMorselCursor(scan, node))
+      case Some(lazyLabel) =>
+        val labelId = lazyLabel.getId(state.query)
+        if (labelId == LazyLabel.UNKNOWN) {
+          None
+        } else {
+          val scan = read.nodeLabelScan(labelId)
+          Some(node => new LabelMorselCursor(scan, read, node, readNode = propertyTokens.nonEmpty))
+        }
+    }
+
+    // Reading the transaction state isn't thread safe, so a transaction with changes is scanned by a single worker on this thread
+    val parallelism = read match {
+      case txStateHolder: TxStateHolder if txStateHolder.hasTxStateWithChanges => 1
+      case _ => workers
+    }
+
+    val table = mergeTable.table(state, executionContextFactory, id)
+    table.clear()
+    morsels.foreach { morselCursor =>
+      val firstError = new AtomicReference[Throwable]()
+      val tasks = Array.fill(parallelism)(new Worker(morselCursor, state, transactionalContext.transaction, propertyTokens, firstError))
+      val handles = tasks.tail.map(task => jobScheduler.schedule(Group.CYPHER_WORKER, task))
+      tasks.head.run()
+      handles.foreach(_.waitTermination())
+      if (firstError.get() != null) {
+        throw firstError.get()
+      }
+      tasks.foreach(_.partials.foreach(table.processRow))
+    }
+    table.result()
+  }
+
+  /**
+   * The cursor of one worker over a scan shared by all workers.
+   */
+  private trait MorselCursor extends AutoCloseable {
+
+    /**
+     * Reserves the next morsel of the scan for this worker.
+     */
+    def reserveMorsel(): Boolean
+
+    /**
+     * @return the next node of the current morsel, or -1 when it is exhausted. The node cursor of the worker is
+     *         positioned at the returned node.
+     */
+    def nextNode(): Long
+  }
+
+  private class AllNodesMorselCursor(scan: Scan[NodeCursor], node: NodeCursor) extends MorselCursor {
+    override def reserveMorsel(): Boolean = scan.reserveBatch(node, ParallelAggregationPipe.MORSEL_SIZE)
+
+    override def nextNode(): Long = if (node.next()) node.nodeReference() else -1L
+
+    override def close(): Unit = {}
+  }
+
+  private class LabelMorselCursor(scan: Scan[NodeLabelIndexCursor], read: Read, node: NodeCursor, readNode: Boolean) extends MorselCursor {
+    private val labelCursor = cursors.allocateNodeLabelIndexCursor()
+
+    override def reserveMorsel(): Boolean = scan.reserveBatch(labelCursor, ParallelAggregationPipe.MORSEL_SIZE)
+
+    override def nextNode(): Long = {
+      while (labelCursor.next()) {
+        val reference = labelCursor.nodeReference()
+        if (!readNode) {
+          return reference
+        }
+        read.singleNode(reference, node)
+        if (node.next()) {
+          return reference
+        }
+      }
+      -1L
+    }
+
+    override def close(): Unit = labelCursor.close()
+  }
+
+  private class Worker(newMorselCursor: NodeCursor => MorselCursor,
+                       state: QueryState,
+                       transaction: KernelTransaction,
+                       propertyTokens: Array[Int],
+                       firstError: AtomicReference[Throwable]) extends Runnable {
+    val partials = new ArrayBuffer[CypherRow]()
+
+    override def run(): Unit = {
+      // The memory tracker of the query is not thread safe, so the partial results are only accounted for when merged
+      val workerState = new QueryState(state.query, state.resources, state.params, state.cursors, state.queryIndexes, state.expressionVariables,
+        state.subscriber, NoMemoryTracker)
+      val nodeCursor = cursors.allocateNodeCursor(PageCursorTracer.NULL)
+      val propertyCursor = cursors.allocatePropertyCursor(PageCursorTracer.NULL)
+      val morsels = newMorselCursor(nodeCursor)
+      try {
+        val table = workerTable.table(workerState, CommunityExecutionContextFactory(), id)
+        table.clear()
+        val row = rowFactory.newExecutionContext()
+        while (firstError.get() == null && morsels.reserveMorsel()) {
+          val terminated = transaction.getReasonIfTerminated
+          if (terminated.isPresent) {
+            throw new TransactionTerminatedException(terminated.get())
+          }
+          var node = morsels.nextNode()
+          while (node != -1L) {
+            row.set(ident, VirtualValues.node(node))
+            if (propertyTokens.nonEmpty) {
+              readProperties(nodeCursor, propertyCursor, propertyTokens, row)
+            }
+            if (predicates.forall(p => p(row, workerState) eq Values.TRUE)) {
+              table.processRow(row)
+            }
+            node = morsels.nextNode()
+          }
+        }
+        partials ++= table.result()
+      } catch {
+        case t: Throwable => firstError.compareAndSet(null, t)
+      } finally {
+        morsels.close()
+        nodeCursor.close()
+        propertyCursor.close()
+      }
+    }
+  }
+
+  private def readProperties(node: NodeCursor, properties: PropertyCursor, tokens: Array[Int], row: CypherRow): Unit = {
+    var i = 0
+    while (i < propertyColumns.length) {
+      row.set(propertyColumns(i), Values.NO_VALUE)
+      i += 1
+    }
+    node.properties(properties)
+    while (properties.next()) {
+      val column = tokens.indexOf(properties.propertyKey())
+      if (column >= 0) {
+        row.set(propertyColumns(column), properties.propertyValue())
+      }
+    }
+  }
+}
+
+object ParallelAggregationPipe {
+  /**
+   * Number of nodes a worker reserves from the scan at a time.
+   */
+  val MORSEL_SIZE = 4096
+}
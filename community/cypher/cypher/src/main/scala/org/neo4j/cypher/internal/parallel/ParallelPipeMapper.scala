@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.parallel
+
+import org.neo4j.cypher.internal.codegen.ExpressionCompilation
+import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Add
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.AggregationExpression
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.CompiledCommandExpression
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Count
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.CountStar
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Divide
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Literal
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Max
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Min
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Multiply
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.ParameterFromSlot
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Subtract
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Sum
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Variable
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.VariableFromSlot
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Ands
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.CoercedPredicate
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Equals
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.GreaterThan
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.GreaterThanOrEqual
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.IsNull
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.LessThan
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.LessThanOrEqual
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Not
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Ors
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.True
+import org.neo4j.cypher.internal.runtime.interpreted.commands.values.KeyToken
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.AggregatingCol
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.AggregationTableFactory
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.AllNodesScanPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.DistinctPipe.GroupingCol
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.EagerAggregationPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.FilteredNodeScan
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.LazyLabel
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.NodeBatchSource
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.NodeByLabelScanPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.Pipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.PipeMapper
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation.GroupingAggTable
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation.NonGroupingAggTable
+import org.neo4j.internal.kernel.api.CursorFactory
+import org.neo4j.scheduler.JobScheduler
+
+import scala.collection.mutable
+
+/**
+ * Builds the pipes of a query like `inner`, except for aggregations directly over a node scan with optional filters,
+ * which are replaced by a [[ParallelAggregationPipe]] when all their expressions can be evaluated concurrently.
+ */
+class ParallelPipeMapper(inner: PipeMapper, cursors: CursorFactory, jobScheduler: JobScheduler, workers: Int) extends PipeMapper {
+
+  private var parallelAggregations = 0
+
+  /**
+   * @return true if at least one aggregation of the query runs in parallel.
+   */
+  def hasParallelAggregations: Boolean = parallelAggregations > 0
+
+  override def onLeaf(plan: LogicalPlan): Pipe = inner.onLeaf(plan)
+
+  override def onOneChildPlan(plan: LogicalPlan, source: Pipe): Pipe = inner.onOneChildPlan(plan, source) match {
+    case aggregation: EagerAggregationPipe =>
+      parallel(aggregation) match {
+        case Some(pipe) =>
+          parallelAggregations += 1
+          pipe
+        case None => aggregation
+      }
+    case pipe => pipe
+  }
+
+  override def onTwoChildPlan(plan: LogicalPlan, lhs: Pipe, rhs: Pipe): Pipe = inner.onTwoChildPlan(plan, lhs, rhs)
+
+  private def parallel(aggregation: EagerAggregationPipe): Option[Pipe] = {
+    val columns = aggregation.tableFactory match {
+      case NonGroupingAggTable.Factory(aggregations) => Some((Array.empty[GroupingCol], aggregations))
+      case GroupingAggTable.Factory(groupings, _, aggregations) => Some((groupings, aggregations))
+      case _ => None
+    }
+    for {
+      (groupings, aggregations) <- columns
+      filteredScan <- FilteredNodeScan.below(aggregation.source)
+      label <- scannedLabel(filteredScan.scan)
+      nodeExpressions = new NodeExpressions(filteredScan)
+      workerPredicates <- sequence(filteredScan.predicates.map(nodeExpressions.rewrite))
+      workerGroupings <- sequence(groupings.map(col => nodeExpressions.rewrite(col.expression).map(e => col.copy(expression = e))))
+      workerAggregations <- sequence(aggregations.map(col => nodeExpressions.rewrite(col.expression).collect {
+        case Sum(inner) => col.copy(expression = PartialSum(inner))
+        case e: AggregationExpression => col.copy(expression = e)
+      }))
+      mergeAggregations <- sequence(aggregations.map(col => merge(col.expression, Variable(col.key)).map(e => col.copy(expression = e))))
+    } yield {
+      val mergeGroupings = groupings.map(col => col.copy(expression = Variable(col.key)))
+      val pipe = ParallelAggregationPipe(
+        filteredScan.ident,
+        label,
+        nodeExpressions.propertyKeys,
+        nodeExpressions.propertyColumns,
+        workerPredicates.toArray,
+        tableFactory(workerGroupings.toArray, workerAggregations.toArray),
+        tableFactory(mergeGroupings, mergeAggregations.toArray),
+        filteredScan.scan.executionContextFactory,
+        cursors,
+        jobScheduler,
+        workers)(aggregation.id)
+      pipe.executionContextFactory = aggregation.executionContextFactory
+      pipe
+    }
+  }
+
+  /**
+   * @return the label of the nodes of `scan`, or `Some(None)` for all nodes, if the workers know how to partition `scan`.
+   */
+  private def scannedLabel(scan: NodeBatchSource): Option[Option[LazyLabel]] = scan match {
+    case _: AllNodesScanPipe => Some(None)
+    case NodeByLabelScanPipe(_, label) => Some(Some(label))
+    case _ => None
+  }
+
+  private def tableFactory(groupings: Array[GroupingCol], aggregations: Array[AggregatingCol]): AggregationTableFactory =
+    if (groupings.isEmpty) NonGroupingAggTable.Factory(aggregations)
+    else GroupingAggTable.Factory(groupings, AggregationPipe.computeGroupingFunction(groupings), aggregations)
+
+  /**
+   * @return the aggregation of the partial results of `aggregation`, found in `partial`. Partial sums of workers that
+   *         saw no values are `null`, see [[PartialSum]], and skipped by the merging sum.
+   */
+  private def merge(aggregation: Expression, partial: Expression): Option[AggregationExpression] = aggregation match {
+    case _: CountStar | _: Count | _: Sum => Some(Sum(partial))
+    case _: Min => Some(Min(partial))
+    case _: Max => Some(Max(partial))
+    case _ => None
+  }
+
+  private def sequence[T](options: Seq[Option[T]]): Option[Seq[T]] =
+    if (options.forall(_.isDefined)) Some(options.map(_.get)) else None
+
+  /**
+   * Rewrites expressions over the scanned node to read its properties from columns of the row, and rejects expressions
+   * that read anything else than the node, its properties and parameters.
+   */
+  private class NodeExpressions(filteredScan: FilteredNodeScan) {
+    private val ident = filteredScan.ident
+    private val columns = mutable.LinkedHashMap[String, String]()
+
+    def propertyKeys: Array[String] = columns.keys.toArray
+
+    def propertyColumns: Array[String] = columns.values.toArray
+
+    def rewrite(expression: Expression): Option[Expression] = {
+      val rewritten = expression.rewrite(e => filteredScan.propertyKey(e).map(column).getOrElse(e))
+      if (rewritten.exists(e => !supported(e))) None
+      else Some(ExpressionCompilation.compile(rewritten).map(CompiledCommandExpression(rewritten, _)).getOrElse(rewritten))
+    }
+
+    private def column(key: KeyToken): Variable = Variable(columns.getOrElseUpdate(key.name, s"  $ident.${key.name}"))
+
+    private def supported(expression: Expression): Boolean = expression match {
+      case Variable(name) => name == ident || columns.values.exists(_ == name)
+      case VariableFromSlot(_, name) => name == ident
+      case _: Literal | _: ParameterFromSlot => true
+      case _: Ands | _: Ors | _: Not | _: True | _: IsNull | _: CoercedPredicate => true
+      case _: Equals | _: LessThan | _: LessThanOrEqual | _: GreaterThan | _: GreaterThanOrEqual => true
+      case _: Add | _: Subtract | _: Multiply | _: Divide => true
+      case _: CountStar | _: Count | _: Sum | _: Min | _: Max => true
+      case _ => false
+    }
+  }
+}
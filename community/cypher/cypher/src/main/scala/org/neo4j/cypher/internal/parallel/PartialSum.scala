@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.parallel
+
+import org.neo4j.cypher.internal.runtime.interpreted.commands.AstNode
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.AggregationWithInnerExpression
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation.AggregationFunction
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation.SumFunction
+import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.cypher.internal.util.symbols.CTNumber
+import org.neo4j.cypher.internal.util.symbols.CypherType
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.Values
+
+/**
+ * Sum done by one worker of a [[ParallelAggregationPipe]]. Unlike a sum, it is `null` if it has not seen any number or
+ * duration, so that workers that only saw `null`s don't add a zero number to the durations summed by other workers.
+ */
+case class PartialSum(anInner: Expression) extends AggregationWithInnerExpression(anInner) {
+  override def createAggregationFunction(operatorId: Id): AggregationFunction = new SumFunction(anInner) {
+    override def result(state: QueryState): AnyValue = if (aggregatingType.isEmpty) Values.NO_VALUE else super.result(state)
+  }
+
+  override def expectedInnerType: CypherType = CTNumber
+
+  override def rewrite(f: Expression => Expression): Expression = f(PartialSum(anInner.rewrite(f)))
+
+  override def children: Seq[AstNode[_]] = Seq(anInner)
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.codegen
+
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.ReadableRow
+import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
+import org.neo4j.cypher.internal.runtime.interpreted.VariableSlots
+import org.neo4j.cypher.internal.runtime.interpreted.commands.AstNode
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Add
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Literal
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Multiply
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Subtract
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Variable
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.VariableFromSlot
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Ands
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Equals
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.GreaterThan
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.GreaterThanOrEqual
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.LessThan
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.LessThanOrEqual
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Not
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Ors
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Predicate
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.cypher.internal.util.NonEmptyList
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.exceptions.ArithmeticException
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.Values
+
+import scala.util.Failure
+import scala.util.Success
+import scala.util.Try
+
+class ExpressionCompilationTest extends CypherFunSuite {
+
+  private val state = QueryStateHelper.empty
+  private val row = CypherRow.empty
+  private val operands: Seq[Any] = Seq(1, 2, 1.5, "a", true, null)
+
+  test("should leave expressions without a compiled form to be interpreted") {
+    ExpressionCompilation.compile(Literal(1)) shouldBe None
+    ExpressionCompilation.compile(Variable("x")) shouldBe None
+  }
+
+  test("should evaluate comparisons and arithmetic like the interpreted commands") {
+    val operators: Seq[(Expression, Expression) => Expression] = Seq(
+      Equals(_, _), LessThan(_, _), LessThanOrEqual(_, _), GreaterThan(_, _), GreaterThanOrEqual(_, _),
+      Add(_, _), Subtract(_, _), Multiply(_, _), (a, b) => Not(Equals(a, b)))
+
+    for (operator <- operators; lhs <- operands; rhs <- operands) {
+      shouldEvaluateLikeInterpreted(operator(Literal(lhs), Literal(rhs)), row)
+    }
+  }
+
+  test("should read variables from slotted and non slotted rows") {
+    val slots = VariableSlots("x")
+    val expression = Add(VariableFromSlot(slots.offsetFor("x"), "x"), Literal(1))
+
+    evaluate(expression, slots.newRow().copyWith("x", Values.intValue(41))) should equal(Values.longValue(42))
+    evaluate(expression, CypherRow.from("x" -> Values.intValue(41))) should equal(Values.longValue(42))
+  }
+
+  test("should interpret sub-expressions without a compiled form") {
+    shouldEvaluateLikeInterpreted(LessThan(Variable("x"), Add(Variable("x"), Literal(1))), CypherRow.from("x" -> Values.intValue(1)))
+  }
+
+  test("should hold errors in ands and ors until the result is known") {
+    val failing = FailingPredicate()
+
+    evaluate(ands(failing, isTrue(false)), row) should equal(Values.FALSE)
+    evaluate(ors(failing, isTrue(true)), row) should equal(Values.TRUE)
+    evaluate(ands(isTrue(false), failing), row) should equal(Values.FALSE)
+    an[ArithmeticException] should be thrownBy evaluate(ands(failing, isTrue(true)), row)
+    an[ArithmeticException] should be thrownBy evaluate(ands(isNull, failing), row)
+    an[ArithmeticException] should be thrownBy evaluate(ors(failing, isNull), row)
+
+    for (a <- Seq(isTrue(true), isTrue(false), isNull); b <- Seq(isTrue(true), isTrue(false), isNull); c <- Seq(failing, isNull)) {
+      shouldEvaluateLikeInterpreted(ands(a, b, c), row)
+      shouldEvaluateLikeInterpreted(ors(a, b, c), row)
+    }
+  }
+
+  private def isTrue(value: Boolean): Predicate = Equals(Literal(value), Literal(true))
+
+  private def isNull: Predicate = Equals(Literal(null), Literal(true))
+
+  private def ands(predicates: Predicate*): Predicate = Ands(NonEmptyList.from(predicates))
+
+  private def ors(predicates: Predicate*): Predicate = Ors(NonEmptyList.from(predicates))
+
+  private def evaluate(expression: Expression, row: ReadableRow): AnyValue = {
+    val compiled = ExpressionCompilation.compile(expression)
+    compiled shouldBe defined
+    compiled.get.evaluate(row, state)
+  }
+
+  private def shouldEvaluateLikeInterpreted(expression: Expression, row: ReadableRow): Unit = {
+    val compiled = ExpressionCompilation.compile(expression)
+    compiled shouldBe defined
+    withClue(expression) {
+      outcome(Try(compiled.get.evaluate(row, state))) should equal(outcome(Try(expression(row, state))))
+    }
+  }
+
+  private def outcome(result: Try[AnyValue]): String = result match {
+    case Success(value) => value.toString
+    case Failure(e) => e.getClass.getName + ": " + e.getMessage
+  }
+
+  private case class FailingPredicate() extends Predicate {
+    override def isMatch(ctx: ReadableRow, state: QueryState): Option[Boolean] = throw new ArithmeticException("/ by zero")
+
+    override def containsIsNull: Boolean = false
+
+    override def rewrite(f: Expression => Expression): Expression = f(this)
+
+    override def arguments: Seq[Expression] = Seq.empty
+
+    override def children: Seq[AstNode[_]] = Seq.empty
+  }
+}
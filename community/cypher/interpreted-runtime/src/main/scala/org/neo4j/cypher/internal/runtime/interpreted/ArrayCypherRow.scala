@@ -0,0 +1,297 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted
+
+import java.util
+
+import org.neo4j.cypher.internal.expressions.ASTCachedProperty
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.EntityById
+import org.neo4j.cypher.internal.runtime.ReadableRow
+import org.neo4j.cypher.internal.runtime.WritableRow
+import org.neo4j.exceptions.InternalException
+import org.neo4j.graphdb.NotFoundException
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.Value
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.VirtualNodeValue
+import org.neo4j.values.virtual.VirtualRelationshipValue
+
+import scala.collection.mutable
+
+/**
+  * Row keeping the values of variables at the offsets given by [[VariableSlots]]. A `null` slot means that the variable
+  * isn't set. Variables without a slot, which should not happen for rows of a query the slots were allocated for, end up in
+  * a map on the side.
+  */
+class ArrayCypherRow(val slots: VariableSlots,
+                     private val refs: Array[AnyValue],
+                     private var overflow: mutable.Map[String, AnyValue] = null,
+                     private var cachedProperties: mutable.Map[ASTCachedProperty, Value] = null)
+  extends CypherRow {
+
+  override def copyTo(target: WritableRow, sourceLongOffset: Int = 0, sourceRefOffset: Int = 0, targetLongOffset: Int = 0, targetRefOffset: Int = 0): Unit = fail()
+
+  override def copyFrom(input: ReadableRow, nLongs: Int, nRefs: Int): Unit = fail()
+
+  override def getByName(name: String): AnyValue = {
+    val offset = slots.offsetFor(name)
+    val value = if (offset == VariableSlots.NO_SLOT) overflowValue(name) else refs(offset)
+    if (value == null) {
+      throw new NotFoundException(s"Unknown variable `$name`.")
+    }
+    value
+  }
+
+  def getByOffset(offset: Int, name: String): AnyValue = {
+    val value = refs(offset)
+    if (value == null) {
+      throw new NotFoundException(s"Unknown variable `$name`.")
+    }
+    value
+  }
+
+  override def containsName(name: String): Boolean = {
+    val offset = slots.offsetFor(name)
+    if (offset == VariableSlots.NO_SLOT) overflowValue(name) != null else refs(offset) != null
+  }
+
+  override def numberOfColumns: Int = {
+    var count = if (overflow == null) 0 else overflow.size
+    var i = 0
+    while (i < refs.length) {
+      if (refs(i) != null) {
+        count += 1
+      }
+      i += 1
+    }
+    count
+  }
+
+  override def setLongAt(offset: Int, value: Long): Unit = fail()
+  override def getLongAt(offset: Int): Long = fail()
+
+  override def setRefAt(offset: Int, value: AnyValue): Unit = refs(offset) = value
+  override def getRefAt(offset: Int): AnyValue = refs(offset)
+
+  private def fail(): Nothing = throw new InternalException("Tried using an interpreted row as a slotted context")
+
+  private def overflowValue(name: String): AnyValue = if (overflow == null) null else overflow.getOrElse(name, null)
+
+  override def mergeWith(other: ReadableRow, entityById: EntityById): Unit = other match {
+    case otherRow: ArrayCypherRow if otherRow.slots eq slots =>
+      var i = 0
+      while (i < refs.length) {
+        val value = otherRow.refs(i)
+        if (value != null) {
+          refs(i) = value
+        }
+        i += 1
+      }
+      if (otherRow.overflow != null) {
+        if (overflow == null) {
+          overflow = otherRow.overflow.clone()
+        } else {
+          overflow ++= otherRow.overflow
+        }
+      }
+      if (otherRow.cachedProperties != null) {
+        if (cachedProperties == null) {
+          cachedProperties = otherRow.cachedProperties.clone()
+        } else {
+          cachedProperties ++= otherRow.cachedProperties
+        }
+      }
+      setLinenumber(otherRow.getLinenumber)
+    case _ => fail()
+  }
+
+  override def set(newEntries: Seq[(String, AnyValue)]): Unit =
+    newEntries.foreach {
+      case (key, value) => set(key, value)
+    }
+
+  override def set(key: String, value: AnyValue): Unit = {
+    val offset = slots.offsetFor(key)
+    if (offset == VariableSlots.NO_SLOT) {
+      if (overflow == null) {
+        overflow = mutable.Map.empty
+      }
+      overflow.put(key, value)
+    } else {
+      refs(offset) = value
+    }
+  }
+
+  /**
+    * Sets a variable at the given offset, or by name if it has no slot.
+    */
+  def setAt(offset: Int, key: String, value: AnyValue): Unit =
+    if (offset == VariableSlots.NO_SLOT) set(key, value) else refs(offset) = value
+
+  override def set(key1: String, value1: AnyValue, key2: String, value2: AnyValue): Unit = {
+    set(key1, value1)
+    set(key2, value2)
+  }
+
+  override def set(key1: String, value1: AnyValue, key2: String, value2: AnyValue, key3: String, value3: AnyValue): Unit = {
+    set(key1, value1)
+    set(key2, value2)
+    set(key3, value3)
+  }
+
+  override def copyWith(key: String, value: AnyValue): ArrayCypherRow = {
+    val row = createClone()
+    row.set(key, value)
+    row
+  }
+
+  override def copyWith(key1: String, value1: AnyValue, key2: String, value2: AnyValue): ArrayCypherRow = {
+    val row = createClone()
+    row.set(key1, value1, key2, value2)
+    row
+  }
+
+  override def copyWith(key1: String, value1: AnyValue,
+                        key2: String, value2: AnyValue,
+                        key3: String, value3: AnyValue): ArrayCypherRow = {
+    val row = createClone()
+    row.set(key1, value1, key2, value2, key3, value3)
+    row
+  }
+
+  def copyWithAt(offset: Int, key: String, value: AnyValue): ArrayCypherRow = {
+    val row = createClone()
+    row.setAt(offset, key, value)
+    row
+  }
+
+  def copyWithAt(offset1: Int, key1: String, value1: AnyValue, offset2: Int, key2: String, value2: AnyValue): ArrayCypherRow = {
+    val row = createClone()
+    row.setAt(offset1, key1, value1)
+    row.setAt(offset2, key2, value2)
+    row
+  }
+
+  override def copyWith(newEntries: Seq[(String, AnyValue)]): ArrayCypherRow = {
+    val row = createClone()
+    row.set(newEntries)
+    row
+  }
+
+  override def createClone(): ArrayCypherRow = {
+    val newOverflow = if (overflow == null) null else overflow.clone()
+    val newCachedProperties = if (cachedProperties == null) null else cachedProperties.clone()
+    val row = new ArrayCypherRow(slots, refs.clone(), newOverflow, newCachedProperties)
+    row.setLinenumber(getLinenumber)
+    row
+  }
+
+  override def isNull(key: String): Boolean = {
+    val offset = slots.offsetFor(key)
+    val value = if (offset == VariableSlots.NO_SLOT) overflowValue(key) else refs(offset)
+    value eq Values.NO_VALUE
+  }
+
+  override def setCachedProperty(key: ASTCachedProperty, value: Value): Unit = {
+    if (cachedProperties == null) {
+      cachedProperties = mutable.Map.empty
+    }
+    cachedProperties.put(key, value)
+  }
+
+  override def setCachedPropertyAt(offset: Int, value: Value): Unit = fail()
+
+  override def getCachedProperty(key: ASTCachedProperty): Value = {
+    if (cachedProperties == null) {
+      null
+    } else {
+      cachedProperties.getOrElse(key, null)
+    }
+  }
+
+  override def getCachedPropertyAt(offset: Int): Value = fail()
+
+  override def invalidateCachedNodeProperties(node: Long): Unit = {
+    if (cachedProperties != null) {
+      cachedProperties.keys.filter(cnp => getByName(cnp.entityName) match {
+        case n: VirtualNodeValue => n.id() == node
+        case _ => false
+      }).foreach(cnp => setCachedProperty(cnp, null))
+    }
+  }
+
+  override def invalidateCachedRelationshipProperties(rel: Long): Unit = {
+    if (cachedProperties != null) {
+      cachedProperties.keys.filter(cnp => getByName(cnp.entityName) match {
+        case r: VirtualRelationshipValue => r.id() == rel
+        case _ => false
+      }).foreach(cnp => setCachedProperty(cnp, null))
+    }
+  }
+
+  override def estimatedHeapUsage: Long = {
+    var total = 0L
+    var i = 0
+    while (i < refs.length) {
+      val value = refs(i)
+      if (value != null) {
+        total += value.estimatedHeapUsage()
+      }
+      i += 1
+    }
+    if (overflow != null) {
+      val iterator = overflow.valuesIterator
+      while (iterator.hasNext) {
+        total += iterator.next().estimatedHeapUsage()
+      }
+    }
+    if (cachedProperties != null) {
+      val iterator = cachedProperties.valuesIterator
+      while (iterator.hasNext) {
+        total += iterator.next().estimatedHeapUsage()
+      }
+    }
+    total
+  }
+
+  //used for testing
+  def toMap: Map[String, AnyValue] = {
+    val values = refs.indices.collect {
+      case offset if refs(offset) != null => slots.nameAt(offset) -> refs(offset)
+    }.toMap
+    if (overflow == null) values else values ++ overflow
+  }
+
+  def canEqual(other: Any): Boolean = other.isInstanceOf[ArrayCypherRow]
+
+  override def equals(other: Any): Boolean = other match {
+    case that: ArrayCypherRow =>
+      (that canEqual this) &&
+        (slots eq that.slots) &&
+        util.Arrays.equals(refs.asInstanceOf[Array[AnyRef]], that.refs.asInstanceOf[Array[AnyRef]]) &&
+        overflow == that.overflow
+    case _ => false
+  }
+
+  override def hashCode(): Int = util.Arrays.hashCode(refs.asInstanceOf[Array[AnyRef]])
+
+  override def toString: String = s"ArrayExecutionContext(m=$toMap, cached=$cachedProperties)"
+}
@@ -124,6 +124,7 @@ import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.PatternCon
 import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.ExpressionConverters
 import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.InterpretedCommandProjection
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.AggregationExpression
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.CompiledCommandExpression
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Literal
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.ShortestPathExpression
@@ -242,14 +243,45 @@ import org.neo4j.values.virtual.RelationshipValue
 case class InterpretedPipeMapper(readOnly: Boolean,
                                  expressionConverters: ExpressionConverters,
                                  tokenContext: TokenContext,
-                                 indexRegistrator: QueryIndexRegistrator)
+                                 indexRegistrator: QueryIndexRegistrator,
+                                 variableSlots: Option[VariableSlots] = None,
+                                 expressionCompiler: Option[CommandExpressionCompiler] = None)
                                 (implicit semanticTable: SemanticTable) extends PipeMapper {
 
+  private val executionContextFactory = variableSlots.map(_.executionContextFactory)
+
   private def getBuildExpression(id: Id): internal.expressions.Expression => Expression =
     ((e: internal.expressions.Expression) => expressionConverters.toCommandExpression(id, e)) andThen
-      (expression => expression.rewrite(KeyTokenResolver.resolveExpressions(_, tokenContext)))
+      (expression => resolveVariables(expression.rewrite(KeyTokenResolver.resolveExpressions(_, tokenContext))))
+
+  private def resolveVariables(expression: Expression): Expression = variableSlots match {
+    case Some(slots) => expression.rewrite(slots.resolveVariables)
+    case None => expression
+  }
+
+  private def compiled(expression: Expression): Expression =
+    expressionCompiler.flatMap(_.compile(expression)).map(CompiledCommandExpression(expression, _)).getOrElse(expression)
+
+  /**
+   * Offset of a variable written by a pipe, resolved here once instead of by every row the pipe writes.
+   */
+  private def offsetFor(name: String): Int = variableSlots.fold(VariableSlots.NO_SLOT)(_.offsetFor(name))
+
+  /**
+   * With allocated variable slots all pipes must create rows with the same slots, since rows of different kinds can't be combined.
+   */
+  private def withSlottedRows(pipe: Pipe): Pipe = {
+    executionContextFactory.foreach(factory => pipe.executionContextFactory = factory)
+    pipe
+  }
+
+  def onLeaf(plan: LogicalPlan): Pipe = withSlottedRows(leafPipe(plan))
+
+  def onOneChildPlan(plan: LogicalPlan, source: Pipe): Pipe = withSlottedRows(oneChildPipe(plan, source))
+
+  def onTwoChildPlan(plan: LogicalPlan, lhs: Pipe, rhs: Pipe): Pipe = withSlottedRows(twoChildPipe(plan, lhs, rhs))
 
-  def onLeaf(plan: LogicalPlan): Pipe = {
+  private def leafPipe(plan: LogicalPlan): Pipe = {
     val id = plan.id
     val buildExpression = getBuildExpression(id)
     plan match {
@@ -257,7 +289,7 @@ case class InterpretedPipeMapper(readOnly: Boolean,
         ArgumentPipe()(id)
 
       case AllNodesScan(ident, _) =>
-        AllNodesScanPipe(ident)(id = id)
+        AllNodesScanPipe(ident)(id = id, identOffset = offsetFor(ident))
 
       case NodeCountFromCountStore(ident, labels, _) =>
         NodeCountFromCountStorePipe(ident, labels.map(l => l.map(LazyLabel.apply)))(id = id)
@@ -268,7 +300,7 @@ case class InterpretedPipeMapper(readOnly: Boolean,
 
       case NodeByLabelScan(ident, label, _) =>
         indexRegistrator.registerLabelScan()
-        NodeByLabelScanPipe(ident, LazyLabel(label))(id = id)
+        NodeByLabelScanPipe(ident, LazyLabel(label))(id = id, identOffset = offsetFor(ident))
 
       case NodeByIdSeek(ident, nodeIdExpr, _) =>
         NodeByIdSeekPipe(ident, expressionConverters.toCommandSeekArgs(id, nodeIdExpr))(id = id)
@@ -306,7 +338,7 @@ case class InterpretedPipeMapper(readOnly: Boolean,
           case (None, plan) =>
             Some(onLeaf(plan))
           case (Some(pipe), plan) => {
-            Some(CartesianProductPipe(pipe, onLeaf(plan))(id = id))
+            Some(withSlottedRows(CartesianProductPipe(pipe, onLeaf(plan))(id = id)))
           }
         }.get
 
@@ -315,12 +347,14 @@ case class InterpretedPipeMapper(readOnly: Boolean,
     }
   }
 
-  def onOneChildPlan(plan: LogicalPlan, source: Pipe): Pipe = {
+  private def oneChildPipe(plan: LogicalPlan, source: Pipe): Pipe = {
     val id = plan.id
     val buildExpression = getBuildExpression(id)
     plan match {
       case Projection(_, expressions) =>
-        ProjectionPipe(source,  InterpretedCommandProjection(Eagerly.immutableMapValues(expressions, buildExpression)))(id = id)
+        val offsets = variableSlots.fold(Map.empty[String, Int])(slots => expressions.keys.map(key => key -> slots.offsetFor(key)).toMap)
+        val projection = InterpretedCommandProjection(Eagerly.immutableMapValues(expressions, buildExpression andThen compiled), offsets)
+        ProjectionPipe(source, projection)(id = id)
 
       case ProjectEndpoints(_, rel, start, startInScope, end, endInScope, types, directed, length) =>
         ProjectEndpointsPipe(source, rel,
@@ -340,17 +374,19 @@ case class InterpretedPipeMapper(readOnly: Boolean,
       case Selection(predicate, _) =>
         val predicateExpression =
           if (predicate.exprs.size == 1) buildExpression(predicate.exprs.head) else buildExpression(predicate)
-        FilterPipe(source, predicateExpression)(id = id)
+        FilterPipe(source, compiled(predicateExpression))(id = id)
 
       case CacheProperties(_, properties) =>
         val runtimeProperties = properties.toArray.map(buildExpression(_))
         CachePropertiesPipe(source, runtimeProperties)(id = id)
 
       case Expand(_, fromName, dir, types: Seq[RelTypeName], toName, relName, ExpandAll) =>
-        ExpandAllPipe(source, fromName, relName, toName, dir, RelationshipTypes(types.toArray))(id = id)
+        ExpandAllPipe(source, fromName, relName, toName, dir, RelationshipTypes(types.toArray))(
+          id = id, fromOffset = offsetFor(fromName), relOffset = offsetFor(relName), toOffset = offsetFor(toName))
 
       case Expand(_, fromName, dir, types: Seq[RelTypeName], toName, relName, ExpandInto) =>
-        ExpandIntoPipe(source, fromName, relName, toName, dir, RelationshipTypes(types.toArray))(id = id)
+        ExpandIntoPipe(source, fromName, relName, toName, dir, RelationshipTypes(types.toArray))(
+          id = id, fromOffset = offsetFor(fromName), relOffset = offsetFor(relName), toOffset = offsetFor(toName))
 
       case LockNodes(_, nodesToLock) =>
         LockNodesPipe(source, nodesToLock)(id = id)
@@ -440,19 +476,19 @@ case class InterpretedPipeMapper(readOnly: Boolean,
 
       case Aggregation(_, groupingExpressions, aggregatingExpressions) if aggregatingExpressions.isEmpty =>
         val projection = groupingExpressions.map {
-          case (key, value) => DistinctPipe.GroupingCol(key, buildExpression(value))
+          case (key, value) => DistinctPipe.GroupingCol(key, buildExpression(value), offset = offsetFor(key))
         }.toArray
         DistinctPipe(source, projection)(id = id)
 
       case Distinct(_, groupingExpressions) =>
         val projection = groupingExpressions.map {
-          case (key, value) => DistinctPipe.GroupingCol(key, buildExpression(value))
+          case (key, value) => DistinctPipe.GroupingCol(key, buildExpression(value), offset = offsetFor(key))
         }.toArray
         DistinctPipe(source, projection)(id = id)
 
       case OrderedDistinct(_, groupingExpressions, orderToLeverage) =>
         val projection = groupingExpressions.map {
-          case (key, value) => DistinctPipe.GroupingCol(key, buildExpression(value), orderToLeverage.contains(value))
+          case (key, value) => DistinctPipe.GroupingCol(key, buildExpression(value), orderToLeverage.contains(value), offsetFor(key))
         }.toArray
         if (projection.forall(_.ordered)) {
           AllOrderedDistinctPipe(source, projection)(id = id)
@@ -462,13 +498,13 @@ case class InterpretedPipeMapper(readOnly: Boolean,
 
       case OrderedAggregation(_, groupingExpressions, aggregatingExpressions, orderToLeverage) if aggregatingExpressions.isEmpty =>
         val projection = groupingExpressions.map {
-          case (key, value) => DistinctPipe.GroupingCol(key, buildExpression(value), orderToLeverage.contains(value))
+          case (key, value) => DistinctPipe.GroupingCol(key, buildExpression(value), orderToLeverage.contains(value), offsetFor(key))
         }.toArray
         OrderedDistinctPipe(source, projection)(id = id)
 
       case Aggregation(_, groupingExpressions, aggregatingExpressions) =>
         val aggregationColumns = aggregatingExpressions.map {
-          case (key, value) => AggregationPipe.AggregatingCol(key, buildExpression(value).asInstanceOf[AggregationExpression])
+          case (key, value) => AggregationPipe.AggregatingCol(key, buildExpression(value).asInstanceOf[AggregationExpression], offsetFor(key))
         }.toArray
 
         val tableFactory =
@@ -476,7 +512,7 @@ case class InterpretedPipeMapper(readOnly: Boolean,
             NonGroupingAggTable.Factory(aggregationColumns)
           } else {
             val groupingColumns = groupingExpressions.map {
-              case (key, value) => DistinctPipe.GroupingCol(key, buildExpression(value))
+              case (key, value) => DistinctPipe.GroupingCol(key, buildExpression(value), offset = offsetFor(key))
             }.toArray
             val groupingFunction: (CypherRow, QueryState) => AnyValue = AggregationPipe.computeGroupingFunction(groupingColumns)
             GroupingAggTable.Factory(groupingColumns, groupingFunction, aggregationColumns)
@@ -485,10 +521,10 @@ case class InterpretedPipeMapper(readOnly: Boolean,
 
       case OrderedAggregation(_, groupingExpressions, aggregatingExpressions, orderToLeverage) =>
         val aggregationColumns = aggregatingExpressions.map {
-          case (key, value) => AggregationPipe.AggregatingCol(key, buildExpression(value).asInstanceOf[AggregationExpression])
+          case (key, value) => AggregationPipe.AggregatingCol(key, buildExpression(value).asInstanceOf[AggregationExpression], offsetFor(key))
         }.toArray
         val groupingColumns = groupingExpressions.map {
-          case (key, value) => DistinctPipe.GroupingCol(key, buildExpression(value), orderToLeverage.contains(value))
+          case (key, value) => DistinctPipe.GroupingCol(key, buildExpression(value), orderToLeverage.contains(value), offsetFor(key))
         }.toArray
 
         val (orderedGroupingColumns, unorderedGroupingColumns) = groupingColumns.partition(_.ordered)
@@ -655,7 +691,7 @@ case class InterpretedPipeMapper(readOnly: Boolean,
     }
   }
 
-  def onTwoChildPlan(plan: LogicalPlan, lhs: Pipe, rhs: Pipe): Pipe = {
+  private def twoChildPipe(plan: LogicalPlan, lhs: Pipe, rhs: Pipe): Pipe = {
     val id = plan.id
     val buildExpression = getBuildExpression(id)
     plan match {
@@ -729,8 +765,8 @@ case class InterpretedPipeMapper(readOnly: Boolean,
   }
 
   private def buildPredicate(id: Id, expr: internal.expressions.Expression): Predicate =
-    expressionConverters.toCommandPredicate(id, expr)
-      .rewrite(KeyTokenResolver.resolveExpressions(_, tokenContext))
+    resolveVariables(expressionConverters.toCommandPredicate(id, expr)
+      .rewrite(KeyTokenResolver.resolveExpressions(_, tokenContext)))
       .asInstanceOf[Predicate]
 
   private def translateColumnOrder(s: plans.ColumnOrder): org.neo4j.cypher.internal.runtime.interpreted.ColumnOrder = s match {
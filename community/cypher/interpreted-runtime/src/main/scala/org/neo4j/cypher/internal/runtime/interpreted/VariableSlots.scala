@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted
+
+import org.eclipse.collections.impl.map.mutable.primitive.ObjectIntHashMap
+import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+import org.neo4j.cypher.internal.runtime.ReadWriteRow
+import org.neo4j.cypher.internal.runtime.ReadableRow
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Variable
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.VariableFromSlot
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ExecutionContextFactory
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.VariableSlotsExecutionContextFactory
+import org.neo4j.values.AnyValue
+
+/**
+  * Fixed offsets for all variables of a query, allocated when the query is compiled.
+  *
+  * Rows of a query with allocated slots are [[ArrayCypherRow]]s which keep their values in an array, so copying a row is an
+  * array copy instead of a hash map copy, and variable expressions read their value directly at their offset.
+  */
+class VariableSlots private(names: Array[String]) {
+
+  private val offsets = new ObjectIntHashMap[String](names.length)
+  names.indices.foreach(offset => offsets.put(names(offset), offset))
+
+  def size: Int = names.length
+
+  def nameAt(offset: Int): String = names(offset)
+
+  /**
+    * @return the offset of the given variable or [[VariableSlots.NO_SLOT]] if it has no slot.
+    */
+  def offsetFor(name: String): Int = offsets.getIfAbsent(name, VariableSlots.NO_SLOT)
+
+  def newRow(): ArrayCypherRow = new ArrayCypherRow(this, new Array[AnyValue](names.length))
+
+  def executionContextFactory: ExecutionContextFactory = VariableSlotsExecutionContextFactory(this)
+
+  /**
+    * Rewriter for command expressions, replacing variables that have a slot with expressions reading that slot.
+    */
+  def resolveVariables(expression: Expression): Expression = expression match {
+    case Variable(name) =>
+      val offset = offsetFor(name)
+      if (offset == VariableSlots.NO_SLOT) expression else VariableFromSlot(offset, name)
+    case _ => expression
+  }
+
+  override def toString: String = s"VariableSlots(${names.mkString(", ")})"
+}
+
+object VariableSlots {
+  val NO_SLOT: Int = -1
+
+  /**
+    * Reads a variable at the offset its pipe resolved when it was built, or by name from rows without slots.
+    */
+  def get(row: ReadableRow, name: String, offset: Int): AnyValue = row match {
+    case arrayRow: ArrayCypherRow if offset != NO_SLOT => arrayRow.getByOffset(offset, name)
+    case _ => row.getByName(name)
+  }
+
+  /**
+    * Writes a variable at the offset its pipe resolved when it was built, or by name to rows without slots.
+    */
+  def set(row: ReadWriteRow, name: String, offset: Int, value: AnyValue): Unit = row match {
+    case arrayRow: ArrayCypherRow => arrayRow.setAt(offset, name, value)
+    case _ => row.set(name, value)
+  }
+
+  def apply(names: String*): VariableSlots = new VariableSlots(names.distinct.toArray)
+
+  /**
+    * Allocates one slot for each variable available in any plan of the given plan tree, including nested plans.
+    */
+  def allocate(plan: LogicalPlan): VariableSlots = {
+    val names = plan.treeFold(Set.empty[String]) {
+      case p: LogicalPlan => acc => (acc ++ p.availableSymbols, Some(identity))
+    }
+    new VariableSlots(names.toArray.sorted)
+  }
+}
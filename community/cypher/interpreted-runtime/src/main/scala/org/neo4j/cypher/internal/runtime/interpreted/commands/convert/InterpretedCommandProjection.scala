@@ -21,16 +21,27 @@ package org.neo4j.cypher.internal.runtime.interpreted.commands.convert
 
 import org.neo4j.cypher.internal.runtime.ReadWriteRow
 import org.neo4j.cypher.internal.runtime.interpreted.CommandProjection
+import org.neo4j.cypher.internal.runtime.interpreted.VariableSlots
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
 
-case class InterpretedCommandProjection(expressions: Map[String, Expression]) extends CommandProjection {
+/**
+ * @param offsets the offsets of the projected variables, see [[VariableSlots]], resolved when the projection is built
+ */
+case class InterpretedCommandProjection(expressions: Map[String, Expression], offsets: Map[String, Int] = Map.empty) extends CommandProjection {
+
+  private val names = expressions.keys.toArray
+  private val nameOffsets = names.map(offsets.getOrElse(_, VariableSlots.NO_SLOT))
+  private val projections = names.map(expressions)
 
   override def isEmpty: Boolean = expressions.isEmpty
 
-  override def project(ctx: ReadWriteRow, state: QueryState): Unit = expressions.foreach {
-    case (name, expression) =>
-      val result = expression(ctx, state)
-      ctx.set(name, result)
+  override def project(ctx: ReadWriteRow, state: QueryState): Unit = {
+    var i = 0
+    while (i < names.length) {
+      val result = projections(i)(ctx, state)
+      VariableSlots.set(ctx, names(i), nameOffsets(i), result)
+      i += 1
+    }
   }
 }
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.commands.expressions
+
+import org.neo4j.cypher.internal.runtime.ReadableRow
+import org.neo4j.cypher.internal.runtime.interpreted.commands.AstNode
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.values.AnyValue
+
+/**
+ * An expression evaluated by generated code rather than by walking a tree of commands.
+ */
+trait CompiledExpression {
+  def evaluate(row: ReadableRow, state: QueryState): AnyValue
+}
+
+/**
+ * Evaluates `original` through its compiled form. Rewriting goes through the original command tree and drops the
+ * compiled form, so that rewritten expressions are always interpreted.
+ */
+case class CompiledCommandExpression(original: Expression, compiled: CompiledExpression) extends Expression {
+
+  override def apply(row: ReadableRow, state: QueryState): AnyValue = compiled.evaluate(row, state)
+
+  override def rewrite(f: Expression => Expression): Expression = f(original.rewrite(f))
+
+  override def arguments: Seq[Expression] = Seq(original)
+
+  override def children: Seq[AstNode[_]] = Seq(original)
+
+  override def toString: String = original.toString
+}
@@ -27,6 +27,7 @@ import org.neo4j.cypher.internal.runtime.interpreted.commands.AstNode
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Literal
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Variable
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.VariableFromSlot
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
 import org.neo4j.cypher.operations.CypherBoolean
 import org.neo4j.values.AnyValue
@@ -85,7 +86,7 @@ case class Equals(a: Expression, b: Expression) extends Predicate {
   override def toString = s"$a == $b"
 
   override def containsIsNull: Boolean = (a, b) match {
-    case (Variable(_), Literal(null)) => true
+    case (Variable(_) | VariableFromSlot(_, _), Literal(null)) => true
     case _ => false
   }
 
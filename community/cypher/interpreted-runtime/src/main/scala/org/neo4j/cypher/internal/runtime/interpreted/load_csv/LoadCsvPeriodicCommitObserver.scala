@@ -25,6 +25,7 @@ import org.neo4j.cypher.internal.runtime.QueryContext
 import org.neo4j.cypher.internal.runtime.interpreted.CSVResource
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.ExternalCSVResource
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.LoadCsvIterator
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ReleasingIterator
 
 import scala.collection.mutable.ArrayBuffer
 
@@ -62,6 +63,8 @@ class LoadCsvPeriodicCommitObserver(batchRowCount: Long, resources: ExternalCSVR
       case csvResource: CSVResource =>
         //save so that we can remove and re-add them
         csvResources += csvResource
+      case _: ReleasingIterator[_] =>
+        // Not bound to the transaction, the rows it produces are still needed after the restart
       case e =>
         // We call closeInternal instead of close, so that the resources are not removed from the ResourceManager.
         // We want that, because they are still traced by the RuntimeResult and will be closed from there as well.
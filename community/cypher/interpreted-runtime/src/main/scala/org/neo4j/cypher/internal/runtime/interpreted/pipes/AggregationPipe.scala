@@ -20,6 +20,7 @@
 package org.neo4j.cypher.internal.runtime.interpreted.pipes
 
 import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.interpreted.VariableSlots
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.AggregationExpression
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.AggregationTableFactory
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.DistinctPipe.GroupingCol
@@ -57,7 +58,7 @@ object AggregationPipe {
     def table(state: QueryState, executionContextFactory: ExecutionContextFactory, operatorId: Id): AggregationTable
   }
 
-  case class AggregatingCol(key: String, expression: AggregationExpression)
+  case class AggregatingCol(key: String, expression: AggregationExpression, offset: Int = VariableSlots.NO_SLOT)
 
   /**
    * Precompute a function that computes the grouping key of a row.
@@ -99,33 +100,39 @@ object AggregationPipe {
         (_, _) => ()
       case 1 =>
         val key = groupingColumns.head.key
-        (row, groupingKey) => row.set(key, groupingKey)
+        val offset = groupingColumns.head.offset
+        (row, groupingKey) => VariableSlots.set(row, key, offset, groupingKey)
       case 2 =>
         val key = groupingColumns.head.key
+        val offset = groupingColumns.head.offset
         val key2 = groupingColumns.last.key
+        val offset2 = groupingColumns.last.offset
         (row, groupingKey) => {
           val t2 = groupingKey.asInstanceOf[ListValue]
-          row.set(key, t2.head())
-          row.set(key2, t2.last())
+          VariableSlots.set(row, key, offset, t2.head())
+          VariableSlots.set(row, key2, offset2, t2.last())
         }
       case 3 =>
         val key = groupingColumns.head.key
         val key2 = groupingColumns(1).key
         val key3 = groupingColumns(2).key
+        val offset = groupingColumns.head.offset
+        val offset2 = groupingColumns(1).offset
+        val offset3 = groupingColumns(2).offset
         (row, groupingKey) => {
           val t3 = groupingKey.asInstanceOf[ListValue]
-          row.set(key, t3.value(0))
-          row.set(key2, t3.value(1))
-          row.set(key3, t3.value(2))
+          VariableSlots.set(row, key, offset, t3.value(0))
+          VariableSlots.set(row, key2, offset2, t3.value(1))
+          VariableSlots.set(row, key3, offset3, t3.value(2))
         }
       case _ =>
         (row, groupingKey) => {
           val listOfValues = groupingKey.asInstanceOf[ListValue]
           var i = 0
           while (i < groupingColumns.length) {
-            val k = groupingColumns(i).key
+            val column = groupingColumns(i)
             val value: AnyValue = listOfValues.value(i)
-            row.set(k, value)
+            VariableSlots.set(row, column.key, column.offset, value)
             i += 1
           }
         }
@@ -19,14 +19,18 @@
  */
 package org.neo4j.cypher.internal.runtime.interpreted.pipes
 
+import org.eclipse.collections.api.iterator.LongIterator
 import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.interpreted.VariableSlots
 import org.neo4j.cypher.internal.util.attribution.Id
 
-case class AllNodesScanPipe(ident: String)(val id: Id = Id.INVALID_ID) extends Pipe {
+case class AllNodesScanPipe(ident: String)
+                           (val id: Id = Id.INVALID_ID, val identOffset: Int = VariableSlots.NO_SLOT) extends Pipe with NodeBatchSource {
 
   protected def internalCreateResults(state: QueryState): Iterator[CypherRow] = {
     val baseContext = state.newExecutionContext(executionContextFactory)
-    state.query.nodeOps.all.map(n => executionContextFactory.copyWith(baseContext, ident, n))
+    state.query.nodeOps.all.map(n => executionContextFactory.copyWithAt(baseContext, identOffset, ident, n))
   }
 
+  override protected def nodeIds(state: QueryState): LongIterator = state.query.nodeOps.allPrimitive
 }
@@ -20,13 +20,15 @@
 package org.neo4j.cypher.internal.runtime.interpreted.pipes
 
 import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.interpreted.VariableSlots
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.DistinctPipe.GroupingCol
 import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.kernel.impl.util.collection.HeapTrackingCollections
 import org.neo4j.values.AnyValue
 import org.neo4j.values.virtual.ListValueBuilder
-
-import scala.collection.mutable
+import org.neo4j.values.virtual.VirtualNodeValue
+import org.neo4j.values.virtual.VirtualRelationshipValue
 
 case class DistinctPipe(source: Pipe, groupingColumns: Array[GroupingCol])
                        (val id: Id = Id.INVALID_ID) extends PipeWithSource(source) {
@@ -37,25 +39,38 @@ case class DistinctPipe(source: Pipe, groupingColumns: Array[GroupingCol])
                                       state: QueryState): Iterator[CypherRow] = {
     /*
      * The filtering is done by extracting from the context the values of all return expressions, and keeping them
-     * in a set.
+     * in a set. The set is accounted to this operator until all rows are produced or the query ends, the values in it
+     * for the whole query. Nodes and relationships are equal by id, so a single column of them is kept by id in
+     * primitive sets instead.
      */
-    val seen = mutable.Set[AnyValue]()
+    val memoryTracker = state.memoryTracker.memoryTrackerForOperator(id.x)
+    val seen = HeapTrackingCollections.newSet[AnyValue](memoryTracker)
+    lazy val seenNodes = HeapTrackingCollections.newLongSet(memoryTracker)
+    lazy val seenRelationships = HeapTrackingCollections.newLongSet(memoryTracker)
 
-    input.filter { ctx =>
+    val result = input.filter { ctx =>
       var i = 0
       while (i < groupingColumns.length) {
-        ctx.set(groupingColumns(i).key, groupingColumns(i).expression(ctx, state))
+        VariableSlots.set(ctx, groupingColumns(i).key, groupingColumns(i).offset, groupingColumns(i).expression(ctx, state))
         i += 1
       }
-      val builder = ListValueBuilder.newListBuilder(keyNames.length)
-      keyNames.foreach(name => builder.add(ctx.getByName(name)))
-      val groupingValue = builder.build()
-      val added = seen.add(groupingValue)
-      if (added) {
-        state.memoryTracker.allocated(groupingValue, id.x)
+      val singleValue = if (keyNames.length == 1) ctx.getByName(keyNames(0)) else null
+      singleValue match {
+        case node: VirtualNodeValue => seenNodes.add(node.id())
+        case relationship: VirtualRelationshipValue => seenRelationships.add(relationship.id())
+        case _ =>
+          val builder = ListValueBuilder.newListBuilder(keyNames.length)
+          keyNames.foreach(name => builder.add(ctx.getByName(name)))
+          val groupingValue = builder.build()
+          val added = seen.add(groupingValue)
+          if (added) {
+            state.memoryTracker.allocated(groupingValue, id.x)
+          }
+          added
       }
-      added
     }
+
+    new ReleasingIterator(result, state.query.resources, () => memoryTracker.close())
   }
 
   override def equals(obj: Any): Boolean = {
@@ -68,5 +83,5 @@ case class DistinctPipe(source: Pipe, groupingColumns: Array[GroupingCol])
 }
 
 object DistinctPipe {
-  case class GroupingCol(key: String, expression: Expression, ordered: Boolean = false)
+  case class GroupingCol(key: String, expression: Expression, ordered: Boolean = false, offset: Int = VariableSlots.NO_SLOT)
 }
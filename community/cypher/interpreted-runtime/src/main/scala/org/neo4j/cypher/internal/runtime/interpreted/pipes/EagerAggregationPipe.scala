@@ -21,6 +21,7 @@ package org.neo4j.cypher.internal.runtime.interpreted.pipes
 
 import org.neo4j.cypher.internal.runtime.CypherRow
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.AggregationTableFactory
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation.NonGroupingAggTable
 import org.neo4j.cypher.internal.util.attribution.Id
 
 // Eager aggregation means that this pipe will eagerly load the whole resulting sub graphs before starting
@@ -31,6 +32,20 @@ case class EagerAggregationPipe(source: Pipe,
                                (val id: Id = Id.INVALID_ID)
   extends AggregationPipe(source, tableFactory) {
 
+  private val batchAggregation = NodeBatchAggregation(source, tableFactory)
+
+  override def createResults(state: QueryState): Iterator[CypherRow] = batchAggregation match {
+    // Batches skip the source pipes, so only use them when there is no decorator (e.g. profiling) that needs those
+    case Some(batched) if state.decorator eq NullPipeDecorator =>
+      state.setExecutionContextFactory(executionContextFactory)
+      val table = tableFactory.table(state, executionContextFactory, id).asInstanceOf[NonGroupingAggTable]
+      table.clear()
+      batched.aggregate(table, state)
+      table.result()
+    case _ =>
+      super.createResults(state)
+  }
+
   protected def internalCreateResults(input: Iterator[CypherRow], state: QueryState): Iterator[CypherRow] = {
     val table = tableFactory.table(state, executionContextFactory, id)
     table.clear()
@@ -22,6 +22,7 @@ package org.neo4j.cypher.internal.runtime.interpreted.pipes
 import org.neo4j.cypher.internal.expressions.SemanticDirection
 import org.neo4j.cypher.internal.runtime.CypherRow
 import org.neo4j.cypher.internal.runtime.IsNoValue
+import org.neo4j.cypher.internal.runtime.interpreted.VariableSlots
 import org.neo4j.cypher.internal.util.attribution.Id
 import org.neo4j.exceptions.ParameterWrongTypeException
 import org.neo4j.values.virtual.NodeValue
@@ -33,17 +34,20 @@ case class ExpandAllPipe(source: Pipe,
                          toName: String,
                          dir: SemanticDirection,
                          types: RelationshipTypes)
-                        (val id: Id = Id.INVALID_ID) extends PipeWithSource(source) {
+                        (val id: Id = Id.INVALID_ID,
+                         fromOffset: Int = VariableSlots.NO_SLOT,
+                         relOffset: Int = VariableSlots.NO_SLOT,
+                         toOffset: Int = VariableSlots.NO_SLOT) extends PipeWithSource(source) {
 
   protected def internalCreateResults(input: Iterator[CypherRow], state: QueryState): Iterator[CypherRow] = {
     input.flatMap {
       row =>
-        row.getByName(fromName) match {
+        VariableSlots.get(row, fromName, fromOffset) match {
           case n: NodeValue =>
             val relationships: Iterator[RelationshipValue] = state.query.getRelationshipsForIds(n.id(), dir, types.types(state.query))
             relationships.map { r =>
                 val other = r.otherNode(n)
-                executionContextFactory.copyWith(row, relName, r, toName, other)
+                executionContextFactory.copyWithAt(row, relOffset, relName, r, toOffset, toName, other)
             }
           case IsNoValue() => None
 
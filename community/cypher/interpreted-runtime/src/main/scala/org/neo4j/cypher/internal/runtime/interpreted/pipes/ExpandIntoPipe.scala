@@ -24,6 +24,7 @@ import org.neo4j.cypher.internal.runtime.CypherRow
 import org.neo4j.cypher.internal.runtime.IsNoValue
 import org.neo4j.cypher.internal.runtime.QueryContext
 import org.neo4j.cypher.internal.runtime.interpreted.TransactionBoundQueryContext.CursorIterator
+import org.neo4j.cypher.internal.runtime.interpreted.VariableSlots
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.ExpandIntoPipe.getRowNode
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.ExpandIntoPipe.relationshipIterator
 import org.neo4j.cypher.internal.util.attribution.Id
@@ -53,7 +54,10 @@ case class ExpandIntoPipe(source: Pipe,
                           toName: String,
                           dir: SemanticDirection,
                           lazyTypes: RelationshipTypes)
-                          (val id: Id = Id.INVALID_ID)
+                          (val id: Id = Id.INVALID_ID,
+                           fromOffset: Int = VariableSlots.NO_SLOT,
+                           relOffset: Int = VariableSlots.NO_SLOT,
+                           toOffset: Int = VariableSlots.NO_SLOT)
   extends PipeWithSource(source) {
   self =>
   private val kernelDirection = dir match {
@@ -68,10 +72,10 @@ case class ExpandIntoPipe(source: Pipe,
     val expandInto = new CachingExpandInto(query.transactionalContext.dataRead, kernelDirection, state.memoryTracker, id.x)
     input.flatMap {
       row =>
-        val fromNode = getRowNode(row, fromName)
+        val fromNode = getRowNode(row, fromName, fromOffset)
         fromNode match {
           case fromNode: NodeValue =>
-            val toNode = getRowNode(row, toName)
+            val toNode = getRowNode(row, toName, toOffset)
             toNode match {
               case IsNoValue() => Iterator.empty
               case n: NodeValue =>
@@ -86,7 +90,7 @@ case class ExpandIntoPipe(source: Pipe,
                   query.resources.trace(selectionCursor)
                   val relationships = relationshipIterator(selectionCursor, query)
                   if (relationships.isEmpty) Iterator.empty
-                  else relationships.map(r => executionContextFactory.copyWith(row, relName, r))
+                  else relationships.map(r => executionContextFactory.copyWithAt(row, relOffset, relName, r))
                 } finally {
                   nodeCursor.close()
                 }
@@ -121,8 +125,11 @@ object ExpandIntoPipe {
   }
 
   @inline
-  def getRowNode(row: CypherRow, col: String): AnyValue = {
-    row.getByName(col) match {
+  def getRowNode(row: CypherRow, col: String): AnyValue = getRowNode(row, col, VariableSlots.NO_SLOT)
+
+  @inline
+  def getRowNode(row: CypherRow, col: String, offset: Int): AnyValue = {
+    VariableSlots.get(row, col, offset) match {
       case n: NodeValue => n
       case IsNoValue() => NO_VALUE
       case value => throw new ParameterWrongTypeException(s"Expected to find a node at '$col' but found $value instead")
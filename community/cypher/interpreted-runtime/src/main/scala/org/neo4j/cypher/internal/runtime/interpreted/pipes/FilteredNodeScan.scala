@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.CachedNodeProperty
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Property
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Variable
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.VariableFromSlot
+import org.neo4j.cypher.internal.runtime.interpreted.commands.values.KeyToken
+
+/**
+ * A node scan with the filters directly above it. Aggregations that read node scans in batches or in parallel use this
+ * to find their scan, and to find the expressions that read the scanned node and its properties.
+ *
+ * @param scan       the scan
+ * @param predicates predicates of the filters, in the order they are applied
+ */
+case class FilteredNodeScan(scan: NodeBatchSource, predicates: List[Expression]) {
+
+  def ident: String = scan.ident
+
+  /**
+   * @return true if `expression` is the scanned node.
+   */
+  def isNode(expression: Expression): Boolean = expression match {
+    case Variable(name) => name == ident
+    case VariableFromSlot(_, name) => name == ident
+    case _ => false
+  }
+
+  /**
+   * @return the key of the property of the scanned node that `expression` reads, if it reads one.
+   */
+  def propertyKey(expression: Expression): Option[KeyToken] = expression match {
+    case Property(node, key: KeyToken) if isNode(node) => Some(key)
+    case CachedNodeProperty(node, key, _) if node == ident => Some(key)
+    case _ => None
+  }
+}
+
+object FilteredNodeScan {
+
+  /**
+   * @return the node scan below `pipe` and the predicates of the filters in between, if there are only filters in
+   *         between.
+   */
+  def below(pipe: Pipe): Option[FilteredNodeScan] = scanWithFilters(pipe, Nil)
+
+  private def scanWithFilters(pipe: Pipe, predicates: List[Expression]): Option[FilteredNodeScan] = pipe match {
+    case FilterPipe(source, predicate) => scanWithFilters(source, predicate :: predicates)
+    case scan: NodeBatchSource => Some(FilteredNodeScan(scan, predicates))
+    case _ => None
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.neo4j.kernel.api.StatementConstants
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.Values
+
+/**
+ * A batch of nodes produced by a [[NodeBatchSource]], with one column of values per property read for them.
+ *
+ * @param capacity      maximum number of nodes in the batch
+ * @param propertyCount number of property columns
+ */
+class NodeBatch(val capacity: Int, propertyCount: Int) {
+  val nodes: Array[Long] = new Array[Long](capacity)
+  val properties: Array[Array[AnyValue]] = Array.fill(propertyCount)(new Array[AnyValue](capacity))
+  var size: Int = 0
+
+  def isFull: Boolean = size == capacity
+
+  def add(node: Long): Unit = {
+    nodes(size) = node
+    size += 1
+  }
+
+  def clear(): Unit = size = 0
+
+  /**
+   * Removes the nodes for which `keep` is false, keeping the order of the remaining nodes.
+   */
+  def retain(keep: Long => Boolean): Unit = {
+    var kept = 0
+    var i = 0
+    while (i < size) {
+      val node = nodes(i)
+      if (keep(node)) {
+        nodes(kept) = node
+        kept += 1
+      }
+      i += 1
+    }
+    size = kept
+  }
+
+  /**
+   * Reads the properties `propertyKeys` of all nodes in the batch into the property columns.
+   */
+  def readProperties(state: QueryState, propertyKeys: Array[Int]): Unit = {
+    var i = 0
+    while (i < propertyKeys.length) {
+      val column = properties(i)
+      val propertyKey = propertyKeys(i)
+      var j = 0
+      while (j < size) {
+        column(j) =
+          if (propertyKey == StatementConstants.NO_SUCH_PROPERTY_KEY) Values.NO_VALUE
+          else state.query.nodeOps.getProperty(nodes(j), propertyKey, state.cursors.nodeCursor, state.cursors.propertyCursor, throwOnDeleted = true)
+        j += 1
+      }
+      i += 1
+    }
+  }
+}
+
+object NodeBatch {
+  /**
+   * Column of a batch aggregated as the nodes themselves, rather than as one of their properties.
+   */
+  val NODES: Int = -1
+
+  val DEFAULT_CAPACITY: Int = 1024
+}
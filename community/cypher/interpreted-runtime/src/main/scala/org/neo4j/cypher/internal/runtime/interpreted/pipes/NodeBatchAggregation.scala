@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Count
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.CountStar
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Sum
+import org.neo4j.cypher.internal.runtime.interpreted.commands.values.KeyToken
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.AggregatingCol
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.AggregationTableFactory
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation.NonGroupingAggTable
+import org.neo4j.kernel.api.StatementConstants
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.VirtualValues
+
+import scala.collection.mutable
+
+/**
+ * Aggregation of a node scan, with optional filters, that reads the scan in [[NodeBatch]]es and hands every batch to
+ * the aggregation functions at once, instead of pulling a row at a time through the scan and filter pipes.
+ *
+ * @param scan         the scan
+ * @param predicates   filters of the scanned nodes, in the order they are applied
+ * @param propertyKeys properties of the scanned node read into the columns of the batches
+ * @param columns      the column of the batches aggregated by each aggregation function
+ */
+case class NodeBatchAggregation(scan: NodeBatchSource,
+                                predicates: Array[Expression],
+                                propertyKeys: Array[KeyToken],
+                                columns: Array[Int]) {
+
+  def aggregate(table: NonGroupingAggTable, state: QueryState): Unit = {
+    val tokens = propertyKeys.map(_.getOptId(state.query).getOrElse(StatementConstants.NO_SUCH_PROPERTY_KEY))
+    val rowFactory = scan.executionContextFactory
+    val baseContext = state.newExecutionContext(rowFactory)
+    val batch = new NodeBatch(NodeBatch.DEFAULT_CAPACITY, propertyKeys.length)
+    scan.pushBatches(state, batch) { batch =>
+      if (predicates.nonEmpty) {
+        // a new row per node, since expressions may cache property values in the row
+        batch.retain(node => {
+          val row = rowFactory.copyWithAt(baseContext, scan.identOffset, scan.ident, VirtualValues.node(node))
+          predicates.forall(predicate => predicate(row, state) eq Values.TRUE)
+        })
+      }
+      batch.readProperties(state, tokens)
+      table.processBatch(batch, columns)
+    }
+  }
+}
+
+object NodeBatchAggregation {
+
+  /**
+   * @return a batched aggregation of `source`, if `source` is a node scan with optional filters and all aggregations
+   *         are counts or sums of the scanned node or its properties.
+   */
+  def apply(source: Pipe, tableFactory: AggregationTableFactory): Option[NodeBatchAggregation] = tableFactory match {
+    case NonGroupingAggTable.Factory(aggregations) =>
+      FilteredNodeScan.below(source).flatMap { filteredScan =>
+        val propertyKeys = mutable.LinkedHashMap[String, (KeyToken, Int)]()
+        val columns = aggregations.map(column(filteredScan, propertyKeys))
+        if (columns.forall(_.isDefined)) {
+          Some(NodeBatchAggregation(filteredScan.scan, filteredScan.predicates.toArray, propertyKeys.values.map(_._1).toArray, columns.map(_.get)))
+        } else {
+          None
+        }
+      }
+    case _ => None
+  }
+
+  private def column(filteredScan: FilteredNodeScan, propertyKeys: mutable.Map[String, (KeyToken, Int)])(aggregation: AggregatingCol): Option[Int] = {
+    def property(expression: Expression): Option[Int] =
+      filteredScan.propertyKey(expression).map(key => propertyKeys.getOrElseUpdate(key.name, (key, propertyKeys.size))._2)
+
+    aggregation.expression match {
+      case CountStar() => Some(NodeBatch.NODES)
+      case Count(inner) if filteredScan.isNode(inner) => Some(NodeBatch.NODES)
+      case Count(inner) => property(inner)
+      case Sum(inner) => property(inner)
+      case _ => None
+    }
+  }
+}
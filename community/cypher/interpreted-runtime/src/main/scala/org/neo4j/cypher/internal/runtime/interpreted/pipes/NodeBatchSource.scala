@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.eclipse.collections.api.iterator.LongIterator
+
+/**
+ * A node scan which, next to producing a row per node through [[Pipe.createResults]], can push its nodes in batches
+ * to consumers that process a batch at a time.
+ */
+trait NodeBatchSource extends Pipe {
+  def ident: String
+
+  /**
+   * The offset of [[ident]], see [[org.neo4j.cypher.internal.runtime.interpreted.VariableSlots]].
+   */
+  def identOffset: Int
+
+  protected def nodeIds(state: QueryState): LongIterator
+
+  /**
+   * Fills `batch` with the nodes of the scan and passes it to `consumer` every time it is full, and once more for the
+   * remaining nodes. The batch is cleared before being refilled, so consumers must not keep it.
+   */
+  def pushBatches(state: QueryState, batch: NodeBatch)(consumer: NodeBatch => Unit): Unit = {
+    val nodes = nodeIds(state)
+    batch.clear()
+    while (nodes.hasNext) {
+      batch.add(nodes.next())
+      if (batch.isFull) {
+        consumer(batch)
+        batch.clear()
+      }
+    }
+    if (batch.size > 0) {
+      consumer(batch)
+    }
+  }
+}
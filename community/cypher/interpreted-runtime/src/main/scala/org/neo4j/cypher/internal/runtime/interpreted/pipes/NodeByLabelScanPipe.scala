@@ -19,12 +19,15 @@
  */
 package org.neo4j.cypher.internal.runtime.interpreted.pipes
 
+import org.eclipse.collections.api.iterator.LongIterator
+import org.eclipse.collections.impl.iterator.ImmutableEmptyLongIterator
 import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.interpreted.VariableSlots
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.LazyLabel.UNKNOWN
 import org.neo4j.cypher.internal.util.attribution.Id
 
 case class NodeByLabelScanPipe(ident: String, label: LazyLabel)
-                              (val id: Id = Id.INVALID_ID) extends Pipe  {
+                              (val id: Id = Id.INVALID_ID, val identOffset: Int = VariableSlots.NO_SLOT) extends Pipe with NodeBatchSource {
 
   protected def internalCreateResults(state: QueryState): Iterator[CypherRow] = {
 
@@ -32,7 +35,13 @@ case class NodeByLabelScanPipe(ident: String, label: LazyLabel)
     if (id != UNKNOWN) {
         val nodes = state.query.getNodesByLabel(id)
         val baseContext = state.newExecutionContext(executionContextFactory)
-        nodes.map(n => executionContextFactory.copyWith(baseContext, ident, n))
+        nodes.map(n => executionContextFactory.copyWithAt(baseContext, identOffset, ident, n))
     } else Iterator.empty
   }
+
+  override protected def nodeIds(state: QueryState): LongIterator = {
+    val id = label.getId(state.query)
+    if (id != UNKNOWN) state.query.getNodesByLabelPrimitive(id)
+    else ImmutableEmptyLongIterator.INSTANCE
+  }
 }
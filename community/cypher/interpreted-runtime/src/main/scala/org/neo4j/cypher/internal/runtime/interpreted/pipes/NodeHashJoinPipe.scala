@@ -23,9 +23,10 @@ import org.neo4j.cypher.internal.runtime.CypherRow
 import org.neo4j.cypher.internal.runtime.IsNoValue
 import org.neo4j.cypher.internal.util.attribution.Id
 import org.neo4j.exceptions.CypherTypeException
+import org.neo4j.kernel.impl.util.collection.LongProbeTable
 import org.neo4j.values.virtual.VirtualNodeValue
 
-import scala.collection.mutable
+import scala.collection.JavaConverters.asScalaIteratorConverter
 
 case class NodeHashJoinPipe(nodeVariables: Set[String], left: Pipe, right: Pipe)
                            (val id: Id = Id.INVALID_ID)
@@ -40,50 +41,104 @@ case class NodeHashJoinPipe(nodeVariables: Set[String], left: Pipe, right: Pipe)
     if (rhsIterator.isEmpty)
       return Iterator.empty
 
-    val table = buildProbeTable(state.memoryTracker.memoryTrackingIterator(input, id.x))
+    // The table is accounted to this operator until all output rows are produced or the query ends,
+    // the rows in it for the whole query
+    val memoryTracker = state.memoryTracker.memoryTrackerForOperator(id.x)
+    val table =
+      if (cachedVariables.length == 1) {
+        new SingleNodeTable(LongProbeTable.createLongProbeTable[CypherRow](memoryTracker))
+      } else {
+        new NodesTable(org.neo4j.kernel.impl.util.collection.ProbeTable.createProbeTable[IndexedSeq[Long], CypherRow](memoryTracker))
+      }
+    buildProbeTable(state.memoryTracker.memoryTrackingIterator(input, id.x), table)
 
-    if (table.isEmpty)
+    if (table.isEmpty) {
+      table.close()
+      memoryTracker.close()
       return Iterator.empty
+    }
 
-    val result =
-      for {rhsRow <- rhsIterator
-           joinKey <- computeKey(rhsRow)}
-        yield {
-          val lhsRows = table.getOrElse(joinKey, mutable.MutableList.empty)
-          lhsRows.map { lhsRow =>
-            val output = lhsRow.createClone()
-            output.mergeWith(rhsRow, state.query)
-            output
-          }
-        }
-
-    result.flatten
-  }
+    val result = rhsIterator.flatMap { rhsRow =>
+      table.get(rhsRow).map { lhsRow =>
+        val output = lhsRow.createClone()
+        output.mergeWith(rhsRow, state.query)
+        output
+      }
+    }
 
-  private def buildProbeTable(input: Iterator[CypherRow]): mutable.HashMap[IndexedSeq[Long], mutable.MutableList[CypherRow]] = {
-    val table = new mutable.HashMap[IndexedSeq[Long], mutable.MutableList[CypherRow]]
+    new ReleasingIterator(result, state.query.resources, () => {
+      table.close()
+      memoryTracker.close()
+    })
+  }
 
-    for {context <- input
-         joinKey <- computeKey(context)} {
-      val seq = table.getOrElseUpdate(joinKey, mutable.MutableList.empty)
-      seq += context
+  private def buildProbeTable(input: Iterator[CypherRow], table: JoinTable): Unit = {
+    while (input.hasNext) {
+      table.put(input.next())
     }
-
-    table
   }
 
   private val cachedVariables = nodeVariables.toIndexedSeq
 
+  private def nodeId(context: CypherRow, variable: String): Long =
+    context.getByName(variable) match {
+      case n: VirtualNodeValue => n.id()
+      case IsNoValue() => -1L
+      case _ => throw new CypherTypeException("Created a plan that uses non-nodes when expecting a node")
+    }
+
   private def computeKey(context: CypherRow): Option[IndexedSeq[Long]] = {
     val key = new Array[Long](cachedVariables.length)
 
     for (idx <- cachedVariables.indices) {
-      key(idx) = context.getByName(cachedVariables(idx)) match {
-        case n: VirtualNodeValue => n.id()
-        case IsNoValue() => return None
-        case _ => throw new CypherTypeException("Created a plan that uses non-nodes when expecting a node")
+      key(idx) = nodeId(context, cachedVariables(idx))
+      if (key(idx) == -1L) {
+        return None
       }
     }
     Some(key.toIndexedSeq)
   }
+
+  /**
+   * The rows of the left hand side by their join key. Rows with a null join key are left out.
+   */
+  private sealed trait JoinTable extends AutoCloseable {
+    def put(row: CypherRow): Unit
+
+    def get(row: CypherRow): Iterator[CypherRow]
+
+    def isEmpty: Boolean
+  }
+
+  private class SingleNodeTable(table: LongProbeTable[CypherRow]) extends JoinTable {
+    private val variable = cachedVariables.head
+    private var empty = true
+
+    override def put(row: CypherRow): Unit = {
+      val node = nodeId(row, variable)
+      if (node != -1L) {
+        table.put(node, row)
+        empty = false
+      }
+    }
+
+    override def get(row: CypherRow): Iterator[CypherRow] = {
+      val node = nodeId(row, variable)
+      if (node == -1L) Iterator.empty else table.get(node).asScala
+    }
+
+    override def isEmpty: Boolean = empty
+
+    override def close(): Unit = table.close()
+  }
+
+  private class NodesTable(table: org.neo4j.kernel.impl.util.collection.ProbeTable[IndexedSeq[Long], CypherRow]) extends JoinTable {
+    override def put(row: CypherRow): Unit = computeKey(row).foreach(key => table.put(key, row))
+
+    override def get(row: CypherRow): Iterator[CypherRow] = computeKey(row).map(key => table.get(key).asScala).getOrElse(Iterator.empty)
+
+    override def isEmpty: Boolean = table.isEmpty
+
+    override def close(): Unit = table.close()
+  }
 }
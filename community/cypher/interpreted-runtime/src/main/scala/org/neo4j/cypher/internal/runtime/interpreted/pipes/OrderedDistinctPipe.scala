@@ -20,6 +20,7 @@
 package org.neo4j.cypher.internal.runtime.interpreted.pipes
 
 import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.interpreted.VariableSlots
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.DistinctPipe.GroupingCol
 import org.neo4j.cypher.internal.util.attribution.Id
 import org.neo4j.values.AnyValue
@@ -54,7 +55,7 @@ case class OrderedDistinctPipe(source: Pipe, groupingColumns: Array[GroupingCol]
     input.filter { ctx =>
       var i = 0
       while (i < groupingColumns.length) {
-        ctx.set(groupingColumns(i).key, groupingColumns(i).expression(ctx, state))
+        VariableSlots.set(ctx, groupingColumns(i).key, groupingColumns(i).offset, groupingColumns(i).expression(ctx, state))
         i += 1
       }
 
@@ -106,7 +107,7 @@ case class AllOrderedDistinctPipe(source: Pipe, groupingColumns: Array[GroupingC
     input.filter { ctx =>
       var i = 0
       while (i < groupingColumns.length) {
-        ctx.set(groupingColumns(i).key, groupingColumns(i).expression(ctx, state))
+        VariableSlots.set(ctx, groupingColumns(i).key, groupingColumns(i).offset, groupingColumns(i).expression(ctx, state))
         i += 1
       }
       val groupingValue = VirtualValues.list(keyNames.map(ctx.getByName): _*)
@@ -28,9 +28,12 @@ import org.neo4j.cypher.internal.runtime.QueryContext
 import org.neo4j.cypher.internal.runtime.QueryMemoryTracker
 import org.neo4j.cypher.internal.runtime.QueryStatistics
 import org.neo4j.cypher.internal.runtime.ReadableRow
+import org.neo4j.cypher.internal.runtime.interpreted.ArrayCypherRow
+import org.neo4j.cypher.internal.runtime.interpreted.VariableSlots
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.PathValueBuilder
 import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.InCheckContainer
 import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.SingleThreadedLRUCache
+import org.neo4j.exceptions.InternalException
 import org.neo4j.internal.kernel.api.IndexReadSession
 import org.neo4j.kernel.impl.query.QuerySubscriber
 import org.neo4j.values.AnyValue
@@ -121,6 +124,15 @@ trait ExecutionContextFactory {
                key1: String, value1: AnyValue,
                key2: String, value2: AnyValue,
                key3: String, value3: AnyValue): CypherRow
+
+  /**
+   * Like `copyWith(row, key, value)`, with the offset of the variable resolved when the pipe was built, see [[VariableSlots]].
+   * Rows without slots ignore the offset.
+   */
+  def copyWithAt(row: ReadableRow, offset: Int, key: String, value: AnyValue): CypherRow = copyWith(row, key, value)
+
+  def copyWithAt(row: ReadableRow, offset1: Int, key1: String, value1: AnyValue, offset2: Int, key2: String, value2: AnyValue): CypherRow =
+    copyWith(row, key1, value1, key2, value2)
 }
 
 case class CommunityExecutionContextFactory() extends ExecutionContextFactory {
@@ -181,3 +193,31 @@ case class CommunityExecutionContextFactory() extends ExecutionContextFactory {
       x
   }
 }
+
+case class VariableSlotsExecutionContextFactory(slots: VariableSlots) extends ExecutionContextFactory {
+
+  override def newExecutionContext(): CypherRow = slots.newRow()
+
+  override def copyWith(init: ReadableRow): CypherRow = asArrayRow(init).createClone()
+
+  override def copyWith(row: ReadableRow, newEntries: Seq[(String, AnyValue)]): CypherRow = asArrayRow(row).copyWith(newEntries)
+
+  override def copyWith(row: ReadableRow, key: String, value: AnyValue): CypherRow = asArrayRow(row).copyWith(key, value)
+
+  override def copyWith(row: ReadableRow, key1: String, value1: AnyValue, key2: String, value2: AnyValue): CypherRow =
+    asArrayRow(row).copyWith(key1, value1, key2, value2)
+
+  override def copyWith(row: ReadableRow, key1: String, value1: AnyValue, key2: String, value2: AnyValue, key3: String, value3: AnyValue): CypherRow =
+    asArrayRow(row).copyWith(key1, value1, key2, value2, key3, value3)
+
+  override def copyWithAt(row: ReadableRow, offset: Int, key: String, value: AnyValue): CypherRow =
+    asArrayRow(row).copyWithAt(offset, key, value)
+
+  override def copyWithAt(row: ReadableRow, offset1: Int, key1: String, value1: AnyValue, offset2: Int, key2: String, value2: AnyValue): CypherRow =
+    asArrayRow(row).copyWithAt(offset1, key1, value1, offset2, key2, value2)
+
+  private def asArrayRow(row: ReadableRow): ArrayCypherRow = row match {
+    case arrayRow: ArrayCypherRow => arrayRow
+    case _ => throw new InternalException(s"Expected a row with variable slots but got $row")
+  }
+}
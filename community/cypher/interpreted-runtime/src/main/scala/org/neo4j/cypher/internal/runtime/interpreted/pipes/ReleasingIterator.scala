@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.neo4j.cypher.internal.runtime.ResourceManager
+import org.neo4j.internal.kernel.api.AutoCloseablePlus
+import org.neo4j.internal.kernel.api.DefaultCloseListenable
+
+/**
+ * Iterates over `inner`, and calls `release` to give back what was held to produce it, like the memory of a hash
+ * table. That happens once `inner` is exhausted, or when `resources` are closed at the end of the query, whichever
+ * comes first. So iterators that are never exhausted, like under a limit or on the right hand side of an apply, do not
+ * hold on to what they were given for longer than the query.
+ */
+class ReleasingIterator[T](inner: Iterator[T], resources: ResourceManager, release: () => Unit)
+  extends DefaultCloseListenable with Iterator[T] with AutoCloseablePlus {
+
+  private var closed = false
+  resources.trace(this)
+
+  override def hasNext: Boolean = {
+    val hasNext = !closed && inner.hasNext
+    if (!hasNext) {
+      close()
+    }
+    hasNext
+  }
+
+  override def next(): T = inner.next()
+
+  override def close(): Unit = {
+    if (!closed) {
+      closeInternal()
+      val listener = closeListener
+      if (listener != null) listener.onClosed(this)
+    }
+  }
+
+  override def closeInternal(): Unit = {
+    if (!closed) {
+      closed = true
+      release()
+    }
+  }
+
+  override def isClosed: Boolean = closed
+}
@@ -22,10 +22,11 @@ package org.neo4j.cypher.internal.runtime.interpreted.pipes
 import org.neo4j.cypher.internal.runtime.CypherRow
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
 import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.memory.MemoryTracker
 import org.neo4j.values.AnyValue
 import org.neo4j.values.storable.Values
 
-import scala.collection.mutable
+import scala.collection.JavaConverters.asScalaIteratorConverter
 
 case class ValueHashJoinPipe(lhsExpression: Expression, rhsExpression: Expression, left: Pipe, right: Pipe)
                             (val id: Id = Id.INVALID_ID)
@@ -41,32 +42,38 @@ case class ValueHashJoinPipe(lhsExpression: Expression, rhsExpression: Expressio
     if (rhsIterator.isEmpty)
       return Iterator.empty
 
-    val table = buildProbeTable(input, state)
+    // The table is accounted to this operator until all output rows are produced or the query ends,
+    // the rows in it for the whole query
+    val memoryTracker = state.memoryTracker.memoryTrackerForOperator(id.x)
+    val table = buildProbeTable(state.memoryTracker.memoryTrackingIterator(input, id.x), state, memoryTracker)
 
-    if (table.isEmpty)
+    if (table.isEmpty) {
+      table.close()
+      memoryTracker.close()
       return Iterator.empty
+    }
 
     val result = for {rhsRow <- rhsIterator
-                      joinKey = rhsExpression(rhsRow, state) if !(joinKey eq Values.NO_VALUE) }
+                      joinKey = rhsExpression(rhsRow, state) if !(joinKey eq Values.NO_VALUE)
+                      lhsRow <- table.get(joinKey).asScala}
       yield {
-        val lhsRows = table.getOrElse(joinKey, mutable.MutableList.empty)
-        lhsRows.map { lhsRow =>
-          val outputRow = lhsRow.createClone()
-          outputRow.mergeWith(rhsRow, state.query)
-          outputRow
-        }
+        val outputRow = lhsRow.createClone()
+        outputRow.mergeWith(rhsRow, state.query)
+        outputRow
       }
 
-    result.flatten
+    new ReleasingIterator(result, state.query.resources, () => {
+      table.close()
+      memoryTracker.close()
+    })
   }
 
-  private def buildProbeTable(input: Iterator[CypherRow], state: QueryState) = {
-    val table = new mutable.HashMap[AnyValue, mutable.MutableList[CypherRow]]
+  private def buildProbeTable(input: Iterator[CypherRow], state: QueryState, memoryTracker: MemoryTracker) = {
+    val table = org.neo4j.kernel.impl.util.collection.ProbeTable.createProbeTable[AnyValue, CypherRow](memoryTracker)
 
     for (context <- input;
-         joinKey = lhsExpression(context, state) if joinKey != null) {
-      val seq = table.getOrElseUpdate(joinKey, mutable.MutableList.empty)
-      seq += context
+         joinKey = lhsExpression(context, state) if joinKey != null && !(joinKey eq Values.NO_VALUE)) {
+      table.put(joinKey, context)
     }
 
     table
@@ -22,11 +22,12 @@ package org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation
 import org.neo4j.cypher.internal.runtime.CypherRow
 import org.neo4j.cypher.internal.runtime.IsNoValue
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.NodeBatch
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
 import org.neo4j.values.AnyValue
 import org.neo4j.values.storable.Values
 
-class CountFunction(value: Expression) extends AggregationFunction {
+class CountFunction(value: Expression) extends AggregationFunction with BatchAggregationFunction {
   var count: Long = 0
 
   override def apply(data: CypherRow, state: QueryState) {
@@ -36,6 +37,21 @@ class CountFunction(value: Expression) extends AggregationFunction {
     }
   }
 
+  override def applyBatch(batch: NodeBatch, column: Int, state: QueryState): Unit = {
+    if (column == NodeBatch.NODES) {
+      count += batch.size
+    } else {
+      val values = batch.properties(column)
+      var i = 0
+      while (i < batch.size) {
+        if (!(values(i) eq Values.NO_VALUE)) {
+          count += 1
+        }
+        i += 1
+      }
+    }
+  }
+
   override def recordMemoryDeallocation(state: QueryState): Unit = ()
 
   override def result(state: QueryState): AnyValue = Values.longValue(count)
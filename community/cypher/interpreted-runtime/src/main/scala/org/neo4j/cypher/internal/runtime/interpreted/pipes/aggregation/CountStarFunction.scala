@@ -20,17 +20,22 @@
 package org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation
 
 import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.NodeBatch
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
 import org.neo4j.values.AnyValue
 import org.neo4j.values.storable.Values
 
-class CountStarFunction extends AggregationFunction {
+class CountStarFunction extends AggregationFunction with BatchAggregationFunction {
   var count:Long = 0
 
   override def apply(data: CypherRow, state: QueryState) {
     count += 1
   }
 
+  override def applyBatch(batch: NodeBatch, column: Int, state: QueryState): Unit = {
+    count += batch.size
+  }
+
   override def result(state: QueryState): AnyValue = Values.longValue(count)
 
   override def recordMemoryDeallocation(state: QueryState): Unit = ()
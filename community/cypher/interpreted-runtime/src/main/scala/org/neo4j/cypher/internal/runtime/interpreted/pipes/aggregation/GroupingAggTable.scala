@@ -20,6 +20,7 @@
 package org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation
 
 import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.interpreted.VariableSlots
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.AggregatingCol
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.AggregationTable
@@ -28,6 +29,7 @@ import org.neo4j.cypher.internal.runtime.interpreted.pipes.DistinctPipe.Grouping
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.ExecutionContextFactory
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
 import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.memory.HeapEstimator.shallowSizeOfObjectArray
 import org.neo4j.values.AnyValue
 
 /**
@@ -46,11 +48,14 @@ class GroupingAggTable(groupingColumns: Array[GroupingCol],
 
   protected var resultMap: java.util.LinkedHashMap[AnyValue, Array[AggregationFunction]] = _
   protected val addKeys: (CypherRow, AnyValue) => Unit = AggregationPipe.computeAddKeysToResultRowFunction(groupingColumns)
+  // heap used by every group next to its key: the entry of the map and the array of aggregation functions
+  private val groupOverhead = GroupingAggTable.ENTRY_SIZE + shallowSizeOfObjectArray(aggregations.length)
 
   override def clear(): Unit = {
     if (resultMap != null) {
       resultMap.forEach { (key, functions) =>
         state.memoryTracker.deallocated(key, operatorId.x)
+        state.memoryTracker.deallocated(groupOverhead, operatorId.x)
         functions.foreach(_.recordMemoryDeallocation(state))
       }
     }
@@ -61,6 +66,7 @@ class GroupingAggTable(groupingColumns: Array[GroupingCol],
     val groupingValue: AnyValue = groupingFunction(row, state)
     val aggregationFunctions = resultMap.computeIfAbsent(groupingValue, _ => {
       state.memoryTracker.allocated(groupingValue, operatorId.x)
+      state.memoryTracker.allocated(groupOverhead, operatorId.x)
       val functions = new Array[AggregationFunction](aggregations.length)
       var i = 0
       while (i < aggregations.length) {
@@ -89,7 +95,7 @@ class GroupingAggTable(groupingColumns: Array[GroupingCol],
         addKeys(row, unorderedGroupingValue)
         var i = 0
         while (i < aggregateFunctions.length) {
-          row.set(aggregations(i).key, aggregateFunctions(i).result(state))
+          VariableSlots.set(row, aggregations(i).key, aggregations(i).offset, aggregateFunctions(i).result(state))
           i += 1
         }
         row
@@ -102,6 +108,9 @@ class GroupingAggTable(groupingColumns: Array[GroupingCol],
 
 object GroupingAggTable {
 
+  // java.util.LinkedHashMap.Entry is not accessible: object header, hash, five references and a slot in the table
+  private val ENTRY_SIZE = 48L
+
   case class Factory(groupingColumns: Array[GroupingCol],
                      groupingFunction: (CypherRow, QueryState) => AnyValue,
                      aggregations: Array[AggregatingCol]) extends AggregationTableFactory {
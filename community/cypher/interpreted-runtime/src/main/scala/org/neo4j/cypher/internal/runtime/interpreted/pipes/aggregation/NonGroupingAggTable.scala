@@ -20,10 +20,12 @@
 package org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation
 
 import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.interpreted.VariableSlots
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.AggregatingCol
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.AggregationTable
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.AggregationTableFactory
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.ExecutionContextFactory
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.NodeBatch
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
 import org.neo4j.cypher.internal.util.attribution.Id
 
@@ -54,6 +56,19 @@ class NonGroupingAggTable(aggregations: Array[AggregatingCol],
     }
   }
 
+  /**
+   * Aggregates all nodes of `batch`. Only valid if all aggregation functions are [[BatchAggregationFunction]]s.
+   *
+   * @param columns the column of the batch aggregated by each aggregation function
+   */
+  def processBatch(batch: NodeBatch, columns: Array[Int]): Unit = {
+    var i = 0
+    while (i < aggregationFunctions.length) {
+      aggregationFunctions(i).asInstanceOf[BatchAggregationFunction].applyBatch(batch, columns(i), state)
+      i += 1
+    }
+  }
+
   override def result(): Iterator[CypherRow] = {
     Iterator.single(resultRow())
   }
@@ -62,7 +77,7 @@ class NonGroupingAggTable(aggregations: Array[AggregatingCol],
     val row = state.newExecutionContext(executionContextFactory)
     var i = 0
     while (i < aggregationFunctions.length) {
-      row.set(aggregations(i).key, aggregationFunctions(i).result(state))
+      VariableSlots.set(row, aggregations(i).key, aggregations(i).offset, aggregationFunctions(i).result(state))
       i += 1
     }
     row
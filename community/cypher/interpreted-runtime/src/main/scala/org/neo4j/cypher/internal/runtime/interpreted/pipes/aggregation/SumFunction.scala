@@ -21,6 +21,7 @@ package org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation
 
 import org.neo4j.cypher.internal.runtime.CypherRow
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.NodeBatch
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
 import org.neo4j.exceptions.InternalException
 import org.neo4j.values.AnyValue
@@ -28,7 +29,8 @@ import org.neo4j.values.utils.ValueMath.overflowSafeAdd
 
 class SumFunction(val value: Expression)
   extends AggregationFunction
-  with NumericOrDurationAggregationExpression {
+  with NumericOrDurationAggregationExpression
+  with BatchAggregationFunction {
 
   def name = "SUM"
 
@@ -46,7 +48,19 @@ class SumFunction(val value: Expression)
   override def recordMemoryDeallocation(state: QueryState): Unit = ()
 
   override def apply(data: CypherRow, state: QueryState) {
-    val vl = value(data, state)
+    add(value(data, state))
+  }
+
+  override def applyBatch(batch: NodeBatch, column: Int, state: QueryState): Unit = {
+    val values = batch.properties(column)
+    var i = 0
+    while (i < batch.size) {
+      add(values(i))
+      i += 1
+    }
+  }
+
+  private def add(vl: AnyValue): Unit = {
     actOnNumberOrDuration(vl,
       number => {
         sumNumber = overflowSafeAdd(sumNumber, number)
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted
+
+import org.neo4j.cypher.internal.expressions.CachedProperty
+import org.neo4j.cypher.internal.expressions.NODE_TYPE
+import org.neo4j.cypher.internal.expressions.PropertyKeyName
+import org.neo4j.cypher.internal.expressions.Variable
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.VariableFromSlot
+import org.neo4j.cypher.internal.util.InputPosition
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.graphdb.NotFoundException
+import org.neo4j.values.storable.BooleanValue
+import org.neo4j.values.storable.Values
+
+class ArrayCypherRowTest extends CypherFunSuite {
+
+  private val slots = VariableSlots("key1", "key2", "key3")
+
+  test("set and get variables with and without slot") {
+    // given
+    val row = slots.newRow()
+
+    // when
+    row.set("key2", BooleanValue.TRUE, "noSlot", BooleanValue.FALSE)
+
+    // then
+    row.getByName("key2") should equal(BooleanValue.TRUE)
+    row.getRefAt(slots.offsetFor("key2")) should equal(BooleanValue.TRUE)
+    row.getByName("noSlot") should equal(BooleanValue.FALSE)
+    row.containsName("key1") shouldBe false
+    row.numberOfColumns should equal(2)
+    row.toMap should equal(Map("key2" -> BooleanValue.TRUE, "noSlot" -> BooleanValue.FALSE))
+  }
+
+  test("get unset variable should fail") {
+    val row = slots.newRow()
+
+    a[NotFoundException] should be thrownBy row.getByName("key1")
+    a[NotFoundException] should be thrownBy row.getByName("noSlot")
+  }
+
+  test("isNull") {
+    val row = slots.newRow()
+    row.set("key1", Values.NO_VALUE, "key2", BooleanValue.TRUE)
+
+    row.isNull("key1") shouldBe true
+    row.isNull("key2") shouldBe false
+    row.isNull("key3") shouldBe false
+  }
+
+  test("create clone") {
+    // given
+    val row = slots.newRow().copyWith("key1", BooleanValue.FALSE)
+
+    // when
+    val rowClone = row.createClone()
+
+    // then
+    rowClone.getByName("key1") should equal(BooleanValue.FALSE)
+    rowClone should equal(row)
+    rowClone should not be theSameInstanceAs(row)
+
+    mutatingLeftDoesNotAffectRight(row, rowClone)
+  }
+
+  test("copy with many keys") {
+    // given
+    val row = slots.newRow()
+
+    // when
+    val newRow = row.copyWith(Seq(("key1", BooleanValue.FALSE), ("key3", BooleanValue.TRUE), ("noSlot", BooleanValue.TRUE)))
+
+    // then
+    newRow.getByName("key1") should equal(BooleanValue.FALSE)
+    newRow.getByName("key3") should equal(BooleanValue.TRUE)
+    newRow.getByName("noSlot") should equal(BooleanValue.TRUE)
+    row.numberOfColumns should equal(0)
+
+    mutatingLeftDoesNotAffectRight(row, newRow)
+  }
+
+  test("mergeWith should keep variables not set in other row") {
+    // given
+    val cachedPropertyKey = prop("n", "key")
+    val lhs = slots.newRow().copyWith("key1", BooleanValue.FALSE, "key2", BooleanValue.FALSE)
+    val rhs = slots.newRow().copyWith("key2", BooleanValue.TRUE, "noSlot", BooleanValue.TRUE)
+    rhs.setCachedProperty(cachedPropertyKey, BooleanValue.TRUE)
+
+    // when
+    lhs.mergeWith(rhs, null)
+
+    // then
+    lhs.getByName("key1") should equal(BooleanValue.FALSE)
+    lhs.getByName("key2") should equal(BooleanValue.TRUE)
+    lhs.getByName("noSlot") should equal(BooleanValue.TRUE)
+    lhs.getCachedProperty(cachedPropertyKey) should equal(BooleanValue.TRUE)
+
+    mutatingLeftDoesNotAffectRight(rhs, lhs)
+  }
+
+  test("variables with a slot should be read from their slot") {
+    // given
+    val row = slots.newRow().copyWith("key3", BooleanValue.TRUE)
+
+    // when
+    val resolved = slots.resolveVariables(expressions.Variable("key3"))
+    val unresolved = slots.resolveVariables(expressions.Variable("noSlot"))
+
+    // then
+    resolved should equal(VariableFromSlot(slots.offsetFor("key3"), "key3"))
+    resolved(row, QueryStateHelper.empty) should equal(BooleanValue.TRUE)
+    unresolved should equal(expressions.Variable("noSlot"))
+  }
+
+  test("copy with variables at resolved offsets") {
+    // given
+    val row = slots.newRow().copyWith("key1", BooleanValue.FALSE)
+
+    // when
+    val newRow = row.copyWithAt(slots.offsetFor("key2"), "key2", BooleanValue.TRUE, VariableSlots.NO_SLOT, "noSlot", BooleanValue.TRUE)
+
+    // then
+    newRow.toMap should equal(Map("key1" -> BooleanValue.FALSE, "key2" -> BooleanValue.TRUE, "noSlot" -> BooleanValue.TRUE))
+    row.toMap should equal(Map("key1" -> BooleanValue.FALSE))
+
+    mutatingLeftDoesNotAffectRight(row, newRow)
+  }
+
+  test("get and set at resolved offsets should fall back to names") {
+    // given
+    val arrayRow = slots.newRow()
+    val mapRow = CypherRow.empty
+
+    // when
+    VariableSlots.set(arrayRow, "key3", slots.offsetFor("key3"), BooleanValue.TRUE)
+    VariableSlots.set(arrayRow, "noSlot", VariableSlots.NO_SLOT, BooleanValue.FALSE)
+    VariableSlots.set(mapRow, "key3", slots.offsetFor("key3"), BooleanValue.TRUE)
+
+    // then
+    arrayRow.getRefAt(slots.offsetFor("key3")) should equal(BooleanValue.TRUE)
+    VariableSlots.get(arrayRow, "key3", slots.offsetFor("key3")) should equal(BooleanValue.TRUE)
+    VariableSlots.get(arrayRow, "noSlot", VariableSlots.NO_SLOT) should equal(BooleanValue.FALSE)
+    VariableSlots.get(mapRow, "key3", slots.offsetFor("key3")) should equal(BooleanValue.TRUE)
+    a[NotFoundException] should be thrownBy VariableSlots.get(arrayRow, "key1", slots.offsetFor("key1"))
+  }
+
+  private def mutatingLeftDoesNotAffectRight(left: ArrayCypherRow, right: ArrayCypherRow): Unit = {
+    // given
+    left should not be theSameInstanceAs(right)
+    val rightBefore = right.toMap
+    val newCachedPropertyKey = prop("n", "this key should not yet exist in left or right")
+    right.getCachedProperty(newCachedPropertyKey) shouldBe null
+
+    // when (left is modified)
+    left.set("key1", Values.stringValue("left"), "otherNoSlot", BooleanValue.TRUE)
+    left.setCachedProperty(newCachedPropertyKey, BooleanValue.FALSE)
+
+    // then (only left should be modified)
+    right.toMap should equal(rightBefore)
+    right.getCachedProperty(newCachedPropertyKey) shouldBe null
+  }
+
+  private def prop(node: String, prop: String) =
+    CachedProperty(node, Variable(node)(InputPosition.NONE), PropertyKeyName(prop)(InputPosition.NONE), NODE_TYPE)(InputPosition.NONE)
+}
@@ -27,6 +27,8 @@ import org.neo4j.cypher.internal.runtime.CypherRow
 import org.neo4j.cypher.internal.runtime.ExpressionCursors
 import org.neo4j.cypher.internal.runtime.NoMemoryTracker
 import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.QueryMemoryTracker
+import org.neo4j.cypher.internal.runtime.ResourceManager
 import org.neo4j.cypher.internal.runtime.interpreted.TransactionBoundQueryContext.IndexSearchMonitor
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.ExternalCSVResource
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.NullPipeDecorator
@@ -61,11 +63,18 @@ object QueryStateHelper extends MockitoSugar {
                 expressionVariables: Array[AnyValue] = Array.empty,
                 subscriber: QuerySubscriber = QuerySubscriber.DO_NOTHING_SUBSCRIBER,
                 decorator: PipeDecorator = NullPipeDecorator,
-                initialContext: Option[CypherRow] = None
+                initialContext: Option[CypherRow] = None,
+                memoryTracker: QueryMemoryTracker = NoMemoryTracker
                ):QueryState =
-    new QueryState(query, resources, params, expressionCursors, queryIndexes, expressionVariables, subscriber, NoMemoryTracker,
+    new QueryState(query, resources, params, expressionCursors, queryIndexes, expressionVariables, subscriber, memoryTracker,
       decorator, initialContext = initialContext)
 
+  def emptyWithResourceManager(resourceManager: ResourceManager, memoryTracker: QueryMemoryTracker = NoMemoryTracker): QueryState = {
+    val query = mock[QueryContext]
+    Mockito.when(query.resources).thenReturn(resourceManager)
+    emptyWith(query = query, memoryTracker = memoryTracker)
+  }
+
   def queryStateFrom(db: GraphDatabaseQueryService,
                      tx: InternalTransaction,
                      params: Array[AnyValue] = Array.empty,
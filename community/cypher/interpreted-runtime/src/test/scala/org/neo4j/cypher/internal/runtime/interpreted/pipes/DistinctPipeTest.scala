@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.mockito.Mockito.when
+import org.neo4j.cypher.internal.runtime.BoundedMemoryTracker
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.ResourceManager
+import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Variable
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.DistinctPipe.GroupingCol
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.memory.LocalMemoryTracker
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.Values.intValue
+import org.neo4j.values.storable.Values.stringValue
+import org.neo4j.values.virtual.VirtualValues.node
+import org.neo4j.values.virtual.VirtualValues.relationship
+
+class DistinctPipeTest extends CypherFunSuite {
+
+  test("should keep distinct nodes, relationships and values of a single column") {
+    // given
+    val queryState = QueryStateHelper.emptyWithResourceManager(new ResourceManager)
+
+    val source = mock[Pipe]
+    when(source.createResults(queryState)).thenReturn(rows("a",
+      node(1), node(2), node(1), relationship(1), relationship(1), intValue(1), stringValue("1"), intValue(1)))
+
+    // when
+    val result = DistinctPipe(source, Array(GroupingCol("x", Variable("a"))))().createResults(queryState)
+
+    // then
+    result.map(_.getByName("x")).toList should equal(List(node(1), node(2), relationship(1), intValue(1), stringValue("1")))
+  }
+
+  test("should keep distinct combinations of multiple columns") {
+    // given
+    val queryState = QueryStateHelper.emptyWithResourceManager(new ResourceManager)
+
+    val source = mock[Pipe]
+    when(source.createResults(queryState)).thenReturn(Iterator(
+      row("a" -> node(1), "b" -> node(2)),
+      row("a" -> node(2), "b" -> node(1)),
+      row("a" -> node(1), "b" -> node(2)),
+      row("a" -> node(1), "b" -> relationship(2))))
+
+    // when
+    val result = DistinctPipe(source, Array(GroupingCol("x", Variable("a")), GroupingCol("y", Variable("b"))))().createResults(queryState)
+
+    // then
+    result.map(r => (r.getByName("x"), r.getByName("y"))).toList should equal(List(
+      (node(1), node(2)),
+      (node(2), node(1)),
+      (node(1), relationship(2))))
+  }
+
+  test("should release the seen set once all rows are produced") {
+    // given
+    val resourceManager = new ResourceManager
+    val transactionMemoryTracker = new LocalMemoryTracker()
+    val queryState = QueryStateHelper.emptyWithResourceManager(resourceManager, new BoundedMemoryTracker(transactionMemoryTracker))
+
+    val source = mock[Pipe]
+    when(source.createResults(queryState)).thenReturn(rows("a", node(1), node(2), node(1)))
+
+    // when
+    val result = DistinctPipe(source, Array(GroupingCol("x", Variable("a"))))().createResults(queryState)
+    result.next()
+    val heapWithSet = transactionMemoryTracker.estimatedHeapMemory()
+    result.size should equal(1)
+
+    // then
+    transactionMemoryTracker.estimatedHeapMemory() should be < heapWithSet
+    resourceManager.allResources shouldBe empty
+  }
+
+  test("should release the seen set when the query ends before all rows are produced") {
+    // given
+    val resourceManager = new ResourceManager
+    val transactionMemoryTracker = new LocalMemoryTracker()
+    val queryState = QueryStateHelper.emptyWithResourceManager(resourceManager, new BoundedMemoryTracker(transactionMemoryTracker))
+
+    val source = mock[Pipe]
+    when(source.createResults(queryState)).thenReturn(rows("a", node(1), node(2), node(3)))
+
+    // when
+    val result = DistinctPipe(source, Array(GroupingCol("x", Variable("a"))))().createResults(queryState)
+    result.next()
+    val heapWithSet = transactionMemoryTracker.estimatedHeapMemory()
+    resourceManager.close()
+
+    // then
+    transactionMemoryTracker.estimatedHeapMemory() should be < heapWithSet
+    result.hasNext shouldBe false
+  }
+
+  private def row(values: (String, AnyValue)*) = CypherRow.from(values: _*)
+
+  private def rows(variable: String, values: AnyValue*): Iterator[CypherRow] =
+    values.map(x => CypherRow.from(variable -> x)).iterator
+}
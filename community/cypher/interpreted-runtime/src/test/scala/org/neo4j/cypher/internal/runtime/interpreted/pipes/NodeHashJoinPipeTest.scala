@@ -23,13 +23,19 @@ import org.mockito.ArgumentMatchers.any
 import org.mockito.Mockito.never
 import org.mockito.Mockito.verify
 import org.mockito.Mockito.when
+import org.neo4j.cypher.internal.runtime.BoundedMemoryTracker
 import org.neo4j.cypher.internal.runtime.CypherRow
 import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
 import org.neo4j.cypher.internal.runtime.ImplicitValueConversion.toNodeValue
+import org.neo4j.cypher.internal.runtime.ResourceManager
 import org.neo4j.cypher.internal.runtime.interpreted.TestableIterator
 import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
 import org.neo4j.graphdb.Node
+import org.neo4j.memory.LocalMemoryTracker
 import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.Values.NO_VALUE
+import org.neo4j.values.storable.Values.intValue
+import org.neo4j.values.virtual.VirtualValues.node
 
 class NodeHashJoinPipeTest extends CypherFunSuite {
 
@@ -91,6 +97,98 @@ class NodeHashJoinPipeTest extends CypherFunSuite {
     lhsIterator.fetched should equal(0)
   }
 
+  test("should join on a single node") {
+    // given
+    val queryState = QueryStateHelper.emptyWithResourceManager(new ResourceManager)
+
+    val left = mock[Pipe]
+    when(left.createResults(queryState)).thenReturn(Iterator(
+      row("b" -> node(1), "a" -> intValue(1)),
+      row("b" -> node(2), "a" -> intValue(2)),
+      row("b" -> node(2), "a" -> intValue(3)),
+      row("b" -> NO_VALUE, "a" -> intValue(4))))
+
+    val right = mock[Pipe]
+    when(right.createResults(queryState)).thenReturn(Iterator(
+      row("b" -> node(2), "c" -> intValue(1)),
+      row("b" -> node(3), "c" -> intValue(2)),
+      row("b" -> NO_VALUE, "c" -> intValue(3))))
+
+    // when
+    val result = NodeHashJoinPipe(Set("b"), left, right)().createResults(queryState)
+
+    // then
+    result.map(_.getByName("a")).toSet should equal(Set(intValue(2), intValue(3)))
+  }
+
+  test("should join on multiple nodes") {
+    // given
+    val queryState = QueryStateHelper.emptyWithResourceManager(new ResourceManager)
+
+    val left = mock[Pipe]
+    when(left.createResults(queryState)).thenReturn(Iterator(
+      row("a" -> node(1), "b" -> node(2)),
+      row("a" -> node(1), "b" -> node(3)),
+      row("a" -> NO_VALUE, "b" -> node(2))))
+
+    val right = mock[Pipe]
+    when(right.createResults(queryState)).thenReturn(Iterator(
+      row("a" -> node(1), "b" -> node(2), "c" -> intValue(1)),
+      row("a" -> node(2), "b" -> node(1), "c" -> intValue(2))))
+
+    // when
+    val result = NodeHashJoinPipe(Set("a", "b"), left, right)().createResults(queryState)
+
+    // then
+    result.map(_.getByName("c")).toList should equal(List(intValue(1)))
+  }
+
+  test("should release the probe table once all rows are produced") {
+    // given
+    val resourceManager = new ResourceManager
+    val transactionMemoryTracker = new LocalMemoryTracker()
+    val queryState = QueryStateHelper.emptyWithResourceManager(resourceManager, new BoundedMemoryTracker(transactionMemoryTracker))
+
+    val left = mock[Pipe]
+    when(left.createResults(queryState)).thenReturn(Iterator(row("b" -> node(1)), row("b" -> node(2))))
+
+    val right = mock[Pipe]
+    when(right.createResults(queryState)).thenReturn(Iterator(row("b" -> node(1)), row("b" -> node(2))))
+
+    // when
+    val result = NodeHashJoinPipe(Set("b"), left, right)().createResults(queryState)
+    result.next()
+    val heapWithTable = transactionMemoryTracker.estimatedHeapMemory()
+    result.size should equal(1)
+
+    // then
+    transactionMemoryTracker.estimatedHeapMemory() should be < heapWithTable
+    resourceManager.allResources shouldBe empty
+  }
+
+  test("should release the probe table when the query ends before all rows are produced") {
+    // given
+    val resourceManager = new ResourceManager
+    val transactionMemoryTracker = new LocalMemoryTracker()
+    val queryState = QueryStateHelper.emptyWithResourceManager(resourceManager, new BoundedMemoryTracker(transactionMemoryTracker))
+
+    val left = mock[Pipe]
+    when(left.createResults(queryState)).thenReturn(Iterator(row("b" -> node(1)), row("b" -> node(2))))
+
+    val right = mock[Pipe]
+    when(right.createResults(queryState)).thenReturn(Iterator(row("b" -> node(1)), row("b" -> node(2))))
+
+    // when
+    val result = NodeHashJoinPipe(Set("b"), left, right)().createResults(queryState)
+    result.next()
+    val heapWithTable = transactionMemoryTracker.estimatedHeapMemory()
+    resourceManager.close()
+
+    // then
+    transactionMemoryTracker.estimatedHeapMemory() should be < heapWithTable
+    result.hasNext shouldBe false
+  }
+
   private def row(values: (String, AnyValue)*) = CypherRow.from(values: _*)
 
   private def newMockedNode(id: Int) = {
@@ -23,14 +23,17 @@ import org.mockito.ArgumentMatchers.any
 import org.mockito.Mockito.verify
 import org.mockito.Mockito.when
 import org.mockito.Mockito.never
+import org.neo4j.cypher.internal.runtime.BoundedMemoryTracker
 import org.neo4j.cypher.internal.runtime.CypherRow
 import org.neo4j.cypher.internal.runtime.ImplicitValueConversion.toIntValue
+import org.neo4j.cypher.internal.runtime.ResourceManager
 import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContextHelper.RichExecutionContext
 import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
 import org.neo4j.cypher.internal.runtime.interpreted.TestableIterator
 import org.neo4j.cypher.internal.runtime.interpreted.ValueComparisonHelper.beEquivalentTo
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Variable
 import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.memory.LocalMemoryTracker
 import org.neo4j.values.AnyValue
 import org.neo4j.values.storable.Values.doubleArray
 import org.neo4j.values.storable.Values.intArray
@@ -41,7 +44,7 @@ class ValueHashJoinPipeTest extends CypherFunSuite {
 
   test("should support simple hash join between two identifiers") {
     // given
-    val queryState = QueryStateHelper.empty
+    val queryState = QueryStateHelper.emptyWithResourceManager(new ResourceManager)
 
     val left = mock[Pipe]
     when(left.createResults(queryState)).thenReturn(rows("a", 1, 2))
@@ -58,7 +61,7 @@ class ValueHashJoinPipeTest extends CypherFunSuite {
 
   test("should handle nulls") {
     // given
-    val queryState = QueryStateHelper.empty
+    val queryState = QueryStateHelper.emptyWithResourceManager(new ResourceManager)
 
     val left = mock[Pipe]
     when(left.createResults(queryState)).thenReturn(rows("a", 1, 2, null))
@@ -87,7 +90,7 @@ class ValueHashJoinPipeTest extends CypherFunSuite {
       row("b" -> 2, "b2" -> 3),
       row("b" -> 4, "b2" -> 4))
 
-    val queryState = QueryStateHelper.empty
+    val queryState = QueryStateHelper.emptyWithResourceManager(new ResourceManager)
 
 
     val left = mock[Pipe]
@@ -110,7 +113,7 @@ class ValueHashJoinPipeTest extends CypherFunSuite {
 
   test("should not fetch results from RHS if LHS is empty") {
     // given
-    val queryState = QueryStateHelper.empty
+    val queryState = QueryStateHelper.emptyWithResourceManager(new ResourceManager)
 
     val left = mock[Pipe]
     when(left.createResults(queryState)).thenReturn(Iterator.empty)
@@ -127,7 +130,7 @@ class ValueHashJoinPipeTest extends CypherFunSuite {
 
   test("should not fetch results from RHS if no probe table was built") {
     // given
-    val queryState = QueryStateHelper.empty
+    val queryState = QueryStateHelper.emptyWithResourceManager(new ResourceManager)
 
     val left = mock[Pipe]
     when(left.createResults(queryState)).thenReturn(rows("a", null, null, null))
@@ -147,7 +150,7 @@ class ValueHashJoinPipeTest extends CypherFunSuite {
 
   test("if RHS is empty, terminate building of the probe map early") {
     // given
-    val queryState = QueryStateHelper.empty
+    val queryState = QueryStateHelper.emptyWithResourceManager(new ResourceManager)
 
     val left = mock[Pipe]
 
@@ -170,7 +173,7 @@ class ValueHashJoinPipeTest extends CypherFunSuite {
     val ints = intArray(Array(1, 2, 3))
     val doubles = doubleArray(Array(1.0, 2.0, 3.0))
 
-    val queryState = QueryStateHelper.empty
+    val queryState = QueryStateHelper.emptyWithResourceManager(new ResourceManager)
 
     val left = mock[Pipe]
     when(left.createResults(queryState)).thenReturn(rows("a", ints, intArray(Array(2, 3, 4))))
@@ -186,6 +189,52 @@ class ValueHashJoinPipeTest extends CypherFunSuite {
   }
 
 
+  test("should release the probe table once all rows are produced") {
+    // given
+    val resourceManager = new ResourceManager
+    val transactionMemoryTracker = new LocalMemoryTracker()
+    val queryState = QueryStateHelper.emptyWithResourceManager(resourceManager, new BoundedMemoryTracker(transactionMemoryTracker))
+
+    val left = mock[Pipe]
+    when(left.createResults(queryState)).thenReturn(rows("a", 1, 2, 3))
+
+    val right = mock[Pipe]
+    when(right.createResults(queryState)).thenReturn(rows("b", 2, 3, 4))
+
+    // when
+    val result = ValueHashJoinPipe(Variable("a"), Variable("b"), left, right)().createResults(queryState)
+    result.next()
+    val heapWithTable = transactionMemoryTracker.estimatedHeapMemory()
+    result.size should equal(1)
+
+    // then
+    transactionMemoryTracker.estimatedHeapMemory() should be < heapWithTable
+    resourceManager.allResources shouldBe empty
+  }
+
+  test("should release the probe table when the query ends before all rows are produced") {
+    // given
+    val resourceManager = new ResourceManager
+    val transactionMemoryTracker = new LocalMemoryTracker()
+    val queryState = QueryStateHelper.emptyWithResourceManager(resourceManager, new BoundedMemoryTracker(transactionMemoryTracker))
+
+    val left = mock[Pipe]
+    when(left.createResults(queryState)).thenReturn(rows("a", 1, 2, 3))
+
+    val right = mock[Pipe]
+    when(right.createResults(queryState)).thenReturn(rows("b", 1, 2, 3))
+
+    // when
+    val result = ValueHashJoinPipe(Variable("a"), Variable("b"), left, right)().createResults(queryState)
+    result.next()
+    val heapWithTable = transactionMemoryTracker.estimatedHeapMemory()
+    resourceManager.close()
+
+    // then
+    transactionMemoryTracker.estimatedHeapMemory() should be < heapWithTable
+    result.hasNext shouldBe false
+  }
+
   private def row(values: (String, AnyValue)*) = CypherRow.from(values: _*)
 
   private def rows(variable: String, values: AnyValue*): Iterator[CypherRow] =
@@ -23,6 +23,7 @@ import org.neo4j.cypher.internal.runtime.CypherRow
 import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Variable
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.NodeBatch
 import org.neo4j.values.AnyValue
 
 trait AggregateTest {
@@ -35,4 +36,20 @@ trait AggregateTest {
     values.foreach(value => func(CypherRow.from("x" -> value), state))
     func.result(state)
   }
+
+  def aggregateBatchOn(batchCapacity: Int, values: AnyValue*): Any = {
+    val state = QueryStateHelper.empty
+
+    val func = createAggregator(Variable("x")).asInstanceOf[AggregationFunction with BatchAggregationFunction]
+    val batch = new NodeBatch(batchCapacity, 1)
+    values.grouped(batchCapacity).foreach { batchValues =>
+      batch.clear()
+      batchValues.foreach { value =>
+        batch.properties(0)(batch.size) = value
+        batch.add(batch.size)
+      }
+      func.applyBatch(batch, 0, state)
+    }
+    func.result(state)
+  }
 }
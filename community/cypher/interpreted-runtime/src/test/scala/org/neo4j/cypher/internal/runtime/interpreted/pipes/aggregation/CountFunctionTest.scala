@@ -35,4 +35,11 @@ class CountFunctionTest extends CypherFunSuite with AggregateTest {
     result should equal(intValue(2))
     result shouldBe a [LongValue]
   }
+
+  test("counts batches") {
+    val values = Seq(intValue(1), NO_VALUE, stringValue("foo"), NO_VALUE, intValue(3))
+
+    aggregateBatchOn(2, values: _*) should equal(aggregateOn(values: _*))
+    aggregateBatchOn(8, values: _*) should equal(intValue(3))
+  }
 }
@@ -126,4 +126,15 @@ class SumFunctionTest extends CypherFunSuite with AggregateTest {
     result should equal(longValue(expected))
     result shouldBe a [LongValue]
   }
+
+  test("sums batches") {
+    val values = Seq(intValue(1), NO_VALUE, doubleValue(2.5d), longValue(4), NO_VALUE)
+
+    aggregateBatchOn(2, values: _*) should equal(aggregateOn(values: _*))
+    aggregateBatchOn(8, values: _*) should equal(doubleValue(7.5d))
+  }
+
+  test("batches of durations and numbers throw an exception") {
+    intercept[CypherTypeException](aggregateBatchOn(2, DurationValue.duration(0, 0, 0, 1), intValue(1)))
+  }
 }
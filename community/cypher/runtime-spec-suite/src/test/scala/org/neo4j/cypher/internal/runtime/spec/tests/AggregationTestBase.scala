@@ -944,4 +944,73 @@ abstract class AggregationTestBase[CONTEXT <: RuntimeContext](
 
     runtimeResult should beColumns("name", "c").withRows(expected)
   }
+
+  test("should count and sum filtered node properties the same when profiled") {
+    // given
+    val nNodes = 2500
+    given {
+      nodePropertyGraph(nNodes, {
+        case i: Int if i % 3 != 0 => Map("num" -> i)
+      }, "Honey")
+    }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("c", "cn", "s")
+      .aggregation(Seq.empty, Seq("count(*) AS c", "count(x.num) AS cn", "sum(x.num) AS s"))
+      .filter("x.num % 2 = 0")
+      .filter("x.num > 10")
+      .nodeByLabelScan("x", "Honey")
+      .build()
+
+    // then
+    val nums = (0 until nNodes).filter(i => i % 3 != 0 && i % 2 == 0 && i > 10)
+    val expected = singleRow(nums.size, nums.size, nums.map(_.toLong).sum)
+    execute(logicalQuery, runtime) should beColumns("c", "cn", "s").withRows(expected)
+    val profiled = profile(logicalQuery, runtime)
+    profiled should beColumns("c", "cn", "s").withRows(expected)
+    val queryProfile = profiled.runtimeResult.queryProfile()
+    queryProfile.operatorProfile(3).rows() shouldBe (0 until nNodes).count(i => i % 3 != 0 && i > 10) // filter
+    queryProfile.operatorProfile(4).rows() shouldBe nNodes // label scan
+  }
+
+  test("should count and sum node properties missing on some nodes the same when profiled") {
+    // given
+    val nNodes = 2500
+    given {
+      nodePropertyGraph(nNodes, {
+        case i: Int if i % 3 != 0 => Map("num" -> i)
+      })
+    }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("c", "cn", "s", "cm", "sm")
+      .aggregation(Seq.empty, Seq("count(*) AS c", "count(x.num) AS cn", "sum(x.num) AS s", "count(x.missing) AS cm", "sum(x.missing) AS sm"))
+      .allNodeScan("x")
+      .build()
+
+    // then
+    val nums = (0 until nNodes).filter(_ % 3 != 0)
+    val expected = singleRow(nNodes, nums.size, nums.map(_.toLong).sum, 0, 0)
+    execute(logicalQuery, runtime) should beColumns("c", "cn", "s", "cm", "sm").withRows(expected)
+    profile(logicalQuery, runtime) should beColumns("c", "cn", "s", "cm", "sm").withRows(expected)
+  }
+
+  test("should count and sum nodes of an unknown label the same when profiled") {
+    // given
+    given { nodePropertyGraph(sizeHint, { case i: Int => Map("num" -> i) }, "Honey") }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("c", "cn", "s")
+      .aggregation(Seq.empty, Seq("count(*) AS c", "count(x) AS cn", "sum(x.num) AS s"))
+      .nodeByLabelScan("x", "Unknown")
+      .build()
+
+    // then
+    val expected = singleRow(0, 0, 0)
+    execute(logicalQuery, runtime) should beColumns("c", "cn", "s").withRows(expected)
+    profile(logicalQuery, runtime) should beColumns("c", "cn", "s").withRows(expected)
+  }
 }
@@ -643,7 +643,7 @@ trait FullSupportMemoryManagementTestBase [CONTEXT <: RuntimeContext] {
     // given
     val logicalQuery = new LogicalQueryBuilder(this)
       .produceResults("y")
-      .pruningVarExpand("(x)-[*..1]->(y)")
+      .pruningVarExpand("(x)-[*..5]->(y)")
       .allNodeScan("x")
       .build()
 
@@ -22,6 +22,7 @@ package org.neo4j.cypher.internal.runtime
 import org.eclipse.collections.impl.map.mutable.primitive.IntObjectHashMap
 import org.neo4j.cypher.internal.runtime.BoundedMemoryTracker.OperatorMemoryTracker
 import org.neo4j.cypher.result.OperatorProfile
+import org.neo4j.memory.EmptyMemoryTracker
 import org.neo4j.memory.Measurable
 import org.neo4j.memory.MemoryTracker
 import org.neo4j.memory.OptionalMemoryTracker
@@ -82,6 +83,12 @@ trait QueryMemoryTracker {
     */
   def memoryTrackingIterator[T<: CypherRow](input: Iterator[T], operatorId: Int): Iterator[T]
 
+  /**
+   * Returns a [[MemoryTracker]] that records the heap it is given as allocated by the operator, for use with
+   * memory tracking collections.
+   */
+  def memoryTrackerForOperator(operatorId: Int): MemoryTracker
+
   /**
     * Get the total allocated memory of this query, in bytes.
     *
@@ -124,6 +131,8 @@ case object NoMemoryTracker extends QueryMemoryTracker {
 
   override def memoryTrackingIterator[T](input: Iterator[T], operatorId: Int): Iterator[T] = input
 
+  override def memoryTrackerForOperator(operatorId: Int): MemoryTracker = EmptyMemoryTracker.INSTANCE
+
   override def allocated(value: AnyValue, operatorId: Int): Unit = {}
 
   override def allocated(bytes: Long, operatorId: Int): Unit = {}
@@ -195,6 +204,51 @@ class BoundedMemoryTracker(transactionMemoryTracker: MemoryTracker) extends Quer
 
   override def memoryTrackingIterator[T <: Measurable](input: Iterator[T], operatorId: Int): Iterator[T] = new MemoryTrackingIterator[T](input, operatorId)
 
+  override def memoryTrackerForOperator(operatorId: Int): MemoryTracker = new OperatorHeapMemoryTracker(operatorId)
+
+  /**
+   * Heap is recorded for the operator like [[allocated]] does, direct memory is only passed on to the transaction.
+   */
+  private class OperatorHeapMemoryTracker(operatorId: Int) extends MemoryTracker {
+    private var heap = 0L
+    private var highWaterMark = 0L
+    private var direct = 0L
+
+    override def usedDirectMemory(): Long = direct
+
+    override def estimatedHeapMemory(): Long = heap
+
+    override def allocateDirect(bytes: Long): Unit = {
+      transactionMemoryTracker.allocateDirect(bytes)
+      direct += bytes
+    }
+
+    override def releaseDirect(bytes: Long): Unit = {
+      transactionMemoryTracker.releaseDirect(bytes)
+      direct -= bytes
+    }
+
+    override def allocateHeap(bytes: Long): Unit = {
+      allocated(bytes, operatorId)
+      heap += bytes
+      if (heap > highWaterMark) {
+        highWaterMark = heap
+      }
+    }
+
+    override def releaseHeap(bytes: Long): Unit = {
+      deallocated(bytes, operatorId)
+      heap -= bytes
+    }
+
+    override def heapHighWaterMark(): Long = highWaterMark
+
+    override def reset(): Unit = {
+      releaseDirect(direct)
+      releaseHeap(heap)
+    }
+  }
+
   private class MemoryTrackingIterator[T <: Measurable](input: Iterator[T], operatorId: Int) extends Iterator[T] {
     override def hasNext: Boolean = input.hasNext
 
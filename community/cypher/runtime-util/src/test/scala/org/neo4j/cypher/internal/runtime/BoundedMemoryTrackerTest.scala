@@ -130,4 +130,33 @@ class BoundedMemoryTrackerTest extends CypherFunSuite {
     tracker.maxMemoryOfOperator(1) should be(11L)
     tracker.maxMemoryOfOperator(2) should be(28L)
   }
+
+  test("Operator memory tracker tracks memory of its operator until closed") {
+    // Given
+    val tracker = new BoundedMemoryTracker(TestMemoryTracker())
+    val operatorTracker = tracker.memoryTrackerForOperator(1)
+    // When
+    operatorTracker.allocateHeap(10) // [0, 10] / 10
+    tracker.allocated(3, 0) // [3, 10] / 13
+    operatorTracker.allocateHeap(5) // [3, 15] / 18
+    operatorTracker.releaseHeap(4) // [3, 11] / 14
+    operatorTracker.close() // [3, 0] / 3
+    tracker.allocated(2, 0) // [5, 0] / 5
+    // Then
+    operatorTracker.estimatedHeapMemory() should be(0L)
+    operatorTracker.heapHighWaterMark() should be(15L)
+    tracker.totalAllocatedMemory should be(18L)
+    tracker.maxMemoryOfOperator(0) should be(5L)
+    tracker.maxMemoryOfOperator(1) should be(15L)
+  }
+
+  test("Operator memory tracker throws exception if memory exceeds threshold") {
+    // Given
+    val tracker = new BoundedMemoryTracker(TestMemoryTracker(20))
+    val operatorTracker = tracker.memoryTrackerForOperator(0)
+    // When
+    operatorTracker.allocateHeap(15)
+    // Then
+    a[org.neo4j.memory.HeapMemoryLimitExceeded] should be thrownBy operatorTracker.allocateHeap(6)
+  }
 }
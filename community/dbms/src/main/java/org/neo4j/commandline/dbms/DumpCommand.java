@@ -41,6 +41,7 @@ import org.neo4j.dbms.archive.CompressionFormat;
 import org.neo4j.dbms.archive.Dumper;
 import org.neo4j.io.layout.DatabaseLayout;
 import org.neo4j.io.layout.Neo4jLayout;
+import org.neo4j.kernel.impl.pagecache.PageCacheWarmer;
 import org.neo4j.kernel.impl.util.Validators;
 import org.neo4j.kernel.internal.locker.FileLockException;
 
@@ -134,8 +135,10 @@ public class DumpCommand extends AbstractCommand
         {
             CompressionFormat format = selectCompressionFormat( ctx.err() );
             File lockFile = databaseLayout.databaseLockFile();
+            // Page cache warmup profiles describe the page cache of this instance, not the database itself
+            Path profilesDirectory = databasePath.resolve( PageCacheWarmer.PROFILES_DIRECTORY );
             dumper.dump( databasePath, databaseLayout.getTransactionLogsDirectory().toPath(), archive,
-                    format, path -> Objects.equals( path.getFileName().toString(), lockFile.getName() ) );
+                    format, path -> Objects.equals( path.getFileName().toString(), lockFile.getName() ) || path.equals( profilesDirectory ) );
         }
         catch ( FileAlreadyExistsException e )
         {
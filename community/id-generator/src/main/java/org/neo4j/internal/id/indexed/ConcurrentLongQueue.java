@@ -40,6 +40,23 @@ interface ConcurrentLongQueue
      */
     long takeOrDefault( long defaultValue );
 
+    /**
+     * Takes multiple values from this queue, in the order they were offered, up to the length of the given array.
+     *
+     * @param into array to place the taken values into, starting at index 0.
+     * @return number of values taken, which is less than the length of {@code into} if there weren't enough values available to take.
+     */
+    default int takeInto( long[] into )
+    {
+        int count = 0;
+        long value;
+        while ( count < into.length && (value = takeOrDefault( -1 )) != -1 )
+        {
+            into[count++] = value;
+        }
+        return count;
+    }
+
     /**
      * @return max capacity of this queue.
      */
@@ -19,15 +19,14 @@
  */
 package org.neo4j.internal.id.indexed;
 
-import org.eclipse.collections.api.list.primitive.MutableLongList;
 import org.eclipse.collections.api.set.ImmutableSet;
-import org.eclipse.collections.impl.factory.primitive.LongLists;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.OpenOption;
+import java.util.Arrays;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
@@ -52,7 +51,6 @@ import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 
 import static java.lang.String.format;
-import static org.apache.commons.lang3.ArrayUtils.EMPTY_LONG_ARRAY;
 import static org.eclipse.collections.impl.factory.Sets.immutable;
 import static org.neo4j.index.internal.gbptree.GBPTree.NO_HEADER_READER;
 import static org.neo4j.index.internal.gbptree.GBPTree.NO_HEADER_WRITER;
@@ -257,10 +255,17 @@ public class IndexedIdGenerator implements IdGenerator
     private final int idsPerEntry;
 
     /**
-     * Cache low-watermark when to trigger {@link FreeIdScanner} for refill.
+     * Cache low-watermark when to trigger {@link FreeIdScanner} for refill from an allocation request.
      */
     private final int cacheOptimisticRefillThreshold;
 
+    /**
+     * Cache level below which {@link #maintenance(PageCursorTracer)}, which runs in the background, triggers {@link FreeIdScanner} for refill.
+     * It's higher than {@link #cacheOptimisticRefillThreshold} so that the cache is kept topped up before allocation requests
+     * see it running dry and have to do the scan themselves.
+     */
+    private final int cacheBackgroundRefillThreshold;
+
     /**
      * Note about contention: Calls to commitMarker() should be worksync'ed externally and will therefore not contend.
      * This lock is about guarding for calls to reuseMarker(), which comes in at arbitrary times outside transactions.
@@ -349,6 +354,7 @@ public class IndexedIdGenerator implements IdGenerator
         int cacheCapacity = idType.highActivity() && allowLargeIdCaches ? LARGE_CACHE_CAPACITY : SMALL_CACHE_CAPACITY;
         this.idType = idType;
         this.cacheOptimisticRefillThreshold = cacheCapacity / 4;
+        this.cacheBackgroundRefillThreshold = cacheCapacity - cacheCapacity / 4;
         this.cache = new SpmcLongQueue( cacheCapacity );
         this.maxId = maxId;
         this.monitor = monitor;
@@ -414,7 +420,7 @@ public class IndexedIdGenerator implements IdGenerator
         // we can see if the cache is starting to dry out and if so do a scan right here.
         // There may be multiple allocation requests doing this, but it should be very cheap:
         // comparing two ints, reading an AtomicBoolean and trying to CAS an AtomicBoolean.
-        maintenance( cursorTracer );
+        refillCacheIfBelow( cacheOptimisticRefillThreshold, cursorTracer );
 
         // try get from cache
         long id = cache.takeOrDefault( NO_ID );
@@ -440,44 +446,47 @@ public class IndexedIdGenerator implements IdGenerator
         return id;
     }
 
+    /**
+     * Allocates a batch of ids, taking as many as are available from the cache in one go and the rest as one contiguous range from high id.
+     * Since {@link FreeIdScanner} caches ids in the order they are found in the tree the cached ids are typically close to each other too.
+     */
     @Override
     public org.neo4j.internal.id.IdRange nextIdBatch( int size, PageCursorTracer cursorTracer )
     {
-        long prev = -1;
-        long startOfRange = -1;
-        int rangeLength = 0;
-        MutableLongList other = null;
-        for ( int i = 0; i < size; i++ )
-        {
-            long id = nextId( cursorTracer );
-            if ( other != null )
-            {
-                other.add( id );
-            }
-            else
-            {
-                if ( i == 0 )
-                {
-                    prev = id;
-                    startOfRange = id;
-                    rangeLength = 1;
-                }
-                else
-                {
-                    if ( id == prev + 1 )
-                    {
-                        prev = id;
-                        rangeLength++;
-                    }
-                    else
-                    {
-                        other = LongLists.mutable.empty();
-                        other.add( id );
-                    }
-                }
-            }
+        assertNotReadOnly();
+        refillCacheIfBelow( cacheOptimisticRefillThreshold, cursorTracer );
+
+        long[] reusedIds = new long[size];
+        int numberOfReusedIds = cache.takeInto( reusedIds );
+        for ( int i = 0; i < numberOfReusedIds; i++ )
+        {
+            monitor.allocatedFromReused( reusedIds[i] );
+        }
+        if ( numberOfReusedIds < size )
+        {
+            reusedIds = Arrays.copyOf( reusedIds, numberOfReusedIds );
+        }
+
+        int rangeLength = size - numberOfReusedIds;
+        long rangeStart = rangeLength > 0 ? allocateRangeFromHigh( rangeLength ) : highId.get();
+        return new org.neo4j.internal.id.IdRange( reusedIds, rangeStart, rangeLength );
+    }
+
+    private long allocateRangeFromHigh( int rangeLength )
+    {
+        long rangeStart;
+        do
+        {
+            rangeStart = highId.getAndAdd( rangeLength );
+            IdValidator.assertIdWithinMaxCapacity( idType, rangeStart + rangeLength - 1, maxId );
+        }
+        // A range containing the reserved id is skipped, the skipped ids are bridged as deleted when a higher id gets used
+        while ( IdValidator.hasReservedIdInRange( rangeStart, rangeStart + rangeLength ) );
+        for ( int i = 0; i < rangeLength; i++ )
+        {
+            monitor.allocatedFromHigh( rangeStart + i );
         }
-        return new org.neo4j.internal.id.IdRange( other != null ? other.toArray() : EMPTY_LONG_ARRAY, startOfRange, rangeLength );
+        return rangeStart;
     }
 
     @Override
@@ -576,7 +585,12 @@ public class IndexedIdGenerator implements IdGenerator
     @Override
     public void maintenance( PageCursorTracer cursorTracer )
     {
-        if ( !readOnly && cache.size() < cacheOptimisticRefillThreshold )
+        refillCacheIfBelow( cacheBackgroundRefillThreshold, cursorTracer );
+    }
+
+    private void refillCacheIfBelow( int threshold, PageCursorTracer cursorTracer )
+    {
+        if ( !readOnly && cache.size() < threshold )
         {
             // We're just helping other allocation requests and avoiding unwanted sliding of highId here
             scanner.tryLoadFreeIdsIntoCache( cursorTracer );
@@ -47,6 +47,7 @@ import org.neo4j.internal.helpers.Exceptions;
 import org.neo4j.internal.id.FreeIds;
 import org.neo4j.internal.id.IdCapacityExceededException;
 import org.neo4j.internal.id.IdGenerator.Marker;
+import org.neo4j.internal.id.IdRange;
 import org.neo4j.internal.id.IdType;
 import org.neo4j.internal.id.IdValidator;
 import org.neo4j.io.pagecache.PageCache;
@@ -72,6 +73,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
+import static org.apache.commons.lang3.ArrayUtils.EMPTY_LONG_ARRAY;
 import static org.neo4j.annotations.documented.ReporterFactories.noopReporterFactory;
 import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
 import static org.neo4j.internal.id.FreeIds.NO_FREE_IDS;
@@ -221,6 +223,55 @@ class IndexedIdGeneratorTest
         assertThrows( IdCapacityExceededException.class, () -> idGenerator.nextId( NULL ) );
     }
 
+    @Test
+    void shouldAllocateBatchFromHighIdAsOneRange() throws IOException
+    {
+        // given
+        idGenerator.start( NO_FREE_IDS, NULL );
+
+        // when
+        IdRange batch = idGenerator.nextIdBatch( 10, NULL );
+
+        // then
+        assertEquals( new IdRange( EMPTY_LONG_ARRAY, 0, 10 ), batch );
+        assertEquals( 10, idGenerator.getHighId() );
+    }
+
+    @Test
+    void shouldAllocateBatchFromFreedIdsBeforeHighId() throws IOException
+    {
+        // given
+        idGenerator.start( NO_FREE_IDS, NULL );
+        idGenerator.nextIdBatch( 10, NULL );
+        for ( long id = 2; id < 6; id++ )
+        {
+            markDeleted( id );
+            markFree( id );
+        }
+        idGenerator.maintenance( NULL );
+
+        // when
+        IdRange batch = idGenerator.nextIdBatch( 6, NULL );
+
+        // then
+        assertEquals( new IdRange( new long[]{2, 3, 4, 5}, 10, 2 ), batch );
+    }
+
+    @Test
+    void shouldNotAllocateReservedMaxIntIdInBatch() throws IOException
+    {
+        // given
+        idGenerator.start( NO_FREE_IDS, NULL );
+        idGenerator.setHighId( IdValidator.INTEGER_MINUS_ONE - 2 );
+
+        // when
+        IdRange batch = idGenerator.nextIdBatch( 5, NULL );
+
+        // then
+        assertEquals( 5, batch.getRangeLength() );
+        assertFalse( IdValidator.hasReservedIdInRange( batch.getRangeStart(), batch.getRangeStart() + batch.getRangeLength() ) );
+    }
+
     @Test
     void shouldRebuildFromFreeIdsIfWasCreated() throws IOException
     {
@@ -93,6 +93,27 @@ class SpmcLongQueueTest
         assertEquals( NO_ID, queue.takeOrDefault( NO_ID ) );
     }
 
+    @Test
+    void takeIntoShouldTakeAvailableValuesInOrder()
+    {
+        final SpmcLongQueue queue = new SpmcLongQueue( 8 );
+        assertEquals( 0, queue.takeInto( new long[4] ) );
+        for ( int round = 0; round < 3; round++ )
+        {
+            for ( int i = 0; i < 6; i++ )
+            {
+                assertTrue( queue.offer( round * 10 + i ) );
+            }
+            final long[] into = new long[4];
+            assertEquals( 4, queue.takeInto( into ) );
+            assertArrayEquals( new long[]{round * 10, round * 10 + 1, round * 10 + 2, round * 10 + 3}, into );
+            assertEquals( 2, queue.takeInto( into ) );
+            assertEquals( round * 10 + 4, into[0] );
+            assertEquals( round * 10 + 5, into[1] );
+            assertEquals( 0, queue.size() );
+        }
+    }
+
     @Test
     void randomizedConcurrent() throws Exception
     {
@@ -0,0 +1,315 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+
+import static org.neo4j.index.internal.gbptree.TreeNode.Overflow.NO;
+import static org.neo4j.index.internal.gbptree.TreeNode.Type.INTERNAL;
+
+/**
+ * Builds a tree bottom up from entries given in ascending key order, as opposed to inserting them one by one from the root.
+ * <p>
+ * Leaves are filled completely, one after another from left to right. Every time a leaf is full a new leaf is started
+ * and the splitter between the two is added to the rightmost node of the level above, which in turn is handled the same way
+ * when it becomes full. The root is the single node of the topmost level.
+ * <p>
+ * A full internal node can't start its right sibling with only one child, since internal nodes must have at least one key.
+ * Instead the key and child which didn't fit are kept aside as pending for that level, until either another key and child
+ * arrives, or the build completes in which case the last key and child of the full node are moved over to the new node.
+ * <p>
+ * All nodes are new and written in the unstable generation. The built tree isn't reachable until its root is
+ * made the root of the tree, which is left to the caller.
+ *
+ * @param <KEY> type of internal/leaf keys
+ * @param <VALUE> type of leaf values
+ */
+class BulkLoader<KEY,VALUE>
+{
+    private final IdProvider idProvider;
+    private final TreeNode<KEY,VALUE> bTreeNode;
+    private final Layout<KEY,VALUE> layout;
+    private final List<Level> levels = new ArrayList<>();
+    private final KEY previousKey;
+    private final KEY splitter;
+    private final KEY lastKey;
+
+    private PageCursor cursor;
+    private long stableGeneration;
+    private long unstableGeneration;
+    private PageCursorTracer cursorTracer;
+    private long firstLeafId;
+
+    BulkLoader( IdProvider idProvider, TreeNode<KEY,VALUE> bTreeNode, Layout<KEY,VALUE> layout )
+    {
+        this.idProvider = idProvider;
+        this.bTreeNode = bTreeNode;
+        this.layout = layout;
+        this.previousKey = layout.newKey();
+        this.splitter = layout.newKey();
+        this.lastKey = layout.newKey();
+    }
+
+    /**
+     * Writes all entries into new tree nodes.
+     *
+     * @param cursor {@link PageCursor} to write nodes with, opened with write lock.
+     * @param entries entries to build the tree from, in strictly ascending key order.
+     * @param stableGeneration stable generation.
+     * @param unstableGeneration unstable generation.
+     * @param cursorTracer underlying page cursor tracer.
+     * @return id of the root of the built tree, or {@link TreeNode#NO_NODE_FLAG} if there were no entries.
+     * @throws IOException on cursor failure or error reading the entries.
+     * @throws IllegalArgumentException if the entries are not in strictly ascending key order. The nodes written so far are released.
+     */
+    long build( PageCursor cursor, Seeker<KEY,VALUE> entries, long stableGeneration, long unstableGeneration, PageCursorTracer cursorTracer )
+            throws IOException
+    {
+        this.cursor = cursor;
+        this.stableGeneration = stableGeneration;
+        this.unstableGeneration = unstableGeneration;
+        this.cursorTracer = cursorTracer;
+        levels.clear();
+
+        if ( !entries.next() )
+        {
+            return TreeNode.NO_NODE_FLAG;
+        }
+
+        firstLeafId = newNode( TreeNode.NO_NODE_FLAG, true );
+        try
+        {
+            return writeEntries( entries );
+        }
+        catch ( Throwable t )
+        {
+            try
+            {
+                releaseAllNodes();
+            }
+            catch ( Throwable e )
+            {
+                t.addSuppressed( e );
+            }
+            throw t;
+        }
+    }
+
+    private long writeEntries( Seeker<KEY,VALUE> entries ) throws IOException
+    {
+        long leafId = firstLeafId;
+        int keyCount = 0;
+        do
+        {
+            KEY key = entries.key();
+            VALUE value = entries.value();
+            bTreeNode.validateKeyValueSize( key, value );
+            if ( keyCount > 0 )
+            {
+                if ( layout.compare( previousKey, key ) >= 0 )
+                {
+                    throw new IllegalArgumentException( "Entries must be given in strictly ascending key order, but got " + key + " after " + previousKey );
+                }
+                if ( bTreeNode.leafOverflow( cursor, keyCount, key, value ) != NO )
+                {
+                    long newLeafId = newNode( leafId, true );
+                    layout.minimalSplitter( previousKey, key, splitter );
+                    addToLevel( 0, splitter, leafId, newLeafId );
+                    TreeNode.goTo( cursor, "new leaf", newLeafId );
+                    leafId = newLeafId;
+                    keyCount = 0;
+                }
+            }
+            bTreeNode.insertKeyValueAt( cursor, key, value, keyCount, keyCount, stableGeneration, unstableGeneration, cursorTracer );
+            keyCount++;
+            TreeNode.setKeyCount( cursor, keyCount );
+            layout.copyKey( key, previousKey );
+        }
+        while ( entries.next() );
+
+        completePendingLevels();
+        return levels.isEmpty() ? leafId : levels.get( levels.size() - 1 ).nodeId;
+    }
+
+    /**
+     * Adds a key and its right child to the rightmost node of the given level of internal nodes.
+     *
+     * @param level level of internal nodes, where 0 is the level right above the leaves.
+     * @param key key to add.
+     * @param leftChild child left of the key, only used if this level doesn't exist yet.
+     * @param rightChild child right of the key.
+     */
+    private void addToLevel( int level, KEY key, long leftChild, long rightChild ) throws IOException
+    {
+        if ( level == levels.size() )
+        {
+            // New root
+            long nodeId = newNode( TreeNode.NO_NODE_FLAG, false );
+            bTreeNode.setChildAt( cursor, leftChild, 0, stableGeneration, unstableGeneration );
+            bTreeNode.insertKeyAndRightChildAt( cursor, key, rightChild, 0, 0, stableGeneration, unstableGeneration, cursorTracer );
+            TreeNode.setKeyCount( cursor, 1 );
+            levels.add( new Level( nodeId ) );
+            return;
+        }
+
+        Level current = levels.get( level );
+        if ( current.hasPending )
+        {
+            // The rightmost node is full, start its right sibling with the pending key and child followed by this key and child
+            long fullNodeId = current.nodeId;
+            long nodeId = newNode( fullNodeId, false );
+            bTreeNode.setChildAt( cursor, current.pendingChild, 0, stableGeneration, unstableGeneration );
+            bTreeNode.insertKeyAndRightChildAt( cursor, key, rightChild, 0, 0, stableGeneration, unstableGeneration, cursorTracer );
+            TreeNode.setKeyCount( cursor, 1 );
+            current.nodeId = nodeId;
+            current.keyCount = 1;
+            current.hasPending = false;
+            addToLevel( level + 1, current.pendingKey, fullNodeId, nodeId );
+            return;
+        }
+
+        TreeNode.goTo( cursor, "internal node", current.nodeId );
+        if ( bTreeNode.internalOverflow( cursor, current.keyCount, key ) == NO )
+        {
+            bTreeNode.insertKeyAndRightChildAt( cursor, key, rightChild, current.keyCount, current.keyCount,
+                    stableGeneration, unstableGeneration, cursorTracer );
+            current.keyCount++;
+            TreeNode.setKeyCount( cursor, current.keyCount );
+        }
+        else
+        {
+            current.hasPending = true;
+            layout.copyKey( key, current.pendingKey );
+            current.pendingChild = rightChild;
+        }
+    }
+
+    /**
+     * Places keys and children still pending when all entries have been written, by moving the last key and child of each full node
+     * over to a new right sibling together with the pending ones. Goes bottom up since this adds a key to the level above.
+     */
+    private void completePendingLevels() throws IOException
+    {
+        for ( int level = 0; level < levels.size(); level++ )
+        {
+            Level current = levels.get( level );
+            if ( !current.hasPending )
+            {
+                continue;
+            }
+
+            long fullNodeId = current.nodeId;
+            int keyCount = current.keyCount;
+            assert keyCount > 1 : "Full internal node " + fullNodeId + " has only " + keyCount + " keys";
+            TreeNode.goTo( cursor, "internal node", fullNodeId );
+            bTreeNode.keyAt( cursor, lastKey, keyCount - 1, INTERNAL, cursorTracer );
+            long lastChild = bTreeNode.childAt( cursor, keyCount, stableGeneration, unstableGeneration );
+            PointerChecking.checkPointer( lastChild, false );
+            bTreeNode.removeKeyAndRightChildAt( cursor, keyCount - 1, keyCount, stableGeneration, unstableGeneration, cursorTracer );
+            TreeNode.setKeyCount( cursor, keyCount - 1 );
+
+            long nodeId = newNode( fullNodeId, false );
+            bTreeNode.setChildAt( cursor, lastChild, 0, stableGeneration, unstableGeneration );
+            bTreeNode.insertKeyAndRightChildAt( cursor, current.pendingKey, current.pendingChild, 0, 0,
+                    stableGeneration, unstableGeneration, cursorTracer );
+            TreeNode.setKeyCount( cursor, 1 );
+            current.nodeId = nodeId;
+            current.keyCount = 1;
+            current.hasPending = false;
+            addToLevel( level + 1, lastKey, fullNodeId, nodeId );
+        }
+    }
+
+    /**
+     * Gives back the nodes written so far, which are all reachable by following the right sibling pointers from the first node of each level.
+     */
+    private void releaseAllNodes() throws IOException
+    {
+        releaseLevel( firstLeafId );
+        for ( Level level : levels )
+        {
+            releaseLevel( level.firstNodeId );
+        }
+    }
+
+    private void releaseLevel( long nodeId ) throws IOException
+    {
+        while ( TreeNode.isNode( nodeId ) )
+        {
+            TreeNode.goTo( cursor, "node to release", nodeId );
+            long rightSibling = TreeNode.rightSibling( cursor, stableGeneration, unstableGeneration );
+            idProvider.releaseId( stableGeneration, unstableGeneration, nodeId, cursorTracer );
+            nodeId = GenerationSafePointerPair.pointer( rightSibling );
+        }
+    }
+
+    /**
+     * Acquires and initializes a new node, linked as right sibling of the given node if there is one.
+     * Leaves the cursor at the new node.
+     */
+    private long newNode( long leftSiblingId, boolean leaf ) throws IOException
+    {
+        long nodeId = idProvider.acquireNewId( stableGeneration, unstableGeneration, cursorTracer );
+        if ( TreeNode.isNode( leftSiblingId ) )
+        {
+            TreeNode.goTo( cursor, "left sibling", leftSiblingId );
+            TreeNode.setRightSibling( cursor, nodeId, stableGeneration, unstableGeneration );
+        }
+        TreeNode.goTo( cursor, "new node", nodeId );
+        if ( leaf )
+        {
+            bTreeNode.initializeLeaf( cursor, stableGeneration, unstableGeneration );
+        }
+        else
+        {
+            bTreeNode.initializeInternal( cursor, stableGeneration, unstableGeneration );
+        }
+        if ( TreeNode.isNode( leftSiblingId ) )
+        {
+            TreeNode.setLeftSibling( cursor, leftSiblingId, stableGeneration, unstableGeneration );
+        }
+        return nodeId;
+    }
+
+    /**
+     * The rightmost node of a level of internal nodes and its key count.
+     */
+    private class Level
+    {
+        private final long firstNodeId;
+        private long nodeId;
+        private int keyCount;
+        private boolean hasPending;
+        private final KEY pendingKey = layout.newKey();
+        private long pendingChild;
+
+        Level( long nodeId )
+        {
+            this.firstNodeId = nodeId;
+            this.nodeId = nodeId;
+            this.keyCount = 1;
+        }
+    }
+}
@@ -35,6 +35,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Consumer;
 import java.util.function.LongSupplier;
 import java.util.function.Supplier;
@@ -90,6 +91,8 @@ import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
  * <p>
  * A single writer w/ multiple concurrent readers is supported. Assuming usage adheres to this
  * constraint neither writer nor readers are blocking. Readers are virtually garbage-free.
+ * Alternatively multiple {@link #concurrentWriter(PageCursorTracer) concurrent writers} can be used, which only
+ * block each other when changing the same leaf or when changing the structure of the tree.
  * <p>
  * An reader of GB+Tree is a {@link SeekCursor} that returns result as it finds them.
  * As the cursor move over keys/values, returned results are considered "behind" it
@@ -137,6 +140,7 @@ import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
 public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
 {
     private static final String INDEX_INTERNAL_TAG = "indexInternal";
+    private static final int LEAF_LATCH_STRIPES = 128;
 
     /**
      * For monitoring {@link GBPTree}.
@@ -381,6 +385,35 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
      */
     private final SingleWriter writer;
 
+    /**
+     * Format of the tree nodes, used for creating a {@link TreeNode} for each {@link ConcurrentWriter},
+     * since tree nodes keep state while changing a node.
+     */
+    private final TreeNodeSelector.Factory format;
+
+    /**
+     * Store of keys and values too large to be inlined in tree nodes.
+     */
+    private final OffloadStoreImpl<KEY,VALUE> offloadStore;
+
+    /**
+     * Guards the structure of the tree between {@link ConcurrentWriter concurrent writers}. Changes made within a single leaf
+     * hold the read lock, together with the latch of that leaf. Changes involving more than one tree node, like splitting or
+     * merging a leaf or creating a successor, hold the write lock.
+     */
+    private final ReentrantReadWriteLock structureLock = new ReentrantReadWriteLock();
+
+    /**
+     * Incremented by every {@link ConcurrentWriter} change holding the write lock of {@link #structureLock}, so that the other
+     * concurrent writers know that the paths down the tree they remember may no longer be valid.
+     */
+    private volatile long structureVersion;
+
+    /**
+     * Striped latches of leaves changed by {@link ConcurrentWriter concurrent writers} holding the read lock of {@link #structureLock}.
+     */
+    private final Object[] leafLatches = newLeafLatches();
+
     /**
      * Tells whether or not there have been made changes (using {@link #writer(PageCursorTracer)}) to this tree
      * since last call to {@link #checkpoint(IOLimiter, PageCursorTracer)}. This variable is set when calling {@link #writer(PageCursorTracer)}
@@ -603,9 +636,10 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
                     format = TreeNodeSelector.selectByFormat( meta.getFormatIdentifier(), meta.getFormatVersion() );
                 }
                 this.freeList = new FreeListIdProvider( pagedFile, rootId );
-                OffloadStoreImpl<KEY,VALUE> offloadStore = buildOffload( layout, freeList, pagedFile, pageSize );
+                this.format = format;
+                this.offloadStore = buildOffload( layout, freeList, pagedFile, pageSize );
                 this.bTreeNode = format.create( pageSize, layout, offloadStore );
-                this.writer = new SingleWriter( new InternalTreeLogic<>( freeList, bTreeNode, layout, monitor ) );
+                this.writer = new SingleWriter( new InternalTreeLogic<>( freeList, bTreeNode, layout, monitor ), bTreeNode );
 
                 // Create or load state
                 if ( created )
@@ -1070,8 +1104,21 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
         return partitionedSeekInternal( fromInclusive, toExclusive, numberOfPartitions, this, cursorTracer );
     }
 
-    private Collection<Seeker<KEY,VALUE>> partitionedSeekInternal( KEY fromInclusive, KEY toExclusive, int numberOfPartitions,
-            Seeker.Factory<KEY,VALUE> seekerFactory, PageCursorTracer cursorTracer )
+    /**
+     * Partitions the provided key range into {@code numberOfPartitions} key ranges, the same way as
+     * {@link #partitionedSeek(Object, Object, int, PageCursorTracer)} does, but without instantiating a {@link Seeker} for each.
+     * This lets callers seek the partitions lazily, e.g. from the threads that will consume them.
+     *
+     * @param fromInclusive lower bound of the range to partition (inclusive).
+     * @param toExclusive higher bound of the range to partition (exclusive).
+     * @param numberOfPartitions number of partitions desired by the caller. If the tree is small a lower number of partitions may be returned.
+     * The number of partitions will never be higher than the provided {@code numberOfPartitions}.
+     * @param cursorTracer underlying page cursor tracer
+     * @return a {@link List} of distinct key ranges, each as a pair of inclusive lower bound and exclusive higher bound, in key order.
+     * Collectively they cover the whole provided range.
+     * @throws IOException on error reading from index.
+     */
+    public List<Pair<KEY,KEY>> partitionRange( KEY fromInclusive, KEY toExclusive, int numberOfPartitions, PageCursorTracer cursorTracer )
             throws IOException
     {
         Preconditions.checkArgument( layout.compare( fromInclusive, toExclusive ) <= 0, "Partitioned seek only supports forward seeking for the time being" );
@@ -1119,12 +1166,19 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
             while ( (didRetry = cursor.shouldRetry()) || !goodRead );
         }
 
-        KeyPartitioning<KEY> partitioning = new KeyPartitioning<>( layout );
+        return new KeyPartitioning<>( layout ).partition( rootKeys, fromInclusive, toExclusive, numberOfPartitions );
+    }
+
+    private Collection<Seeker<KEY,VALUE>> partitionedSeekInternal( KEY fromInclusive, KEY toExclusive, int numberOfPartitions,
+            Seeker.Factory<KEY,VALUE> seekerFactory, PageCursorTracer cursorTracer )
+            throws IOException
+    {
+        List<Pair<KEY,KEY>> partitions = partitionRange( fromInclusive, toExclusive, numberOfPartitions, cursorTracer );
         List<Seeker<KEY,VALUE>> seekers = new ArrayList<>();
         boolean success = false;
         try
         {
-            for ( Pair<KEY,KEY> partition : partitioning.partition( rootKeys, fromInclusive, toExclusive, numberOfPartitions ) )
+            for ( Pair<KEY,KEY> partition : partitions )
             {
                 seekers.add( seekerFactory.seek( partition.getLeft(), partition.getRight(), cursorTracer ) );
             }
@@ -1381,6 +1435,88 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
         return writer;
     }
 
+    /**
+     * Use default value for ratioToKeepInLeftOnSplit
+     * @param cursorTracer underlying page cursor tracer
+     * @see GBPTree#concurrentWriter(double, PageCursorTracer)
+     */
+    public Writer<KEY,VALUE> concurrentWriter( PageCursorTracer cursorTracer ) throws IOException
+    {
+        return concurrentWriter( InternalTreeLogic.DEFAULT_SPLIT_RATIO, cursorTracer );
+    }
+
+    /**
+     * Returns a {@link Writer} able to modify the index concurrently with other writers returned from this method.
+     * After usage the returned writer must be closed, typically by using try-with-resource clause.
+     * <p>
+     * Concurrent writers find the leaf to change without latching the tree nodes on the way down and then latch only that leaf.
+     * Changes which don't fit in that leaf, as well as removals, escalate to exclusive access to the tree for the duration
+     * of that change. Writers inserting keys in different parts of the tree can therefore do so in parallel.
+     * Concurrent writers and the {@link #writer(PageCursorTracer) single writer} exclude each other, i.e. acquiring one waits for
+     * the other kind to be closed.
+     *
+     * @param ratioToKeepInLeftOnSplit Decide how much to keep in left node on split, 0=keep nothing, 0.5=split 50-50, 1=keep everything.
+     * @param cursorTracer underlying page cursor tracer
+     * @return a new {@link Writer} for this index, which should only be used by one thread at a time.
+     * @throws IOException on error accessing the index.
+     */
+    public Writer<KEY,VALUE> concurrentWriter( double ratioToKeepInLeftOnSplit, PageCursorTracer cursorTracer ) throws IOException
+    {
+        assertNotReadOnly( "Open concurrent tree writer." );
+        TreeNode<KEY,VALUE> treeNode = format.create( pageSize, layout, offloadStore );
+        ConcurrentWriter concurrentWriter = new ConcurrentWriter( new InternalTreeLogic<>( freeList, treeNode, layout, monitor ), treeNode );
+        concurrentWriter.initialize( ratioToKeepInLeftOnSplit, cursorTracer );
+        changesSinceLastCheckpoint = true;
+        return concurrentWriter;
+    }
+
+    /**
+     * Fills an empty tree with the given entries, which must come in strictly ascending key order.
+     * Instead of inserting the entries one by one the tree is built bottom up, see {@link BulkLoader}, which writes every
+     * leaf and internal node once, fully packed. The new tree becomes visible to readers when all entries have been written.
+     * <p>
+     * Bulk loading holds the single {@link #writer(PageCursorTracer) writer} while building, so it can't be done concurrently with other writes.
+     *
+     * @param entries entries to fill the tree with, in strictly ascending key order. Not closed by this method.
+     * @param cursorTracer underlying page cursor tracer
+     * @throws IOException on error accessing the index or reading the entries.
+     * @throws IllegalStateException if the tree isn't empty.
+     * @throws IllegalArgumentException if the entries are not in strictly ascending key order.
+     */
+    public void bulkLoad( Seeker<KEY,VALUE> entries, PageCursorTracer cursorTracer ) throws IOException
+    {
+        assertNotReadOnly( "Bulk load tree." );
+        writer.initialize( 1, cursorTracer );
+        changesSinceLastCheckpoint = true;
+        try
+        {
+            PageCursor cursor = writer.cursor;
+            if ( !TreeNode.isLeaf( cursor ) || TreeNode.keyCount( cursor ) != 0 )
+            {
+                throw new IllegalStateException( "Can only bulk load into an empty tree, but " + this + " has entries" );
+            }
+            long emptyRootId = root.id();
+            long stableGeneration = writer.stableGeneration;
+            long unstableGeneration = writer.unstableGeneration;
+            long rootId = new BulkLoader<>( freeList, bTreeNode, layout ).build( cursor, entries, stableGeneration, unstableGeneration, cursorTracer );
+            checkOutOfBounds( cursor );
+            if ( TreeNode.isNode( rootId ) )
+            {
+                setRoot( rootId, unstableGeneration );
+                freeList.releaseId( stableGeneration, unstableGeneration, emptyRootId, cursorTracer );
+            }
+        }
+        catch ( Throwable t )
+        {
+            appendTreeInformation( t );
+            throw t;
+        }
+        finally
+        {
+            writer.close();
+        }
+    }
+
     private void setRoot( long rootId, long rootGeneration )
     {
         this.root = new Root( rootId, rootGeneration );
@@ -1574,22 +1710,24 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
          * Currently an index only supports one concurrent writer and so this boolean will act as
          * guard so that only one writer ever exist.
          */
-        private final AtomicBoolean writerTaken = new AtomicBoolean();
-        private final InternalTreeLogic<KEY,VALUE> treeLogic;
+        final AtomicBoolean writerTaken = new AtomicBoolean();
+        final InternalTreeLogic<KEY,VALUE> treeLogic;
+        private final TreeNode<KEY,VALUE> treeNode;
         private final StructurePropagation<KEY> structurePropagation;
-        private PageCursor cursor;
-        private PageCursorTracer cursorTracer;
+        PageCursor cursor;
+        PageCursorTracer cursorTracer;
 
         // Writer can't live past a checkpoint because of the mutex with checkpoint,
         // therefore safe to locally cache these generation fields from the volatile generation in the tree
-        private long stableGeneration;
-        private long unstableGeneration;
-        private double ratioToKeepInLeftOnSplit;
+        long stableGeneration;
+        long unstableGeneration;
+        double ratioToKeepInLeftOnSplit;
 
-        SingleWriter( InternalTreeLogic<KEY,VALUE> treeLogic )
+        SingleWriter( InternalTreeLogic<KEY,VALUE> treeLogic, TreeNode<KEY,VALUE> treeNode )
         {
             this.structurePropagation = new StructurePropagation<>( layout.newKey(), layout.newKey(), layout.newKey() );
             this.treeLogic = treeLogic;
+            this.treeNode = treeNode;
         }
 
         /**
@@ -1626,14 +1764,7 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
             {
                 // Block here until cleaning has completed, if cleaning was required
                 lock.writerAndCleanerLock();
-                assertRecoveryCleanSuccessful();
-                cursor = openRootCursor( PagedFile.PF_SHARED_WRITE_LOCK, cursorTracer );
-                this.cursorTracer = cursorTracer;
-                stableGeneration = stableGeneration( generation );
-                unstableGeneration = unstableGeneration( generation );
-                this.ratioToKeepInLeftOnSplit = ratioToKeepInLeftOnSplit;
-                assert assertNoSuccessor( cursor, stableGeneration, unstableGeneration );
-                treeLogic.initialize( cursor, ratioToKeepInLeftOnSplit );
+                open( ratioToKeepInLeftOnSplit, cursorTracer );
                 success = true;
             }
             catch ( Throwable e )
@@ -1650,6 +1781,18 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
             }
         }
 
+        void open( double ratioToKeepInLeftOnSplit, PageCursorTracer cursorTracer ) throws IOException
+        {
+            assertRecoveryCleanSuccessful();
+            cursor = openRootCursor( PagedFile.PF_SHARED_WRITE_LOCK, cursorTracer );
+            this.cursorTracer = cursorTracer;
+            stableGeneration = stableGeneration( generation );
+            unstableGeneration = unstableGeneration( generation );
+            this.ratioToKeepInLeftOnSplit = ratioToKeepInLeftOnSplit;
+            assert assertNoSuccessor( cursor, stableGeneration, unstableGeneration );
+            treeLogic.initialize( cursor, ratioToKeepInLeftOnSplit );
+        }
+
         @Override
         public void put( KEY key, VALUE value )
         {
@@ -1668,7 +1811,7 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
             internalMerge( key, value, valueMerger, false );
         }
 
-        private void internalMerge( KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger, boolean createIfNotExists )
+        void internalMerge( KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger, boolean createIfNotExists )
         {
             try
             {
@@ -1732,10 +1875,10 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
                 long newRootId = freeList.acquireNewId( stableGeneration, unstableGeneration, cursorTracer );
                 PageCursorUtil.goTo( cursor, "new root", newRootId );
 
-                bTreeNode.initializeInternal( cursor, stableGeneration, unstableGeneration );
-                bTreeNode.setChildAt( cursor, structurePropagation.midChild, 0,
+                treeNode.initializeInternal( cursor, stableGeneration, unstableGeneration );
+                treeNode.setChildAt( cursor, structurePropagation.midChild, 0,
                         stableGeneration, unstableGeneration );
-                bTreeNode.insertKeyAndRightChildAt( cursor, structurePropagation.rightKey, structurePropagation.rightChild, 0, 0,
+                treeNode.insertKeyAndRightChildAt( cursor, structurePropagation.rightKey, structurePropagation.rightChild, 0, 0,
                         stableGeneration, unstableGeneration, cursorTracer );
                 TreeNode.setKeyCount( cursor, 1 );
                 setRoot( newRootId );
@@ -1760,7 +1903,7 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
             lock.writerAndCleanerUnlock();
         }
 
-        private void closeCursor()
+        void closeCursor()
         {
             if ( cursor != null )
             {
@@ -1770,6 +1913,165 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
         }
     }
 
+    /**
+     * {@link Writer} which can be used concurrently with other instances, see {@link #concurrentWriter(double, PageCursorTracer)}.
+     * Each instance has its own {@link InternalTreeLogic} and {@link TreeNode}. Inserts which only change the leaf the key
+     * belongs in are made holding the read lock of {@link #structureLock} and the latch of that leaf. All other changes
+     * are made the same way as by the single writer, holding the write lock of {@link #structureLock}.
+     */
+    private class ConcurrentWriter extends SingleWriter
+    {
+        /**
+         * {@link #structureVersion} when the path down the tree remembered by {@link #treeLogic} was last known to be valid.
+         */
+        private long seenStructureVersion;
+
+        ConcurrentWriter( InternalTreeLogic<KEY,VALUE> treeLogic, TreeNode<KEY,VALUE> treeNode )
+        {
+            super( treeLogic, treeNode );
+        }
+
+        @Override
+        void initialize( double ratioToKeepInLeftOnSplit, PageCursorTracer cursorTracer ) throws IOException
+        {
+            writerTaken.set( true );
+            boolean success = false;
+            try
+            {
+                // Block here until cleaning has completed, if cleaning was required
+                lock.sharedWriterLock();
+                seenStructureVersion = structureVersion;
+                open( ratioToKeepInLeftOnSplit, cursorTracer );
+                success = true;
+            }
+            catch ( Throwable e )
+            {
+                appendTreeInformation( e );
+                throw e;
+            }
+            finally
+            {
+                if ( !success )
+                {
+                    close();
+                }
+            }
+        }
+
+        @Override
+        void internalMerge( KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger, boolean createIfNotExists )
+        {
+            structureLock.readLock().lock();
+            try
+            {
+                if ( insertInLeafOnly( key, value, valueMerger, createIfNotExists ) )
+                {
+                    checkOutOfBounds( cursor );
+                    return;
+                }
+            }
+            catch ( IOException e )
+            {
+                appendTreeInformation( e );
+                throw new UncheckedIOException( e );
+            }
+            catch ( Throwable t )
+            {
+                appendTreeInformation( t );
+                throw t;
+            }
+            finally
+            {
+                structureLock.readLock().unlock();
+            }
+
+            structureLock.writeLock().lock();
+            try
+            {
+                restartFromRoot();
+                super.internalMerge( key, value, valueMerger, createIfNotExists );
+            }
+            finally
+            {
+                seenStructureVersion = ++structureVersion;
+                structureLock.writeLock().unlock();
+            }
+        }
+
+        private boolean insertInLeafOnly( KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger, boolean createIfNotExists ) throws IOException
+        {
+            long currentStructureVersion = structureVersion;
+            if ( currentStructureVersion != seenStructureVersion )
+            {
+                restartFromRoot();
+                seenStructureVersion = currentStructureVersion;
+            }
+            long leafId = treeLogic.moveToLeaf( cursor, key, stableGeneration, unstableGeneration, cursorTracer );
+            synchronized ( leafLatch( leafId ) )
+            {
+                return treeLogic.insertInLeafOnly( cursor, key, value, valueMerger, createIfNotExists, stableGeneration, unstableGeneration,
+                        cursorTracer );
+            }
+        }
+
+        @Override
+        public VALUE remove( KEY key )
+        {
+            structureLock.writeLock().lock();
+            try
+            {
+                restartFromRoot();
+                return super.remove( key );
+            }
+            finally
+            {
+                seenStructureVersion = ++structureVersion;
+                structureLock.writeLock().unlock();
+            }
+        }
+
+        private void restartFromRoot()
+        {
+            try
+            {
+                root.goTo( cursor );
+            }
+            catch ( IOException e )
+            {
+                appendTreeInformation( e );
+                throw new UncheckedIOException( e );
+            }
+            treeLogic.initialize( cursor, ratioToKeepInLeftOnSplit );
+        }
+
+        @Override
+        public void close()
+        {
+            if ( !writerTaken.compareAndSet( true, false ) )
+            {
+                throw new IllegalStateException( "Tried to close concurrent writer of " + GBPTree.this +
+                        ", but writer is already closed." );
+            }
+            closeCursor();
+            lock.sharedWriterUnlock();
+        }
+    }
+
+    private static Object[] newLeafLatches()
+    {
+        Object[] latches = new Object[LEAF_LATCH_STRIPES];
+        for ( int i = 0; i < latches.length; i++ )
+        {
+            latches[i] = new Object();
+        }
+        return latches;
+    }
+
+    private Object leafLatch( long leafId )
+    {
+        return leafLatches[(int) (leafId & (leafLatches.length - 1))];
+    }
+
     /**
      * Total size limit for key and value.
      * This limit includes storage overhead that is specific to key implementation for example entity id or meta data about type.
@@ -30,6 +30,8 @@ class GBPTreeLock
     private static final long stateOffset = UnsafeUtil.getFieldOffset( GBPTreeLock.class, "state" );
     private static final long writerLockBit = 0x00000000_00000001L;
     private static final long cleanerLockBit = 0x00000000_00000002L;
+    private static final long sharedWriterLockBits = ~(writerLockBit | cleanerLockBit);
+    private static final long sharedWriterIncrement = 0x00000000_00000004L;
     private volatile long state;
 
     // Used for testing
@@ -50,6 +52,39 @@ class GBPTreeLock
         doUnlock( writerLockBit );
     }
 
+    /**
+     * Shared variant of the writer lock. Any number of shared writers can hold the lock at the same time,
+     * but not together with the writer or cleaner lock.
+     */
+    void sharedWriterLock()
+    {
+        long currentState;
+        do
+        {
+            currentState = state;
+            while ( (currentState & (writerLockBit | cleanerLockBit)) != 0 )
+            {
+                sleep();
+                currentState = state;
+            }
+        }
+        while ( !UnsafeUtil.compareAndSwapLong( this, stateOffset, currentState, currentState + sharedWriterIncrement ) );
+    }
+
+    void sharedWriterUnlock()
+    {
+        long currentState;
+        do
+        {
+            currentState = state;
+            if ( (currentState & sharedWriterLockBits) == 0 )
+            {
+                throw new IllegalStateException( "Can not unlock shared writer lock that isn't locked" );
+            }
+        }
+        while ( !UnsafeUtil.compareAndSwapLong( this, stateOffset, currentState, currentState - sharedWriterIncrement ) );
+    }
+
     void cleanerLock()
     {
         doLock( cleanerLockBit );
@@ -105,7 +140,7 @@ class GBPTreeLock
 
     private boolean canLock( long state, long targetLockBit )
     {
-        return (state & targetLockBit) == 0;
+        return (state & (targetLockBit | sharedWriterLockBits)) == 0;
     }
 
     private boolean canUnlock( long state, long targetLockBit )
@@ -378,6 +378,98 @@ class InternalTreeLogic<KEY,VALUE>
         handleStructureChanges( cursor, structurePropagation, stableGeneration, unstableGeneration, cursorTracer );
     }
 
+    /**
+     * Moves the cursor to the leaf where {@code key} belongs, the same way as
+     * {@link #insert(PageCursor, StructurePropagation, Object, Object, ValueMerger, boolean, long, long, PageCursorTracer)} does.
+     * Used together with {@link #insertInLeafOnly(PageCursor, Object, Object, ValueMerger, boolean, long, long, PageCursorTracer)}
+     * by writers which need to latch the leaf before changing it.
+     *
+     * @param cursor {@link PageCursor} pinned to root of tree (if first change since {@link #initialize(PageCursor)})
+     * or at where last change left it.
+     * @param key key to find leaf for.
+     * @param stableGeneration stable generation.
+     * @param unstableGeneration unstable generation.
+     * @param cursorTracer underlying page cursor tracer.
+     * @return id of the leaf the cursor was moved to.
+     * @throws IOException on cursor failure.
+     */
+    long moveToLeaf( PageCursor cursor, KEY key, long stableGeneration, long unstableGeneration, PageCursorTracer cursorTracer ) throws IOException
+    {
+        assert cursorIsAtExpectedLocation( cursor );
+        moveToCorrectLeaf( cursor, key, stableGeneration, unstableGeneration, cursorTracer );
+        return cursor.getCurrentPageId();
+    }
+
+    /**
+     * Inserts {@code key} and {@code value}, or merges {@code value} into the value of an existing {@code key}, in the leaf
+     * the cursor is at, but only if that can be done by changing that leaf alone. That is when the leaf is of the unstable
+     * generation, the key and value are stored inline and they fit without splitting the leaf. When removal of an entry or
+     * any other structural change would be needed nothing is changed and {@code false} is returned, in which case the change
+     * must be made using {@link #insert(PageCursor, StructurePropagation, Object, Object, ValueMerger, boolean, long, long, PageCursorTracer)}.
+     * <p>
+     * Leaves cursor at the same page as when called.
+     *
+     * @param cursor {@link PageCursor} pinned to the leaf where {@code key} belongs, see
+     * {@link #moveToLeaf(PageCursor, Object, long, long, PageCursorTracer)}.
+     * @param key key to be inserted.
+     * @param value value to be associated with key.
+     * @param valueMerger {@link ValueMerger} for deciding what to do with existing keys.
+     * @param createIfNotExists create this key if it doesn't exist.
+     * @param stableGeneration stable generation.
+     * @param unstableGeneration unstable generation.
+     * @param cursorTracer underlying page cursor tracer.
+     * @return {@code true} if the change was made, or needed no change, otherwise {@code false}.
+     * @throws IOException on cursor failure.
+     */
+    boolean insertInLeafOnly( PageCursor cursor, KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger, boolean createIfNotExists,
+            long stableGeneration, long unstableGeneration, PageCursorTracer cursorTracer ) throws IOException
+    {
+        assert TreeNode.isLeaf( cursor );
+        if ( TreeNode.generation( cursor ) != unstableGeneration ||
+                layout.keySize( key ) + layout.valueSize( value ) > bTreeNode.inlineKeyValueSizeCap() )
+        {
+            return false;
+        }
+        bTreeNode.validateKeyValueSize( key, value );
+
+        int keyCount = TreeNode.keyCount( cursor );
+        int search = search( cursor, LEAF, key, readKey, keyCount, cursorTracer );
+        int pos = positionOf( search );
+        if ( isHit( search ) )
+        {
+            bTreeNode.valueAt( cursor, readValue, pos, cursorTracer );
+            ValueMerger.MergeResult mergeResult = valueMerger.merge( readKey, key, readValue, value );
+            switch ( mergeResult )
+            {
+            case UNCHANGED:
+                return true;
+            case REPLACED:
+                return bTreeNode.setValueAt( cursor, value, pos );
+            case MERGED:
+                return bTreeNode.setValueAt( cursor, readValue, pos );
+            default:
+                return false;
+            }
+        }
+
+        if ( !createIfNotExists )
+        {
+            return true;
+        }
+        Overflow overflow = bTreeNode.leafOverflow( cursor, keyCount, key, value );
+        if ( overflow == YES )
+        {
+            return false;
+        }
+        if ( overflow == NO_NEED_DEFRAG )
+        {
+            bTreeNode.defragmentLeaf( cursor );
+        }
+        bTreeNode.insertKeyValueAt( cursor, key, value, pos, keyCount, stableGeneration, unstableGeneration, cursorTracer );
+        TreeNode.setKeyCount( cursor, keyCount + 1 );
+        return true;
+    }
+
     private int search( PageCursor cursor, TreeNode.Type type, KEY key, KEY readKey, int keyCount, PageCursorTracer cursorTracer )
     {
         int searchResult = KeySearch.search( cursor, bTreeNode, type, key, readKey, keyCount, cursorTracer );
@@ -110,6 +110,44 @@ public interface Layout<KEY, VALUE> extends Comparator<KEY>
      */
     boolean fixedSize();
 
+    /**
+     * Indicate if new trees with this layout should store the bytes that all keys in a leaf start with only once for that leaf.
+     * Only applies to dynamic size layouts. Keys in such leaves are written with {@link #writeKeyForPrefixCompression(PageCursor, Object)}
+     * and read with {@link #readKeyForPrefixCompression(PageCursor, Object, int)}.
+     *
+     * @return true if leaves of new trees should be prefix compressed, otherwise false.
+     */
+    default boolean prefixCompressedLeaves()
+    {
+        return false;
+    }
+
+    /**
+     * Writes contents of {@code key} into {@code cursor} at its current offset, in the form used in prefix compressed leaves.
+     * Must write exactly {@link #keySize(Object)} bytes. Leaves compress best when parts most likely to be shared between
+     * neighbouring keys are written first.
+     *
+     * @param cursor {@link PageCursor} to write into, at current offset.
+     * @param key key containing data to write.
+     */
+    default void writeKeyForPrefixCompression( PageCursor cursor, KEY key )
+    {
+        writeKey( cursor, key );
+    }
+
+    /**
+     * Reads key contents written by {@link #writeKeyForPrefixCompression(PageCursor, Object)} at {@code cursor} at its current offset
+     * into {@code key}.
+     *
+     * @param cursor {@link PageCursor} to read from, at current offset.
+     * @param into key instances to read into.
+     * @param keySize size of key to read.
+     */
+    default void readKeyForPrefixCompression( PageCursor cursor, KEY into, int keySize )
+    {
+        readKey( cursor, into, keySize );
+    }
+
     /**
      * Find shortest key (best effort) that separate left from right in sort order
      * and initialize into with result.
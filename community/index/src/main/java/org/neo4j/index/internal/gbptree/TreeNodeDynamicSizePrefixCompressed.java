@@ -0,0 +1,861 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.StringJoiner;
+
+import org.neo4j.io.pagecache.ByteArrayPageCursor;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+
+import static java.lang.String.format;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.SIZE_OFFSET;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.SIZE_TOTAL_OVERHEAD;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.extractKeySize;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.extractOffload;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.extractValueSize;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.getOverhead;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.putKeyOffset;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.putKeyValueSize;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.putOffloadId;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.readKeyValueSize;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.readOffloadId;
+import static org.neo4j.index.internal.gbptree.TreeNode.Type.INTERNAL;
+import static org.neo4j.index.internal.gbptree.TreeNode.Type.LEAF;
+
+/**
+ * # = empty space
+ * P* = offset to prefix, or 0 if leaf has no prefix
+ * K* = offset to key and value
+ *
+ * LEAF
+ * [HEADER 86B]|[P*][KEY_OFFSETS]##########[KEYS_VALUES][PREFIX]
+ *  0           86  88
+ *
+ * Like {@link TreeNodeDynamicSize}, except that leaves store the bytes that all their keys start with only once, as a prefix entry,
+ * and each key-value entry only the rest of its key. Keys are written with {@link Layout#writeKeyForPrefixCompression(PageCursor, Object)}.
+ * Searching a leaf puts together only the keys it compares with, so there's no need to decompress whole leaves.
+ * Offloaded entries and internal nodes are stored exactly like in {@link TreeNodeDynamicSize}.
+ * <p>
+ * The prefix of a leaf is chosen when the leaf is rewritten, which happens when it's split, defragmented, merged or rebalanced, or when a key that
+ * doesn't start with the current prefix is inserted. A key starting with the current prefix is simply appended, as is done in {@link TreeNodeDynamicSize}.
+ * Removing keys leaves the prefix as it is.
+ */
+class TreeNodeDynamicSizePrefixCompressed<KEY, VALUE> extends TreeNodeDynamicSize<KEY,VALUE>
+{
+    static final byte FORMAT_IDENTIFIER = 4;
+    static final byte FORMAT_VERSION = 0;
+
+    private static final int BYTE_POS_PREFIX_OFFSET = HEADER_LENGTH_DYNAMIC;
+    private static final int NO_PREFIX = 0;
+    // An entry can be as small as its offset and one byte of key size, when all of its key is prefix and it has no value
+    private static final int SIZE_SMALLEST_ENTRY = SIZE_OFFSET + 1;
+
+    private final OffloadStore<KEY,VALUE> offloadStore;
+    private final int leafSpace;
+    private final int inlineKeyValueSizeCap;
+    private final KEY tmpKeyLeft;
+    private final KEY tmpKeyRight;
+    private final Entries entries = new Entries();
+    private final KeyBuffer writeKeyBuffer = new KeyBuffer();
+    // Readers share tree node, so each reading thread puts together prefix and suffix of keys in its own buffer
+    private final ThreadLocal<KeyBuffer> readKeyBuffer = ThreadLocal.withInitial( KeyBuffer::new );
+
+    TreeNodeDynamicSizePrefixCompressed( int pageSize, Layout<KEY,VALUE> layout, OffloadStore<KEY,VALUE> offloadStore )
+    {
+        super( pageSize, layout, offloadStore );
+        this.offloadStore = offloadStore;
+        leafSpace = pageSize - keyPosOffsetLeaf( 0 );
+        // Two entries that can't be compressed must still fit in a leaf, next to the prefix offset
+        inlineKeyValueSizeCap = leafSpace / 2 - SIZE_TOTAL_OVERHEAD;
+        tmpKeyLeft = layout.newKey();
+        tmpKeyRight = layout.newKey();
+    }
+
+    @Override
+    void initializeLeaf( PageCursor cursor, long stableGeneration, long unstableGeneration )
+    {
+        super.initializeLeaf( cursor, stableGeneration, unstableGeneration );
+        setPrefixOffset( cursor, NO_PREFIX );
+    }
+
+    @Override
+    KEY keyAt( PageCursor cursor, KEY into, int pos, Type type, PageCursorTracer cursorTracer )
+    {
+        if ( type == INTERNAL )
+        {
+            return super.keyAt( cursor, into, pos, type, cursorTracer );
+        }
+        readKeyValueAt( cursor, into, null, pos, cursorTracer );
+        return into;
+    }
+
+    @Override
+    void keyValueAt( PageCursor cursor, KEY intoKey, VALUE intoValue, int pos, PageCursorTracer cursorTracer )
+    {
+        readKeyValueAt( cursor, intoKey, intoValue, pos, cursorTracer );
+    }
+
+    /**
+     * Reads key, and value if {@code intoValue} isn't {@code null}, at the given position in a leaf.
+     * Readers share tree node, so nothing but local state and the {@link #readKeyBuffer} of the calling thread is used.
+     */
+    private void readKeyValueAt( PageCursor cursor, KEY intoKey, VALUE intoValue, int pos, PageCursorTracer cursorTracer )
+    {
+        placeCursorAtActualKey( cursor, pos, LEAF );
+
+        long keyValueSize = readKeyValueSize( cursor, true );
+        int suffixSize = extractKeySize( keyValueSize );
+        int valueSize = extractValueSize( keyValueSize );
+        if ( extractOffload( keyValueSize ) )
+        {
+            long offloadId = readOffloadId( cursor );
+            try
+            {
+                if ( intoValue == null )
+                {
+                    offloadStore.readKey( offloadId, intoKey, cursorTracer );
+                }
+                else
+                {
+                    offloadStore.readKeyValue( offloadId, intoKey, intoValue, cursorTracer );
+                }
+            }
+            catch ( IOException e )
+            {
+                cursor.setCursorException( "Failed to read keyValue from offload, cause: " + e.getMessage() );
+            }
+            return;
+        }
+        if ( keyValueSizeTooLarge( suffixSize, valueSize ) || suffixSize < 0 || valueSize < 0 )
+        {
+            readUnreliableKeyValueSize( cursor, suffixSize, valueSize, keyValueSize, pos );
+            return;
+        }
+
+        int suffixOffset = cursor.getOffset();
+        int prefixSize = placeCursorAtPrefix( cursor );
+        if ( prefixSize == 0 )
+        {
+            cursor.setOffset( suffixOffset );
+            layout.readKeyForPrefixCompression( cursor, intoKey, suffixSize );
+        }
+        else
+        {
+            if ( keyValueSizeTooLarge( prefixSize + suffixSize, valueSize ) )
+            {
+                readUnreliableKeyValueSize( cursor, prefixSize + suffixSize, valueSize, keyValueSize, pos );
+                return;
+            }
+            int keySize = prefixSize + suffixSize;
+            KeyBuffer key = readKeyBuffer.get();
+            byte[] keyBytes = key.bytes( keySize );
+            cursor.getBytes( keyBytes, 0, prefixSize );
+            cursor.setOffset( suffixOffset );
+            cursor.getBytes( keyBytes, prefixSize, suffixSize );
+            readKey( cursor, key.cursor(), keySize, intoKey );
+        }
+        if ( intoValue != null )
+        {
+            layout.readValue( cursor, intoValue, valueSize );
+        }
+    }
+
+    private void readKey( PageCursor cursor, PageCursor keyCursor, int keySize, KEY into )
+    {
+        try
+        {
+            layout.readKeyForPrefixCompression( keyCursor, into, keySize );
+            keyCursor.checkAndClearCursorException();
+        }
+        catch ( IOException | RuntimeException e )
+        {
+            // The page may have changed while reading it, so the key can be anything. Let the reader find out and retry.
+            cursor.setCursorException( "Failed to read prefix compressed key, cause: " + e.getMessage() );
+        }
+    }
+
+    @Override
+    void insertKeyValueAt( PageCursor cursor, KEY key, VALUE value, int pos, int keyCount, long stableGeneration, long unstableGeneration,
+            PageCursorTracer cursorTracer ) throws IOException
+    {
+        if ( spaceToAppend( cursor, key, value ) > getAllocSpace( cursor, keyCount, LEAF ) )
+        {
+            // Either the key doesn't start with the prefix or there's dead space to get rid of, both are solved by rewriting the leaf
+            entries.clear();
+            entries.add( cursor, 0, pos );
+            entries.add( key, value, stableGeneration, unstableGeneration, cursorTracer );
+            entries.add( cursor, pos, keyCount );
+            entries.write( cursor, 0, entries.count );
+            return;
+        }
+
+        int keySize = layout.keySize( key );
+        int valueSize = layout.valueSize( value );
+        if ( !canInline( keySize + valueSize ) )
+        {
+            super.insertKeyValueAt( cursor, key, value, pos, keyCount, stableGeneration, unstableGeneration, cursorTracer );
+            return;
+        }
+
+        // Key starts with the prefix and is left in writeKeyBuffer by spaceToAppend
+        int prefixSize = placeCursorAtPrefix( cursor );
+        int suffixSize = keySize - prefixSize;
+        int newKeyValueOffset = getAllocOffset( cursor ) - getOverhead( suffixSize, valueSize, false ) - suffixSize - valueSize;
+        cursor.setOffset( newKeyValueOffset );
+        putKeyValueSize( cursor, suffixSize, valueSize, false );
+        cursor.putBytes( writeKeyBuffer.bytes, prefixSize, suffixSize );
+        layout.writeValue( cursor, value );
+        setAllocOffset( cursor, newKeyValueOffset );
+
+        insertSlotsAt( cursor, pos, 1, keyCount, keyPosOffsetLeaf( 0 ), SIZE_OFFSET );
+        cursor.setOffset( keyPosOffsetLeaf( pos ) );
+        putKeyOffset( cursor, newKeyValueOffset );
+    }
+
+    /**
+     * Space needed to add the given entry to the leaf without rewriting it. An inlined key is left in {@link #writeKeyBuffer}.
+     *
+     * @return the space needed, or {@link Integer#MAX_VALUE} if the key doesn't start with the prefix of the leaf.
+     */
+    private int spaceToAppend( PageCursor cursor, KEY key, VALUE value )
+    {
+        int keySize = layout.keySize( key );
+        int valueSize = layout.valueSize( value );
+        if ( !canInline( keySize + valueSize ) )
+        {
+            return SIZE_OFFSET + getOverhead( keySize, valueSize, true );
+        }
+
+        byte[] keyBytes = writeKeyBuffer.bytes( keySize );
+        layout.writeKeyForPrefixCompression( writeKeyBuffer.cursor(), key );
+        int prefixSize = placeCursorAtPrefix( cursor );
+        if ( prefixSize > keySize )
+        {
+            return Integer.MAX_VALUE;
+        }
+        for ( int i = 0; i < prefixSize; i++ )
+        {
+            if ( cursor.getByte() != keyBytes[i] )
+            {
+                return Integer.MAX_VALUE;
+            }
+        }
+        int suffixSize = keySize - prefixSize;
+        return SIZE_OFFSET + getOverhead( suffixSize, valueSize, false ) + suffixSize + valueSize;
+    }
+
+    @Override
+    Overflow leafOverflow( PageCursor cursor, int currentKeyCount, KEY newKey, VALUE newValue )
+    {
+        if ( spaceToAppend( cursor, newKey, newValue ) <= getAllocSpace( cursor, currentKeyCount, LEAF ) )
+        {
+            return Overflow.NO;
+        }
+
+        // Inserting will rewrite the leaf, which takes care of defragmenting it too. The new entry isn't offloaded just to find out its size.
+        entries.clear();
+        entries.add( cursor, 0, currentKeyCount );
+        entries.add( newKey, newValue, NO_OFFLOAD_ID );
+        return entries.compressedSize( 0, entries.count ) <= leafSpace ? Overflow.NO : Overflow.YES;
+    }
+
+    @Override
+    void defragmentLeaf( PageCursor cursor )
+    {
+        entries.clear();
+        entries.add( cursor, 0, keyCount( cursor ) );
+        entries.write( cursor, 0, entries.count );
+    }
+
+    @Override
+    int canRebalanceLeaves( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount )
+    {
+        entries.clear();
+        entries.add( leftCursor, 0, leftKeyCount );
+        entries.add( rightCursor, 0, rightKeyCount );
+        if ( entries.compressedSize( 0, entries.count ) <= leafSpace )
+        {
+            // We can merge
+            return -1;
+        }
+
+        entries.computeSplitSizes();
+        int splitPos = leftKeyCount;
+        int currentDelta = Math.abs( entries.leftSize( splitPos ) - entries.rightSize( splitPos ) );
+        if ( entries.leftSize( splitPos ) < entries.rightSize( splitPos ) )
+        {
+            // Moving keys to the right will only create more imbalance
+            return 0;
+        }
+        while ( splitPos > 1 )
+        {
+            int nextDelta = Math.abs( entries.leftSize( splitPos - 1 ) - entries.rightSize( splitPos - 1 ) );
+            if ( nextDelta >= currentDelta )
+            {
+                break;
+            }
+            splitPos--;
+            currentDelta = nextDelta;
+        }
+
+        int leftSize = entries.leftSize( splitPos );
+        int rightSize = entries.rightSize( splitPos );
+        int halfSpace = leafSpace / 2;
+        boolean canRebalance = leftSize > halfSpace && rightSize > halfSpace && leftSize <= leafSpace && rightSize <= leafSpace;
+        return canRebalance ? leftKeyCount - splitPos : 0;
+    }
+
+    @Override
+    boolean canMergeLeaves( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount )
+    {
+        entries.clear();
+        entries.add( leftCursor, 0, leftKeyCount );
+        entries.add( rightCursor, 0, rightKeyCount );
+        return entries.compressedSize( 0, entries.count ) <= leafSpace;
+    }
+
+    @Override
+    void doSplitLeaf( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int insertPos, KEY newKey,
+            VALUE newValue, KEY newSplitter, double ratioToKeepInLeftOnSplit, long stableGeneration, long unstableGeneration,
+            PageCursorTracer cursorTracer ) throws IOException
+    {
+        entries.clear();
+        entries.add( leftCursor, 0, insertPos );
+        entries.add( newKey, newValue, stableGeneration, unstableGeneration, cursorTracer );
+        entries.add( leftCursor, insertPos, leftKeyCount );
+        int keyCountAfterInsert = entries.count;
+        int splitPos = entries.splitPos( ratioToKeepInLeftOnSplit );
+
+        entries.write( leftCursor, 0, splitPos );
+        entries.write( rightCursor, splitPos, keyCountAfterInsert );
+        TreeNode.setKeyCount( leftCursor, splitPos );
+        TreeNode.setKeyCount( rightCursor, keyCountAfterInsert - splitPos );
+
+        KEY leftInSplit = keyAt( leftCursor, tmpKeyLeft, splitPos - 1, LEAF, cursorTracer );
+        KEY rightInSplit = keyAt( rightCursor, tmpKeyRight, 0, LEAF, cursorTracer );
+        layout.minimalSplitter( leftInSplit, rightInSplit, newSplitter );
+    }
+
+    @Override
+    void moveKeyValuesFromLeftToRight( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount,
+            int fromPosInLeftNode )
+    {
+        entries.clear();
+        entries.add( leftCursor, 0, leftKeyCount );
+        entries.add( rightCursor, 0, rightKeyCount );
+        entries.write( leftCursor, 0, fromPosInLeftNode );
+        entries.write( rightCursor, fromPosInLeftNode, entries.count );
+        setKeyCount( leftCursor, fromPosInLeftNode );
+        setKeyCount( rightCursor, entries.count - fromPosInLeftNode );
+    }
+
+    @Override
+    void copyKeyValuesFromLeftToRight( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount )
+    {
+        entries.clear();
+        entries.add( leftCursor, 0, leftKeyCount );
+        entries.add( rightCursor, 0, rightKeyCount );
+        entries.write( rightCursor, 0, entries.count );
+        setKeyCount( rightCursor, entries.count );
+    }
+
+    @Override
+    public int inlineKeyValueSizeCap()
+    {
+        return inlineKeyValueSizeCap;
+    }
+
+    @Override
+    boolean reasonableKeyCount( int keyCount )
+    {
+        return keyCount >= 0 && keyCount <= leafSpace / SIZE_SMALLEST_ENTRY;
+    }
+
+    @Override
+    int keyPosOffsetLeaf( int pos )
+    {
+        // Key offsets come after the prefix offset
+        return super.keyPosOffsetLeaf( pos + 1 );
+    }
+
+    @Override
+    String checkMetaConsistency( PageCursor cursor, int keyCount, Type type, GBPTreeConsistencyCheckVisitor<KEY> visitor )
+    {
+        String inconsistency = super.checkMetaConsistency( cursor, keyCount, type, visitor );
+        if ( type == LEAF && inconsistency.isEmpty() )
+        {
+            int prefixOffset = prefixOffset( cursor );
+            int allocOffset = getAllocOffset( cursor );
+            if ( prefixOffset != NO_PREFIX && (prefixOffset < allocOffset || prefixOffset >= pageSize) )
+            {
+                return format( "Meta data for tree node is inconsistent, id=%d: Prefix is outside of key space, allocOffset=%d, prefixOffset=%d",
+                        cursor.getCurrentPageId(), allocOffset, prefixOffset );
+            }
+        }
+        return inconsistency;
+    }
+
+    @SuppressWarnings( "unused" )
+    @Override
+    void printNode( PageCursor cursor, boolean includeValue, boolean includeAllocSpace, long stableGeneration, long unstableGeneration,
+            PageCursorTracer cursorTracer )
+    {
+        if ( isInternal( cursor ) )
+        {
+            super.printNode( cursor, includeValue, includeAllocSpace, stableGeneration, unstableGeneration, cursorTracer );
+            return;
+        }
+
+        KEY key = layout.newKey();
+        VALUE value = layout.newValue();
+        StringJoiner keys = new StringJoiner( " " );
+        int keyCount = keyCount( cursor );
+        for ( int pos = 0; pos < keyCount; pos++ )
+        {
+            keyValueAt( cursor, key, value, pos, cursorTracer );
+            keys.add( includeValue ? key + "|" + value : key.toString() );
+        }
+        System.out.println( "{" + cursor.getCurrentPageId() + "} [allocOffset=" + getAllocOffset( cursor ) + " deadSpace=" + getDeadSpace( cursor ) +
+                " prefixOffset=" + prefixOffset( cursor ) + "] " + keys );
+    }
+
+    @Override
+    public String toString()
+    {
+        return "TreeNodeDynamicSizePrefixCompressed[pageSize:" + pageSize + ", keyValueSizeCap:" + keyValueSizeCap() + ", inlineKeyValueSizeCap:" +
+                inlineKeyValueSizeCap + "]";
+    }
+
+    /**
+     * @return size of the prefix of the leaf, with cursor placed at its first byte, or 0 if leaf has no prefix.
+     */
+    private int placeCursorAtPrefix( PageCursor cursor )
+    {
+        int prefixOffset = prefixOffset( cursor );
+        if ( prefixOffset == NO_PREFIX )
+        {
+            return 0;
+        }
+        if ( prefixOffset >= pageSize || prefixOffset < keyPosOffsetLeaf( 0 ) )
+        {
+            cursor.setCursorException( format( "Tried to read prefix on offset=%d, pageSize=%d", prefixOffset, pageSize ) );
+            return 0;
+        }
+
+        cursor.setOffset( prefixOffset );
+        int prefixSize = extractKeySize( readKeyValueSize( cursor, true ) );
+        if ( prefixSize < 0 || prefixSize > pageSize - cursor.getOffset() )
+        {
+            cursor.setCursorException( format( "Read unreliable prefix, id=%d, prefixSize=%d, prefixOffset=%d",
+                    cursor.getCurrentPageId(), prefixSize, prefixOffset ) );
+            return 0;
+        }
+        return prefixSize;
+    }
+
+    private static int prefixOffset( PageCursor cursor )
+    {
+        return PageCursorUtil.getUnsignedShort( cursor, BYTE_POS_PREFIX_OFFSET );
+    }
+
+    private static void setPrefixOffset( PageCursor cursor, int prefixOffset )
+    {
+        PageCursorUtil.putUnsignedShort( cursor, BYTE_POS_PREFIX_OFFSET, prefixOffset );
+    }
+
+    /**
+     * Key-value entries of one or two leaves, in order and with their keys in full, to be written to leaves with a prefix
+     * chosen for the entries going into each leaf. Offloaded entries are kept as they are stored in the leaf.
+     */
+    private class Entries
+    {
+        private byte[] data = new byte[pageSize];
+        private int dataSize;
+        private int[] offset = new int[64];
+        private int[] keySize = new int[64];
+        private int[] valueSize = new int[64];
+        private boolean[] offloaded = new boolean[64];
+        private int count;
+
+        // Set by computeSplitSizes, for each position the sizes and common prefix of the entries before and from it
+        private int[] sizeBefore = new int[0];
+        private int[] inlinedBefore = new int[0];
+        private int[] prefixBefore = new int[0];
+        private int[] prefixFrom = new int[0];
+
+        void clear()
+        {
+            dataSize = 0;
+            count = 0;
+        }
+
+        void add( PageCursor cursor, int fromPos, int toPos )
+        {
+            int prefixSize = placeCursorAtPrefix( cursor );
+            int prefixBytesOffset = cursor.getOffset();
+            for ( int pos = fromPos; pos < toPos; pos++ )
+            {
+                placeCursorAtActualKey( cursor, pos, LEAF );
+                int entryOffset = cursor.getOffset();
+                long keyValueSize = readKeyValueSize( cursor, true );
+                int entryKeySize = extractKeySize( keyValueSize );
+                int entryValueSize = extractValueSize( keyValueSize );
+                if ( extractOffload( keyValueSize ) )
+                {
+                    int size = getOverhead( entryKeySize, entryValueSize, true );
+                    int at = reserve( size );
+                    cursor.setOffset( entryOffset );
+                    cursor.getBytes( data, at, size );
+                    append( at, entryKeySize, entryValueSize, true );
+                }
+                else
+                {
+                    int suffixOffset = cursor.getOffset();
+                    int at = reserve( prefixSize + entryKeySize + entryValueSize );
+                    cursor.setOffset( prefixBytesOffset );
+                    cursor.getBytes( data, at, prefixSize );
+                    cursor.setOffset( suffixOffset );
+                    cursor.getBytes( data, at + prefixSize, entryKeySize + entryValueSize );
+                    append( at, prefixSize + entryKeySize, entryValueSize, false );
+                }
+            }
+        }
+
+        void add( KEY key, VALUE value, long stableGeneration, long unstableGeneration, PageCursorTracer cursorTracer ) throws IOException
+        {
+            boolean offload = !canInline( layout.keySize( key ) + layout.valueSize( value ) );
+            add( key, value, offload ? offloadStore.writeKeyValue( key, value, stableGeneration, unstableGeneration, cursorTracer ) : NO_OFFLOAD_ID );
+        }
+
+        /**
+         * Adds the given entry, with the given offload id if it can't be inlined.
+         */
+        void add( KEY key, VALUE value, long offloadId )
+        {
+            int newKeySize = layout.keySize( key );
+            int newValueSize = layout.valueSize( value );
+            if ( canInline( newKeySize + newValueSize ) )
+            {
+                int at = reserve( newKeySize + newValueSize );
+                PageCursor entryCursor = ByteArrayPageCursor.wrap( data, at, newKeySize + newValueSize );
+                layout.writeKeyForPrefixCompression( entryCursor, key );
+                layout.writeValue( entryCursor, value );
+                append( at, newKeySize, newValueSize, false );
+            }
+            else
+            {
+                int size = getOverhead( newKeySize, newValueSize, true );
+                int at = reserve( size );
+                PageCursor entryCursor = ByteArrayPageCursor.wrap( data, at, size );
+                putKeyValueSize( entryCursor, newKeySize, newValueSize, true );
+                putOffloadId( entryCursor, offloadId );
+                append( at, newKeySize, newValueSize, true );
+            }
+        }
+
+        /**
+         * Writes entries {@code from} (inclusive) to {@code to} (exclusive) to a leaf, replacing all entries in it. Doesn't update key count.
+         */
+        void write( PageCursor cursor, int from, int to )
+        {
+            int prefixSize = prefixSize( from, to );
+            int prefixOffset = NO_PREFIX;
+            int allocOffset = pageSize;
+            if ( prefixSize > 0 )
+            {
+                allocOffset -= getOverhead( prefixSize, 0, false ) + prefixSize;
+                cursor.setOffset( allocOffset );
+                putKeyValueSize( cursor, prefixSize, 0, false );
+                cursor.putBytes( data, offset[firstInlined( from, to )], prefixSize );
+                prefixOffset = allocOffset;
+            }
+            for ( int i = from; i < to; i++ )
+            {
+                if ( offloaded[i] )
+                {
+                    int size = getOverhead( keySize[i], valueSize[i], true );
+                    allocOffset -= size;
+                    cursor.setOffset( allocOffset );
+                    cursor.putBytes( data, offset[i], size );
+                }
+                else
+                {
+                    int suffixSize = keySize[i] - prefixSize;
+                    allocOffset -= getOverhead( suffixSize, valueSize[i], false ) + suffixSize + valueSize[i];
+                    cursor.setOffset( allocOffset );
+                    putKeyValueSize( cursor, suffixSize, valueSize[i], false );
+                    cursor.putBytes( data, offset[i] + prefixSize, suffixSize + valueSize[i] );
+                }
+                cursor.setOffset( keyPosOffsetLeaf( i - from ) );
+                putKeyOffset( cursor, allocOffset );
+            }
+            setPrefixOffset( cursor, prefixOffset );
+            setAllocOffset( cursor, allocOffset );
+            setDeadSpace( cursor, 0 );
+        }
+
+        /**
+         * @return space entries {@code from} (inclusive) to {@code to} (exclusive) take in a leaf of their own.
+         */
+        int compressedSize( int from, int to )
+        {
+            return size( from, to, prefixSize( from, to ) );
+        }
+
+        /**
+         * Chooses where to split the entries into two leaves, keeping the given ratio of leaf space in the left one.
+         * Leaves that are meant to be at least half full are preferably not left underflowing by the split,
+         * since the smaller compressed entries would otherwise often leave them just below half full.
+         */
+        int splitPos( double ratioToKeepInLeftOnSplit )
+        {
+            computeSplitSizes();
+            int halfFull = leafSpace - leafSpace / 2;
+            int minLeftSize = ratioToKeepInLeftOnSplit >= 0.5 ? halfFull : 0;
+            int minRightSize = ratioToKeepInLeftOnSplit <= 0.5 ? halfFull : 0;
+            int splitPos = closestSplitPos( ratioToKeepInLeftOnSplit, minLeftSize, minRightSize, true );
+            if ( splitPos == -1 )
+            {
+                splitPos = closestSplitPos( ratioToKeepInLeftOnSplit, 0, 0, true );
+            }
+            if ( splitPos == -1 )
+            {
+                // Upper bounds of space were too pessimistic, try with actual space
+                splitPos = closestSplitPos( ratioToKeepInLeftOnSplit, 0, 0, false );
+            }
+            if ( splitPos == -1 )
+            {
+                throw new IllegalStateException( format( "There's not enough space to insert new key, even when splitting the leaf. " +
+                        "Space needed:%d, max space allowed:%d", compressedSize( 0, count ), leafSpace * 2 ) );
+            }
+            return splitPos;
+        }
+
+        private int closestSplitPos( double ratioToKeepInLeftOnSplit, int minLeftSize, int minRightSize, boolean useUpperBounds )
+        {
+            int splitPos = -1;
+            double splitPosDelta = Double.MAX_VALUE;
+            for ( int pos = 1; pos < count; pos++ )
+            {
+                int leftSize = useUpperBounds ? leftSize( pos ) : compressedSize( 0, pos );
+                int rightSize = useUpperBounds ? rightSize( pos ) : compressedSize( pos, count );
+                double delta = Math.abs( leftSize - leafSpace * ratioToKeepInLeftOnSplit );
+                if ( leftSize <= leafSpace && rightSize <= leafSpace && leftSize >= minLeftSize && rightSize >= minRightSize && delta < splitPosDelta )
+                {
+                    splitPos = pos;
+                    splitPosDelta = delta;
+                }
+            }
+            return splitPos;
+        }
+
+        /**
+         * Prepares {@link #leftSize(int)} and {@link #rightSize(int)}, which are cheap upper bounds of the space the entries on either side
+         * of a position take in a leaf of their own.
+         */
+        void computeSplitSizes()
+        {
+            if ( sizeBefore.length <= count )
+            {
+                sizeBefore = new int[offset.length + 1];
+                inlinedBefore = new int[offset.length + 1];
+                prefixBefore = new int[offset.length + 1];
+                prefixFrom = new int[offset.length + 1];
+            }
+
+            int first = -1;
+            int prefixSize = 0;
+            for ( int i = 0; i < count; i++ )
+            {
+                // Size without prefix is an upper bound of size with prefix, key size overhead is based on the whole key
+                sizeBefore[i + 1] = sizeBefore[i] + size( i, 0 );
+                inlinedBefore[i + 1] = inlinedBefore[i] + (offloaded[i] ? 0 : 1);
+                if ( !offloaded[i] )
+                {
+                    prefixSize = first == -1 ? keySize[i] : commonPrefixSize( first, i, prefixSize );
+                    first = first == -1 ? i : first;
+                }
+                prefixBefore[i + 1] = prefixSize;
+            }
+
+            int last = -1;
+            prefixSize = 0;
+            prefixFrom[count] = 0;
+            for ( int i = count - 1; i >= 0; i-- )
+            {
+                if ( !offloaded[i] )
+                {
+                    prefixSize = last == -1 ? keySize[i] : commonPrefixSize( last, i, prefixSize );
+                    last = last == -1 ? i : last;
+                }
+                prefixFrom[i] = prefixSize;
+            }
+        }
+
+        int leftSize( int splitPos )
+        {
+            return upperBound( sizeBefore[splitPos], inlinedBefore[splitPos], prefixBefore[splitPos] );
+        }
+
+        int rightSize( int splitPos )
+        {
+            return upperBound( sizeBefore[count] - sizeBefore[splitPos], inlinedBefore[count] - inlinedBefore[splitPos], prefixFrom[splitPos] );
+        }
+
+        private int upperBound( int sizeWithoutPrefix, int inlined, int prefixSize )
+        {
+            if ( prefixSize == 0 )
+            {
+                return sizeWithoutPrefix;
+            }
+            int sizeWithPrefix = sizeWithoutPrefix - inlined * prefixSize + getOverhead( prefixSize, 0, false ) + prefixSize;
+            return Math.min( sizeWithoutPrefix, sizeWithPrefix );
+        }
+
+        /**
+         * @return size of the prefix to use for the given entries, which is their common prefix if it saves space, otherwise 0.
+         */
+        private int prefixSize( int from, int to )
+        {
+            int first = firstInlined( from, to );
+            if ( first == -1 )
+            {
+                return 0;
+            }
+            int prefixSize = keySize[first];
+            for ( int i = first + 1; i < to && prefixSize > 0; i++ )
+            {
+                if ( !offloaded[i] )
+                {
+                    prefixSize = commonPrefixSize( first, i, prefixSize );
+                }
+            }
+            return prefixSize > 0 && size( from, to, prefixSize ) < size( from, to, 0 ) ? prefixSize : 0;
+        }
+
+        private int size( int from, int to, int prefixSize )
+        {
+            int size = prefixSize > 0 ? getOverhead( prefixSize, 0, false ) + prefixSize : 0;
+            for ( int i = from; i < to; i++ )
+            {
+                size += size( i, prefixSize );
+            }
+            return size;
+        }
+
+        private int size( int i, int prefixSize )
+        {
+            if ( offloaded[i] )
+            {
+                return SIZE_OFFSET + getOverhead( keySize[i], valueSize[i], true );
+            }
+            int suffixSize = keySize[i] - prefixSize;
+            return SIZE_OFFSET + getOverhead( suffixSize, valueSize[i], false ) + suffixSize + valueSize[i];
+        }
+
+        private int firstInlined( int from, int to )
+        {
+            for ( int i = from; i < to; i++ )
+            {
+                if ( !offloaded[i] )
+                {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * @return number of bytes, at most {@code max}, that keys of the two given entries start with.
+         */
+        private int commonPrefixSize( int a, int b, int max )
+        {
+            int limit = Math.min( max, Math.min( keySize[a], keySize[b] ) );
+            int size = 0;
+            while ( size < limit && data[offset[a] + size] == data[offset[b] + size] )
+            {
+                size++;
+            }
+            return size;
+        }
+
+        private int reserve( int size )
+        {
+            if ( dataSize + size > data.length )
+            {
+                data = Arrays.copyOf( data, Math.max( data.length * 2, dataSize + size ) );
+            }
+            int at = dataSize;
+            dataSize += size;
+            return at;
+        }
+
+        private void append( int at, int entryKeySize, int entryValueSize, boolean entryOffloaded )
+        {
+            if ( count == offset.length )
+            {
+                int length = offset.length * 2;
+                offset = Arrays.copyOf( offset, length );
+                keySize = Arrays.copyOf( keySize, length );
+                valueSize = Arrays.copyOf( valueSize, length );
+                offloaded = Arrays.copyOf( offloaded, length );
+            }
+            offset[count] = at;
+            keySize[count] = entryKeySize;
+            valueSize[count] = entryValueSize;
+            offloaded[count] = entryOffloaded;
+            count++;
+        }
+    }
+
+    /**
+     * Bytes of a single key, together with a cursor over them. Only grows when a larger key comes along.
+     */
+    private static class KeyBuffer
+    {
+        private byte[] bytes = new byte[0];
+        private PageCursor cursor = ByteArrayPageCursor.wrap( bytes );
+
+        /**
+         * @return bytes that can hold a key of the given size.
+         */
+        byte[] bytes( int keySize )
+        {
+            if ( bytes.length < keySize )
+            {
+                bytes = new byte[keySize];
+                cursor = ByteArrayPageCursor.wrap( bytes );
+            }
+            return bytes;
+        }
+
+        /**
+         * @return a cursor over the bytes, placed at the start of the key.
+         */
+        PageCursor cursor()
+        {
+            cursor.setOffset( 0 );
+            return cursor;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import org.apache.commons.lang3.mutable.MutableLong;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.stream.LongStream;
+
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.pagecache.PageCacheSupportExtension;
+import org.neo4j.test.extension.testdirectory.EphemeralTestDirectoryExtension;
+import org.neo4j.test.rule.PageCacheConfig;
+import org.neo4j.test.rule.TestDirectory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer.NULL;
+
+@EphemeralTestDirectoryExtension
+class GBPTreeBulkLoadTest
+{
+    @RegisterExtension
+    static PageCacheSupportExtension pageCacheExtension = new PageCacheSupportExtension( PageCacheConfig.config().withPageSize( 512 ) );
+    @Inject
+    private TestDirectory directory;
+    @Inject
+    private PageCache pageCache;
+
+    @ParameterizedTest
+    @ValueSource( booleans = {true, false} )
+    void shouldBuildTreeOfAnySize( boolean fixedSize ) throws IOException
+    {
+        SimpleLongLayout layout = SimpleLongLayout.longLayout().withFixedSize( fixedSize ).build();
+        // Covers trees of one leaf and trees where the last internal node of one or more levels ends up full
+        for ( long count = 1; count <= 2_000; count += 7 )
+        {
+            File file = directory.file( "index-" + count );
+            try ( GBPTree<MutableLong,MutableLong> tree = new GBPTreeBuilder<>( pageCache, file, layout ).build() )
+            {
+                tree.bulkLoad( entries( layout, count ), NULL );
+                assertKeys( tree, layout, count );
+            }
+            directory.getFileSystem().deleteFileOrThrow( file );
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource( booleans = {true, false} )
+    void shouldBuildLargeTreeWithLargeKeys( boolean fixedSize ) throws IOException
+    {
+        SimpleLongLayout layout = SimpleLongLayout.longLayout().withFixedSize( fixedSize ).withKeyPadding( 50 ).build();
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTreeBuilder<>( pageCache, directory.file( "index" ), layout ).build() )
+        {
+            tree.bulkLoad( entries( layout, 100_000 ), NULL );
+            assertKeys( tree, layout, 100_000 );
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource( booleans = {true, false} )
+    void shouldModifyAndRecoverBulkLoadedTree( boolean fixedSize ) throws IOException
+    {
+        SimpleLongLayout layout = SimpleLongLayout.longLayout().withFixedSize( fixedSize ).build();
+        int count = 10_000;
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTreeBuilder<>( pageCache, directory.file( "index" ), layout ).build() )
+        {
+            // given every other key
+            tree.bulkLoad( entries( layout, LongStream.range( 0, count ).map( i -> i * 2 ) ), NULL );
+            tree.checkpoint( IOLimiter.UNLIMITED, NULL );
+
+            // when inserting the keys in between
+            try ( Writer<MutableLong,MutableLong> writer = tree.writer( NULL ) )
+            {
+                for ( long key = 1; key < count * 2; key += 2 )
+                {
+                    writer.put( layout.key( key ), layout.value( key ) );
+                }
+            }
+            tree.checkpoint( IOLimiter.UNLIMITED, NULL );
+        }
+
+        // then
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTreeBuilder<>( pageCache, directory.file( "index" ), layout ).build() )
+        {
+            assertKeys( tree, layout, count * 2 );
+        }
+    }
+
+    @Test
+    void shouldLeaveTreeEmptyWhenNoEntries() throws IOException
+    {
+        SimpleLongLayout layout = SimpleLongLayout.longLayout().build();
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTreeBuilder<>( pageCache, directory.file( "index" ), layout ).build() )
+        {
+            tree.bulkLoad( entries( layout, 0 ), NULL );
+            assertKeys( tree, layout, 0 );
+
+            // and still accept a bulk load
+            tree.bulkLoad( entries( layout, 100 ), NULL );
+            assertKeys( tree, layout, 100 );
+        }
+    }
+
+    @Test
+    void shouldNotBulkLoadIntoNonEmptyTree() throws IOException
+    {
+        SimpleLongLayout layout = SimpleLongLayout.longLayout().build();
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTreeBuilder<>( pageCache, directory.file( "index" ), layout ).build() )
+        {
+            // given
+            try ( Writer<MutableLong,MutableLong> writer = tree.writer( NULL ) )
+            {
+                writer.put( layout.key( 1 ), layout.value( 1 ) );
+            }
+
+            // when/then
+            assertThrows( IllegalStateException.class, () -> tree.bulkLoad( entries( layout, 10 ), NULL ) );
+
+            // and the writer is available again
+            try ( Writer<MutableLong,MutableLong> writer = tree.writer( NULL ) )
+            {
+                writer.put( layout.key( 0 ), layout.value( 0 ) );
+            }
+            assertKeys( tree, layout, 2 );
+        }
+    }
+
+    @Test
+    void shouldFailOnEntriesOutOfOrder() throws IOException
+    {
+        SimpleLongLayout layout = SimpleLongLayout.longLayout().build();
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTreeBuilder<>( pageCache, directory.file( "index" ), layout ).build() )
+        {
+            assertThrows( IllegalArgumentException.class, () -> tree.bulkLoad( entries( layout, LongStream.of( 1, 2, 2 ) ), NULL ) );
+            assertThrows( IllegalArgumentException.class, () -> tree.bulkLoad( entries( layout, LongStream.of( 1, 3, 2 ) ), NULL ) );
+
+            // and the tree is left empty
+            assertKeys( tree, layout, 0 );
+        }
+    }
+
+    private static Seeker<MutableLong,MutableLong> entries( SimpleLongLayout layout, long count )
+    {
+        return entries( layout, LongStream.range( 0, count ) );
+    }
+
+    private static Seeker<MutableLong,MutableLong> entries( SimpleLongLayout layout, LongStream keys )
+    {
+        Iterator<Long> iterator = keys.iterator();
+        return new Seeker<>()
+        {
+            private MutableLong key;
+            private MutableLong value;
+
+            @Override
+            public boolean next()
+            {
+                if ( !iterator.hasNext() )
+                {
+                    return false;
+                }
+                long seed = iterator.next();
+                key = layout.key( seed );
+                value = layout.value( seed );
+                return true;
+            }
+
+            @Override
+            public MutableLong key()
+            {
+                return key;
+            }
+
+            @Override
+            public MutableLong value()
+            {
+                return value;
+            }
+
+            @Override
+            public void close()
+            {
+            }
+        };
+    }
+
+    private static void assertKeys( GBPTree<MutableLong,MutableLong> tree, SimpleLongLayout layout, long count ) throws IOException
+    {
+        try ( Seeker<MutableLong,MutableLong> seek = tree.seek( layout.key( Long.MIN_VALUE ), layout.key( Long.MAX_VALUE ), NULL ) )
+        {
+            for ( long key = 0; key < count; key++ )
+            {
+                assertTrue( seek.next() );
+                assertEquals( key, layout.keySeed( seek.key() ) );
+                assertEquals( key, layout.valueSeed( seek.value() ) );
+            }
+            assertFalse( seek.next() );
+        }
+        assertTrue( tree.consistencyCheck( NULL ) );
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import org.apache.commons.lang3.mutable.MutableLong;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.test.Race;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.pagecache.PageCacheSupportExtension;
+import org.neo4j.test.extension.testdirectory.EphemeralTestDirectoryExtension;
+import org.neo4j.test.rule.PageCacheConfig;
+import org.neo4j.test.rule.TestDirectory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer.NULL;
+import static org.neo4j.test.Race.throwing;
+
+@EphemeralTestDirectoryExtension
+class GBPTreeConcurrentWriterTest
+{
+    private static final int THREADS = 4;
+    private static final int KEYS_PER_THREAD = 5_000;
+
+    @RegisterExtension
+    static PageCacheSupportExtension pageCacheExtension = new PageCacheSupportExtension( PageCacheConfig.config().withPageSize( 512 ) );
+    @Inject
+    private TestDirectory directory;
+    @Inject
+    private PageCache pageCache;
+
+    @ParameterizedTest
+    @ValueSource( booleans = {true, false} )
+    void shouldInsertDisjointKeyRangesConcurrently( boolean fixedSize ) throws Throwable
+    {
+        SimpleLongLayout layout = SimpleLongLayout.longLayout().withFixedSize( fixedSize ).build();
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTreeBuilder<>( pageCache, directory.file( "index" ), layout ).build() )
+        {
+            // when
+            Race race = new Race();
+            race.addContestants( THREADS, thread -> throwing( () ->
+            {
+                try ( Writer<MutableLong,MutableLong> writer = tree.concurrentWriter( NULL ) )
+                {
+                    for ( long i = 0; i < KEYS_PER_THREAD; i++ )
+                    {
+                        long key = thread * KEYS_PER_THREAD + i;
+                        writer.put( layout.key( key ), layout.value( key ) );
+                    }
+                }
+            } ), 1 );
+            race.go();
+
+            // then
+            assertAllKeys( tree, layout, THREADS * KEYS_PER_THREAD );
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource( booleans = {true, false} )
+    void shouldInsertMergeAndRemoveInterleavedKeysConcurrently( boolean fixedSize ) throws Throwable
+    {
+        SimpleLongLayout layout = SimpleLongLayout.longLayout().withFixedSize( fixedSize ).build();
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTreeBuilder<>( pageCache, directory.file( "index" ), layout ).build() )
+        {
+            // when each thread inserts every THREADS:th key, overwrites it and removes every other of them again
+            Race race = new Race();
+            race.addContestants( THREADS, thread -> throwing( () ->
+            {
+                try ( Writer<MutableLong,MutableLong> writer = tree.concurrentWriter( NULL ) )
+                {
+                    for ( long key = thread; key < THREADS * KEYS_PER_THREAD; key += THREADS )
+                    {
+                        writer.put( layout.key( key ), layout.value( -1 ) );
+                        writer.put( layout.key( key ), layout.value( key ) );
+                    }
+                    for ( long key = thread; key < THREADS * KEYS_PER_THREAD; key += THREADS * 2 )
+                    {
+                        assertEquals( key, writer.remove( layout.key( key ) ).longValue() );
+                    }
+                }
+            } ), 1 );
+            race.go();
+
+            // then
+            try ( Seeker<MutableLong,MutableLong> seek = tree.seek( layout.key( 0 ), layout.key( Long.MAX_VALUE ), NULL ) )
+            {
+                for ( long key = 0; key < THREADS * KEYS_PER_THREAD; key++ )
+                {
+                    if ( key % (THREADS * 2) >= THREADS )
+                    {
+                        assertTrue( seek.next() );
+                        assertEquals( key, seek.key().longValue() );
+                        assertEquals( key, seek.value().longValue() );
+                    }
+                }
+                assertFalse( seek.next() );
+            }
+            assertTrue( tree.consistencyCheck( NULL ) );
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource( booleans = {true, false} )
+    void shouldSeeChangesFromConcurrentWritersAfterCheckpoint( boolean fixedSize ) throws Throwable
+    {
+        SimpleLongLayout layout = SimpleLongLayout.longLayout().withFixedSize( fixedSize ).build();
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTreeBuilder<>( pageCache, directory.file( "index" ), layout ).build() )
+        {
+            // given a tree where all nodes are of a stable generation, which makes writers create successors
+            try ( Writer<MutableLong,MutableLong> writer = tree.writer( NULL ) )
+            {
+                for ( long key = 0; key < THREADS * KEYS_PER_THREAD; key += 2 )
+                {
+                    writer.put( layout.key( key ), layout.value( key ) );
+                }
+            }
+            tree.checkpoint( IOLimiter.UNLIMITED, NULL );
+
+            // when
+            Race race = new Race();
+            race.addContestants( THREADS, thread -> throwing( () ->
+            {
+                try ( Writer<MutableLong,MutableLong> writer = tree.concurrentWriter( NULL ) )
+                {
+                    for ( long i = 1; i < KEYS_PER_THREAD; i += 2 )
+                    {
+                        long key = thread * KEYS_PER_THREAD + i;
+                        writer.put( layout.key( key ), layout.value( key ) );
+                    }
+                }
+            } ), 1 );
+            race.go();
+
+            // then
+            assertAllKeys( tree, layout, THREADS * KEYS_PER_THREAD );
+        }
+    }
+
+    private static void assertAllKeys( GBPTree<MutableLong,MutableLong> tree, SimpleLongLayout layout, long count ) throws IOException
+    {
+        try ( Seeker<MutableLong,MutableLong> seek = tree.seek( layout.key( 0 ), layout.key( Long.MAX_VALUE ), NULL ) )
+        {
+            for ( long key = 0; key < count; key++ )
+            {
+                assertTrue( seek.next() );
+                assertEquals( key, seek.key().longValue() );
+                assertEquals( key, seek.value().longValue() );
+            }
+            assertFalse( seek.next() );
+        }
+        assertTrue( tree.consistencyCheck( NULL ) );
+    }
+}
@@ -163,6 +163,40 @@ class GBPTreeLockTest
         assertOnlyOneSucceeds( lock::writerAndCleanerLock, lock::writerAndCleanerLock );
     }
 
+    @Test
+    void test_race_SharedvsShared() throws Throwable
+    {
+        assertBothSucceeds( lock::sharedWriterLock, lock::sharedWriterLock );
+    }
+
+    @Test
+    void test_race_SharedvsLU() throws Throwable
+    {
+        assertOnlyOneSucceeds( lock::sharedWriterLock, lock::writerLock );
+    }
+
+    @Test
+    void test_race_SharedvsUL() throws Throwable
+    {
+        assertOnlyOneSucceeds( lock::sharedWriterLock, lock::cleanerLock );
+    }
+
+    @Test
+    void sharedWriterLockShouldBlockWriterUntilAllSharedWritersUnlock() throws Exception
+    {
+        // given
+        lock.sharedWriterLock();
+        lock.sharedWriterLock();
+
+        // then
+        lock.sharedWriterUnlock();
+        copy = lock.copy();
+        assertBlock( copy::writerLock, copy::sharedWriterUnlock );
+        lock.sharedWriterUnlock();
+        assertUU();
+        assertThrows( IllegalStateException.class, lock::sharedWriterUnlock );
+    }
+
     private void assertOnlyOneSucceeds( Runnable lockAction1, Runnable lockAction2 ) throws Throwable
     {
         assertUU();
@@ -21,6 +21,7 @@ package org.neo4j.index.internal.gbptree;
 
 import org.apache.commons.lang3.mutable.MutableInt;
 import org.apache.commons.lang3.mutable.MutableLong;
+import org.apache.commons.lang3.tuple.Pair;
 import org.eclipse.collections.api.list.primitive.IntList;
 import org.eclipse.collections.api.list.primitive.MutableIntList;
 import org.eclipse.collections.impl.factory.primitive.IntLists;
@@ -28,7 +29,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.neo4j.io.fs.FileSystemAbstraction;
@@ -130,6 +133,30 @@ class PartitionedSeekTest
         }
     }
 
+    @Test
+    void shouldPartitionRangeIntoSameRangesAsSeekers() throws IOException
+    {
+        try ( GBPTree<MutableLong,MutableLong> tree = instantiateTree() )
+        {
+            // given
+            int numberOfRootChildren = random.nextInt( 10, 20 );
+            int high = insertEntriesUntil( tree, numberOfRootChildren );
+            int numberOfDesiredPartitions = random.nextInt( 1, numberOfRootChildren );
+
+            // when
+            List<Pair<MutableLong,MutableLong>> partitions = tree.partitionRange( layout.key( 0 ), layout.key( high ), numberOfDesiredPartitions, NULL );
+
+            // then
+            assertEquals( tree.partitionedSeek( layout.key( 0 ), layout.key( high ), numberOfDesiredPartitions, NULL ).size(), partitions.size() );
+            Collection<Seeker<MutableLong,MutableLong>> seekers = new ArrayList<>();
+            for ( Pair<MutableLong,MutableLong> partition : partitions )
+            {
+                seekers.add( tree.seek( partition.getLeft(), partition.getRight(), NULL ) );
+            }
+            assertEntries( 0, high, seekers );
+        }
+    }
+
     @Test
     void shouldPartitionSeekersDuringTreeModifications() throws IOException
     {
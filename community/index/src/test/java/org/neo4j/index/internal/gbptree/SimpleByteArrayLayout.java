@@ -48,6 +48,7 @@ public class SimpleByteArrayLayout extends TestLayout<RawBytes,RawBytes>
     private final boolean useFirstLongAsSeed;
     private final int largeEntriesSize;
     private final long largeEntryModulo;
+    private final boolean prefixCompressedLeaves;
 
     /**
      * This should be default constructor unless you want to exactly control entry size from outside
@@ -90,11 +91,31 @@ public class SimpleByteArrayLayout extends TestLayout<RawBytes,RawBytes>
     }
 
     private SimpleByteArrayLayout( boolean useFirstLongAsSeed, int largeEntriesSize, long largeEntryModulo )
+    {
+        this( useFirstLongAsSeed, largeEntriesSize, largeEntryModulo, false );
+    }
+
+    private SimpleByteArrayLayout( boolean useFirstLongAsSeed, int largeEntriesSize, long largeEntryModulo, boolean prefixCompressedLeaves )
     {
         super( false, 666, 0, 0 );
         this.useFirstLongAsSeed = useFirstLongAsSeed;
         this.largeEntriesSize = largeEntriesSize;
         this.largeEntryModulo = largeEntryModulo;
+        this.prefixCompressedLeaves = prefixCompressedLeaves;
+    }
+
+    /**
+     * @return a layout like this one, except that trees created with it have {@link #prefixCompressedLeaves() prefix compressed leaves}.
+     */
+    SimpleByteArrayLayout withPrefixCompressedLeaves()
+    {
+        return new SimpleByteArrayLayout( useFirstLongAsSeed, largeEntriesSize, largeEntryModulo, true );
+    }
+
+    @Override
+    public boolean prefixCompressedLeaves()
+    {
+        return prefixCompressedLeaves;
     }
 
     @Override
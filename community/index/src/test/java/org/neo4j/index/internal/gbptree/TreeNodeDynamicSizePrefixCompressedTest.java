@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.neo4j.io.pagecache.PageCursor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.neo4j.index.internal.gbptree.TreeNode.Overflow.YES;
+import static org.neo4j.index.internal.gbptree.TreeNode.Type.LEAF;
+import static org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer.NULL;
+
+public class TreeNodeDynamicSizePrefixCompressedTest extends TreeNodeTestBase<RawBytes,RawBytes>
+{
+    private static final int PREFIX_SIZE = 40;
+
+    private final SimpleByteArrayLayout layout = new SimpleByteArrayLayout().withPrefixCompressedLeaves();
+    // Compares keys byte by byte, so that keys sharing a prefix are next to each other
+    private final SimpleByteArrayLayout bytesLayout = new SimpleByteArrayLayout( false ).withPrefixCompressedLeaves();
+
+    @Override
+    protected TestLayout<RawBytes,RawBytes> getLayout()
+    {
+        return layout;
+    }
+
+    @Override
+    protected TreeNodeDynamicSizePrefixCompressed<RawBytes,RawBytes> getNode( int pageSize, Layout<RawBytes,RawBytes> layout,
+            OffloadStore<RawBytes,RawBytes> offloadStore )
+    {
+        return new TreeNodeDynamicSizePrefixCompressed<>( pageSize, layout, offloadStore );
+    }
+
+    @Override
+    void assertAdditionalHeader( PageCursor cursor, TreeNode<RawBytes,RawBytes> node, int pageSize )
+    {
+        // When
+        int currentAllocSpace = ((TreeNodeDynamicSize) node).getAllocOffset( cursor );
+
+        // Then
+        assertEquals( pageSize, currentAllocSpace, "allocSpace point to end of page" );
+    }
+
+    @Test
+    void shouldFitMoreKeysSharingPrefix() throws IOException
+    {
+        int compressedKeyCount = fillLeaf( new TreeNodeDynamicSizePrefixCompressed<>( PAGE_SIZE, bytesLayout, createOffloadStore() ) );
+        int keyCount = fillLeaf( new TreeNodeDynamicSize<>( PAGE_SIZE, bytesLayout, createOffloadStore() ) );
+
+        assertThat( compressedKeyCount ).isGreaterThan( keyCount * 3 );
+    }
+
+    @Test
+    void shouldReadKeysAfterInsertingKeyNotStartingWithPrefix() throws IOException
+    {
+        // Given
+        TreeNodeDynamicSizePrefixCompressed<RawBytes,RawBytes> node =
+                new TreeNodeDynamicSizePrefixCompressed<>( PAGE_SIZE, bytesLayout, createOffloadStore() );
+        int keyCount = insertKeys( node, 5 );
+        node.defragmentLeaf( cursor );
+
+        // When
+        RawBytes first = key( 0 );
+        first.bytes[0] = 0;
+        assertThat( node.leafOverflow( cursor, keyCount, first, value() ) ).isNotEqualTo( YES );
+        node.insertKeyValueAt( cursor, first, value(), 0, keyCount, STABLE_GENERATION, UNSTABLE_GENERATION, NULL );
+        keyCount++;
+        TreeNode.setKeyCount( cursor, keyCount );
+
+        // Then
+        assertArrayEquals( first.bytes, node.keyAt( cursor, bytesLayout.newKey(), 0, LEAF, NULL ).bytes );
+        for ( int i = 1; i < keyCount; i++ )
+        {
+            assertArrayEquals( key( i - 1 ).bytes, node.keyAt( cursor, bytesLayout.newKey(), i, LEAF, NULL ).bytes );
+        }
+        assertEquals( "", node.checkMetaConsistency( cursor, keyCount, LEAF, new GBPTreeConsistencyCheckVisitor.Adaptor<>() ) );
+    }
+
+    @Test
+    void shouldSplitLeafOfKeysSharingPrefix() throws IOException
+    {
+        // Given
+        TreeNodeDynamicSizePrefixCompressed<RawBytes,RawBytes> node =
+                new TreeNodeDynamicSizePrefixCompressed<>( PAGE_SIZE, bytesLayout, createOffloadStore() );
+        int keyCount = fillLeaf( node );
+        PageAwareByteArrayCursor rightCursor = cursor.duplicate();
+        rightCursor.next( 100 );
+        node.initializeLeaf( rightCursor, STABLE_GENERATION, UNSTABLE_GENERATION );
+
+        // When
+        RawBytes splitter = bytesLayout.newKey();
+        node.doSplitLeaf( cursor, keyCount, rightCursor, keyCount, key( keyCount ), value(), splitter, 0.5, STABLE_GENERATION,
+                UNSTABLE_GENERATION, NULL );
+
+        // Then
+        int leftKeyCount = TreeNode.keyCount( cursor );
+        int rightKeyCount = TreeNode.keyCount( rightCursor );
+        assertEquals( keyCount + 1, leftKeyCount + rightKeyCount );
+        for ( int i = 0; i < leftKeyCount; i++ )
+        {
+            assertArrayEquals( key( i ).bytes, node.keyAt( cursor, bytesLayout.newKey(), i, LEAF, NULL ).bytes );
+        }
+        for ( int i = 0; i < rightKeyCount; i++ )
+        {
+            assertArrayEquals( key( leftKeyCount + i ).bytes, node.keyAt( rightCursor, bytesLayout.newKey(), i, LEAF, NULL ).bytes );
+        }
+        assertThat( bytesLayout.compare( splitter, key( leftKeyCount - 1 ) ) ).isGreaterThan( 0 );
+        assertThat( bytesLayout.compare( splitter, key( leftKeyCount ) ) ).isLessThanOrEqualTo( 0 );
+    }
+
+    /**
+     * Inserts keys sharing a prefix at the end of the leaf until it's full.
+     * @return number of keys in the leaf.
+     */
+    private int fillLeaf( TreeNodeDynamicSize<RawBytes,RawBytes> node ) throws IOException
+    {
+        return insertKeys( node, Integer.MAX_VALUE );
+    }
+
+    /**
+     * Inserts keys sharing a prefix at the end of the leaf until it's full or has the given number of keys.
+     * @return number of keys in the leaf.
+     */
+    private int insertKeys( TreeNodeDynamicSize<RawBytes,RawBytes> node, int maxKeyCount ) throws IOException
+    {
+        cursor.zapPage();
+        node.initializeLeaf( cursor, STABLE_GENERATION, UNSTABLE_GENERATION );
+        int keyCount = 0;
+        while ( keyCount < maxKeyCount )
+        {
+            RawBytes key = key( keyCount );
+            TreeNode.Overflow overflow = node.leafOverflow( cursor, keyCount, key, value() );
+            if ( overflow == YES )
+            {
+                return keyCount;
+            }
+            if ( overflow == TreeNode.Overflow.NO_NEED_DEFRAG )
+            {
+                node.defragmentLeaf( cursor );
+            }
+            node.insertKeyValueAt( cursor, key, value(), keyCount, keyCount, STABLE_GENERATION, UNSTABLE_GENERATION, NULL );
+            keyCount++;
+            TreeNode.setKeyCount( cursor, keyCount );
+        }
+        return keyCount;
+    }
+
+    private static RawBytes key( int id )
+    {
+        RawBytes key = new RawBytes();
+        key.bytes = new byte[PREFIX_SIZE + Short.BYTES];
+        Arrays.fill( key.bytes, 0, PREFIX_SIZE, (byte) 'a' );
+        key.bytes[PREFIX_SIZE] = (byte) (id >>> 8);
+        key.bytes[PREFIX_SIZE + 1] = (byte) id;
+        return key;
+    }
+
+    private static RawBytes value()
+    {
+        RawBytes value = new RawBytes();
+        value.bytes = new byte[0];
+        return value;
+    }
+}
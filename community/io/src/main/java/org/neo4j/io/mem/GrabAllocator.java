@@ -19,17 +19,23 @@
  */
 package org.neo4j.io.mem;
 
+import org.neo4j.internal.nativeimpl.NativeAccessProvider;
 import org.neo4j.internal.unsafe.UnsafeUtil;
 import org.neo4j.memory.MemoryTracker;
 
 import java.lang.ref.Cleaner;
 
 import static org.neo4j.io.ByteUnit.kibiBytes;
+import static org.neo4j.io.ByteUnit.mebiBytes;
 import static org.neo4j.util.FeatureToggles.getInteger;
 
 /**
  * This memory allocator is allocating memory in large segments, called "grabs", and the memory returned by the memory
  * manager is page aligned, and plays well with transparent huge pages and other operating system optimisations.
+ * <p>
+ * When huge pages are requested, the grabs are made large enough to span many huge pages, and the huge page aligned
+ * part of every grab is advised to the operating system as a candidate for transparent huge pages. This reduces the
+ * TLB pressure from randomly accessing very large amounts of memory, such as the page cache memory.
  */
 public final class GrabAllocator implements MemoryAllocator
 {
@@ -45,10 +51,11 @@ public final class GrabAllocator implements MemoryAllocator
      * @param expectedMaxMemory The maximum amount of memory that this memory manager is expected to allocate. The
      * actual amount of memory used can end up greater than this value, if some of it gets wasted on alignment padding.
      * @param memoryTracker memory usage tracker
+     * @param hugePages {@code true} if the grabbed memory should be advised to be backed by transparent huge pages.
      */
-    GrabAllocator( long expectedMaxMemory, MemoryTracker memoryTracker )
+    GrabAllocator( long expectedMaxMemory, MemoryTracker memoryTracker, boolean hugePages )
     {
-        this.grabs = new Grabs( expectedMaxMemory, memoryTracker );
+        this.grabs = new Grabs( expectedMaxMemory, memoryTracker, hugePages );
         this.cleanable = globalCleaner.register( this, new GrabsDeallocator( grabs ) );
     }
 
@@ -78,19 +85,28 @@ public final class GrabAllocator implements MemoryAllocator
 
     private static class Grab
     {
+        /**
+         * The size of a transparent huge page on x86-64, which is also the alignment of the huge pages.
+         */
+        private static final long HUGE_PAGE_SIZE = mebiBytes( 2 );
+
         public final Grab next;
         private final long address;
         private final long limit;
         private final MemoryTracker memoryTracker;
         private long nextPointer;
 
-        Grab( Grab next, long size, MemoryTracker memoryTracker )
+        Grab( Grab next, long size, MemoryTracker memoryTracker, boolean hugePages )
         {
             this.next = next;
             this.address = UnsafeUtil.allocateMemory( size, memoryTracker );
             this.limit = address + size;
             this.memoryTracker = memoryTracker;
             nextPointer = address;
+            if ( hugePages )
+            {
+                adviseHugePages( address, limit );
+            }
         }
 
         Grab( Grab next, long address, long limit, long nextPointer, MemoryTracker memoryTracker )
@@ -116,6 +132,18 @@ public final class GrabAllocator implements MemoryAllocator
             return pointer + (alignment - off);
         }
 
+        private static void adviseHugePages( long address, long limit )
+        {
+            // Only whole huge pages can be backed by huge pages, so we leave the unaligned ends of the grab alone.
+            long start = nextAligned( address, HUGE_PAGE_SIZE );
+            long end = limit - limit % HUGE_PAGE_SIZE;
+            if ( start < end )
+            {
+                // This is only advice, so we don't care if it fails. We'll just end up using regular pages.
+                NativeAccessProvider.getNativeAccess().tryAdviseHugePages( start, end - start );
+            }
+        }
+
         long allocate( long bytes, long alignment )
         {
             long allocation = nextAligned( nextPointer, alignment );
@@ -154,15 +182,23 @@ public final class GrabAllocator implements MemoryAllocator
          * The amount of memory, in bytes, to grab in each Grab.
          */
         private static final long GRAB_SIZE = getInteger( GrabAllocator.class, "GRAB_SIZE", (int) kibiBytes( 512 ) );
+        /**
+         * The amount of memory, in bytes, to grab in each Grab, when the memory is to be backed by huge pages.
+         */
+        private static final long HUGE_PAGES_GRAB_SIZE = getInteger( GrabAllocator.class, "HUGE_PAGES_GRAB_SIZE", (int) mebiBytes( 64 ) );
 
         private final MemoryTracker memoryTracker;
+        private final boolean hugePages;
+        private final long grabSize;
         private long expectedMaxMemory;
         private Grab head;
 
-        Grabs( long expectedMaxMemory, MemoryTracker memoryTracker )
+        Grabs( long expectedMaxMemory, MemoryTracker memoryTracker, boolean hugePages )
         {
             this.expectedMaxMemory = expectedMaxMemory;
             this.memoryTracker = memoryTracker;
+            this.hugePages = hugePages;
+            this.grabSize = hugePages ? HUGE_PAGES_GRAB_SIZE : GRAB_SIZE;
         }
 
         long usedMemory()
@@ -206,19 +242,19 @@ public final class GrabAllocator implements MemoryAllocator
             {
                 throw new IllegalArgumentException( "Invalid alignment: " + alignment + ". Alignment must be positive." );
             }
-            long grabSize = Math.min( GRAB_SIZE, expectedMaxMemory );
+            long grabSize = Math.min( this.grabSize, expectedMaxMemory );
             long maxAllocationSize = bytes + alignment - 1;
-            if ( maxAllocationSize > GRAB_SIZE )
+            if ( maxAllocationSize > this.grabSize )
             {
                 // This is a huge allocation. Put it in its own grab and keep any existing grab at the head.
                 grabSize = bytes;
                 Grab nextGrab = head == null ? null : head.next;
-                Grab allocationGrab = new Grab( nextGrab, grabSize, memoryTracker );
+                Grab allocationGrab = new Grab( nextGrab, grabSize, memoryTracker, hugePages );
                 if ( !allocationGrab.canAllocate( bytes, alignment ) )
                 {
                     allocationGrab.free();
                     grabSize = maxAllocationSize;
-                    allocationGrab = new Grab( nextGrab, grabSize, memoryTracker );
+                    allocationGrab = new Grab( nextGrab, grabSize, memoryTracker, hugePages );
                 }
                 long allocation = allocationGrab.allocate( bytes, alignment );
                 head = head == null ? allocationGrab : head.setNext( allocationGrab );
@@ -231,7 +267,7 @@ public final class GrabAllocator implements MemoryAllocator
                 if ( grabSize < bytes )
                 {
                     grabSize = bytes;
-                    Grab grab = new Grab( head, grabSize, memoryTracker );
+                    Grab grab = new Grab( head, grabSize, memoryTracker, hugePages );
                     if ( grab.canAllocate( bytes, alignment ) )
                     {
                         expectedMaxMemory -= grabSize;
@@ -241,7 +277,7 @@ public final class GrabAllocator implements MemoryAllocator
                     grab.free();
                     grabSize = maxAllocationSize;
                 }
-                head = new Grab( head, grabSize, memoryTracker );
+                head = new Grab( head, grabSize, memoryTracker, hugePages );
                 expectedMaxMemory -= grabSize;
             }
             return head.allocate( bytes, alignment );
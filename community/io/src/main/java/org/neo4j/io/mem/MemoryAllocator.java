@@ -29,7 +29,17 @@ public interface MemoryAllocator
 {
     static MemoryAllocator createAllocator( String expectedMemory, MemoryTracker memoryTracker )
     {
-        return new GrabAllocator( ByteUnit.parse( expectedMemory ), memoryTracker );
+        return createAllocator( expectedMemory, memoryTracker, false );
+    }
+
+    /**
+     * @param expectedMemory the amount of memory the allocator is expected to allocate.
+     * @param memoryTracker memory usage tracker.
+     * @param hugePages {@code true} if the allocated memory should be advised to be backed by transparent huge pages.
+     */
+    static MemoryAllocator createAllocator( String expectedMemory, MemoryTracker memoryTracker, boolean hugePages )
+    {
+        return new GrabAllocator( ByteUnit.parse( expectedMemory ), memoryTracker, hugePages );
     }
 
     /**
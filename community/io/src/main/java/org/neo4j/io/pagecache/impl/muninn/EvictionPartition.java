@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import java.util.concurrent.locks.LockSupport;
+
+import org.neo4j.internal.unsafe.UnsafeUtil;
+
+/**
+ * A contiguous range of pages in the {@link PageList}, together with the free-list that the pages in the range are
+ * returned to once evicted, and the state of the background thread that does the eviction for the range.
+ * <p>
+ * Each partition is swept by its own {@link EvictionTask}, so eviction throughput can scale with the number of
+ * partitions, and page faulting threads spread out over the free-lists rather than all contending on a single head.
+ */
+final class EvictionPartition
+{
+    // The field offset to unsafely access the freelist field.
+    private static final long freelistOffset = UnsafeUtil.getFieldOffset( EvictionPartition.class, "freelist" );
+
+    final int index;
+    final int firstPageId;
+    final int pageCount;
+
+    // See the comment on MuninnPageCache.grabFreeAndExclusivelyLockedPage for how the freelist operates.
+    // The only difference here, is that the AtomicInteger counts from zero to the page count of this partition.
+    @SuppressWarnings( "unused" ) // This field is accessed via Unsafe.
+    private volatile Object freelist;
+
+    // The thread that runs the eviction algorithm for this partition.
+    private volatile Thread evictionThread;
+    // True if the eviction thread is currently parked, without someone having signalled it to wake up.
+    private volatile boolean evictorParked;
+
+    EvictionPartition( int index, int firstPageId, int pageCount, Object freelistHead )
+    {
+        this.index = index;
+        this.firstPageId = firstPageId;
+        this.pageCount = pageCount;
+        setFreelistHead( freelistHead );
+    }
+
+    int endPageId()
+    {
+        return firstPageId + pageCount;
+    }
+
+    Object getFreelistHead()
+    {
+        return UnsafeUtil.getObjectVolatile( this, freelistOffset );
+    }
+
+    boolean compareAndSetFreelistHead( Object expected, Object update )
+    {
+        return UnsafeUtil.compareAndSwapObject( this, freelistOffset, expected, update );
+    }
+
+    void setFreelistHead( Object newFreelistHead )
+    {
+        UnsafeUtil.putObjectVolatile( this, freelistOffset, newFreelistHead );
+    }
+
+    void setEvictionThread( Thread thread )
+    {
+        evictionThread = thread;
+    }
+
+    void unparkEvictor()
+    {
+        if ( evictorParked )
+        {
+            evictorParked = false;
+            LockSupport.unpark( evictionThread );
+        }
+    }
+
+    void parkEvictor( Object blocker, long parkNanos )
+    {
+        // Only called from the background eviction thread of this partition!
+        evictorParked = true;
+        LockSupport.parkNanos( blocker, parkNanos );
+        evictorParked = false;
+    }
+
+    void interruptEvictor()
+    {
+        Thread thread = evictionThread;
+        if ( thread != null )
+        {
+            thread.interrupt();
+        }
+        evictionThread = null;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "EvictionPartition[index:" + index + ", pages:[" + firstPageId + "," + endPageId() + ")]";
+    }
+}
@@ -34,7 +34,6 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.locks.LockSupport;
 
 import org.neo4j.internal.unsafe.UnsafeUtil;
 import org.neo4j.io.mem.MemoryAllocator;
@@ -120,8 +119,8 @@ public class MuninnPageCache implements PageCache
     private static final int MEMORY_USE_PER_PAGE = PAGE_SIZE + PageList.META_DATA_BYTES_PER_PAGE;
 
     // Keep this many pages free and ready for use in faulting.
-    // This will be truncated to be no more than half of the number of pages
-    // in the cache.
+    // This is divided over the eviction partitions, and will be truncated to
+    // be no more than half of the number of pages in each partition.
     private static final int pagesToKeepFree = getInteger(
             MuninnPageCache.class, "pagesToKeepFree", 30 );
 
@@ -130,15 +129,20 @@ public class MuninnPageCache implements PageCache
     private static final int cooperativeEvictionLiveLockThreshold = getInteger(
             MuninnPageCache.class, "cooperativeEvictionLiveLockThreshold", 100 );
 
+    // The page list is divided into this many partitions, each with its own free-list and background eviction thread,
+    // so eviction can keep up with page faulting on machines with many cores.
+    private static final int evictionThreads = getInteger(
+            MuninnPageCache.class, "evictionThreads", Math.max( 1, Runtime.getRuntime().availableProcessors() / 8 ) );
+
+    // Partitions are never made smaller than this, because small caches do not need more than one eviction thread.
+    private static final int minimumPagesPerEvictionPartition = getInteger(
+            MuninnPageCache.class, "minimumPagesPerEvictionPartition", 32768 );
+
     // This is a pre-allocated constant, so we can throw it without allocating any objects:
     @SuppressWarnings( "ThrowableInstanceNeverThrown" )
     private static final IOException oomException = new IOException(
             "OutOfMemoryError encountered in the page cache background eviction thread" );
 
-    // The field offset to unsafely access the freelist field.
-    private static final long freelistOffset =
-            UnsafeUtil.getFieldOffset( MuninnPageCache.class, "freelist" );
-
     // This is used as a poison-pill signal in the freelist, to inform any
     // page faulting thread that it is now no longer possible to queue up and
     // wait for more pages to be evicted, because the page cache has been shut
@@ -164,33 +168,33 @@ public class MuninnPageCache implements PageCache
     private final int keepFree;
     private final PageCacheTracer pageCacheTracer;
     private final VersionContextSupplier versionContextSupplier;
+    private final PageReplacementPolicy replacementPolicy;
     final PageList pages;
     // All PageCursors are initialised with their pointers pointing to the victim page. This way, we don't have to throw
     // exceptions on bounds checking failures; we can instead return the victim page pointer, and permit the page
     // accesses to take place without fear of segfaulting newly allocated cursors.
     final long victimPage;
 
-    // The freelist is a thread-safe linked-list of FreePage objects, or an AtomicInteger, or null.
-    // Initially, the field is an AtomicInteger that counts from zero to the max page count, at which point all of the
-    // pages have been put in use. Once this happens, the field is set to null to allow the background eviction thread
-    // to start its work. From that point on, the field will operate as a concurrent stack of FreePage objects. The
-    // eviction thread pushes newly freed FreePage objects onto the stack, and page faulting threads pops FreePage
-    // objects from the stack. The FreePage objects are single-use, to avoid running into the ABA-problem.
-    @SuppressWarnings( "unused" ) // This field is accessed via Unsafe.
-    private volatile Object freelist;
+    // The pages are divided into contiguous partitions of this many pages, except the last which may be smaller.
+    private final int pagesPerPartition;
+
+    // Every partition has a freelist, which is a thread-safe linked-list of FreePage objects, or an AtomicInteger, or
+    // null. Initially, the freelist is an AtomicInteger that counts from zero to the page count of the partition, at
+    // which point all of the pages in the partition have been put in use. Once this happens, the freelist is set to
+    // null to allow the background eviction thread of the partition to start its work. From that point on, the
+    // freelist will operate as a concurrent stack of FreePage objects. The eviction thread pushes newly freed FreePage
+    // objects onto the stack, and page faulting threads pops FreePage objects from the stack. The FreePage objects are
+    // single-use, to avoid running into the ABA-problem.
+    // Every partition also has its own eviction thread. We unpark these when we've run out of free pages to grab.
+    // Each partition tracks if its eviction thread is currently parked, without someone having signalled it to wake
+    // up. This is used as a weak guard for unparking the eviction threads, because calling unpark too much (from many
+    // page faulting threads) can cause contention on the locks protecting that threads scheduling meta-data in the OS
+    // kernel.
+    private final EvictionPartition[] partitions;
 
     // Linked list of mappings - guarded by synchronized(this)
     private volatile FileMapping mappedFiles;
 
-    // The thread that runs the eviction algorithm. We unpark this when we've run out of
-    // free pages to grab.
-    private volatile Thread evictionThread;
-    // True if the eviction thread is currently parked, without someone having
-    // signalled it to wake up. This is used as a weak guard for unparking the
-    // eviction thread, because calling unpark too much (from many page
-    // faulting threads) can cause contention on the locks protecting that
-    // threads scheduling meta-data in the OS kernel.
-    private volatile boolean evictorParked;
     private volatile IOException evictorException;
 
     // Flag for when page cache is closed - writes guarded by synchronized(this), reads can be unsynchronized
@@ -241,7 +245,21 @@ public class MuninnPageCache implements PageCache
     public MuninnPageCache( PageSwapperFactory swapperFactory, MemoryAllocator memoryAllocator, PageCacheTracer pageCacheTracer,
             VersionContextSupplier versionContextSupplier, JobScheduler jobScheduler, SystemNanoClock clock )
     {
-        this( swapperFactory, memoryAllocator, PAGE_SIZE, pageCacheTracer, versionContextSupplier, jobScheduler, clock );
+        this( swapperFactory, memoryAllocator, pageCacheTracer, versionContextSupplier, jobScheduler, clock, PageReplacementPolicy.CLOCK );
+    }
+
+    /**
+     * Create page cache.
+     * @param swapperFactory page cache swapper factory
+     * @param memoryAllocator the source of native memory the page cache should use
+     * @param pageCacheTracer global page cache tracer
+     * @param versionContextSupplier supplier of thread local (transaction local) version context that will provide access to thread local version context
+     * @param replacementPolicy the policy that decides how page accesses count towards keeping pages in memory
+     */
+    public MuninnPageCache( PageSwapperFactory swapperFactory, MemoryAllocator memoryAllocator, PageCacheTracer pageCacheTracer,
+            VersionContextSupplier versionContextSupplier, JobScheduler jobScheduler, SystemNanoClock clock, PageReplacementPolicy replacementPolicy )
+    {
+        this( swapperFactory, memoryAllocator, PAGE_SIZE, pageCacheTracer, versionContextSupplier, jobScheduler, clock, replacementPolicy );
     }
 
     /**
@@ -252,6 +270,24 @@ public class MuninnPageCache implements PageCache
     @Deprecated
     public MuninnPageCache( PageSwapperFactory swapperFactory, MemoryAllocator memoryAllocator, int cachePageSize, PageCacheTracer pageCacheTracer,
             VersionContextSupplier versionContextSupplier, JobScheduler jobScheduler, SystemNanoClock clock )
+    {
+        this( swapperFactory, memoryAllocator, cachePageSize, pageCacheTracer, versionContextSupplier, jobScheduler, clock, PageReplacementPolicy.CLOCK );
+    }
+
+    private MuninnPageCache( PageSwapperFactory swapperFactory, MemoryAllocator memoryAllocator, int cachePageSize, PageCacheTracer pageCacheTracer,
+            VersionContextSupplier versionContextSupplier, JobScheduler jobScheduler, SystemNanoClock clock, PageReplacementPolicy replacementPolicy )
+    {
+        this( swapperFactory, memoryAllocator, cachePageSize, pageCacheTracer, versionContextSupplier, jobScheduler, clock, replacementPolicy,
+                evictionThreads, minimumPagesPerEvictionPartition );
+    }
+
+    /**
+     * Constructor variant that allows choosing how the pages are divided into eviction partitions.
+     * Only ever use this for testing.
+     */
+    MuninnPageCache( PageSwapperFactory swapperFactory, MemoryAllocator memoryAllocator, int cachePageSize, PageCacheTracer pageCacheTracer,
+            VersionContextSupplier versionContextSupplier, JobScheduler jobScheduler, SystemNanoClock clock, PageReplacementPolicy replacementPolicy,
+            int evictionThreads, int minimumPagesPerEvictionPartition )
     {
         verifyHacks();
         verifyCachePageSizeIsPowerOfTwo( cachePageSize );
@@ -263,16 +299,49 @@ public class MuninnPageCache implements PageCache
         this.pageCacheId = pageCacheIdCounter.incrementAndGet();
         this.swapperFactory = swapperFactory;
         this.cachePageSize = cachePageSize;
-        this.keepFree = Math.min( pagesToKeepFree, maxPages / 2 );
+        int partitionCount = evictionPartitionCount( maxPages, evictionThreads, minimumPagesPerEvictionPartition );
+        this.pagesPerPartition = (maxPages + partitionCount - 1) / partitionCount;
+        // Every partition keeps its share of the pages to keep free, so the cache as a whole keeps about pagesToKeepFree pages free.
+        int pagesToKeepFreePerPartition = (pagesToKeepFree + partitionCount - 1) / partitionCount;
+        this.keepFree = Math.min( pagesToKeepFreePerPartition, pagesPerPartition / 2 );
         this.pageCacheTracer = pageCacheTracer;
         this.versionContextSupplier = versionContextSupplier;
+        this.replacementPolicy = replacementPolicy;
         this.printExceptionsOnClose = true;
         this.victimPage = VictimPageReference.getVictimPage( cachePageSize );
         this.pages = new PageList( maxPages, cachePageSize, memoryAllocator, new SwapperSet(), victimPage, UnsafeUtil.pageSize() );
         this.scheduler = jobScheduler;
         this.clock = clock;
+        this.partitions = createPartitions( maxPages, pagesPerPartition );
+    }
 
-        setFreelistHead( new AtomicInteger() );
+    /**
+     * Compute how many {@link EvictionPartition partitions}, and thereby eviction threads, a page cache with the given
+     * number of pages should have.
+     * @param maxPages The number of pages in the page cache
+     * @param evictionThreads The desired number of eviction threads
+     * @param minimumPagesPerPartition The smallest number of pages a partition is allowed to have
+     * @return The number of partitions to divide the pages into, which is always at least one
+     */
+    static int evictionPartitionCount( int maxPages, int evictionThreads, int minimumPagesPerPartition )
+    {
+        int partitionsByPageCount = maxPages / Math.max( 1, minimumPagesPerPartition );
+        int partitionCount = Math.max( 1, Math.min( evictionThreads, partitionsByPageCount ) );
+        // Rounding the partition size up can leave the trailing partitions empty, so recompute the count from it.
+        int pagesPerPartition = (maxPages + partitionCount - 1) / partitionCount;
+        return (maxPages + pagesPerPartition - 1) / pagesPerPartition;
+    }
+
+    private static EvictionPartition[] createPartitions( int maxPages, int pagesPerPartition )
+    {
+        EvictionPartition[] partitions = new EvictionPartition[(maxPages + pagesPerPartition - 1) / pagesPerPartition];
+        for ( int i = 0; i < partitions.length; i++ )
+        {
+            int firstPageId = i * pagesPerPartition;
+            int pageCount = Math.min( pagesPerPartition, maxPages - firstPageId );
+            partitions[i] = new EvictionPartition( i, firstPageId, pageCount, new AtomicInteger() );
+        }
+        return partitions;
     }
 
     private static void verifyHacks()
@@ -471,7 +540,10 @@ public class MuninnPageCache implements PageCache
 
         try
         {
-            scheduler.schedule( Group.PAGE_CACHE_EVICTION, new EvictionTask( this ) );
+            for ( EvictionPartition partition : partitions )
+            {
+                scheduler.schedule( Group.PAGE_CACHE_EVICTION, new EvictionTask( this, partition ) );
+            }
         }
         catch ( Exception e )
         {
@@ -661,21 +733,15 @@ public class MuninnPageCache implements PageCache
 
         closed = true;
 
-        interrupt( evictionThread );
-        evictionThread = null;
+        for ( EvictionPartition partition : partitions )
+        {
+            partition.interruptEvictor();
+        }
 
         // Close the page swapper factory last. If this fails then we will still consider ourselves closed.
         swapperFactory.close();
     }
 
-    private static void interrupt( Thread thread )
-    {
-        if ( thread != null )
-        {
-            thread.interrupt();
-        }
-    }
-
     private void assertHealthy() throws IOException
     {
         assertNotClosed();
@@ -712,6 +778,11 @@ public class MuninnPageCache implements PageCache
         return versionContextSupplier;
     }
 
+    PageReplacementPolicy replacementPolicy()
+    {
+        return replacementPolicy;
+    }
+
     int getPageCacheId()
     {
         return pageCacheId;
@@ -719,7 +790,33 @@ public class MuninnPageCache implements PageCache
 
     long grabFreeAndExclusivelyLockedPage( PageFaultEvent faultEvent ) throws IOException
     {
-        // Review the comment on the freelist field before making changes to
+        // Every thread starts looking for free pages in its own home partition, and only moves on to the freelists of
+        // the other partitions when that one is empty. This spreads the page faulting threads out over the freelists.
+        // Only when all the freelists are empty do we unpark the evictors and do our own eviction.
+        int homePartition = (int) (Thread.currentThread().getId() % partitions.length);
+        for (;;)
+        {
+            assertHealthy();
+            for ( int i = 0; i < partitions.length; i++ )
+            {
+                long pageRef = grabFreePage( partitions[(homePartition + i) % partitions.length] );
+                if ( pageRef != 0 )
+                {
+                    return pageRef;
+                }
+            }
+            unparkEvictors();
+            long pageRef = cooperativelyEvict( faultEvent );
+            if ( pageRef != 0 )
+            {
+                return pageRef;
+            }
+        }
+    }
+
+    private long grabFreePage( EvictionPartition partition )
+    {
+        // Review the comment on the partitions field before making changes to
         // this part of the code.
         // Whatever the case, we're going to the head-pointer of the freelist,
         // and in doing so, we can discover a number of things.
@@ -734,7 +831,7 @@ public class MuninnPageCache implements PageCache
         // been emptied for whatever it contained before. New FreePage objects
         // are eventually going to be added to the freelist, but we are not
         // going to wait around for that to happen. If the freelist is empty,
-        // then we do our own eviction to get a free page.
+        // then we return zero and let the caller look elsewhere.
         // If we find a FreePage object on the freelist, then it is important
         // to check and see if it is the shutdownSignal instance. If that's the
         // case, then the page cache has been shut down, and we should throw an
@@ -742,29 +839,23 @@ public class MuninnPageCache implements PageCache
         Object current;
         for (;;)
         {
-            assertHealthy();
-            current = getFreelistHead();
+            current = partition.getFreelistHead();
             if ( current == null )
             {
-                unparkEvictor();
-                long pageRef = cooperativelyEvict( faultEvent );
-                if ( pageRef != 0 )
-                {
-                    return pageRef;
-                }
+                return 0;
             }
             else if ( current instanceof AtomicInteger )
             {
-                int pageCount = pages.getPageCount();
+                int pageCount = partition.pageCount;
                 AtomicInteger counter = (AtomicInteger) current;
-                int pageId = counter.get();
-                if ( pageId < pageCount && counter.compareAndSet( pageId, pageId + 1 ) )
+                int pageIndex = counter.get();
+                if ( pageIndex < pageCount && counter.compareAndSet( pageIndex, pageIndex + 1 ) )
                 {
-                    return pages.deref( pageId );
+                    return pages.deref( partition.firstPageId + pageIndex );
                 }
-                if ( pageId >= pageCount )
+                if ( pageIndex >= pageCount )
                 {
-                    compareAndSetFreelistHead( current, null );
+                    partition.compareAndSetFreelistHead( current, null );
                 }
             }
             else if ( current instanceof FreePage )
@@ -775,7 +866,7 @@ public class MuninnPageCache implements PageCache
                     throw new IllegalStateException( "The PageCache has been shut down." );
                 }
 
-                if ( compareAndSetFreelistHead( freePage, freePage.next ) )
+                if ( partition.compareAndSetFreelistHead( freePage, freePage.next ) )
                 {
                     return freePage.pageRef;
                 }
@@ -793,7 +884,7 @@ public class MuninnPageCache implements PageCache
         do
         {
             assertHealthy();
-            if ( getFreelistHead() != null )
+            if ( anyFreelistNotEmpty() )
             {
                 return 0;
             }
@@ -834,79 +925,66 @@ public class MuninnPageCache implements PageCache
                 "your database." );
     }
 
-    private void unparkEvictor()
+    private boolean anyFreelistNotEmpty()
     {
-        if ( evictorParked )
+        for ( EvictionPartition partition : partitions )
         {
-            evictorParked = false;
-            LockSupport.unpark( evictionThread );
+            if ( partition.getFreelistHead() != null )
+            {
+                return true;
+            }
         }
+        return false;
     }
 
-    private void parkEvictor( long parkNanos )
-    {
-        // Only called from the background eviction thread!
-        evictorParked = true;
-        LockSupport.parkNanos( this, parkNanos );
-        evictorParked = false;
-    }
-
-    private Object getFreelistHead()
+    private void unparkEvictors()
     {
-        return UnsafeUtil.getObjectVolatile( this, freelistOffset );
-    }
-
-    private boolean compareAndSetFreelistHead( Object expected, Object update )
-    {
-        return UnsafeUtil.compareAndSwapObject(
-                this, freelistOffset, expected, update );
-    }
-
-    private void setFreelistHead( Object newFreelistHead )
-    {
-        UnsafeUtil.putObjectVolatile( this, freelistOffset, newFreelistHead );
+        for ( EvictionPartition partition : partitions )
+        {
+            partition.unparkEvictor();
+        }
     }
 
     /**
-     * Scan through all the pages, one by one, and decrement their usage stamps.
+     * Scan through all the pages of the given partition, one by one, and decrement their usage stamps.
      * If a usage reaches zero, we try-write-locking it, and if we get that lock,
      * we evict the page. If we don't, we move on to the next page.
-     * Once we have enough free pages, we park our thread. Page-faulting will
+     * Once we have enough free pages in the partition, we park our thread. Page-faulting will
      * unpark our thread as needed.
      */
-    void continuouslySweepPages()
+    void continuouslySweepPages( EvictionPartition partition )
     {
-        evictionThread = Thread.currentThread();
-        int clockArm = 0;
+        partition.setEvictionThread( Thread.currentThread() );
+        int clockArm = partition.firstPageId;
 
         while ( !closed )
         {
-            int pageCountToEvict = parkUntilEvictionRequired( keepFree );
+            int pageCountToEvict = parkUntilEvictionRequired( partition, keepFree );
             try ( EvictionRunEvent evictionRunEvent = pageCacheTracer.beginPageEvictions( pageCountToEvict ) )
             {
-                clockArm = evictPages( pageCountToEvict, clockArm, evictionRunEvent );
+                clockArm = evictPages( pageCountToEvict, clockArm, partition.firstPageId, partition.endPageId(), evictionRunEvent );
             }
         }
 
         // The last thing we do, is signalling the shutdown of the cache via
         // the freelist. This signal is looked out for in grabFreePage.
-        setFreelistHead( shutdownSignal );
+        partition.setFreelistHead( shutdownSignal );
     }
 
-    private int parkUntilEvictionRequired( int keepFree )
+    private int parkUntilEvictionRequired( EvictionPartition partition, int keepFree )
     {
         // Park until we're either interrupted, or the number of free pages drops
         // bellow keepFree.
         long parkNanos = TimeUnit.MILLISECONDS.toNanos( 10 );
         for (;;)
         {
-            parkEvictor( parkNanos );
+            partition.parkEvictor( this, parkNanos );
             if ( Thread.interrupted() || closed )
             {
                 return 0;
             }
 
-            int availablePages = tryGetNumberOfAvailablePages( keepFree );
+            int availablePages = tryGetNumberOfAvailablePages( partition, keepFree );
             if ( availablePages != UNKNOWN_AVAILABLE_PAGES )
             {
                 return availablePages;
@@ -914,9 +992,9 @@ public class MuninnPageCache implements PageCache
         }
     }
 
-    private int tryGetNumberOfAvailablePages( int keepFree )
+    private static int tryGetNumberOfAvailablePages( EvictionPartition partition, int keepFree )
     {
-        Object freelistHead = getFreelistHead();
+        Object freelistHead = partition.getFreelistHead();
 
         if ( freelistHead == null )
         {
@@ -933,7 +1011,7 @@ public class MuninnPageCache implements PageCache
         else if ( freelistHead.getClass() == AtomicInteger.class )
         {
             AtomicInteger counter = (AtomicInteger) freelistHead;
-            long count = pages.getPageCount() - counter.get();
+            long count = partition.pageCount - counter.get();
             if ( count < keepFree )
             {
                 return count < 0 ? keepFree : (int) (keepFree - count);
@@ -943,12 +1021,22 @@ public class MuninnPageCache implements PageCache
     }
 
     int evictPages( int pageCountToEvict, int clockArm, EvictionRunEvent evictionRunEvent )
+    {
+        return evictPages( pageCountToEvict, clockArm, 0, pages.getPageCount(), evictionRunEvent );
+    }
+
+    /**
+     * Sweep the clock arm over the pages from {@code firstPageId} (inclusive) to {@code endPageId} (exclusive),
+     * until the given number of eviction attempts have been made.
+     * @return the clock arm position to continue the next sweep from.
+     */
+    private int evictPages( int pageCountToEvict, int clockArm, int firstPageId, int endPageId, EvictionRunEvent evictionRunEvent )
     {
         while ( pageCountToEvict > 0 && !closed )
         {
-            if ( clockArm == pages.getPageCount() )
+            if ( clockArm == endPageId )
             {
-                clockArm = 0;
+                clockArm = firstPageId;
             }
 
             if ( closed )
@@ -992,18 +1080,19 @@ public class MuninnPageCache implements PageCache
 
     void addFreePageToFreelist( long pageRef )
     {
+        EvictionPartition partition = partitions[pages.toId( pageRef ) / pagesPerPartition];
         Object current;
         FreePage freePage = new FreePage( pageRef );
         do
         {
-            current = getFreelistHead();
-            if ( current instanceof AtomicInteger && ((AtomicInteger) current).get() > pages.getPageCount() )
+            current = partition.getFreelistHead();
+            if ( current instanceof AtomicInteger && ((AtomicInteger) current).get() > partition.pageCount )
             {
                 current = null;
             }
             freePage.setNext( current );
         }
-        while ( !compareAndSetFreelistHead( current, freePage ) );
+        while ( !partition.compareAndSetFreelistHead( current, freePage ) );
     }
 
     void clearEvictorException()
@@ -1017,14 +1106,25 @@ public class MuninnPageCache implements PageCache
     @Override
     public String toString()
     {
-        int availablePages = tryGetNumberOfAvailablePages( keepFree );
-        return format( "%s[pageCacheId:%d, pageSize:%d, pages:%d, availablePages:%s]", getClass().getSimpleName(),
-                pageCacheId, cachePageSize, pages.getPageCount(), availablePages != UNKNOWN_AVAILABLE_PAGES ? String.valueOf( availablePages ) : "N/A" );
+        int availablePages = 0;
+        for ( EvictionPartition partition : partitions )
+        {
+            int partitionAvailablePages = tryGetNumberOfAvailablePages( partition, keepFree );
+            if ( partitionAvailablePages == UNKNOWN_AVAILABLE_PAGES )
+            {
+                availablePages = UNKNOWN_AVAILABLE_PAGES;
+                break;
+            }
+            availablePages += partitionAvailablePages;
+        }
+        return format( "%s[pageCacheId:%d, pageSize:%d, pages:%d, evictionPartitions:%d, availablePages:%s]", getClass().getSimpleName(),
+                pageCacheId, cachePageSize, pages.getPageCount(), partitions.length,
+                availablePages != UNKNOWN_AVAILABLE_PAGES ? String.valueOf( availablePages ) : "N/A" );
     }
 
     void vacuum( SwapperSet swappers )
     {
-        if ( getFreelistHead() instanceof AtomicInteger && swappers.countAvailableIds() > 200 )
+        if ( anyFreelistInitialising() && swappers.countAvailableIds() > 200 )
         {
             return; // We probably still have plenty of free pages left. Don't bother vacuuming just yet.
         }
@@ -1053,6 +1153,18 @@ public class MuninnPageCache implements PageCache
         } );
     }
 
+    private boolean anyFreelistInitialising()
+    {
+        for ( EvictionPartition partition : partitions )
+        {
+            if ( partition.getFreelistHead() instanceof AtomicInteger )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
     void startPreFetching( MuninnPageCursor cursor, CursorFactory cursorFactory )
     {
         PreFetcher preFetcher = new PreFetcher( cursor, cursorFactory, pageCacheTracer, clock );
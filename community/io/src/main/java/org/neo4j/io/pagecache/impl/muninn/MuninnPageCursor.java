@@ -74,6 +74,7 @@ public abstract class MuninnPageCursor extends PageCursor
     protected boolean eagerFlush;
     protected boolean noFault;
     protected boolean noGrow;
+    protected boolean lowPriorityAccess;
     @SuppressWarnings( "unused" ) // This field is accessed via Unsafe.
     private long currentPageId;
     protected long nextPageId;
@@ -110,6 +111,22 @@ public abstract class MuninnPageCursor extends PageCursor
         this.eagerFlush = isFlagRaised( pf_flags, PF_EAGER_FLUSH );
         this.noFault = isFlagRaised( pf_flags, PF_NO_FAULT );
         this.noGrow = noFault || isFlagRaised( pf_flags, PagedFile.PF_NO_GROW );
+        this.lowPriorityAccess = pagedFile.pageCache.replacementPolicy().isLowPriorityAccess( pf_flags );
+    }
+
+    /**
+     * Record an access to the given page, according to the {@link PageReplacementPolicy} of the page cache.
+     */
+    final void recordPageAccess( long pageRef )
+    {
+        if ( lowPriorityAccess )
+        {
+            pagedFile.incrementUsageToOne( pageRef );
+        }
+        else
+        {
+            pagedFile.incrementUsage( pageRef );
+        }
     }
 
     private boolean isFlagRaised( int flagSet, int flag )
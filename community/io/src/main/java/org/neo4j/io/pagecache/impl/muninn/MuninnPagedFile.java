@@ -47,6 +47,8 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
 {
     static final int UNMAPPED_TTE = -1;
     private static final int maxChunkGrowth = getInteger( MuninnPagedFile.class, "maxChunkGrowth", 16 ); // One chunk is 32 MiB, by default.
+    // The number of clean, but loaded, pages we are willing to write out in order to merge two vectored flushes into one.
+    private static final int maxFlushGapPages = getInteger( MuninnPagedFile.class, "maxFlushGapPages", 4 );
     private static final int translationTableChunkSizePower = getInteger( MuninnPagedFile.class, "translationTableChunkSizePower", 12 );
     private static final int translationTableChunkSize = 1 << translationTableChunkSizePower;
     private static final long translationTableChunkSizeMask = translationTableChunkSize - 1;
@@ -387,10 +389,13 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
         int[][] tt = this.translationTable;
         for ( int[] chunk : tt )
         {
-            // TODO Look into if we can tolerate flushing a few clean pages if it means we can use larger vectors.
-            // TODO The clean pages in question must still be loaded, though. Otherwise we'll end up writing
-            // TODO garbage to the file.
+            // We tolerate flushing a few clean pages, if it means we can use larger vectors, and thereby fewer
+            // write calls. The clean pages in question must still be loaded and bound to the file page we are
+            // writing them to, though. Otherwise we'll end up writing garbage to the file.
+            // Clean pages are only ever added to an existing vector, and the clean pages at the end of the vector
+            // are released again before the vector is flushed, so they only ever fill gaps between dirty pages.
             int pagesGrabbed = 0;
+            int trailingCleanPages = 0;
             chunkLoop:
             for ( int i = 0; i < chunk.length; i++ )
             {
@@ -408,6 +413,13 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
                         long stamp = tryOptimisticReadLock( pageRef );
                         if ( (!isModified( pageRef )) && validateReadLock( pageRef, stamp ) )
                         {
+                            if ( pagesGrabbed > 0 && trailingCleanPages < maxFlushGapPages &&
+                                    tryGrabCleanPage( pageRef, filePageId, pages, bufferAddresses, flushStamps, pagesGrabbed, forClosing ) )
+                            {
+                                pagesGrabbed++;
+                                trailingCleanPages++;
+                                continue chunkLoop;
+                            }
                             break;
                         }
 
@@ -428,6 +440,7 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
                             }
                             bufferAddresses[pagesGrabbed] = getAddress( pageRef );
                             pagesGrabbed++;
+                            trailingCleanPages = 0;
                             continue chunkLoop;
                         }
                         else if ( forClosing )
@@ -443,6 +456,8 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
                 }
                 if ( pagesGrabbed > 0 )
                 {
+                    pagesGrabbed = releaseTrailingCleanPages( pages, flushStamps, pagesGrabbed, trailingCleanPages, forClosing );
+                    trailingCleanPages = 0;
                     vectoredFlush( pages, bufferAddresses, flushStamps, pagesGrabbed, flushes, forClosing );
                     limiterStamp = limiter.maybeLimitIO( limiterStamp, pagesGrabbed, this );
                     pagesGrabbed = 0;
@@ -450,6 +465,7 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
             }
             if ( pagesGrabbed > 0 )
             {
+                pagesGrabbed = releaseTrailingCleanPages( pages, flushStamps, pagesGrabbed, trailingCleanPages, forClosing );
                 vectoredFlush( pages, bufferAddresses, flushStamps, pagesGrabbed, flushes, forClosing );
                 limiterStamp = limiter.maybeLimitIO( limiterStamp, pagesGrabbed, this );
             }
@@ -458,6 +474,50 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
         swapper.force();
     }
 
+    private boolean tryGrabCleanPage( long pageRef, long filePageId, long[] pages, long[] bufferAddresses, long[] flushStamps, int index,
+            boolean forClosing )
+    {
+        long flushStamp = 0;
+        if ( !(forClosing ? tryExclusiveLock( pageRef ) : ((flushStamp = tryFlushLock( pageRef )) != 0)) )
+        {
+            // Someone else has the page locked, so we just end the vector here instead.
+            return false;
+        }
+        if ( isBoundTo( pageRef, swapperId, filePageId ) )
+        {
+            pages[index] = pageRef;
+            if ( !forClosing )
+            {
+                flushStamps[index] = flushStamp;
+            }
+            bufferAddresses[index] = getAddress( pageRef );
+            return true;
+        }
+        unlockGrabbedPage( pageRef, flushStamp, forClosing );
+        return false;
+    }
+
+    private int releaseTrailingCleanPages( long[] pages, long[] flushStamps, int pagesGrabbed, int trailingCleanPages, boolean forClosing )
+    {
+        for ( int i = pagesGrabbed - trailingCleanPages; i < pagesGrabbed; i++ )
+        {
+            unlockGrabbedPage( pages[i], forClosing ? 0 : flushStamps[i], forClosing );
+        }
+        return pagesGrabbed - trailingCleanPages;
+    }
+
+    private void unlockGrabbedPage( long pageRef, long flushStamp, boolean forClosing )
+    {
+        if ( forClosing )
+        {
+            unlockExclusive( pageRef );
+        }
+        else
+        {
+            unlockFlush( pageRef, flushStamp, false );
+        }
+    }
+
     private void vectoredFlush(
             long[] pages, long[] bufferAddresses, long[] flushStamps, int pagesGrabbed,
             FlushEventOpportunity flushOpportunity, boolean forClosing ) throws IOException
@@ -327,6 +327,23 @@ class PageList
         }
     }
 
+    /**
+     * Increment the usage stamp to 1, if it is 0, but never any higher.
+     * This is used for low priority accesses, that should not keep the page in memory for longer than a single
+     * sweep of the eviction clock arm.
+     **/
+    void incrementUsageToOne( long pageRef )
+    {
+        // This is intentionally left benignly racy for performance.
+        long address = offPageBinding( pageRef );
+        long value = UnsafeUtil.getLongVolatile( address );
+        if ( (value & MASK_USAGE_COUNT) == 0 )
+        {
+            // See `incrementUsage` about why we use `compareAndSwapLong`.
+            UnsafeUtil.compareAndSwapLong( null, address, value, value + 1 );
+        }
+    }
+
     /**
      * Decrement the usage stamp. Returns true if it reaches 0.
      **/
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import org.neo4j.io.pagecache.PagedFile;
+
+import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
+import static org.neo4j.io.pagecache.PagedFile.PF_TRANSIENT;
+
+/**
+ * The page replacement policy decides how much a page access counts towards keeping the page in memory, when the
+ * eviction threads sweep over the pages. Accesses are either regular, which raise the usage counter of the page, or
+ * low priority, which only make sure that the page is marked as used once. Pages that have only seen low priority
+ * accesses are thus the first to be evicted by the clock sweep.
+ * <p>
+ * The policy is decided once for every page cursor, based on the {@link PagedFile} flags of the cursor, so it adds no
+ * cost to the individual page accesses.
+ */
+public enum PageReplacementPolicy
+{
+    /**
+     * The plain clock sweep over page usage counters. Every access counts as a regular access, except for accesses
+     * through cursors with the {@link PagedFile#PF_TRANSIENT} flag.
+     */
+    CLOCK( PF_TRANSIENT ),
+    /**
+     * A scan resistant variant of the clock sweep, in the spirit of S3-FIFO. Accesses from sequential scans, i.e.
+     * cursors with the {@link PagedFile#PF_READ_AHEAD} flag, and the pre-fetching done on their behalf, are low
+     * priority. A large scan will then only push out other pages that are cold, or that were brought in by the scan
+     * itself, rather than flushing the hot pages out of the cache.
+     */
+    SCAN_RESISTANT( PF_TRANSIENT | PF_READ_AHEAD );
+
+    private final int lowPriorityFlags;
+
+    PageReplacementPolicy( int lowPriorityFlags )
+    {
+        this.lowPriorityFlags = lowPriorityFlags;
+    }
+
+    boolean isLowPriorityAccess( int pf_flags )
+    {
+        return (pf_flags & lowPriorityFlags) != 0;
+    }
+}
@@ -80,6 +80,11 @@ public interface PageCacheCounters
      */
     long evictionExceptions();
 
+    /**
+     * @return The number of pages that have been loaded into the page cache by page cache warmup thus far.
+     */
+    long warmupPages();
+
     /**
      * @return The cache hit ratio observed thus far.
      */
@@ -105,7 +105,7 @@
  *     +---------------[ PageCache ]-----------------------------------+
  *     |                                                               |
  *     |  * PageSwapperFactory{ FileSystemAbstraction }                |
- *     |  * evictionThread                                             |
+ *     |  * evictionThreads                                            |
  *     |  * a large collection of Page objects:                        |
  *     |                                                               |
  *     |  +---------------[ Page ]----------------------------------+  |
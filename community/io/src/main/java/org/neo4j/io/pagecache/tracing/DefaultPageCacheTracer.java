@@ -45,6 +45,7 @@ public class DefaultPageCacheTracer implements PageCacheTracer
     protected final LongAdder filesMapped = new LongAdder();
     protected final LongAdder filesUnmapped = new LongAdder();
     protected final LongAdder evictionExceptions = new LongAdder();
+    protected final LongAdder warmupPages = new LongAdder();
     protected final AtomicLong maxPages = new AtomicLong();
 
     private final FlushEvent flushEvent = new FlushEvent()
@@ -241,6 +242,12 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         return evictionExceptions.sum();
     }
 
+    @Override
+    public long warmupPages()
+    {
+        return warmupPages.sum();
+    }
+
     @Override
     public double hitRatio()
     {
@@ -300,6 +307,12 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         this.evictionExceptions.add( evictionExceptions );
     }
 
+    @Override
+    public void warmupPages( long pages )
+    {
+        this.warmupPages.add( pages );
+    }
+
     @Override
     public void bytesWritten( long bytesWritten )
     {
@@ -137,6 +137,12 @@ public interface PageCacheTracer extends PageCacheCounters
             return 0;
         }
 
+        @Override
+        public long warmupPages()
+        {
+            return 0;
+        }
+
         @Override
         public double hitRatio()
         {
@@ -199,6 +205,11 @@ public interface PageCacheTracer extends PageCacheCounters
         {
         }
 
+        @Override
+        public void warmupPages( long pages )
+        {
+        }
+
         @Override
         public String toString()
         {
@@ -301,4 +312,10 @@ public interface PageCacheTracer extends PageCacheCounters
      * @param maxPages the total number of available pages.
      */
     void maxPages( long maxPages );
+
+    /**
+     * Report number of pages loaded into the page cache by page cache warmup
+     * @param pages number of loaded pages
+     */
+    void warmupPages( long pages );
 }
@@ -202,6 +202,24 @@ class MemoryAllocatorTest
         }
     }
 
+    @Test
+    void memoryAdvisedForHugePagesMustBeAccessible()
+    {
+        LocalMemoryTracker memoryTracker = new LocalMemoryTracker();
+        allocator = MemoryAllocator.createAllocator( "16 MiB", memoryTracker, true );
+        long pageSize = UnsafeUtil.pageSize();
+        long pages = ByteUnit.mebiBytes( 16 ) / pageSize;
+        for ( int i = 0; i < pages; i++ )
+        {
+            long address = allocator.allocateAligned( pageSize, pageSize );
+            UnsafeUtil.putLong( address, i );
+            UnsafeUtil.putLong( address + pageSize - Long.BYTES, i );
+            assertEquals( i, UnsafeUtil.getLong( address ) );
+            assertEquals( i, UnsafeUtil.getLong( address + pageSize - Long.BYTES ) );
+        }
+        assertThat( memoryTracker.usedDirectMemory() ).isGreaterThanOrEqualTo( ByteUnit.mebiBytes( 16 ) );
+    }
+
     private void closeAllocator()
     {
         if ( allocator != null )
@@ -58,6 +58,18 @@ public interface Read
     void nodeIndexSeek( IndexReadSession index, NodeValueIndexCursor cursor, IndexQueryConstraints constraints, IndexQuery... query )
             throws KernelException;
 
+    /**
+     * Seek all nodes matching the provided index query in an index, splitting the result into partitions that can be read in parallel.
+     * Each batch reserved from the returned {@link Scan} is a whole partition, so the size hint is ignored. Changes made in this
+     * transaction are included, but results come in no particular order and without property values.
+     *
+     * @param index {@link IndexReadSession} referencing index to query.
+     * @param desiredNumberOfPartitions the number of partitions wanted. Fewer partitions may be used, e.g. for small indexes.
+     * @param query Combination of {@link IndexQuery index queries} to run against referenced index.
+     * @return a {@link Scan} handing out the partitions of the result.
+     */
+    Scan<NodeValueIndexCursor> nodeIndexSeek( IndexReadSession index, int desiredNumberOfPartitions, IndexQuery... query ) throws KernelException;
+
     /**
      * Seek all relationships matching the provided index query in an index.
      *
@@ -104,6 +116,16 @@ public interface Read
      */
     void nodeIndexScan( IndexReadSession index, NodeValueIndexCursor cursor, IndexQueryConstraints constraints ) throws KernelException;
 
+    /**
+     * Scan all values in an index, splitting the result into partitions that can be read in parallel,
+     * like {@link #nodeIndexSeek(IndexReadSession, int, IndexQuery...)} does.
+     *
+     * @param index {@link IndexReadSession} index read session to query.
+     * @param desiredNumberOfPartitions the number of partitions wanted. Fewer partitions may be used, e.g. for small indexes.
+     * @return a {@link Scan} handing out the partitions of the result.
+     */
+    Scan<NodeValueIndexCursor> nodeIndexScan( IndexReadSession index, int desiredNumberOfPartitions ) throws KernelException;
+
     void nodeLabelScan( int label, NodeLabelIndexCursor cursor );
 
     Scan<NodeLabelIndexCursor> nodeLabelScan( int label );
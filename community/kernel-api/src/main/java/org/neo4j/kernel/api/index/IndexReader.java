@@ -64,6 +64,22 @@ public interface IndexReader extends Resource
      */
     boolean hasFullValuePrecision( IndexQuery... predicates );
 
+    /**
+     * Queries the index for the given {@link IndexQuery} predicates, splitting the matching entries into partitions which can be read in parallel.
+     * The partitions are unordered and contain neither property values nor transaction state.
+     *
+     * @param desiredNumberOfPartitions the number of partitions wanted. Fewer partitions may be returned, e.g. for small indexes.
+     * @param cursorTracer underlying page cursor tracer
+     * @param query the query to serve.
+     * @return the partitions of the query result.
+     * @throws IndexNotApplicableKernelException if this index doesn't support partitioned queries, or not the given query.
+     */
+    default PartitionedValueSeek valueSeek( int desiredNumberOfPartitions, PageCursorTracer cursorTracer, IndexQuery... query )
+            throws IndexNotApplicableKernelException
+    {
+        throw new IndexNotApplicableKernelException( getClass().getSimpleName() + " does not support partitioned queries" );
+    }
+
     IndexReader EMPTY = new IndexReader()
     {
         // Used for checking index correctness
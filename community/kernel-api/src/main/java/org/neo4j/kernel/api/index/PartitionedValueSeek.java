@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.index;
+
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+
+/**
+ * The result of a query against an index, split into partitions that together cover all entries matching the query.
+ * Partitions can be read in parallel, by different threads, each reserving partitions using
+ * {@link #reservePartition(IndexProgressor.EntityValueClient, PageCursorTracer)}. Entries are only read when a partition is reserved.
+ * <p>
+ * Partitions carry no ordering between them and the index doesn't include transaction state in any of them.
+ */
+public interface PartitionedValueSeek
+{
+    /**
+     * @return the number of partitions, which is at most the number of partitions asked for when creating this seek.
+     */
+    int getNumberOfPartitions();
+
+    /**
+     * Reserves the next partition not yet reserved. Thread-safe, each partition is handed out only once.
+     * The returned progressor feeds entries of the partition to the given client, which the caller is expected to initialize with it.
+     *
+     * @param client the client that will receive the entries of the reserved partition.
+     * @param cursorTracer underlying page cursor tracer of the calling thread.
+     * @return a progressor over the reserved partition, or {@link IndexProgressor#EMPTY} if all partitions have been reserved.
+     */
+    IndexProgressor reservePartition( IndexProgressor.EntityValueClient client, PageCursorTracer cursorTracer );
+}
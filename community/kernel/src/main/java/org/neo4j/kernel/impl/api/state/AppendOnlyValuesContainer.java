@@ -19,6 +19,10 @@
  */
 package org.neo4j.kernel.impl.api.state;
 
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.time.Instant;
@@ -31,11 +35,18 @@ import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.Nonnull;
 
+import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
+import org.eclipse.collections.impl.factory.primitive.IntObjectMaps;
+
 import org.neo4j.graphdb.Resource;
 import org.neo4j.internal.unsafe.UnsafeUtil;
 import org.neo4j.io.ByteUnit;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
 import org.neo4j.kernel.impl.util.collection.Memory;
 import org.neo4j.kernel.impl.util.collection.MemoryAllocator;
 import org.neo4j.memory.MemoryTracker;
@@ -120,6 +131,7 @@ public class AppendOnlyValuesContainer implements ValuesContainer
     private static final int CHUNK_SIZE = (int) ByteUnit.kibiBytes( 512 );
     private static final int REMOVED = 0xFF;
     private static final ValueType[] VALUE_TYPES = ValueType.values();
+    private static final AtomicLong SPILL_FILE_COUNTER = new AtomicLong();
 
     private final int chunkSize;
     private final List<ByteBuffer> chunks = new ArrayList<>();
@@ -127,20 +139,44 @@ public class AppendOnlyValuesContainer implements ValuesContainer
     private final Writer writer;
     private final MemoryAllocator allocator;
     private final MemoryTracker memoryTracker;
+    private final FileSystemAbstraction fs;
+    private final File spillDirectory;
+    private final MutableIntObjectMap<SpilledChunk> spilledChunks = IntObjectMaps.mutable.empty();
     private ByteBuffer currentChunk;
     private boolean closed;
 
+    private File spillFile;
+    private StoreChannel spillChannel;
+    private ByteBuffer spillReadBuffer;
+    private int spillReadChunkIdx = -1;
+
     public AppendOnlyValuesContainer( MemoryAllocator allocator, MemoryTracker memoryTracker )
     {
-        this( CHUNK_SIZE, allocator, memoryTracker );
+        this( allocator, null, null, memoryTracker );
+    }
+
+    /**
+     * @param spillDirectory where {@link #spill()} puts values, or {@code null} if values can't be spilled.
+     */
+    public AppendOnlyValuesContainer( MemoryAllocator allocator, FileSystemAbstraction fs, File spillDirectory, MemoryTracker memoryTracker )
+    {
+        this( CHUNK_SIZE, allocator, fs, spillDirectory, memoryTracker );
     }
 
     @VisibleForTesting
     AppendOnlyValuesContainer( int chunkSize, MemoryAllocator allocator, MemoryTracker memoryTracker )
+    {
+        this( chunkSize, allocator, null, null, memoryTracker );
+    }
+
+    @VisibleForTesting
+    AppendOnlyValuesContainer( int chunkSize, MemoryAllocator allocator, FileSystemAbstraction fs, File spillDirectory, MemoryTracker memoryTracker )
     {
         this.chunkSize = chunkSize;
         this.allocator = allocator;
         this.memoryTracker = memoryTracker;
+        this.fs = fs;
+        this.spillDirectory = spillDirectory;
         this.writer = new Writer();
         this.currentChunk = addNewChunk( chunkSize );
     }
@@ -170,7 +206,7 @@ public class AppendOnlyValuesContainer implements ValuesContainer
         int offset = (int) ref;
 
         checkArgument( chunkIdx >= 0 && chunkIdx < chunks.size(), "invalid chunk idx %d (total #%d chunks), ref: 0x%X", chunkIdx, chunks.size(), ref );
-        final ByteBuffer chunk = chunks.get( chunkIdx );
+        final ByteBuffer chunk = chunk( chunkIdx );
         checkArgument( offset >= 0 && offset < chunk.position(), "invalid chunk offset (%d), ref: 0x%X", offset, ref );
         final int typeId = chunk.get( offset ) & 0xFF;
         checkArgument( typeId != REMOVED, "element is already removed, ref: 0x%X", ref );
@@ -189,21 +225,59 @@ public class AppendOnlyValuesContainer implements ValuesContainer
         final Value removed = get( ref );
         final int chunkIdx = (int) (ref >>> 32);
         final int chunkOffset = (int) ref;
-        final ByteBuffer chunk = chunks.get( chunkIdx );
+        final ByteBuffer chunk = chunk( chunkIdx );
         chunk.put( chunkOffset, (byte) REMOVED );
+        final SpilledChunk spilled = spilledChunks.get( chunkIdx );
+        if ( spilled != null )
+        {
+            writeFully( chunk.duplicate().position( chunkOffset ).limit( chunkOffset + 1 ), spilled.filePosition + chunkOffset );
+        }
         return removed;
     }
 
+    /**
+     * Moves all chunks, except the one currently appended to, to a file in the spill directory and frees their memory.
+     * Values in spilled chunks can still be read and removed, but at the cost of reading their chunk back from the file.
+     *
+     * @return {@code true} if any memory was freed, otherwise {@code false}, also if this container has no spill directory.
+     */
+    public boolean spill()
+    {
+        assertNotClosed();
+        if ( spillDirectory == null )
+        {
+            return false;
+        }
+        boolean freedMemory = false;
+        for ( int chunkIdx = 0; chunkIdx < chunks.size() - 1; chunkIdx++ )
+        {
+            final ByteBuffer chunk = chunks.get( chunkIdx );
+            if ( chunk != null )
+            {
+                final ByteBuffer content = chunk.duplicate().flip();
+                final long filePosition = spillFileSize();
+                final int length = content.remaining();
+                writeFully( content, filePosition );
+                spilledChunks.put( chunkIdx, new SpilledChunk( filePosition, length ) );
+                chunks.set( chunkIdx, null );
+                allocated.set( chunkIdx, null ).free( memoryTracker );
+                freedMemory = true;
+            }
+        }
+        return freedMemory;
+    }
+
     @Override
     public void close()
     {
         assertNotClosed();
         closed = true;
-        allocated.forEach( m -> m.free( memoryTracker ) );
+        allocated.stream().filter( Objects::nonNull ).forEach( m -> m.free( memoryTracker ) );
         allocated.clear();
         chunks.clear();
         writer.close();
         currentChunk = null;
+        closeSpillFile();
     }
 
     private void assertNotClosed()
@@ -211,6 +285,108 @@ public class AppendOnlyValuesContainer implements ValuesContainer
         checkState( !closed, "Container is closed" );
     }
 
+    private ByteBuffer chunk( int chunkIdx )
+    {
+        final ByteBuffer chunk = chunks.get( chunkIdx );
+        return chunk != null ? chunk : readSpilledChunk( chunkIdx );
+    }
+
+    private ByteBuffer readSpilledChunk( int chunkIdx )
+    {
+        if ( spillReadChunkIdx != chunkIdx )
+        {
+            final SpilledChunk spilled = spilledChunks.get( chunkIdx );
+            if ( spillReadBuffer == null || spillReadBuffer.capacity() < spilled.length )
+            {
+                releaseSpillReadBuffer();
+                memoryTracker.allocateHeap( spilled.length );
+                spillReadBuffer = ByteBuffer.allocate( spilled.length );
+            }
+            spillReadBuffer.clear().limit( spilled.length );
+            try
+            {
+                while ( spillReadBuffer.hasRemaining() )
+                {
+                    if ( spillChannel.read( spillReadBuffer, spilled.filePosition + spillReadBuffer.position() ) == -1 )
+                    {
+                        throw new EOFException( "Unexpected end of transaction state spill file reading chunk " + chunkIdx );
+                    }
+                }
+            }
+            catch ( IOException e )
+            {
+                spillReadChunkIdx = -1;
+                throw new UncheckedIOException( e );
+            }
+            spillReadChunkIdx = chunkIdx;
+        }
+        return spillReadBuffer;
+    }
+
+    private long spillFileSize()
+    {
+        try
+        {
+            if ( spillChannel == null )
+            {
+                fs.mkdirs( spillDirectory );
+                spillFile = new File( spillDirectory, "tx-state-values-" + SPILL_FILE_COUNTER.incrementAndGet() );
+                spillChannel = fs.write( spillFile );
+                spillChannel.truncate( 0 );
+            }
+            return spillChannel.size();
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    private void writeFully( ByteBuffer source, long filePosition )
+    {
+        try
+        {
+            spillChannel.writeAll( source, filePosition );
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    private void releaseSpillReadBuffer()
+    {
+        if ( spillReadBuffer != null )
+        {
+            memoryTracker.releaseHeap( spillReadBuffer.capacity() );
+            spillReadBuffer = null;
+            spillReadChunkIdx = -1;
+        }
+    }
+
+    private void closeSpillFile()
+    {
+        releaseSpillReadBuffer();
+        spilledChunks.clear();
+        if ( spillChannel != null )
+        {
+            try
+            {
+                spillChannel.close();
+            }
+            catch ( IOException e )
+            {
+                throw new UncheckedIOException( e );
+            }
+            finally
+            {
+                spillChannel = null;
+                fs.deleteFile( spillFile );
+                spillFile = null;
+            }
+        }
+    }
+
     private ByteBuffer addNewChunk( int size )
     {
         final Memory memory = allocator.allocate( size, false, memoryTracker );
@@ -653,6 +829,18 @@ public class AppendOnlyValuesContainer implements ValuesContainer
         T read( ByteBuffer bb, int offset );
     }
 
+    private static final class SpilledChunk
+    {
+        final long filePosition;
+        final int length;
+
+        SpilledChunk( long filePosition, int length )
+        {
+            this.filePosition = filePosition;
+            this.length = length;
+        }
+    }
+
     private class Writer implements ValueWriter<RuntimeException>, Resource
     {
         private ByteBuffer buf;
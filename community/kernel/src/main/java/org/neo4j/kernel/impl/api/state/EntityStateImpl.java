@@ -20,41 +20,28 @@
 package org.neo4j.kernel.impl.api.state;
 
 import org.eclipse.collections.api.IntIterable;
-import org.eclipse.collections.api.map.primitive.LongObjectMap;
-import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
-import org.eclipse.collections.api.set.primitive.MutableLongSet;
-import org.eclipse.collections.impl.factory.primitive.IntSets;
 
 import java.util.Iterator;
 
 import org.neo4j.internal.helpers.collection.Iterators;
-import org.neo4j.kernel.impl.util.collection.CollectionsFactory;
-import org.neo4j.memory.MemoryTracker;
-import org.neo4j.storageengine.api.PropertyKeyValue;
 import org.neo4j.storageengine.api.StorageProperty;
 import org.neo4j.storageengine.api.txstate.EntityState;
 import org.neo4j.values.storable.Value;
-import org.neo4j.values.storable.Values;
 
-import static java.lang.Math.toIntExact;
-import static java.util.Collections.emptyIterator;
 import static java.util.Objects.requireNonNull;
 
+/**
+ * The state of one entity, as seen through the {@link PropertyChanges} of all entities of its kind.
+ */
 class EntityStateImpl implements EntityState
 {
     private final long id;
-    private MutableLongObjectMap<Value> addedProperties;
-    private MutableLongObjectMap<Value> changedProperties;
-    private MutableLongSet removedProperties;
-
-    final CollectionsFactory collectionsFactory;
-    final MemoryTracker memoryTracker;
+    final PropertyChanges properties;
 
-    EntityStateImpl( long id, CollectionsFactory collectionsFactory, MemoryTracker memoryTracker )
+    EntityStateImpl( long id, PropertyChanges properties )
     {
         this.id = id;
-        this.collectionsFactory = requireNonNull( collectionsFactory );
-        this.memoryTracker = requireNonNull( memoryTracker );
+        this.properties = requireNonNull( properties );
     }
 
     public long getId()
@@ -64,144 +51,63 @@ class EntityStateImpl implements EntityState
 
     void clear()
     {
-        if ( changedProperties != null )
-        {
-            changedProperties.clear();
-        }
-        if ( addedProperties != null )
-        {
-            addedProperties.clear();
-        }
-        if ( removedProperties != null )
-        {
-            removedProperties.clear();
-        }
+        properties.clear( id );
     }
 
     void changeProperty( int propertyKeyId, Value value )
     {
-        if ( addedProperties != null && addedProperties.containsKey( propertyKeyId ) )
-        {
-            addedProperties.put( propertyKeyId, value );
-            return;
-        }
-
-        if ( changedProperties == null )
-        {
-            changedProperties = collectionsFactory.newValuesMap( memoryTracker );
-        }
-        changedProperties.put( propertyKeyId, value );
-
-        if ( removedProperties != null )
-        {
-            removedProperties.remove( propertyKeyId );
-        }
+        properties.changeProperty( id, propertyKeyId, value );
     }
 
     void addProperty( int propertyKeyId, Value value )
     {
-        if ( removedProperties != null && removedProperties.remove( propertyKeyId ) )
-        {
-            // This indicates the user did remove+add as two discrete steps, which should be translated to
-            // a single change operation.
-            changeProperty( propertyKeyId, value );
-            return;
-        }
-        if ( addedProperties == null )
-        {
-            addedProperties = collectionsFactory.newValuesMap( memoryTracker );
-        }
-        addedProperties.put( propertyKeyId, value );
+        properties.addProperty( id, propertyKeyId, value );
     }
 
     void removeProperty( int propertyKeyId )
     {
-        if ( addedProperties != null && addedProperties.remove( propertyKeyId ) != null )
-        {
-            return;
-        }
-        if ( removedProperties == null )
-        {
-            removedProperties = collectionsFactory.newLongSet( memoryTracker );
-        }
-        removedProperties.add( propertyKeyId );
-        if ( changedProperties != null )
-        {
-            changedProperties.remove( propertyKeyId );
-        }
+        properties.removeProperty( id, propertyKeyId );
     }
 
     @Override
     public Iterator<StorageProperty> addedProperties()
     {
-        return toPropertyIterator( addedProperties );
+        return properties.addedProperties( id );
     }
 
     @Override
     public Iterator<StorageProperty> changedProperties()
     {
-        return toPropertyIterator( changedProperties );
+        return properties.changedProperties( id );
     }
 
     @Override
     public IntIterable removedProperties()
     {
-        return removedProperties == null ? IntSets.immutable.empty() : removedProperties.asLazy().collectInt( Math::toIntExact );
+        return properties.removedProperties( id );
     }
 
     @Override
     public Iterator<StorageProperty> addedAndChangedProperties()
     {
-        if ( addedProperties == null )
-        {
-            return toPropertyIterator( changedProperties );
-        }
-        if ( changedProperties == null )
-        {
-            return toPropertyIterator( addedProperties );
-        }
-        return Iterators.concat( toPropertyIterator( addedProperties ), toPropertyIterator( changedProperties ) );
+        return Iterators.concat( addedProperties(), changedProperties() );
     }
 
     @Override
     public boolean hasPropertyChanges()
     {
-        return addedProperties != null || removedProperties != null || changedProperties != null;
+        return properties.hasPropertyChanges( id );
     }
 
     @Override
     public boolean isPropertyChangedOrRemoved( int propertyKey )
     {
-        return (removedProperties != null && removedProperties.contains( propertyKey ))
-                || (changedProperties != null && changedProperties.containsKey( propertyKey ));
+        return properties.isPropertyChangedOrRemoved( id, propertyKey );
     }
 
     @Override
     public Value propertyValue( int propertyKey )
     {
-        if ( removedProperties != null && removedProperties.contains( propertyKey ) )
-        {
-            return Values.NO_VALUE;
-        }
-        if ( addedProperties != null )
-        {
-            Value addedValue = addedProperties.get( propertyKey );
-            if ( addedValue != null )
-            {
-                return addedValue;
-            }
-        }
-        if ( changedProperties != null )
-        {
-            return changedProperties.get( propertyKey );
-        }
-        return null;
-    }
-
-    private Iterator<StorageProperty> toPropertyIterator( LongObjectMap<Value> propertyMap )
-    {
-        return propertyMap == null ? emptyIterator()
-                                   : propertyMap.keyValuesView().collect(
-                                           e -> (StorageProperty) new PropertyKeyValue( toIntExact( e.getOne() ), e.getTwo() ) ).iterator();
+        return properties.propertyValue( id, propertyKey );
     }
 }
@@ -32,8 +32,6 @@ import java.util.Set;
 
 import org.neo4j.graphdb.Direction;
 import org.neo4j.kernel.impl.api.state.RelationshipChangesForNode.DiffStrategy;
-import org.neo4j.kernel.impl.util.collection.CollectionsFactory;
-import org.neo4j.kernel.impl.util.collection.HeapTrackingCollections;
 import org.neo4j.kernel.impl.util.diffsets.MutableLongDiffSets;
 import org.neo4j.memory.HeapEstimator;
 import org.neo4j.memory.MemoryTracker;
@@ -143,36 +141,41 @@ class NodeStateImpl extends EntityStateImpl implements NodeState
         }
     };
 
-    private MutableLongDiffSets labelDiffSets;
+    private final TxState txState;
+    private final MemoryTracker memoryTracker;
     private RelationshipChangesForNode relationshipsAdded;
     private RelationshipChangesForNode relationshipsRemoved;
 
     private Set<MutableLongDiffSets> indexDiffs;
 
-    static NodeStateImpl createNodeState( long id, CollectionsFactory collectionsFactory, MemoryTracker memoryTracker )
+    /**
+     * Creates the state of a node that can keep track of its relationship and index changes, which is kept by the transaction state.
+     */
+    static NodeStateImpl createNodeState( long id, PropertyChanges properties, TxState txState, MemoryTracker memoryTracker )
     {
         memoryTracker.allocateHeap( SHALLOW_SIZE );
-        return new NodeStateImpl( id, collectionsFactory, memoryTracker );
+        return new NodeStateImpl( id, properties, txState, memoryTracker );
     }
 
-    private NodeStateImpl( long id, CollectionsFactory collectionsFactory, MemoryTracker memoryTracker )
+    /**
+     * Creates a short lived view of a node that has only property or label changes, those are all kept column wise by the transaction state.
+     */
+    static NodeStateImpl nodeStateView( long id, PropertyChanges properties, TxState txState, MemoryTracker memoryTracker )
     {
-        super( id, collectionsFactory, memoryTracker );
+        return new NodeStateImpl( id, properties, txState, memoryTracker );
     }
 
-    @Override
-    public LongDiffSets labelDiffSets()
+    private NodeStateImpl( long id, PropertyChanges properties, TxState txState, MemoryTracker memoryTracker )
     {
-        return labelDiffSets == null ? LongDiffSets.EMPTY : labelDiffSets;
+        super( id, properties );
+        this.txState = txState;
+        this.memoryTracker = memoryTracker;
     }
 
-    MutableLongDiffSets getOrCreateLabelDiffSets()
+    @Override
+    public LongDiffSets labelDiffSets()
     {
-        if ( labelDiffSets == null )
-        {
-            labelDiffSets = HeapTrackingCollections.newMutableLongDiffSets( collectionsFactory, memoryTracker );
-        }
-        return labelDiffSets;
+        return txState.nodeLabelChanges( getId() );
     }
 
     public void addRelationship( long relId, int typeId, RelationshipDirection direction )
@@ -214,10 +217,6 @@ class NodeStateImpl extends EntityStateImpl implements NodeState
         {
             relationshipsRemoved.clear();
         }
-        if ( labelDiffSets != null )
-        {
-            labelDiffSets = null;
-        }
         if ( indexDiffs != null )
         {
             indexDiffs.clear();
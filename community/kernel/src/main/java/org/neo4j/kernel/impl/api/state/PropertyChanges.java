@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.state;
+
+import org.eclipse.collections.api.IntIterable;
+import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
+import org.eclipse.collections.api.set.primitive.MutableIntSet;
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.eclipse.collections.impl.factory.primitive.IntSets;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.neo4j.kernel.impl.util.collection.CollectionsFactory;
+import org.neo4j.kernel.impl.util.collection.HeapTrackingCollections;
+import org.neo4j.memory.MemoryTracker;
+import org.neo4j.storageengine.api.PropertyKeyValue;
+import org.neo4j.storageengine.api.StorageProperty;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+import static java.lang.Math.toIntExact;
+import static java.util.Collections.emptyIterator;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Property changes of all nodes, or of all relationships, of a transaction. Changes are stored column wise: one map of values
+ * keyed by entity id per property key, created by the {@link CollectionsFactory} of the transaction. Large transactions then
+ * need a handful of big collections, which can live off heap, instead of a few small collections per changed entity.
+ */
+class PropertyChanges
+{
+    private final CollectionsFactory collectionsFactory;
+    private final MemoryTracker memoryTracker;
+    private MutableLongObjectMap<MutableLongObjectMap<Value>> addedByKey;
+    private MutableLongObjectMap<MutableLongObjectMap<Value>> changedByKey;
+    private MutableLongObjectMap<MutableLongSet> removedByKey;
+
+    PropertyChanges( CollectionsFactory collectionsFactory, MemoryTracker memoryTracker )
+    {
+        this.collectionsFactory = requireNonNull( collectionsFactory );
+        this.memoryTracker = requireNonNull( memoryTracker );
+    }
+
+    void addProperty( long entityId, int propertyKeyId, Value value )
+    {
+        MutableLongSet removed = removedByKey == null ? null : removedByKey.get( propertyKeyId );
+        if ( removed != null && removed.remove( entityId ) )
+        {
+            // This indicates the user did remove+add as two discrete steps, which should be translated to
+            // a single change operation.
+            changeProperty( entityId, propertyKeyId, value );
+            return;
+        }
+        if ( addedByKey == null )
+        {
+            addedByKey = HeapTrackingCollections.newLongObjectMap( memoryTracker );
+        }
+        addedByKey.getIfAbsentPut( propertyKeyId, () -> collectionsFactory.newValuesMap( memoryTracker ) ).put( entityId, value );
+    }
+
+    void changeProperty( long entityId, int propertyKeyId, Value value )
+    {
+        MutableLongObjectMap<Value> added = addedByKey == null ? null : addedByKey.get( propertyKeyId );
+        if ( added != null && added.containsKey( entityId ) )
+        {
+            added.put( entityId, value );
+            return;
+        }
+
+        if ( changedByKey == null )
+        {
+            changedByKey = HeapTrackingCollections.newLongObjectMap( memoryTracker );
+        }
+        changedByKey.getIfAbsentPut( propertyKeyId, () -> collectionsFactory.newValuesMap( memoryTracker ) ).put( entityId, value );
+
+        MutableLongSet removed = removedByKey == null ? null : removedByKey.get( propertyKeyId );
+        if ( removed != null )
+        {
+            removed.remove( entityId );
+        }
+    }
+
+    void removeProperty( long entityId, int propertyKeyId )
+    {
+        MutableLongObjectMap<Value> added = addedByKey == null ? null : addedByKey.get( propertyKeyId );
+        if ( added != null && added.remove( entityId ) != null )
+        {
+            return;
+        }
+        if ( removedByKey == null )
+        {
+            removedByKey = HeapTrackingCollections.newLongObjectMap( memoryTracker );
+        }
+        removedByKey.getIfAbsentPut( propertyKeyId, () -> collectionsFactory.newLongSet( memoryTracker ) ).add( entityId );
+
+        MutableLongObjectMap<Value> changed = changedByKey == null ? null : changedByKey.get( propertyKeyId );
+        if ( changed != null )
+        {
+            changed.remove( entityId );
+        }
+    }
+
+    /**
+     * Forgets all property changes of the given entity, e.g. because it got deleted.
+     */
+    void clear( long entityId )
+    {
+        if ( addedByKey != null )
+        {
+            addedByKey.forEachValue( values -> values.remove( entityId ) );
+        }
+        if ( changedByKey != null )
+        {
+            changedByKey.forEachValue( values -> values.remove( entityId ) );
+        }
+        if ( removedByKey != null )
+        {
+            removedByKey.forEachValue( entities -> entities.remove( entityId ) );
+        }
+    }
+
+    Iterator<StorageProperty> addedProperties( long entityId )
+    {
+        return properties( addedByKey, entityId );
+    }
+
+    Iterator<StorageProperty> changedProperties( long entityId )
+    {
+        return properties( changedByKey, entityId );
+    }
+
+    IntIterable removedProperties( long entityId )
+    {
+        if ( removedByKey == null )
+        {
+            return IntSets.immutable.empty();
+        }
+        MutableIntSet removed = IntSets.mutable.empty();
+        removedByKey.forEachKeyValue( ( propertyKeyId, entities ) ->
+        {
+            if ( entities.contains( entityId ) )
+            {
+                removed.add( toIntExact( propertyKeyId ) );
+            }
+        } );
+        return removed;
+    }
+
+    boolean hasPropertyChanges( long entityId )
+    {
+        return contains( addedByKey, entityId ) || contains( changedByKey, entityId ) ||
+               (removedByKey != null && removedByKey.anySatisfy( entities -> entities.contains( entityId ) ));
+    }
+
+    boolean isPropertyChangedOrRemoved( long entityId, int propertyKey )
+    {
+        return isRemoved( entityId, propertyKey ) || valueOf( changedByKey, entityId, propertyKey ) != null;
+    }
+
+    Value propertyValue( long entityId, int propertyKey )
+    {
+        if ( isRemoved( entityId, propertyKey ) )
+        {
+            return Values.NO_VALUE;
+        }
+        Value addedValue = valueOf( addedByKey, entityId, propertyKey );
+        return addedValue != null ? addedValue : valueOf( changedByKey, entityId, propertyKey );
+    }
+
+    private boolean isRemoved( long entityId, int propertyKey )
+    {
+        MutableLongSet removed = removedByKey == null ? null : removedByKey.get( propertyKey );
+        return removed != null && removed.contains( entityId );
+    }
+
+    private static Value valueOf( MutableLongObjectMap<MutableLongObjectMap<Value>> valuesByKey, long entityId, int propertyKey )
+    {
+        MutableLongObjectMap<Value> values = valuesByKey == null ? null : valuesByKey.get( propertyKey );
+        return values == null ? null : values.get( entityId );
+    }
+
+    private static boolean contains( MutableLongObjectMap<MutableLongObjectMap<Value>> valuesByKey, long entityId )
+    {
+        return valuesByKey != null && valuesByKey.anySatisfy( values -> values.containsKey( entityId ) );
+    }
+
+    private static Iterator<StorageProperty> properties( MutableLongObjectMap<MutableLongObjectMap<Value>> valuesByKey, long entityId )
+    {
+        if ( valuesByKey == null )
+        {
+            return emptyIterator();
+        }
+        List<StorageProperty> properties = new ArrayList<>();
+        valuesByKey.forEachKeyValue( ( propertyKeyId, values ) ->
+        {
+            Value value = values.get( entityId );
+            if ( value != null )
+            {
+                properties.add( new PropertyKeyValue( toIntExact( propertyKeyId ), value ) );
+            }
+        } );
+        return properties.iterator();
+    }
+}
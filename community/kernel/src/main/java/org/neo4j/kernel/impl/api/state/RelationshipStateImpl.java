@@ -24,9 +24,6 @@ import org.eclipse.collections.impl.factory.primitive.IntSets;
 
 import java.util.Iterator;
 
-import org.neo4j.kernel.impl.util.collection.CollectionsFactory;
-import org.neo4j.memory.HeapEstimator;
-import org.neo4j.memory.MemoryTracker;
 import org.neo4j.storageengine.api.RelationshipVisitor;
 import org.neo4j.storageengine.api.StorageProperty;
 import org.neo4j.storageengine.api.txstate.RelationshipState;
@@ -36,8 +33,6 @@ import static java.util.Collections.emptyIterator;
 
 class RelationshipStateImpl extends EntityStateImpl implements RelationshipState
 {
-    private static final long SHALLOW_SIZE = HeapEstimator.shallowSizeOfInstance( RelationshipStateImpl.class );
-
     static final RelationshipState EMPTY = new RelationshipState()
     {
         @Override
@@ -95,36 +90,20 @@ class RelationshipStateImpl extends EntityStateImpl implements RelationshipState
         }
     };
 
-    private long startNode = -1;
-    private long endNode = -1;
-    private int type = -1;
+    private final RelationshipVisitor.Home createdRelationships;
 
-    static RelationshipStateImpl createRelationshipStateImpl( long id, CollectionsFactory collectionsFactory, MemoryTracker memoryTracker )
+    /**
+     * @param createdRelationships visits the relationships created in the transaction, those are the ones that have a type and nodes here.
+     */
+    RelationshipStateImpl( long id, PropertyChanges properties, RelationshipVisitor.Home createdRelationships )
     {
-        memoryTracker.allocateHeap( SHALLOW_SIZE );
-        return new RelationshipStateImpl( id, collectionsFactory, memoryTracker );
-    }
-
-    private RelationshipStateImpl( long id, CollectionsFactory collectionsFactory, MemoryTracker memoryTracker )
-    {
-        super( id, collectionsFactory, memoryTracker );
-    }
-
-    void setMetaData( long startNode, long endNode, int type )
-    {
-        this.startNode = startNode;
-        this.endNode = endNode;
-        this.type = type;
+        super( id, properties );
+        this.createdRelationships = createdRelationships;
     }
 
     @Override
     public <EX extends Exception> boolean accept( RelationshipVisitor<EX> visitor ) throws EX
     {
-        if ( type != -1 )
-        {
-            visitor.visit( getId(), type, startNode, endNode );
-            return true;
-        }
-        return false;
+        return createdRelationships.relationshipVisit( getId(), visitor );
     }
 }
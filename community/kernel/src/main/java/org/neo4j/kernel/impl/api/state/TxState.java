@@ -19,8 +19,9 @@
  */
 package org.neo4j.kernel.impl.api.state;
 
-import org.eclipse.collections.api.iterator.LongIterator;
+import org.eclipse.collections.api.LongIterable;
 import org.eclipse.collections.api.map.MutableMap;
+import org.eclipse.collections.api.map.primitive.MutableLongLongMap;
 import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
 import org.eclipse.collections.api.set.primitive.MutableLongSet;
 import org.eclipse.collections.impl.UnmodifiableMap;
@@ -43,6 +44,7 @@ import org.neo4j.kernel.api.txstate.TransactionState;
 import org.neo4j.kernel.impl.util.collection.CollectionsFactory;
 import org.neo4j.kernel.impl.util.collection.HeapTrackingCollections;
 import org.neo4j.kernel.impl.util.collection.OnHeapCollectionsFactory;
+import org.neo4j.kernel.impl.util.collection.SortedLongArray;
 import org.neo4j.kernel.impl.util.diffsets.MutableDiffSets;
 import org.neo4j.kernel.impl.util.diffsets.MutableLongDiffSets;
 import org.neo4j.kernel.impl.util.diffsets.RemovalsCountingDiffSets;
@@ -59,6 +61,7 @@ import org.neo4j.util.VisibleForTesting;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.ValueTuple;
 
+import static java.lang.Math.toIntExact;
 import static org.neo4j.kernel.impl.api.state.TokenState.createTokenState;
 import static org.neo4j.values.storable.Values.NO_VALUE;
 
@@ -81,9 +84,21 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
     private final CollectionsFactory collectionsFactory;
 
     private MutableLongObjectMap<MutableLongDiffSets> labelStatesMap;
-    private MutableLongObjectMap<NodeStateImpl> nodeStatesMap;
     private MutableLongObjectMap<MutableLongDiffSets> relationshipTypeStatesMap;
-    private MutableLongObjectMap<RelationshipStateImpl> relationshipStatesMap;
+
+    /*
+     * Node and relationship changes are kept column wise, in collections from the collections factory, rather than in an object per entity.
+     * Label changes of a node are derived from the label states, the node and relationship states handed out are short lived views.
+     * Only nodes with relationship or index changes still have a node state object of their own, see getOrCreateNodeState.
+     */
+    private MutableLongSet modifiedNodes;
+    private MutableLongSet modifiedRelationships;
+    private final PropertyChanges nodeProperties;
+    private final PropertyChanges relationshipProperties;
+    private MutableLongLongMap createdRelationshipTypes;
+    private MutableLongLongMap createdRelationshipStartNodes;
+    private MutableLongLongMap createdRelationshipEndNodes;
+    private MutableLongObjectMap<NodeStateImpl> nodeStatesMap;
 
     private MutableLongObjectMap<TokenState> createdLabelTokens;
     private MutableLongObjectMap<TokenState> createdPropertyKeyTokens;
@@ -113,52 +128,59 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
     {
         this.collectionsFactory = collectionsFactory;
         this.memoryTracker = memoryTracker;
+        this.nodeProperties = new PropertyChanges( collectionsFactory, memoryTracker );
+        this.relationshipProperties = new PropertyChanges( collectionsFactory, memoryTracker );
     }
 
     @Override
     public void accept( final TxStateVisitor visitor ) throws KernelException
     {
+        // Entities are visited in id order so that the storage engine reads and writes its records sequentially,
+        // which matters for transactions touching more entities than fit in the page cache.
         if ( nodes != null )
         {
-            nodes.getAdded().each( visitor::visitCreatedNode );
+            visitInIdOrder( nodes.getAdded(), visitor::visitCreatedNode );
         }
 
         if ( relationships != null )
         {
-            final LongIterator added = relationships.getAdded().longIterator();
-            while ( added.hasNext() )
+            visitInIdOrder( relationships.getAdded(), relId ->
             {
-                final long relId = added.next();
                 if ( !relationshipVisit( relId, visitor::visitCreatedRelationship ) )
                 {
                     throw new IllegalStateException( "No RelationshipState for added relationship!" );
                 }
-            }
-            relationships.getRemoved().forEach( visitor::visitDeletedRelationship );
+            } );
+            visitInIdOrder( relationships.getRemoved(), visitor::visitDeletedRelationship );
         }
 
         if ( nodes != null )
         {
-            nodes.getRemoved().each( visitor::visitDeletedNode );
+            visitInIdOrder( nodes.getRemoved(), visitor::visitDeletedNode );
         }
 
-        for ( NodeState node : modifiedNodes() )
+        if ( modifiedNodes != null )
         {
-            if ( node.hasPropertyChanges() )
+            visitInIdOrder( modifiedNodes, nodeId ->
             {
-                visitor.visitNodePropertyChanges( node.getId(), node.addedProperties(), node.changedProperties(), node.removedProperties() );
-            }
+                if ( nodeProperties.hasPropertyChanges( nodeId ) )
+                {
+                    visitor.visitNodePropertyChanges( nodeId, nodeProperties.addedProperties( nodeId ), nodeProperties.changedProperties( nodeId ),
+                            nodeProperties.removedProperties( nodeId ) );
+                }
 
-            final LongDiffSets labelDiffSets = node.labelDiffSets();
-            if ( !labelDiffSets.isEmpty() )
-            {
-                visitor.visitNodeLabelChanges( node.getId(), labelDiffSets.getAdded(), labelDiffSets.getRemoved() );
-            }
+                final LongDiffSets labelDiffSets = nodeLabelChanges( nodeId );
+                if ( !labelDiffSets.isEmpty() )
+                {
+                    visitor.visitNodeLabelChanges( nodeId, labelDiffSets.getAdded(), labelDiffSets.getRemoved() );
+                }
+            } );
         }
 
-        for ( RelationshipState rel : modifiedRelationships() )
+        if ( modifiedRelationships != null )
         {
-            visitor.visitRelPropertyChanges( rel.getId(), rel.addedProperties(), rel.changedProperties(), rel.removedProperties() );
+            visitInIdOrder( modifiedRelationships, relId -> visitor.visitRelPropertyChanges( relId, relationshipProperties.addedProperties( relId ),
+                    relationshipProperties.changedProperties( relId ), relationshipProperties.removedProperties( relId ) ) );
         }
 
         if ( indexChanges != null )
@@ -195,6 +217,26 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
         }
     }
 
+    /**
+     * Sorts the ids in memory from the collections factory, so that large transactions don't need to sort them on the heap.
+     */
+    private void visitInIdOrder( LongIterable ids, IdVisitor visitor ) throws KernelException
+    {
+        try ( SortedLongArray sortedIds = collectionsFactory.newSortedLongArray( ids, memoryTracker ) )
+        {
+            for ( int i = 0; i < sortedIds.size(); i++ )
+            {
+                visitor.visit( sortedIds.get( i ) );
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface IdVisitor
+    {
+        void visit( long id ) throws KernelException;
+    }
+
     @Override
     public boolean hasChanges()
     {
@@ -210,7 +252,7 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
     @Override
     public Iterable<NodeState> modifiedNodes()
     {
-        return nodeStatesMap == null ? Iterables.empty() : Iterables.cast( nodeStatesMap.values() );
+        return modifiedNodes == null ? Iterables.empty() : modifiedNodes.asLazy().collect( this::getNodeState );
     }
 
     @VisibleForTesting
@@ -250,9 +292,52 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
         return getNodeState( nodeId ).labelDiffSets();
     }
 
-    private MutableLongDiffSets getOrCreateNodeStateLabelDiffSets( long nodeId )
+    /**
+     * Label changes of the node, derived from the nodes with changed labels of each label. Labels of deleted nodes are of no interest.
+     */
+    LongDiffSets nodeLabelChanges( long nodeId )
     {
-        return getOrCreateNodeState( nodeId ).getOrCreateLabelDiffSets();
+        if ( labelStatesMap == null || nodeIsDeletedInThisTx( nodeId ) )
+        {
+            return LongDiffSets.EMPTY;
+        }
+        return labelChangesOf( nodeId );
+    }
+
+    private LongDiffSets labelChangesOf( long nodeId )
+    {
+        final MutableLongDiffSets labelChanges =
+                HeapTrackingCollections.newMutableLongDiffSets( OnHeapCollectionsFactory.INSTANCE, EmptyMemoryTracker.INSTANCE );
+        labelStatesMap.forEachKeyValue( ( labelId, nodeChanges ) ->
+        {
+            if ( nodeChanges.isAdded( nodeId ) )
+            {
+                labelChanges.add( labelId );
+            }
+            else if ( nodeChanges.isRemoved( nodeId ) )
+            {
+                labelChanges.remove( labelId );
+            }
+        } );
+        return labelChanges.isEmpty() ? LongDiffSets.EMPTY : labelChanges;
+    }
+
+    private void nodeModified( long nodeId )
+    {
+        if ( modifiedNodes == null )
+        {
+            modifiedNodes = collectionsFactory.newLongSet( memoryTracker );
+        }
+        modifiedNodes.add( nodeId );
+    }
+
+    private void relationshipModified( long relationshipId )
+    {
+        if ( modifiedRelationships == null )
+        {
+            modifiedRelationships = collectionsFactory.newLongSet( memoryTracker );
+        }
+        modifiedRelationships.add( relationshipId );
     }
 
     @Override
@@ -290,16 +375,22 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
     {
         nodes().remove( nodeId );
 
-        if ( nodeStatesMap != null )
+        if ( modifiedNodes != null && modifiedNodes.remove( nodeId ) )
         {
-            NodeStateImpl nodeState = nodeStatesMap.remove( nodeId );
+            if ( labelStatesMap != null )
+            {
+                labelChangesOf( nodeId ).getAdded().each( label -> getOrCreateLabelStateNodeDiffSets( label ).remove( nodeId ) );
+            }
+            NodeStateImpl nodeState = nodeStatesMap == null ? null : nodeStatesMap.remove( nodeId );
             if ( nodeState != null )
             {
-                final LongDiffSets diff = nodeState.labelDiffSets();
-                diff.getAdded().each( label -> getOrCreateLabelStateNodeDiffSets( label ).remove( nodeId ) );
                 nodeState.clearIndexDiffs( nodeId );
                 nodeState.clear();
             }
+            else
+            {
+                nodeProperties.clear( nodeId );
+            }
         }
         dataChanged();
     }
@@ -319,7 +410,16 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
             getOrCreateNodeState( endNodeId ).addRelationship( id, relationshipTypeId, RelationshipDirection.INCOMING );
         }
 
-        getOrCreateRelationshipState( id ).setMetaData( startNodeId, endNodeId, relationshipTypeId );
+        if ( createdRelationshipTypes == null )
+        {
+            createdRelationshipTypes = collectionsFactory.newLongLongMap( memoryTracker );
+            createdRelationshipStartNodes = collectionsFactory.newLongLongMap( memoryTracker );
+            createdRelationshipEndNodes = collectionsFactory.newLongLongMap( memoryTracker );
+        }
+        createdRelationshipTypes.put( id, relationshipTypeId );
+        createdRelationshipStartNodes.put( id, startNodeId );
+        createdRelationshipEndNodes.put( id, endNodeId );
+        relationshipModified( id );
         getOrCreateTypeStateRelationshipDiffSets( relationshipTypeId ).add( id );
 
         dataChanged();
@@ -346,12 +446,14 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
             getOrCreateNodeState( endNodeId ).removeRelationship( id, type, RelationshipDirection.INCOMING );
         }
 
-        if ( relationshipStatesMap != null )
+        if ( modifiedRelationships != null && modifiedRelationships.remove( id ) )
         {
-            RelationshipStateImpl removed = relationshipStatesMap.remove( id );
-            if ( removed != null )
+            relationshipProperties.clear( id );
+            if ( createdRelationshipTypes != null )
             {
-                removed.clear();
+                createdRelationshipTypes.remove( id );
+                createdRelationshipStartNodes.remove( id );
+                createdRelationshipEndNodes.remove( id );
             }
         }
         getOrCreateTypeStateRelationshipDiffSets( type ).remove( id );
@@ -374,15 +476,16 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
     @Override
     public void nodeDoAddProperty( long nodeId, int newPropertyKeyId, Value value )
     {
-        NodeStateImpl nodeState = getOrCreateNodeState( nodeId );
-        nodeState.addProperty( newPropertyKeyId, value );
+        nodeProperties.addProperty( nodeId, newPropertyKeyId, value );
+        nodeModified( nodeId );
         dataChanged();
     }
 
     @Override
     public void nodeDoChangeProperty( long nodeId, int propertyKeyId, Value newValue )
     {
-        getOrCreateNodeState( nodeId ).changeProperty( propertyKeyId, newValue );
+        nodeProperties.changeProperty( nodeId, propertyKeyId, newValue );
+        nodeModified( nodeId );
         dataChanged();
     }
 
@@ -392,26 +495,29 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
     {
         if ( replacedValue != NO_VALUE )
         {
-            getOrCreateRelationshipState( relationshipId ).changeProperty( propertyKeyId, newValue );
+            relationshipProperties.changeProperty( relationshipId, propertyKeyId, newValue );
         }
         else
         {
-            getOrCreateRelationshipState( relationshipId ).addProperty( propertyKeyId, newValue );
+            relationshipProperties.addProperty( relationshipId, propertyKeyId, newValue );
         }
+        relationshipModified( relationshipId );
         dataChanged();
     }
 
     @Override
     public void nodeDoRemoveProperty( long nodeId, int propertyKeyId )
     {
-        getOrCreateNodeState( nodeId ).removeProperty( propertyKeyId );
+        nodeProperties.removeProperty( nodeId, propertyKeyId );
+        nodeModified( nodeId );
         dataChanged();
     }
 
     @Override
     public void relationshipDoRemoveProperty( long relationshipId, int propertyKeyId )
     {
-        getOrCreateRelationshipState( relationshipId ).removeProperty( propertyKeyId );
+        relationshipProperties.removeProperty( relationshipId, propertyKeyId );
+        relationshipModified( relationshipId );
         dataChanged();
     }
 
@@ -419,7 +525,7 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
     public void nodeDoAddLabel( long labelId, long nodeId )
     {
         getOrCreateLabelStateNodeDiffSets( labelId ).add( nodeId );
-        getOrCreateNodeStateLabelDiffSets( nodeId ).add( labelId );
+        nodeModified( nodeId );
         dataChanged();
     }
 
@@ -427,7 +533,7 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
     public void nodeDoRemoveLabel( long labelId, long nodeId )
     {
         getOrCreateLabelStateNodeDiffSets( labelId ).remove( nodeId );
-        getOrCreateNodeStateLabelDiffSets( nodeId ).remove( labelId );
+        nodeModified( nodeId );
         dataChanged();
     }
 
@@ -468,23 +574,22 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
     @Override
     public NodeState getNodeState( long id )
     {
-        if ( nodeStatesMap == null )
+        if ( modifiedNodes == null || !modifiedNodes.contains( id ) )
         {
             return NodeStateImpl.EMPTY;
         }
-        final NodeState nodeState = nodeStatesMap.get( id );
-        return nodeState == null ? NodeStateImpl.EMPTY : nodeState;
+        final NodeState nodeState = nodeStatesMap == null ? null : nodeStatesMap.get( id );
+        return nodeState != null ? nodeState : NodeStateImpl.nodeStateView( id, nodeProperties, this, memoryTracker );
     }
 
     @Override
     public RelationshipState getRelationshipState( long id )
     {
-        if ( relationshipStatesMap == null )
+        if ( modifiedRelationships == null || !modifiedRelationships.contains( id ) )
         {
             return RelationshipStateImpl.EMPTY;
         }
-        final RelationshipStateImpl relationshipState = relationshipStatesMap.get( id );
-        return relationshipState == null ? RelationshipStateImpl.EMPTY : relationshipState;
+        return new RelationshipStateImpl( id, relationshipProperties, this );
     }
 
     @Override
@@ -606,26 +711,21 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
     @Override
     public Iterable<RelationshipState> modifiedRelationships()
     {
-        return relationshipStatesMap == null ? Iterables.empty() : Iterables.cast( relationshipStatesMap.values() );
+        return modifiedRelationships == null ? Iterables.empty() : modifiedRelationships.asLazy().collect( this::getRelationshipState );
     }
 
+    /**
+     * @return the state object of a node with relationship or index changes, creating it if needed.
+     */
     @VisibleForTesting
     NodeStateImpl getOrCreateNodeState( long nodeId )
     {
+        nodeModified( nodeId );
         if ( nodeStatesMap == null )
         {
             nodeStatesMap = HeapTrackingCollections.newLongObjectMap( memoryTracker );
         }
-        return nodeStatesMap.getIfAbsentPut( nodeId, () -> newNodeState( nodeId ) );
-    }
-
-    private RelationshipStateImpl getOrCreateRelationshipState( long relationshipId )
-    {
-        if ( relationshipStatesMap == null )
-        {
-            relationshipStatesMap = HeapTrackingCollections.newLongObjectMap( memoryTracker );
-        }
-        return relationshipStatesMap.getIfAbsentPut( relationshipId, () -> newRelationshipState( relationshipId ) );
+        return nodeStatesMap.getIfAbsentPut( nodeId, () -> NodeStateImpl.createNodeState( nodeId, nodeProperties, this, memoryTracker ) );
     }
 
     @Override
@@ -819,7 +919,13 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
     @Override
     public <EX extends Exception> boolean relationshipVisit( long relId, RelationshipVisitor<EX> visitor ) throws EX
     {
-        return getRelationshipState( relId ).accept( visitor );
+        if ( createdRelationshipTypes == null || !createdRelationshipTypes.containsKey( relId ) )
+        {
+            return false;
+        }
+        visitor.visit( relId, toIntExact( createdRelationshipTypes.get( relId ) ), createdRelationshipStartNodes.get( relId ),
+                createdRelationshipEndNodes.get( relId ) );
+        return true;
     }
 
     @Override
@@ -827,14 +933,4 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
     {
         return dataRevision;
     }
-
-    private NodeStateImpl newNodeState( long nodeId )
-    {
-        return NodeStateImpl.createNodeState( nodeId, collectionsFactory, memoryTracker );
-    }
-
-    private RelationshipStateImpl newRelationshipState( long relationshipId )
-    {
-        return RelationshipStateImpl.createRelationshipStateImpl( relationshipId, collectionsFactory, memoryTracker );
-    }
 }
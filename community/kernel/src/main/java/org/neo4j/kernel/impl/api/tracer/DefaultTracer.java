@@ -19,6 +19,7 @@
  */
 package org.neo4j.kernel.impl.api.tracer;
 
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
@@ -43,11 +44,15 @@ import static org.neo4j.kernel.impl.transaction.log.entry.LogVersions.CURRENT_FO
 public class DefaultTracer implements DatabaseTracer
 {
     private final AtomicLong appendedBytes = new AtomicLong();
+    private final AtomicLong appendedTransactions = new AtomicLong();
+    private final AtomicLong logForces = new AtomicLong();
+    private final AtomicLong logForceWaitNanos = new AtomicLong();
 
     private final CountingLogRotateEvent countingLogRotateEvent = new CountingLogRotateEvent();
     private final LogFileCreateEvent logFileCreateEvent = () -> appendedBytes.addAndGet( CURRENT_FORMAT_LOG_HEADER_SIZE );
     private final CountingLogCheckPointEvent logCheckPointEvent = new CountingLogCheckPointEvent( this::appendLogBytes );
     private final LogAppendEvent logAppendEvent = new DefaultLogAppendEvent();
+    private final LogForceEvent logForceEvent = logForces::incrementAndGet;
     private final CommitEvent commitEvent = new DefaultCommitEvent();
     private final TransactionEvent transactionEvent = new DefaultTransactionEvent();
 
@@ -86,6 +91,24 @@ public class DefaultTracer implements DatabaseTracer
         return countingLogRotateEvent.lastLogRotationTimeMillis();
     }
 
+    @Override
+    public long numberOfAppendedTransactions()
+    {
+        return appendedTransactions.get();
+    }
+
+    @Override
+    public long numberOfLogForces()
+    {
+        return logForces.get();
+    }
+
+    @Override
+    public long logForceWaitAccumulatedTotalTimeMillis()
+    {
+        return TimeUnit.NANOSECONDS.toMillis( logForceWaitNanos.get() );
+    }
+
     @Override
     public long numberOfCheckPoints()
     {
@@ -186,6 +209,7 @@ public class DefaultTracer implements DatabaseTracer
         public void appendToLogFile( LogPosition logPositionBeforeAppend, LogPosition logPositionAfterAppend )
         {
             appendLogBytes( logPositionBeforeAppend, logPositionAfterAppend );
+            appendedTransactions.incrementAndGet();
         }
 
         @Override
@@ -214,13 +238,14 @@ public class DefaultTracer implements DatabaseTracer
         @Override
         public LogForceWaitEvent beginLogForceWait()
         {
-            return LogForceWaitEvent.NULL;
+            long startTimeNanos = System.nanoTime();
+            return () -> logForceWaitNanos.addAndGet( System.nanoTime() - startTimeNanos );
         }
 
         @Override
         public LogForceEvent beginLogForce()
         {
-            return LogForceEvent.NULL;
+            return logForceEvent;
         }
     }
 }
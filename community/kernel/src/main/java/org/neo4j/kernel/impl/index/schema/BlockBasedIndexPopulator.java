@@ -400,7 +400,7 @@ public abstract class BlockBasedIndexPopulator<KEY extends NativeIndexKey<KEY>,V
     }
 
     private void writeScanUpdatesToTree( RecordingConflictDetector<KEY,VALUE> recordingConflictDetector, Allocator allocator, int bufferSize,
-            PageCursorTracer cursorTracer ) throws IOException, IndexEntryConflictException
+            PageCursorTracer cursorTracer ) throws IOException
     {
         try ( MergingBlockEntryReader<KEY,VALUE> allEntries = new MergingBlockEntryReader<>( layout ) )
         {
@@ -423,15 +423,8 @@ public abstract class BlockBasedIndexPopulator<KEY extends NativeIndexKey<KEY>,V
                 }
             }
 
-            int asMuchAsPossibleToTheLeft = 1;
-            try ( Writer<KEY,VALUE> writer = tree.writer( asMuchAsPossibleToTheLeft, cursorTracer ) )
-            {
-                while ( allEntries.next() && !cancellation.cancelled() )
-                {
-                    writeToTree( writer, recordingConflictDetector, allEntries.key(), allEntries.value() );
-                    numberOfAppliedScanUpdates++;
-                }
-            }
+            // The tree is empty at this point and the merged entries are sorted, so build the tree bottom up from them
+            tree.bulkLoad( new ScanUpdatesSeeker( allEntries, recordingConflictDetector ), cursorTracer );
         }
     }
 
@@ -694,6 +687,72 @@ public abstract class BlockBasedIndexPopulator<KEY extends NativeIndexKey<KEY>,V
         }
     }
 
+    /**
+     * Feeds the sorted scan updates into {@link GBPTree#bulkLoad(Seeker, PageCursorTracer)}. The tree is built without looking up
+     * existing keys, so conflicts are detected here instead by comparing each entry with the one before it. All entries with the same value
+     * are next to each other in the sorted order, so for unique indexes that is enough to see every entry conflicting with another.
+     * Entries with the same value and entity id are only added once.
+     */
+    private class ScanUpdatesSeeker implements Seeker<KEY,VALUE>
+    {
+        private final BlockEntryCursor<KEY,VALUE> allEntries;
+        private final RecordingConflictDetector<KEY,VALUE> recordingConflictDetector;
+        private final KEY previousKey;
+        private boolean hasPrevious;
+
+        ScanUpdatesSeeker( BlockEntryCursor<KEY,VALUE> allEntries, RecordingConflictDetector<KEY,VALUE> recordingConflictDetector )
+        {
+            this.allEntries = allEntries;
+            this.recordingConflictDetector = recordingConflictDetector;
+            this.previousKey = layout.newKey();
+        }
+
+        @Override
+        public boolean next() throws IOException
+        {
+            while ( !cancellation.cancelled() && allEntries.next() )
+            {
+                KEY key = allEntries.key();
+                if ( hasPrevious )
+                {
+                    recordingConflictDetector.controlConflictDetection( key );
+                    boolean sameValue = layout.compare( previousKey, key ) == 0;
+                    recordingConflictDetector.relaxUniqueness( key );
+                    if ( sameValue )
+                    {
+                        if ( previousKey.getEntityId() == key.getEntityId() )
+                        {
+                            continue;
+                        }
+                        recordingConflictDetector.recordConflict( key );
+                    }
+                }
+                layout.copyKey( key, previousKey );
+                hasPrevious = true;
+                numberOfAppliedScanUpdates++;
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public KEY key()
+        {
+            return allEntries.key();
+        }
+
+        @Override
+        public VALUE value()
+        {
+            return allEntries.value();
+        }
+
+        @Override
+        public void close()
+        {   // the entries are closed by the caller
+        }
+    }
+
     private static class RecordingConflictDetector<KEY extends NativeIndexKey<KEY>, VALUE extends NativeIndexValue>
             extends ConflictDetectingValueMerger<KEY,VALUE,KEY>
     {
@@ -710,7 +769,7 @@ public abstract class BlockBasedIndexPopulator<KEY extends NativeIndexKey<KEY>,V
         {
             try
             {
-                allConflictingKeys.add( conflictingKey );
+                recordConflict( conflictingKey );
             }
             catch ( IOException e )
             {
@@ -718,6 +777,11 @@ public abstract class BlockBasedIndexPopulator<KEY extends NativeIndexKey<KEY>,V
             }
         }
 
+        void recordConflict( KEY conflictingKey ) throws IOException
+        {
+            allConflictingKeys.add( conflictingKey );
+        }
+
         IndexKeyStorage.KeyEntryCursor<KEY> allConflicts() throws IOException
         {
             allConflictingKeys.doneAdding();
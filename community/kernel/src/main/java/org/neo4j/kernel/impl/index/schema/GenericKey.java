@@ -397,6 +397,99 @@ public class GenericKey extends NativeIndexKey<GenericKey>
         return setType( Types.BY_ID[typeId] ).readValue( cursor, size - TYPE_ID_SIZE, this );
     }
 
+    /**
+     * Writes this key in the form used in prefix compressed leaves, which has the same size as {@link #put(PageCursor)}.
+     * Values come first and the entity id last, so that neighbouring keys share as many leading bytes as possible.
+     * Text values are written without their length, which would otherwise come before the text itself. Their lengths
+     * are instead written after all values, the last text value's length first, followed by the entity id.
+     */
+    void putForPrefixCompression( PageCursor cursor )
+    {
+        int numberOfSlots = numberOfStateSlots();
+        for ( int i = 0; i < numberOfSlots; i++ )
+        {
+            GenericKey slot = stateSlot( i );
+            if ( slot.type == Types.TEXT )
+            {
+                cursor.putByte( slot.type.typeId );
+                cursor.putBytes( slot.byteArray, 0, (int) slot.long0 );
+            }
+            else
+            {
+                slot.putInternal( cursor );
+            }
+        }
+        for ( int i = numberOfSlots - 1; i >= 0; i-- )
+        {
+            GenericKey slot = stateSlot( i );
+            if ( slot.type == Types.TEXT )
+            {
+                TextType.putLength( cursor, slot.long0, slot.long2 );
+            }
+        }
+        cursor.putLong( getEntityId() );
+    }
+
+    /**
+     * Reads a key written by {@link #putForPrefixCompression(PageCursor)}.
+     */
+    boolean getForPrefixCompression( PageCursor cursor, int size )
+    {
+        if ( size < ENTITY_ID_SIZE )
+        {
+            initializeToDummyValue();
+            cursor.setCursorException( format( "Failed to read " + getClass().getSimpleName() +
+                    " due to keySize < ENTITY_ID_SIZE, more precisely %d", size ) );
+            return false;
+        }
+
+        int end = cursor.getOffset() + size;
+        int lengthsEnd = end - ENTITY_ID_SIZE;
+        initialize( cursor.getLong( lengthsEnd ) );
+        int numberOfSlots = numberOfStateSlots();
+        int textSlots = 0;
+        for ( int i = 0; i < numberOfSlots; i++ )
+        {
+            if ( !stateSlot( i ).getInternalForPrefixCompression( cursor, lengthsEnd - SIZE_STRING_LENGTH * textSlots ) )
+            {
+                initializeToDummyValue();
+                return false;
+            }
+            if ( stateSlot( i ).type == Types.TEXT )
+            {
+                textSlots++;
+            }
+        }
+        cursor.setOffset( end );
+        return true;
+    }
+
+    private boolean getInternalForPrefixCompression( PageCursor cursor, int valuesEnd )
+    {
+        int size = valuesEnd - cursor.getOffset();
+        if ( size <= TYPE_ID_SIZE )
+        {
+            setCursorException( cursor, "slot size less than TYPE_ID_SIZE, " + size );
+            return false;
+        }
+
+        byte typeId = cursor.getByte();
+        if ( typeId < 0 || typeId >= Types.BY_ID.length )
+        {
+            setCursorException( cursor, "non-valid typeId, " + typeId );
+            return false;
+        }
+
+        inclusion = NEUTRAL;
+        Type slotType = setType( Types.BY_ID[typeId] );
+        if ( slotType == Types.TEXT )
+        {
+            int lengthOffset = valuesEnd - SIZE_STRING_LENGTH;
+            return TextType.readBytes( cursor, cursor.getShort( lengthOffset ), lengthOffset - cursor.getOffset(), this );
+        }
+        return slotType.readValue( cursor, size - TYPE_ID_SIZE, this );
+    }
+
     /* <write> (write to field state from Value or cursor) */
 
     private <T extends Type> T setType( T type )
@@ -22,9 +22,12 @@ package org.neo4j.kernel.impl.index.schema;
 import org.neo4j.index.internal.gbptree.Layout;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.kernel.impl.index.schema.config.IndexSpecificSpaceFillingCurveSettings;
+import org.neo4j.util.FeatureToggles;
 
 class GenericLayout extends IndexLayout<GenericKey,NativeIndexValue>
 {
+    private static final boolean PREFIX_COMPRESSED_LEAVES = FeatureToggles.flag( GenericLayout.class, "prefixCompressedLeaves", false );
+
     private final int numberOfSlots;
     private final IndexSpecificSpaceFillingCurveSettings spatialSettings;
 
@@ -70,6 +73,24 @@ class GenericLayout extends IndexLayout<GenericKey,NativeIndexValue>
         into.get( cursor, keySize );
     }
 
+    @Override
+    public boolean prefixCompressedLeaves()
+    {
+        return PREFIX_COMPRESSED_LEAVES;
+    }
+
+    @Override
+    public void writeKeyForPrefixCompression( PageCursor cursor, GenericKey key )
+    {
+        key.putForPrefixCompression( cursor );
+    }
+
+    @Override
+    public void readKeyForPrefixCompression( PageCursor cursor, GenericKey into, int keySize )
+    {
+        into.getForPrefixCompression( cursor, keySize );
+    }
+
     @Override
     public void minimalSplitter( GenericKey left, GenericKey right, GenericKey into )
     {
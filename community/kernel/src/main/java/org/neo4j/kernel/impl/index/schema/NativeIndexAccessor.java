@@ -26,6 +26,7 @@ import java.util.function.Consumer;
 
 import org.neo4j.graphdb.ResourceIterator;
 import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Seeker;
 import org.neo4j.index.internal.gbptree.TreeInconsistencyException;
 import org.neo4j.internal.helpers.collection.BoundedIterable;
 import org.neo4j.internal.schema.IndexDescriptor;
@@ -36,6 +37,7 @@ import org.neo4j.kernel.api.index.IndexAccessor;
 import org.neo4j.kernel.api.index.IndexReader;
 import org.neo4j.kernel.impl.api.index.IndexUpdateMode;
 import org.neo4j.storageengine.api.NodePropertyAccessor;
+import org.neo4j.util.FeatureToggles;
 
 import static org.neo4j.internal.helpers.collection.Iterators.asResourceIterator;
 import static org.neo4j.internal.helpers.collection.Iterators.iterator;
@@ -44,8 +46,16 @@ import static org.neo4j.kernel.impl.index.schema.NativeIndexPopulator.BYTE_ONLIN
 public abstract class NativeIndexAccessor<KEY extends NativeIndexKey<KEY>, VALUE extends NativeIndexValue> extends NativeIndex<KEY,VALUE>
         implements IndexAccessor
 {
+    /**
+     * Name of the feature toggle for keeping a {@link UniqueIndexBloomFilter} of the values in unique indexes, letting lookups of values
+     * not in the index skip the tree. The filter is built from the entries in the tree when the index is opened.
+     */
+    static final String UNIQUE_BLOOM_FILTER_NAME = "uniqueBloomFilter";
+    private static final long MIN_BLOOM_FILTER_CAPACITY = 1 << 20;
+
     private final NativeIndexUpdater<KEY,VALUE> singleUpdater;
     final NativeIndexHeaderWriter headerWriter;
+    UniqueIndexBloomFilter bloomFilter;
 
     NativeIndexAccessor( DatabaseIndexContext databaseIndexContext, IndexFiles indexFiles, IndexLayout<KEY,VALUE> layout,
             IndexDescriptor descriptor, Consumer<PageCursor> additionalHeaderWriter )
@@ -55,6 +65,53 @@ public abstract class NativeIndexAccessor<KEY extends NativeIndexKey<KEY>, VALUE
         headerWriter = new NativeIndexHeaderWriter( BYTE_ONLINE, additionalHeaderWriter );
     }
 
+    @Override
+    protected void afterTreeInstantiation( GBPTree<KEY,VALUE> tree )
+    {
+        if ( descriptor.isUnique() && FeatureToggles.flag( NativeIndexAccessor.class, UNIQUE_BLOOM_FILTER_NAME, false ) )
+        {
+            bloomFilter = buildBloomFilter( tree );
+        }
+    }
+
+    private UniqueIndexBloomFilter buildBloomFilter( GBPTree<KEY,VALUE> tree )
+    {
+        long estimatedNumberOfEntries;
+        try
+        {
+            estimatedNumberOfEntries = tree.estimateNumberOfEntriesInTree( PageCursorTracer.NULL );
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+        catch ( TreeInconsistencyException e )
+        {
+            estimatedNumberOfEntries = 0;
+        }
+        // Leave room for the index to grow before the filter saturates
+        UniqueIndexBloomFilter filter = UniqueIndexBloomFilter.withCapacity( Math.max( MIN_BLOOM_FILTER_CAPACITY, estimatedNumberOfEntries * 2 ) );
+
+        KEY from = layout.newKey();
+        from.initialize( Long.MIN_VALUE );
+        from.initValuesAsLowest();
+        KEY to = layout.newKey();
+        to.initialize( Long.MAX_VALUE );
+        to.initValuesAsHighest();
+        try ( Seeker<KEY,VALUE> seeker = tree.seek( from, to, PageCursorTracer.NULL ) )
+        {
+            while ( seeker.next() )
+            {
+                filter.add( seeker.key().asValues() );
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+        return filter;
+    }
+
     @Override
     public void drop()
     {
@@ -68,7 +125,7 @@ public abstract class NativeIndexAccessor<KEY extends NativeIndexKey<KEY>, VALUE
         assertOpen();
         try
         {
-            return singleUpdater.initialize( tree.writer( cursorTracer ) );
+            return singleUpdater.initialize( tree.writer( cursorTracer ), bloomFilter );
         }
         catch ( IOException e )
         {
@@ -57,14 +57,9 @@ public abstract class NativeIndexPopulator<KEY extends NativeIndexKey<KEY>, VALU
     static final byte BYTE_ONLINE = 1;
     static final byte BYTE_POPULATING = 2;
 
-    private final KEY treeKey;
-    private final VALUE treeValue;
     private final UniqueIndexSampler uniqueSampler;
     private final Consumer<PageCursor> additionalHeaderWriter;
 
-    private ConflictDetectingValueMerger<KEY,VALUE,Value[]> mainConflictDetector;
-    private ConflictDetectingValueMerger<KEY,VALUE,Value[]> updatesConflictDetector;
-
     private byte[] failureBytes;
     private boolean dropped;
     private boolean closed;
@@ -73,8 +68,6 @@ public abstract class NativeIndexPopulator<KEY extends NativeIndexKey<KEY>, VALU
             IndexDescriptor descriptor, Consumer<PageCursor> additionalHeaderWriter, GBPTree.Monitor treeMonitor )
     {
         super( databaseIndexContext, layout, indexFiles, descriptor, treeMonitor );
-        this.treeKey = layout.newKey();
-        this.treeValue = layout.newValue();
         this.additionalHeaderWriter = additionalHeaderWriter;
         this.uniqueSampler = descriptor.isUnique() ? new UniqueIndexSampler() : null;
     }
@@ -97,18 +90,20 @@ public abstract class NativeIndexPopulator<KEY extends NativeIndexKey<KEY>, VALU
 
         clear();
         instantiateTree( RecoveryCleanupWorkCollector.immediate(), headerWriter );
+    }
 
+    ConflictDetectingValueMerger<KEY,VALUE,Value[]> getMainConflictDetector()
+    {
         // true:  tree uniqueness is (value,entityId)
         // false: tree uniqueness is (value) <-- i.e. more strict
-        mainConflictDetector = getMainConflictDetector();
-        // for updates we have to have uniqueness on (value,entityId) to allow for intermediary violating updates.
-        // there are added conflict checks after updates have been applied.
-        updatesConflictDetector = new ThrowingConflictDetector<>( true );
+        return new ThrowingConflictDetector<>( !descriptor.isUnique() );
     }
 
-    ConflictDetectingValueMerger<KEY,VALUE,Value[]> getMainConflictDetector()
+    private ConflictDetectingValueMerger<KEY,VALUE,Value[]> getUpdatesConflictDetector()
     {
-        return new ThrowingConflictDetector<>( !descriptor.isUnique() );
+        // for updates we have to have uniqueness on (value,entityId) to allow for intermediary violating updates.
+        // there are added conflict checks after updates have been applied.
+        return new ThrowingConflictDetector<>( true );
     }
 
     @Override
@@ -129,7 +124,7 @@ public abstract class NativeIndexPopulator<KEY extends NativeIndexKey<KEY>, VALU
     @Override
     public void add( Collection<? extends IndexEntryUpdate<?>> updates, PageCursorTracer cursorTracer ) throws IndexEntryConflictException
     {
-        processUpdates( updates, mainConflictDetector, cursorTracer );
+        processUpdates( updates, getMainConflictDetector(), cursorTracer );
     }
 
     @Override
@@ -146,7 +141,7 @@ public abstract class NativeIndexPopulator<KEY extends NativeIndexKey<KEY>, VALU
 
     IndexUpdater newPopulatingUpdater( PageCursorTracer cursorTracer )
     {
-        IndexUpdater updater = new CollectingIndexUpdater( updates -> processUpdates( updates, updatesConflictDetector, cursorTracer ) );
+        IndexUpdater updater = new CollectingIndexUpdater( updates -> processUpdates( updates, getUpdatesConflictDetector(), cursorTracer ) );
         if ( descriptor.isUnique() && canCheckConflictsWithoutStoreAccess() )
         {
             // The index population detects conflicts on the fly, however for updates coming in we're in a position
@@ -245,10 +240,17 @@ public abstract class NativeIndexPopulator<KEY extends NativeIndexKey<KEY>, VALU
                 new NativeIndexHeaderWriter( state, additionalHeaderWriter ), cursorTracer );
     }
 
+    /**
+     * Updates are applied using a {@link GBPTree#concurrentWriter(PageCursorTracer) concurrent writer}, since batches from the store scan
+     * are flushed to the same populator from several threads and populating updaters can be used concurrently with those.
+     * Each call therefore uses its own key, value and conflict detector.
+     */
     private void processUpdates( Iterable<? extends IndexEntryUpdate<?>> indexEntryUpdates, ConflictDetectingValueMerger<KEY,VALUE,Value[]> conflictDetector,
             PageCursorTracer cursorTracer ) throws IndexEntryConflictException
     {
-        try ( Writer<KEY,VALUE> writer = tree.writer( cursorTracer ) )
+        KEY treeKey = layout.newKey();
+        VALUE treeValue = layout.newValue();
+        try ( Writer<KEY,VALUE> writer = tree.concurrentWriter( cursorTracer ) )
         {
             for ( IndexEntryUpdate<?> indexEntryUpdate : indexEntryUpdates )
             {
@@ -19,14 +19,20 @@
  */
 package org.neo4j.kernel.impl.index.schema;
 
+import org.apache.commons.lang3.tuple.Pair;
+
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.neo4j.index.internal.gbptree.GBPTree;
 import org.neo4j.index.internal.gbptree.Seeker;
 import org.neo4j.internal.kernel.api.IndexQuery;
 import org.neo4j.internal.kernel.api.IndexQueryConstraints;
 import org.neo4j.internal.kernel.api.QueryContext;
+import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotApplicableKernelException;
 import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotFoundKernelException;
 import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.internal.schema.IndexOrder;
@@ -35,6 +41,7 @@ import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.api.index.IndexProgressor;
 import org.neo4j.kernel.api.index.IndexReader;
 import org.neo4j.kernel.api.index.IndexSampler;
+import org.neo4j.kernel.api.index.PartitionedValueSeek;
 import org.neo4j.storageengine.api.NodePropertyAccessor;
 import org.neo4j.values.storable.Value;
 
@@ -47,12 +54,17 @@ abstract class NativeIndexReader<KEY extends NativeIndexKey<KEY>, VALUE extends
     protected final IndexDescriptor descriptor;
     final IndexLayout<KEY,VALUE> layout;
     final GBPTree<KEY,VALUE> tree;
+    private final UniqueIndexBloomFilter bloomFilter;
 
-    NativeIndexReader( GBPTree<KEY,VALUE> tree, IndexLayout<KEY,VALUE> layout, IndexDescriptor descriptor )
+    /**
+     * @param bloomFilter filter of the values in the index, or {@code null} if the index doesn't keep one.
+     */
+    NativeIndexReader( GBPTree<KEY,VALUE> tree, IndexLayout<KEY,VALUE> layout, IndexDescriptor descriptor, UniqueIndexBloomFilter bloomFilter )
     {
         this.tree = tree;
         this.layout = layout;
         this.descriptor = descriptor;
+        this.bloomFilter = bloomFilter;
     }
 
     @Override
@@ -126,6 +138,12 @@ abstract class NativeIndexReader<KEY extends NativeIndexKey<KEY>, VALUE extends
     {
         validateQuery( constraints, predicates );
 
+        if ( bloomFilter != null && definitelyNotInIndex( predicates ) )
+        {
+            cursor.initialize( descriptor, IndexProgressor.EMPTY, predicates, constraints, false );
+            return;
+        }
+
         KEY treeKeyFrom = layout.newKey();
         KEY treeKeyTo = layout.newKey();
         initializeFromToKeys( treeKeyFrom, treeKeyTo );
@@ -134,6 +152,45 @@ abstract class NativeIndexReader<KEY extends NativeIndexKey<KEY>, VALUE extends
         startSeekForInitializedRange( cursor, treeKeyFrom, treeKeyTo, predicates, constraints, needFilter, cursorTracer );
     }
 
+    @Override
+    public PartitionedValueSeek valueSeek( int desiredNumberOfPartitions, PageCursorTracer cursorTracer, IndexQuery... query )
+            throws IndexNotApplicableKernelException
+    {
+        validateQuery( unordered( false ), query );
+
+        KEY treeKeyFrom = layout.newKey();
+        KEY treeKeyTo = layout.newKey();
+        initializeFromToKeys( treeKeyFrom, treeKeyTo );
+
+        boolean needFilter = initializeRangeForQuery( treeKeyFrom, treeKeyTo, query );
+        if ( isEmptyRange( treeKeyFrom, treeKeyTo ) )
+        {
+            return new NativePartitionedValueSeek( Collections.emptyList(), needFilter, query );
+        }
+        try
+        {
+            return new NativePartitionedValueSeek( tree.partitionRange( treeKeyFrom, treeKeyTo, desiredNumberOfPartitions, cursorTracer ), needFilter, query );
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    private boolean definitelyNotInIndex( IndexQuery[] predicates )
+    {
+        Value[] values = new Value[predicates.length];
+        for ( int i = 0; i < predicates.length; i++ )
+        {
+            if ( !(predicates[i] instanceof IndexQuery.ExactPredicate) )
+            {
+                return false;
+            }
+            values[i] = ((IndexQuery.ExactPredicate) predicates[i]).value();
+        }
+        return !bloomFilter.mightContain( values );
+    }
+
     void initializeFromToKeys( KEY treeKeyFrom, KEY treeKeyTo )
     {
         treeKeyFrom.initialize( Long.MIN_VALUE );
@@ -191,4 +248,51 @@ abstract class NativeIndexReader<KEY extends NativeIndexKey<KEY>, VALUE extends
     {
         return layout.compare( treeKeyFrom, treeKeyTo ) > 0;
     }
+
+    /**
+     * Seeks a partition of the tree only when it's reserved, so that it's seeked by the thread that will read it.
+     */
+    private class NativePartitionedValueSeek implements PartitionedValueSeek
+    {
+        private final List<Pair<KEY,KEY>> partitions;
+        private final boolean needFilter;
+        private final IndexQuery[] query;
+        private final AtomicInteger nextPartition = new AtomicInteger();
+
+        NativePartitionedValueSeek( List<Pair<KEY,KEY>> partitions, boolean needFilter, IndexQuery[] query )
+        {
+            this.partitions = partitions;
+            this.needFilter = needFilter;
+            this.query = query;
+        }
+
+        @Override
+        public int getNumberOfPartitions()
+        {
+            return partitions.size();
+        }
+
+        @Override
+        public IndexProgressor reservePartition( IndexProgressor.EntityValueClient client, PageCursorTracer cursorTracer )
+        {
+            int partition = nextPartition.getAndIncrement();
+            if ( partition >= partitions.size() )
+            {
+                return IndexProgressor.EMPTY;
+            }
+
+            // A seeker may change its keys and neighbouring partitions share keys, so each seeker gets its own copies
+            Pair<KEY,KEY> range = partitions.get( partition );
+            KEY treeKeyFrom = layout.copyKey( range.getLeft(), layout.newKey() );
+            KEY treeKeyTo = layout.copyKey( range.getRight(), layout.newKey() );
+            try
+            {
+                return getIndexProgressor( tree.seek( treeKeyFrom, treeKeyTo, cursorTracer ), client, needFilter, query );
+            }
+            catch ( IOException e )
+            {
+                throw new UncheckedIOException( e );
+            }
+        }
+    }
 }
@@ -24,6 +24,7 @@ import org.neo4j.io.IOUtils;
 import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
 import org.neo4j.kernel.api.index.IndexUpdater;
 import org.neo4j.storageengine.api.IndexEntryUpdate;
+import org.neo4j.storageengine.api.UpdateMode;
 import org.neo4j.values.storable.Value;
 
 import static org.neo4j.kernel.impl.index.schema.NativeIndexKey.Inclusion.NEUTRAL;
@@ -35,6 +36,7 @@ class NativeIndexUpdater<KEY extends NativeIndexKey<KEY>, VALUE extends NativeIn
     private final VALUE treeValue;
     private final ConflictDetectingValueMerger<KEY,VALUE,Value[]> conflictDetectingValueMerger = new ThrowingConflictDetector<>( true );
     private Writer<KEY,VALUE> writer;
+    private UniqueIndexBloomFilter bloomFilter;
 
     private boolean closed = true;
 
@@ -44,7 +46,12 @@ class NativeIndexUpdater<KEY extends NativeIndexKey<KEY>, VALUE extends NativeIn
         this.treeValue = treeValue;
     }
 
-    NativeIndexUpdater<KEY,VALUE> initialize( Writer<KEY,VALUE> writer )
+    /**
+     * @param writer {@link Writer} to apply updates with.
+     * @param bloomFilter filter to add updated values to, or {@code null} if the index doesn't keep one.
+     * @return this updater, ready to process updates.
+     */
+    NativeIndexUpdater<KEY,VALUE> initialize( Writer<KEY,VALUE> writer, UniqueIndexBloomFilter bloomFilter )
     {
         if ( !closed )
         {
@@ -52,6 +59,7 @@ class NativeIndexUpdater<KEY extends NativeIndexKey<KEY>, VALUE extends NativeIn
         }
 
         this.writer = writer;
+        this.bloomFilter = bloomFilter;
         closed = false;
         return this;
     }
@@ -60,6 +68,11 @@ class NativeIndexUpdater<KEY extends NativeIndexKey<KEY>, VALUE extends NativeIn
     public void process( IndexEntryUpdate<?> update ) throws IndexEntryConflictException
     {
         assertOpen();
+        if ( bloomFilter != null && update.updateMode() != UpdateMode.REMOVED )
+        {
+            // Add before the entry goes into the tree, so that anyone who can find the entry in the tree also finds it in the filter
+            bloomFilter.add( update.values() );
+        }
         processUpdate( treeKey, treeValue, update, writer, conflictDetectingValueMerger );
     }
 
@@ -167,15 +167,28 @@ class TextType extends Type
         // and should be treated the same, it's just that we need to know if it's a char so that we can materialize a CharValue for chars.
         // We put a special marker for char values, knowing that a char is exactly 2 bytes in storage.
         // This can be picked up by reader and set the right flag in state so that a CharValue can be materialized.
+        short length = putLength( cursor, long0, long2 );
+        cursor.putBytes( byteArray, 0, length );
+    }
+
+    static short putLength( PageCursor cursor, long long0, long long2 )
+    {
         short length = toNonNegativeShortExact( long0 );
         cursor.putShort( isCharValueType( long2 ) ? (short) (length | CHAR_TYPE_LENGTH_MARKER) : length );
-        cursor.putBytes( byteArray, 0, length );
+        return length;
     }
 
     static boolean read( PageCursor cursor, int maxSize, GenericKey into )
+    {
+        return readBytes( cursor, cursor.getShort(), maxSize, into );
+    }
+
+    /**
+     * Reads the bytes of a text value, whose length, as written by {@link #putLength(PageCursor, long, long)}, has already been read.
+     */
+    static boolean readBytes( PageCursor cursor, short rawLength, int maxSize, GenericKey into )
     {
         // For performance reasons cannot be redirected to writeString, due to byte[] reuse
-        short rawLength = cursor.getShort();
         short bytesLength = (short) (rawLength & ~CHAR_TYPE_LENGTH_MARKER);
         if ( bytesLength > maxSize )
         {
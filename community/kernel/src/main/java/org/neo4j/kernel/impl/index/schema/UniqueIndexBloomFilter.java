@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.neo4j.hashing.HashFunction;
+import org.neo4j.values.storable.ArrayValue;
+import org.neo4j.values.storable.NumberValue;
+import org.neo4j.values.storable.TextValue;
+import org.neo4j.values.storable.Value;
+
+/**
+ * Blocked Bloom filter over the value tuples in a unique index, answering whether a tuple definitely isn't in the index
+ * so that a lookup for it can skip descending the tree.
+ * <p>
+ * All bits for one tuple are set in a single block of one cache line, so each operation touches one cache line only.
+ * Bits are kept off-heap in a direct buffer, which is released by the garbage collector when no reader refers to this filter anymore.
+ * Bits can only be set, never cleared, so removed tuples stay in the filter as false positives.
+ * When more tuples than the filter was sized for have been added it's considered saturated and will answer that any tuple may be contained.
+ * <p>
+ * Equal values must hash equally even if they have different types, e.g. {@code 1} and {@code 1.0}, since they're equal in the index too.
+ * Numbers are therefore hashed by their double value and text by its string value.
+ */
+final class UniqueIndexBloomFilter
+{
+    private static final HashFunction HASH_FUNCTION = HashFunction.incrementalXXH64();
+    private static final long SEED = 1;
+    private static final int BITS_PER_TUPLE = 10;
+    private static final int BITS_SET_PER_TUPLE = 7;
+    private static final int BLOCK_SIZE = 64;
+    private static final int BITS_PER_BLOCK = BLOCK_SIZE * Byte.SIZE;
+    private static final int BIT_INDEX_SHIFT = 9;
+    private static final int MAX_NUMBER_OF_BLOCKS = 1 << 24;
+    private static final VarHandle WORDS = MethodHandles.byteBufferViewVarHandle( long[].class, ByteOrder.nativeOrder() );
+
+    private final ByteBuffer blocks;
+    private final int blockMask;
+    private final long capacity;
+    private final AtomicLong numberOfAdds = new AtomicLong();
+
+    private UniqueIndexBloomFilter( int numberOfBlocks )
+    {
+        // Align blocks to cache lines
+        this.blocks = ByteBuffer.allocateDirect( numberOfBlocks * BLOCK_SIZE + BLOCK_SIZE ).alignedSlice( BLOCK_SIZE );
+        this.blockMask = numberOfBlocks - 1;
+        this.capacity = (long) numberOfBlocks * BITS_PER_BLOCK / BITS_PER_TUPLE;
+    }
+
+    /**
+     * @param expectedNumberOfTuples number of tuples this filter is expected to hold.
+     * @return a new, empty, filter sized for at least the given number of tuples.
+     */
+    static UniqueIndexBloomFilter withCapacity( long expectedNumberOfTuples )
+    {
+        long neededBlocks = Math.max( 1, expectedNumberOfTuples * BITS_PER_TUPLE / BITS_PER_BLOCK );
+        int numberOfBlocks = (int) Math.min( MAX_NUMBER_OF_BLOCKS, Long.highestOneBit( neededBlocks - 1 ) << 1 );
+        return new UniqueIndexBloomFilter( Math.max( 1, numberOfBlocks ) );
+    }
+
+    void add( Value[] values )
+    {
+        numberOfAdds.incrementAndGet();
+        long hash = hash( values );
+        int block = blockOffset( hash );
+        long bits = bitsHash( hash );
+        for ( int i = 0; i < BITS_SET_PER_TUPLE; i++, bits >>>= BIT_INDEX_SHIFT )
+        {
+            int bit = (int) (bits & (BITS_PER_BLOCK - 1));
+            int wordOffset = block + (bit >>> 6) * Long.BYTES;
+            long mask = 1L << bit;
+            long word;
+            do
+            {
+                word = (long) WORDS.getVolatile( blocks, wordOffset );
+            }
+            while ( (word & mask) == 0 && !WORDS.compareAndSet( blocks, wordOffset, word, word | mask ) );
+        }
+    }
+
+    /**
+     * @param values tuple to look for.
+     * @return false if the tuple definitely hasn't been added to this filter, otherwise true.
+     */
+    boolean mightContain( Value[] values )
+    {
+        if ( numberOfAdds.get() > capacity )
+        {
+            return true;
+        }
+        long hash = hash( values );
+        int block = blockOffset( hash );
+        long bits = bitsHash( hash );
+        for ( int i = 0; i < BITS_SET_PER_TUPLE; i++, bits >>>= BIT_INDEX_SHIFT )
+        {
+            int bit = (int) (bits & (BITS_PER_BLOCK - 1));
+            if ( ((long) WORDS.getVolatile( blocks, block + (bit >>> 6) * Long.BYTES ) & (1L << bit)) == 0 )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int blockOffset( long hash )
+    {
+        return ((int) (hash >>> 32) & blockMask) * BLOCK_SIZE;
+    }
+
+    private static long bitsHash( long hash )
+    {
+        // Bits within the block are picked from a differently mixed hash than the block, so that they're independent of it
+        return HASH_FUNCTION.finalise( HASH_FUNCTION.update( hash, hash ) );
+    }
+
+    private static long hash( Value[] values )
+    {
+        long hash = HASH_FUNCTION.initialise( SEED );
+        for ( Value value : values )
+        {
+            hash = updateHash( hash, value );
+        }
+        return HASH_FUNCTION.finalise( hash );
+    }
+
+    private static long updateHash( long hash, Value value )
+    {
+        if ( value instanceof NumberValue )
+        {
+            // Adding zero turns negative zero into zero
+            return HASH_FUNCTION.update( hash, Double.doubleToLongBits( ((NumberValue) value).doubleValue() + 0.0 ) );
+        }
+        if ( value instanceof TextValue )
+        {
+            return HASH_FUNCTION.update( hash, ((TextValue) value).stringValue().hashCode() );
+        }
+        if ( value instanceof ArrayValue )
+        {
+            ArrayValue array = (ArrayValue) value;
+            hash = HASH_FUNCTION.update( hash, array.length() );
+            for ( int i = 0; i < array.length(); i++ )
+            {
+                hash = updateHash( hash, (Value) array.value( i ) );
+            }
+            return hash;
+        }
+        return value.updateHash( HASH_FUNCTION, hash );
+    }
+}
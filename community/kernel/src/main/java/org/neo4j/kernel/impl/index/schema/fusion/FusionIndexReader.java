@@ -34,6 +34,7 @@ import org.neo4j.kernel.api.index.BridgingIndexProgressor;
 import org.neo4j.kernel.api.index.IndexProgressor;
 import org.neo4j.kernel.api.index.IndexReader;
 import org.neo4j.kernel.api.index.IndexSampler;
+import org.neo4j.kernel.api.index.PartitionedValueSeek;
 import org.neo4j.storageengine.api.NodePropertyAccessor;
 import org.neo4j.values.storable.Value;
 
@@ -110,6 +111,19 @@ class FusionIndexReader extends FusionIndexBase<IndexReader> implements IndexRea
         }
     }
 
+    @Override
+    public PartitionedValueSeek valueSeek( int desiredNumberOfPartitions, PageCursorTracer cursorTracer, IndexQuery... predicates )
+            throws IndexNotApplicableKernelException
+    {
+        IndexSlot slot = slotSelector.selectSlot( predicates, IndexQuery::valueCategory );
+        if ( slot == null )
+        {
+            throw new IndexNotApplicableKernelException( "Partitioned queries are only supported when all results come from one part of a fusion index, " +
+                    "which is not the case for " + Arrays.toString( predicates ) );
+        }
+        return instanceSelector.select( slot ).valueSeek( desiredNumberOfPartitions, cursorTracer, predicates );
+    }
+
     private static final class InnerException extends RuntimeException
     {
         private InnerException( IndexNotApplicableKernelException e )
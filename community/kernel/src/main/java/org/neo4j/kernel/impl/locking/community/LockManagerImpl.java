@@ -19,9 +19,12 @@
  */
 package org.neo4j.kernel.impl.locking.community;
 
+import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
+import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
+import org.eclipse.collections.impl.map.mutable.primitive.IntObjectHashMap;
+import org.eclipse.collections.impl.map.mutable.primitive.LongObjectHashMap;
+
 import java.time.Clock;
-import java.util.HashMap;
-import java.util.Map;
 
 import org.neo4j.configuration.Config;
 import org.neo4j.configuration.GraphDatabaseSettings;
@@ -29,11 +32,20 @@ import org.neo4j.internal.helpers.collection.Visitor;
 import org.neo4j.kernel.DeadlockDetectedException;
 import org.neo4j.kernel.impl.transaction.IllegalResourceException;
 import org.neo4j.lock.LockTracer;
+import org.neo4j.util.FeatureToggles;
 import org.neo4j.util.VisibleForTesting;
 
 public class LockManagerImpl
 {
-    private final Map<Object,RWLock> resourceLockMap = new HashMap<>();
+    /**
+     * Number of independently guarded partitions of the resource lock map. Resources are spread over the stripes by
+     * type and id, so that transactions locking unrelated resources do not contend on a single global monitor.
+     * Rounded up to the nearest power of two.
+     */
+    private static final int STRIPES = Integer.highestOneBit( Math.max( 1,
+            FeatureToggles.getInteger( LockManagerImpl.class, "stripes", 64 ) ) * 2 - 1 );
+
+    private final LockStripe[] stripes;
     private final RagManager ragManager;
     private final Clock clock;
 
@@ -47,6 +59,11 @@ public class LockManagerImpl
     {
         this.ragManager = ragManager;
         this.clock = clock;
+        this.stripes = new LockStripe[STRIPES];
+        for ( int i = 0; i < stripes.length; i++ )
+        {
+            stripes[i] = new LockStripe();
+        }
         this.lockAcquisitionTimeoutMillis = config.get( GraphDatabaseSettings.lock_acquisition_timeout ).toMillis();
     }
 
@@ -72,12 +89,12 @@ public class LockManagerImpl
         return unusedResourceGuard( resource, tx, getRWLockForAcquiring( resource, tx ).tryAcquireWriteLock( tx ) );
     }
 
-    void releaseReadLock( Object resource, Object tx )
+    void releaseReadLock( LockResource resource, Object tx )
     {
         getRWLockForReleasing( resource, tx, 1, 0, true ).releaseReadLock( tx );
     }
 
-    void releaseWriteLock( Object resource, Object tx )
+    void releaseWriteLock( LockResource resource, Object tx )
     {
         getRWLockForReleasing( resource, tx, 0, 1, true ).releaseWriteLock( tx );
     }
@@ -88,7 +105,7 @@ public class LockManagerImpl
      *
      * @return {@code lockObtained }
      **/
-    private boolean unusedResourceGuard( Object resource, Object tx, boolean lockObtained )
+    private boolean unusedResourceGuard( LockResource resource, Object tx, boolean lockObtained )
     {
         if ( !lockObtained )
         {
@@ -109,13 +126,19 @@ public class LockManagerImpl
      */
     public void accept( Visitor<RWLock,RuntimeException> visitor )
     {
-        synchronized ( resourceLockMap )
+        for ( LockStripe stripe : stripes )
         {
-            for ( RWLock lock : resourceLockMap.values() )
+            synchronized ( stripe )
             {
-                if ( visitor.visit( lock ) )
+                for ( MutableLongObjectMap<RWLock> locks : stripe.locks )
                 {
-                    break;
+                    for ( RWLock lock : locks )
+                    {
+                        if ( visitor.visit( lock ) )
+                        {
+                            return;
+                        }
+                    }
                 }
             }
         }
@@ -132,9 +155,11 @@ public class LockManagerImpl
     private RWLock getRWLockForAcquiring( LockResource resource, Object tx )
     {
         assertValidArguments( resource, tx );
-        synchronized ( resourceLockMap )
+        LockStripe stripe = stripeFor( resource );
+        synchronized ( stripe )
         {
-            RWLock lock = resourceLockMap.computeIfAbsent( resource, k -> createLock( resource ) );
+            MutableLongObjectMap<RWLock> locks = stripe.locksOfType( resource );
+            RWLock lock = locks.getIfAbsentPut( resource.resourceId(), () -> createLock( resource ) );
             lock.mark();
             return lock;
         }
@@ -146,13 +171,15 @@ public class LockManagerImpl
         return new RWLock( resource, ragManager, clock, lockAcquisitionTimeoutMillis );
     }
 
-    private RWLock getRWLockForReleasing( Object resource, Object tx, int readCountPrerequisite,
+    private RWLock getRWLockForReleasing( LockResource resource, Object tx, int readCountPrerequisite,
                                           int writeCountPrerequisite, boolean strict )
     {
         assertValidArguments( resource, tx );
-        synchronized ( resourceLockMap )
+        LockStripe stripe = stripeFor( resource );
+        synchronized ( stripe )
         {
-            RWLock lock = resourceLockMap.get( resource );
+            MutableLongObjectMap<RWLock> locks = stripe.locksOfType( resource );
+            RWLock lock = locks.get( resource.resourceId() );
             if ( lock == null )
             {
                 if ( !strict )
@@ -172,10 +199,30 @@ public class LockManagerImpl
                      lock.getWriteCount() == writeCountPrerequisite &&
                      lock.getWaitingThreadsCount() == 0 )
                 {
-                    resourceLockMap.remove( resource );
+                    locks.remove( resource.resourceId() );
                 }
             }
             return lock;
         }
     }
+
+    private LockStripe stripeFor( LockResource resource )
+    {
+        long hash = (resource.resourceId() ^ ((long) resource.type().typeId() << 48)) * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (hash >>> 32) & (stripes.length - 1)];
+    }
+
+    /**
+     * A partition of the resource lock map, guarded by its own monitor. Locks are kept in primitive maps keyed by
+     * resource id, one map per resource type, so that lookups don't need to allocate or box keys.
+     */
+    private static final class LockStripe
+    {
+        private final MutableIntObjectMap<MutableLongObjectMap<RWLock>> locks = new IntObjectHashMap<>();
+
+        MutableLongObjectMap<RWLock> locksOfType( LockResource resource )
+        {
+            return locks.getIfAbsentPut( resource.type().typeId(), LongObjectHashMap::new );
+        }
+    }
 }
@@ -26,6 +26,8 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.neo4j.kernel.DeadlockDetectedException;
 
@@ -50,6 +52,12 @@ import org.neo4j.kernel.DeadlockDetectedException;
  * traverse the graph starting on the resource and see if we can get back
  * to the tx ( T1 wants to wait on R1 and R1->T2->R2->T3->R8->T1 <==>
  * deadlock!).
+ * <p/>
+ * Acquiring and releasing locks only records the R->T relationships, in sets per resource, without taking the monitor
+ * of this class. The calls for one resource are made while holding the monitor of its {@link RWLock}, so the set of a
+ * resource only changes under that monitor. Only {@link #checkWaitOn} and {@link #stopWaitOn}, i.e. transactions that
+ * are about to wait or stop waiting, synchronize on this class, and read the sets of other resources concurrently with
+ * them being changed.
  */
 public class RagManager
 {
@@ -67,28 +75,20 @@ public class RagManager
     // o When the transaction wakes up from waiting on a resource the
     // stopWaitOn( resource ) method must be invoked
 
-    private final Map<Object,List<Object>> resourceMap = new HashMap<>();
+    private final Map<Object,Set<Object>> resourceMap = new ConcurrentHashMap<>();
+    // guarded by the monitor of this class
     private final Map<Object, Object> waitingTxMap = new HashMap<>();
 
-    synchronized void lockAcquired( Object resource, Object tx )
+    void lockAcquired( Object resource, Object tx )
     {
-        List<Object> lockingTxList = resourceMap.get( resource );
-        if ( lockingTxList != null )
-        {
-            assert !lockingTxList.contains( tx );
-            lockingTxList.add( tx );
-        }
-        else
-        {
-            lockingTxList = new LinkedList<>();
-            lockingTxList.add( tx );
-            resourceMap.put( resource, lockingTxList );
-        }
+        Set<Object> lockingTxList = resourceMap.computeIfAbsent( resource, r -> ConcurrentHashMap.newKeySet() );
+        assert !lockingTxList.contains( tx );
+        lockingTxList.add( tx );
     }
 
-    synchronized void lockReleased( Object resource, Object tx )
+    void lockReleased( Object resource, Object tx )
     {
-        List<Object> lockingTxList = resourceMap.get( resource );
+        Set<Object> lockingTxList = resourceMap.get( resource );
         if ( lockingTxList == null )
         {
             throw new LockException( resource + " not found in resource map" );
@@ -100,7 +100,7 @@ public class RagManager
         }
         if ( lockingTxList.isEmpty() )
         {
-            resourceMap.remove( resource );
+            resourceMap.remove( resource, lockingTxList );
         }
     }
 
@@ -116,7 +116,7 @@ public class RagManager
     synchronized void checkWaitOn( Object resource, Object tx )
             throws DeadlockDetectedException
     {
-        List<Object> lockingTxList = resourceMap.get( resource );
+        Set<Object> lockingTxList = resourceMap.get( resource );
         if ( lockingTxList == null )
         {
             throw new LockException( "Illegal resource[" + resource
@@ -209,7 +209,7 @@ public class RagManager
             // this is ok since current tx or any other tx will wake
             // in the synchronized block and will be forced to do the deadlock
             // check once more if lock cannot be acquired
-            List<Object> lockingTxList = resourceMap.get( resource );
+            Set<Object> lockingTxList = resourceMap.get( resource );
             if ( lockingTxList != null )
             {
                 for ( Object aLockingTxList : lockingTxList )
@@ -24,7 +24,6 @@ import org.eclipse.collections.api.set.primitive.LongSet;
 import org.eclipse.collections.impl.factory.primitive.LongSets;
 import org.eclipse.collections.impl.iterator.ImmutableEmptyLongIterator;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
@@ -45,6 +44,7 @@ import org.neo4j.values.storable.ValueTuple;
 import static java.util.Arrays.stream;
 import static org.neo4j.collection.PrimitiveLongCollections.mergeToSet;
 import static org.neo4j.kernel.impl.newapi.Read.NO_ID;
+import static org.neo4j.kernel.impl.newapi.TxStateIndexChanges.lookupForQuery;
 import static org.neo4j.kernel.impl.newapi.TxStateIndexChanges.indexUpdatesForRangeSeek;
 import static org.neo4j.kernel.impl.newapi.TxStateIndexChanges.indexUpdatesForRangeSeekByPrefix;
 import static org.neo4j.kernel.impl.newapi.TxStateIndexChanges.indexUpdatesForScan;
@@ -101,73 +101,20 @@ final class DefaultNodeValueIndexCursor extends IndexCursor<IndexProgressor>
 
         if ( !indexIncludesTransactionState && read.hasTxStateWithChanges() && query.length > 0 )
         {
-           // Extract out the equality queries
-            ArrayList<Value> exactQueryValues = new ArrayList<>( query.length );
-            int i = 0;
-            while ( i < query.length && query[i] instanceof IndexQuery.ExactPredicate )
-            {
-                exactQueryValues.add( ((IndexQuery.ExactPredicate) query[i]).value() );
-                i++;
-            }
-            Value[] exactValues = exactQueryValues.toArray( new Value[0] );
-
-            if ( i == query.length )
-            {
-                // Only exact queries
-                // No need to order, all values are the same
-                this.indexOrder = IndexOrder.NONE;
-                seekQuery( descriptor, exactValues );
-            }
-            else
-            {
-                IndexQuery nextQuery = query[i];
-                switch ( nextQuery.type() )
-                {
-                case exists:
-                    // This also covers the rewritten suffix/contains for composite index
-                    // If composite index all following will be exists as well so no need to consider those
-                    setNeedsValuesIfRequiresOrder();
-                    if ( exactQueryValues.isEmpty() )
-                    {
-                        // First query is exists, use scan
-                        scanQuery( descriptor );
-                    }
-                    else
-                    {
-                        rangeQuery( descriptor, exactValues, null );
-                    }
-                    break;
-
-                case range:
-                    // This case covers first query to be range or exact followed by range
-                    // If composite index all following will be exists as well so no need to consider those
-                    setNeedsValuesIfRequiresOrder();
-                    rangeQuery( descriptor, exactValues, (IndexQuery.RangePredicate<?>) nextQuery );
-                    break;
-
-                case stringPrefix:
-                    // This case covers first query to be prefix or exact followed by prefix
-                    // If composite index all following will be exists as well so no need to consider those
-                    setNeedsValuesIfRequiresOrder();
-                    prefixQuery( descriptor, exactValues, (IndexQuery.StringPrefixPredicate) nextQuery );
-                    break;
-
-                case stringSuffix:
-                case stringContains:
-                    // This case covers suffix/contains for singular indexes
-                    // for composite index, the suffix/contains should already
-                    // have been rewritten as exists + filter, so no need to consider it here
-                    assert query.length == 1;
-                    suffixOrContainsQuery( descriptor, nextQuery );
-                    break;
-
-                default:
-                    throw new UnsupportedOperationException( "Query not supported: " + Arrays.toString( query ) );
-                }
-            }
+            lookupForQuery( query, new TxStateLookups( descriptor ) );
         }
     }
 
+    /**
+     * Sets the changes made in the transaction to merge with what's read from the index, for when they have been calculated once for
+     * several cursors reading partitions of the same query. Must be called after the cursor has been initialized.
+     */
+    void setAddedAndRemoved( LongIterator added, LongSet removed )
+    {
+        this.added = added;
+        this.removed = removed;
+    }
+
     /**
      * If we require order, we can only do the merge sort if we also get values.
      * This implicitly relies on the fact that if we can get order, we can also get values.
@@ -376,6 +323,59 @@ final class DefaultNodeValueIndexCursor extends IndexCursor<IndexProgressor>
         }
     }
 
+    /**
+     * Looks up the changes of the transaction matching the query this cursor is initialized with.
+     */
+    private class TxStateLookups implements TxStateIndexChanges.QueryLookups<Void>
+    {
+        private final IndexDescriptor descriptor;
+
+        TxStateLookups( IndexDescriptor descriptor )
+        {
+            this.descriptor = descriptor;
+        }
+
+        @Override
+        public Void seek( Value[] exactValues )
+        {
+            // No need to order, all values are the same
+            indexOrder = IndexOrder.NONE;
+            seekQuery( descriptor, exactValues );
+            return null;
+        }
+
+        @Override
+        public Void scan()
+        {
+            setNeedsValuesIfRequiresOrder();
+            scanQuery( descriptor );
+            return null;
+        }
+
+        @Override
+        public Void rangeSeek( Value[] exactValues, IndexQuery.RangePredicate<?> predicate )
+        {
+            setNeedsValuesIfRequiresOrder();
+            rangeQuery( descriptor, exactValues, predicate );
+            return null;
+        }
+
+        @Override
+        public Void rangeSeekByPrefix( Value[] exactValues, IndexQuery.StringPrefixPredicate predicate )
+        {
+            setNeedsValuesIfRequiresOrder();
+            prefixQuery( descriptor, exactValues, predicate );
+            return null;
+        }
+
+        @Override
+        public Void suffixOrContains( IndexQuery predicate )
+        {
+            suffixOrContainsQuery( descriptor, predicate );
+            return null;
+        }
+    }
+
     private void prefixQuery( IndexDescriptor descriptor, Value[] equalityPrefix, IndexQuery.StringPrefixPredicate predicate )
     {
         TransactionState txState = read.txState();
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.newapi;
+
+import org.eclipse.collections.api.iterator.LongIterator;
+import org.eclipse.collections.api.set.primitive.LongSet;
+import org.eclipse.collections.impl.factory.primitive.LongSets;
+import org.eclipse.collections.impl.iterator.ImmutableEmptyLongIterator;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.neo4j.internal.kernel.api.IndexQuery;
+import org.neo4j.internal.kernel.api.NodeValueIndexCursor;
+import org.neo4j.internal.kernel.api.Scan;
+import org.neo4j.internal.schema.IndexDescriptor;
+import org.neo4j.kernel.api.index.IndexProgressor;
+import org.neo4j.kernel.api.index.IndexReader;
+import org.neo4j.kernel.api.index.PartitionedValueSeek;
+import org.neo4j.kernel.api.txstate.TransactionState;
+import org.neo4j.kernel.impl.newapi.TxStateIndexChanges.AddedAndRemoved;
+
+import static org.neo4j.collection.PrimitiveLongCollections.EMPTY_LONG_ARRAY;
+import static org.neo4j.collection.PrimitiveLongCollections.iterator;
+import static org.neo4j.collection.PrimitiveLongCollections.mergeToSet;
+import static org.neo4j.internal.kernel.api.IndexQueryConstraints.unconstrained;
+import static org.neo4j.kernel.impl.newapi.TxStateIndexChanges.indexUpdatesForQuery;
+import static org.neo4j.util.Preconditions.requirePositive;
+
+/**
+ * Hands out the partitions of a {@link PartitionedValueSeek}, one partition per reserved batch.
+ * <p>
+ * Changes made in the transaction are calculated once, up front, since the transaction state isn't safe to read from several threads.
+ * Nodes added in the transaction are returned with the first partition, while nodes removed in the transaction are filtered out of all of them.
+ */
+final class NodeValueIndexCursorScan implements Scan<NodeValueIndexCursor>
+{
+    private final Read read;
+    private final IndexDescriptor descriptor;
+    private final IndexReader reader;
+    private final PartitionedValueSeek valueSeek;
+    private final IndexQuery[] query;
+    private final int numberOfPartitions;
+    private final long[] addedInTransaction;
+    private final LongSet removedInTransaction;
+    private final AtomicInteger nextPartition = new AtomicInteger();
+
+    NodeValueIndexCursorScan( Read read, IndexDescriptor descriptor, IndexReader reader, PartitionedValueSeek valueSeek, IndexQuery[] query )
+    {
+        this.read = read;
+        this.descriptor = descriptor;
+        this.reader = reader;
+        this.valueSeek = valueSeek;
+        this.query = query;
+        // There's always at least one partition, so that nodes added in the transaction are returned even if nothing in the index matches
+        this.numberOfPartitions = Math.max( 1, valueSeek.getNumberOfPartitions() );
+        if ( read.hasTxStateWithChanges() )
+        {
+            TransactionState txState = read.txState();
+            AddedAndRemoved changes = indexUpdatesForQuery( txState, descriptor, query );
+            this.addedInTransaction = changes.getAdded().toArray();
+            this.removedInTransaction = mergeToSet( txState.addedAndRemovedNodes().getRemoved(), changes.getRemoved() );
+        }
+        else
+        {
+            this.addedInTransaction = EMPTY_LONG_ARRAY;
+            this.removedInTransaction = LongSets.immutable.empty();
+        }
+    }
+
+    @Override
+    public boolean reserveBatch( NodeValueIndexCursor cursor, int sizeHint )
+    {
+        requirePositive( sizeHint );
+
+        int partition = nextPartition.getAndIncrement();
+        if ( partition >= numberOfPartitions )
+        {
+            return false;
+        }
+
+        DefaultNodeValueIndexCursor cursorImpl = (DefaultNodeValueIndexCursor) cursor;
+        cursorImpl.setRead( read );
+        IndexProgressor.EntityValueClient withSecurity = read.injectSecurity( cursorImpl, read.ktx.securityContext().mode(), descriptor );
+        IndexProgressor.EntityValueClient withFullPrecision = read.injectFullValuePrecision( withSecurity, query, reader );
+        IndexProgressor progressor = valueSeek.reservePartition( withFullPrecision, read.cursorTracer );
+        // Transaction state is merged in below, rather than by the cursor itself
+        withFullPrecision.initialize( descriptor, progressor, query, unconstrained(), true );
+        LongIterator added = partition == 0 ? iterator( addedInTransaction ) : ImmutableEmptyLongIterator.INSTANCE;
+        cursorImpl.setAddedAndRemoved( added, removedInTransaction );
+        return true;
+    }
+}
@@ -70,6 +70,7 @@ import org.neo4j.values.storable.Values;
 
 import static java.lang.String.format;
 import static org.neo4j.internal.kernel.api.IndexQueryConstraints.unconstrained;
+import static org.neo4j.util.Preconditions.requirePositive;
 import static org.neo4j.values.storable.ValueGroup.GEOMETRY;
 import static org.neo4j.values.storable.ValueGroup.NUMBER;
 
@@ -117,6 +118,23 @@ abstract class Read implements TxStateHolder,
         indexSession.reader.query( this, withFullPrecision, constraints, cursorTracer, query );
     }
 
+    @Override
+    public final Scan<NodeValueIndexCursor> nodeIndexSeek( IndexReadSession index, int desiredNumberOfPartitions, IndexQuery... query )
+            throws IndexNotApplicableKernelException
+    {
+        ktx.assertOpen();
+        requirePositive( desiredNumberOfPartitions );
+        DefaultIndexReadSession indexSession = (DefaultIndexReadSession) index;
+
+        if ( indexSession.reference.schema().entityType() != EntityType.NODE )
+        {
+            throw new IndexNotApplicableKernelException( "Node index seek can only be performed on node indexes: " + index );
+        }
+
+        return new NodeValueIndexCursorScan( this, indexSession.reference, indexSession.reader,
+                indexSession.reader.valueSeek( desiredNumberOfPartitions, cursorTracer, query ), query );
+    }
+
     @Override
     public final void relationshipIndexSeek( IndexDescriptor index, RelationshipIndexCursor cursor, IndexQueryConstraints constraints, IndexQuery... query )
             throws IndexNotApplicableKernelException, IndexNotFoundKernelException
@@ -135,7 +153,7 @@ abstract class Read implements TxStateHolder,
         reader.query( this, withFullPrecision, constraints, cursorTracer, query );
     }
 
-    private IndexProgressor.EntityValueClient injectSecurity( IndexProgressor.EntityValueClient cursor, AccessMode accessMode, IndexDescriptor index )
+    IndexProgressor.EntityValueClient injectSecurity( IndexProgressor.EntityValueClient cursor, AccessMode accessMode, IndexDescriptor index )
     {
         SchemaDescriptor schema = index.schema();
         int[] propertyIds = schema.getPropertyIds();
@@ -183,7 +201,7 @@ abstract class Read implements TxStateHolder,
         return cursor;
     }
 
-    private IndexProgressor.EntityValueClient injectFullValuePrecision( IndexProgressor.EntityValueClient cursor,
+    IndexProgressor.EntityValueClient injectFullValuePrecision( IndexProgressor.EntityValueClient cursor,
             IndexQuery[] query, IndexReader reader )
     {
         IndexProgressor.EntityValueClient target = cursor;
@@ -297,6 +315,14 @@ abstract class Read implements TxStateHolder,
         indexSession.reader.query( this, withSecurity, constraints, cursorTracer, IndexQuery.exists( firstProperty ) );
     }
 
+    @Override
+    public final Scan<NodeValueIndexCursor> nodeIndexScan( IndexReadSession index, int desiredNumberOfPartitions ) throws KernelException
+    {
+        // for a scan, we simply query for existence of the first property, which covers all entries in an index
+        int firstProperty = ((DefaultIndexReadSession) index).reference.schema().getPropertyIds()[0];
+        return nodeIndexSeek( index, desiredNumberOfPartitions, IndexQuery.exists( firstProperty ) );
+    }
+
     @Override
     public final void nodeLabelScan( int label, NodeLabelIndexCursor cursor )
     {
@@ -29,6 +29,7 @@ import org.eclipse.collections.impl.factory.Lists;
 import org.eclipse.collections.impl.factory.primitive.LongLists;
 import org.eclipse.collections.impl.factory.primitive.LongSets;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Map;
 import java.util.NavigableMap;
@@ -57,6 +58,125 @@ class TxStateIndexChanges
     private static final AddedAndRemoved EMPTY_ADDED_AND_REMOVED =
             new AddedAndRemoved( LongLists.immutable.empty(), LongSets.immutable.empty() );
 
+    // QUERY
+
+    /**
+     * The transaction state lookups for the different kinds of index queries. {@link #lookupForQuery(IndexQuery[], QueryLookups)} picks
+     * the one to use for a query.
+     */
+    interface QueryLookups<T>
+    {
+        /**
+         * The query only consists of exact predicates.
+         */
+        T seek( Value[] exactValues );
+
+        /**
+         * The query only requires the first property to exist.
+         */
+        T scan();
+
+        /**
+         * The query consists of exact predicates followed by a range, or by an exists predicate if {@code predicate} is {@code null}.
+         */
+        T rangeSeek( Value[] exactValues, IndexQuery.RangePredicate<?> predicate );
+
+        /**
+         * The query consists of exact predicates followed by a string prefix.
+         */
+        T rangeSeekByPrefix( Value[] exactValues, IndexQuery.StringPrefixPredicate predicate );
+
+        /**
+         * The query is a single string suffix or contains predicate.
+         */
+        T suffixOrContains( IndexQuery predicate );
+    }
+
+    /**
+     * Hands the given query to the lookup matching it. Predicates after the first one which isn't exact are left for the caller to filter on,
+     * since for composite indexes they will all be exists predicates.
+     */
+    static <T> T lookupForQuery( IndexQuery[] query, QueryLookups<T> lookups )
+    {
+        // Extract out the equality queries
+        int i = 0;
+        while ( i < query.length && query[i] instanceof IndexQuery.ExactPredicate )
+        {
+            i++;
+        }
+        Value[] exactValues = new Value[i];
+        for ( int j = 0; j < i; j++ )
+        {
+            exactValues[j] = ((IndexQuery.ExactPredicate) query[j]).value();
+        }
+
+        if ( i == query.length )
+        {
+            return lookups.seek( exactValues );
+        }
+        IndexQuery nextQuery = query[i];
+        switch ( nextQuery.type() )
+        {
+        case exists:
+            // This also covers the rewritten suffix/contains for composite index
+            return exactValues.length == 0 ? lookups.scan() : lookups.rangeSeek( exactValues, null );
+        case range:
+            // This case covers first query to be range or exact followed by range
+            return lookups.rangeSeek( exactValues, (IndexQuery.RangePredicate<?>) nextQuery );
+        case stringPrefix:
+            // This case covers first query to be prefix or exact followed by prefix
+            return lookups.rangeSeekByPrefix( exactValues, (IndexQuery.StringPrefixPredicate) nextQuery );
+        case stringSuffix:
+        case stringContains:
+            // This case covers suffix/contains for singular indexes
+            // for composite index, the suffix/contains should already
+            // have been rewritten as exists + filter, so no need to consider it here
+            assert query.length == 1;
+            return lookups.suffixOrContains( nextQuery );
+        default:
+            throw new UnsupportedOperationException( "Query not supported: " + Arrays.toString( query ) );
+        }
+    }
+
+    /**
+     * Calculates the index updates for a whole query, the way {@link DefaultNodeValueIndexCursor} does when neither ordering nor values are needed.
+     */
+    static AddedAndRemoved indexUpdatesForQuery( ReadableTransactionState txState, IndexDescriptor descriptor, IndexQuery[] query )
+    {
+        return lookupForQuery( query, new QueryLookups<>()
+        {
+            @Override
+            public AddedAndRemoved seek( Value[] exactValues )
+            {
+                return indexUpdatesForSeek( txState, descriptor, ValueTuple.of( exactValues ) );
+            }
+
+            @Override
+            public AddedAndRemoved scan()
+            {
+                return indexUpdatesForScan( txState, descriptor, IndexOrder.NONE );
+            }
+
+            @Override
+            public AddedAndRemoved rangeSeek( Value[] exactValues, IndexQuery.RangePredicate<?> predicate )
+            {
+                return indexUpdatesForRangeSeek( txState, descriptor, exactValues, predicate, IndexOrder.NONE );
+            }
+
+            @Override
+            public AddedAndRemoved rangeSeekByPrefix( Value[] exactValues, IndexQuery.StringPrefixPredicate predicate )
+            {
+                return indexUpdatesForRangeSeekByPrefix( txState, descriptor, exactValues, predicate.prefix(), IndexOrder.NONE );
+            }
+
+            @Override
+            public AddedAndRemoved suffixOrContains( IndexQuery predicate )
+            {
+                return indexUpdatesForSuffixOrContains( txState, descriptor, predicate, IndexOrder.NONE );
+            }
+        } );
+    }
+
     // SCAN
 
     static AddedAndRemoved indexUpdatesForScan( ReadableTransactionState txState, IndexDescriptor descriptor, IndexOrder indexOrder )
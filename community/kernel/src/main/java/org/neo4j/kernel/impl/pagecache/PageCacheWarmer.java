@@ -0,0 +1,396 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.impl.FileIsNotMappedException;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.logging.Log;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobHandle;
+import org.neo4j.scheduler.JobScheduler;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_enabled;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_prefetch;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_prefetch_whitelist;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_profiling_interval;
+import static org.neo4j.configuration.GraphDatabaseSettings.read_only;
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_GROW;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_TRANSIENT;
+
+/**
+ * The page cache warmer keeps profiles of which pages of the mapped files of a database are in the page cache, and
+ * uses them to load those pages back into the page cache when the database is started again.
+ * <p>
+ * There is one profile for every mapped file. A profile is a gzip compressed bitmap, with one bit for every page in
+ * the file. The bitmaps mostly consist of long runs of either set or cleared bits, which compress very well, so the
+ * profiles stay small even for very large stores.
+ * <p>
+ * The profiles are written periodically in the background, and once more when the database stops. When the database
+ * starts, the profiled pages are loaded in parallel, before the database is made available. Every loader thread works
+ * on one file at a time, and loads the pages in file order, to make the reads as sequential as possible.
+ * <p>
+ * When {@link org.neo4j.configuration.GraphDatabaseSettings#pagecache_warmup_prefetch prefetching} is enabled, the
+ * profiles are not used. Instead, all pages of the mapped files that match the prefetch whitelist are loaded.
+ */
+public class PageCacheWarmer extends LifecycleAdapter
+{
+    public static final String PROFILES_DIRECTORY = "profiles";
+    static final String PROFILE_SUFFIX = ".cacheprof";
+    private static final String TEMP_PROFILE_SUFFIX = ".tmp";
+    private static final String PAGE_CACHE_WARMUP_TAG = "pageCacheWarmup";
+    private static final int PROGRESS_REPORT_INTERVAL = 1024;
+
+    private final FileSystemAbstraction fs;
+    private final PageCache pageCache;
+    private final JobScheduler scheduler;
+    private final File databaseDirectory;
+    private final File profilesDirectory;
+    private final Config config;
+    private final Log log;
+    private final PageCacheTracer pageCacheTracer;
+    private final int parallelism;
+    private JobHandle<?> profileJob;
+    private boolean profiling;
+
+    public PageCacheWarmer( FileSystemAbstraction fs, PageCache pageCache, JobScheduler scheduler, File databaseDirectory, Config config, Log log,
+            PageCacheTracer pageCacheTracer )
+    {
+        this.fs = fs;
+        this.pageCache = pageCache;
+        this.scheduler = scheduler;
+        this.databaseDirectory = databaseDirectory;
+        this.profilesDirectory = new File( databaseDirectory, PROFILES_DIRECTORY );
+        this.config = config;
+        this.log = log;
+        this.pageCacheTracer = pageCacheTracer;
+        this.parallelism = Runtime.getRuntime().availableProcessors();
+    }
+
+    @Override
+    public void start()
+    {
+        if ( !config.get( pagecache_warmup_enabled ) )
+        {
+            return;
+        }
+        try
+        {
+            long pagesLoaded = reheat();
+            if ( pagesLoaded > 0 )
+            {
+                log.info( "Page cache warmup completed. %d pages loaded.", pagesLoaded );
+            }
+        }
+        catch ( Exception e )
+        {
+            log.warn( "Page cache warmup failed. The database will start with a cold page cache.", e );
+        }
+        profiling = !config.get( read_only ) && !config.get( pagecache_warmup_prefetch );
+        if ( profiling )
+        {
+            long interval = config.get( pagecache_warmup_profiling_interval ).toMillis();
+            profileJob = scheduler.scheduleRecurring( Group.PAGE_CACHE_WARMUP, this::profileInBackground, interval, interval, MILLISECONDS );
+        }
+    }
+
+    @Override
+    public void stop()
+    {
+        if ( profileJob != null )
+        {
+            profileJob.cancel();
+            profileJob = null;
+        }
+        if ( profiling )
+        {
+            profiling = false;
+            try
+            {
+                profile();
+            }
+            catch ( IOException e )
+            {
+                log.warn( "Failed to write page cache warmup profiles.", e );
+            }
+        }
+    }
+
+    private void profileInBackground()
+    {
+        try
+        {
+            profile();
+        }
+        catch ( IOException e )
+        {
+            log.warn( "Failed to write page cache warmup profiles.", e );
+        }
+    }
+
+    /**
+     * Write a profile for every mapped file of the database, replacing any existing profile for that file.
+     *
+     * @return the number of pages that were in memory, over all the profiled files.
+     * @throws IOException if a profile could not be written.
+     */
+    synchronized long profile() throws IOException
+    {
+        long pagesInMemory = 0;
+        try ( PageCursorTracer cursorTracer = pageCacheTracer.createPageCursorTracer( PAGE_CACHE_WARMUP_TAG ) )
+        {
+            for ( PagedFile pagedFile : databaseFiles() )
+            {
+                try
+                {
+                    pagesInMemory += profile( pagedFile, cursorTracer );
+                }
+                catch ( IllegalStateException | FileIsNotMappedException e )
+                {
+                    // The file was unmapped concurrently with us profiling it, so there is nothing to profile anymore.
+                }
+            }
+        }
+        return pagesInMemory;
+    }
+
+    private long profile( PagedFile pagedFile, PageCursorTracer cursorTracer ) throws IOException
+    {
+        File profileFile = profileFile( pagedFile );
+        File tempProfileFile = new File( profileFile.getParentFile(), profileFile.getName() + TEMP_PROFILE_SUFFIX );
+        fs.mkdirs( profileFile.getParentFile() );
+
+        long pagesInMemory = 0;
+        // Looking at every page in memory must not make them all look hot to the page replacement policy.
+        try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_NO_FAULT | PF_TRANSIENT, cursorTracer );
+              OutputStream out = new BufferedOutputStream( new GZIPOutputStream( fs.openAsOutputStream( tempProfileFile, false ) ) ) )
+        {
+            int bits = 0;
+            int bit = 0;
+            while ( cursor.next() )
+            {
+                // With PF_NO_FAULT, the cursor is only bound to the pages that are already in memory.
+                if ( cursor.getCurrentPageId() != PageCursor.UNBOUND_PAGE_ID )
+                {
+                    bits |= 1 << bit;
+                    pagesInMemory++;
+                }
+                if ( ++bit == Byte.SIZE )
+                {
+                    out.write( bits );
+                    bits = 0;
+                    bit = 0;
+                }
+            }
+            if ( bit > 0 )
+            {
+                out.write( bits );
+            }
+        }
+        fs.renameFile( tempProfileFile, profileFile, ATOMIC_MOVE, REPLACE_EXISTING );
+        return pagesInMemory;
+    }
+
+    /**
+     * Load the pages of the mapped files of the database into the page cache, according to their profiles, or all of
+     * their pages if prefetching is enabled. No more pages will be loaded than what fits in the page cache.
+     *
+     * @return the number of pages that were loaded.
+     * @throws Exception if the warmup could not be completed.
+     */
+    long reheat() throws Exception
+    {
+        Queue<PagedFile> files = new ConcurrentLinkedQueue<>( databaseFiles() );
+        AtomicLong remainingPages = new AtomicLong( pageCache.maxCachedPages() );
+        int loaders = Math.min( parallelism, files.size() );
+        List<JobHandle<Long>> handles = new ArrayList<>( loaders );
+        for ( int i = 0; i < loaders; i++ )
+        {
+            handles.add( scheduler.schedule( Group.PAGE_CACHE_WARMUP, () -> reheat( files, remainingPages ) ) );
+        }
+        long pagesLoaded = 0;
+        for ( JobHandle<Long> handle : handles )
+        {
+            pagesLoaded += handle.get();
+        }
+        return pagesLoaded;
+    }
+
+    private long reheat( Queue<PagedFile> files, AtomicLong remainingPages )
+    {
+        boolean prefetch = config.get( pagecache_warmup_prefetch );
+        Pattern whitelist = Pattern.compile( config.get( pagecache_warmup_prefetch_whitelist ) );
+        long pagesLoaded = 0;
+        try ( PageCursorTracer cursorTracer = pageCacheTracer.createPageCursorTracer( PAGE_CACHE_WARMUP_TAG ) )
+        {
+            PagedFile pagedFile;
+            while ( remainingPages.get() > 0 && (pagedFile = files.poll()) != null )
+            {
+                try ( PageLoader loader = new PageLoader( pagedFile, remainingPages, cursorTracer ) )
+                {
+                    if ( prefetch )
+                    {
+                        if ( whitelist.matcher( pagedFile.file().getName() ).find() )
+                        {
+                            loader.loadAllPages();
+                        }
+                    }
+                    else
+                    {
+                        File profileFile = profileFile( pagedFile );
+                        if ( fs.fileExists( profileFile ) )
+                        {
+                            loader.loadProfiledPages( profileFile );
+                        }
+                    }
+                    pagesLoaded += loader.pagesLoaded;
+                }
+                catch ( IOException | IllegalStateException e )
+                {
+                    log.warn( "Failed to warm up the page cache for " + pagedFile.file() + ".", e );
+                }
+            }
+        }
+        return pagesLoaded;
+    }
+
+    private List<PagedFile> databaseFiles() throws IOException
+    {
+        List<PagedFile> files = new ArrayList<>();
+        for ( PagedFile pagedFile : pageCache.listExistingMappings() )
+        {
+            if ( pagedFile.file().toPath().startsWith( databaseDirectory.toPath() ) )
+            {
+                files.add( pagedFile );
+            }
+        }
+        return files;
+    }
+
+    private File profileFile( PagedFile pagedFile )
+    {
+        Path relativePath = databaseDirectory.toPath().relativize( pagedFile.file().toPath() );
+        return new File( profilesDirectory, relativePath + PROFILE_SUFFIX );
+    }
+
+    private final class PageLoader implements AutoCloseable
+    {
+        private final PagedFile pagedFile;
+        private final AtomicLong remainingPages;
+        private final PageCursor cursor;
+        private long pagesLoaded;
+        private long unreportedPages;
+
+        PageLoader( PagedFile pagedFile, AtomicLong remainingPages, PageCursorTracer cursorTracer ) throws IOException
+        {
+            this.pagedFile = pagedFile;
+            this.remainingPages = remainingPages;
+            this.cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_NO_GROW, cursorTracer );
+        }
+
+        void loadAllPages() throws IOException
+        {
+            long lastPageId = pagedFile.getLastPageId();
+            for ( long pageId = 0; pageId <= lastPageId; pageId++ )
+            {
+                if ( !load( pageId ) )
+                {
+                    return;
+                }
+            }
+        }
+
+        void loadProfiledPages( File profileFile ) throws IOException
+        {
+            long lastPageId = pagedFile.getLastPageId();
+            try ( InputStream in = new BufferedInputStream( new GZIPInputStream( fs.openAsInputStream( profileFile ) ) ) )
+            {
+                long pageId = 0;
+                int bits;
+                while ( pageId <= lastPageId && (bits = in.read()) != -1 )
+                {
+                    for ( int bit = 0; bit < Byte.SIZE; bit++, pageId++ )
+                    {
+                        // The file may have shrunk since it was profiled, so we skip the pages that no longer exist.
+                        if ( (bits & (1 << bit)) != 0 && pageId <= lastPageId && !load( pageId ) )
+                        {
+                            return;
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * @return {@code true} if the warmup can continue, or {@code false} if the page cache has been filled.
+         */
+        private boolean load( long pageId ) throws IOException
+        {
+            if ( remainingPages.getAndDecrement() <= 0 )
+            {
+                return false;
+            }
+            if ( cursor.next( pageId ) )
+            {
+                pagesLoaded++;
+                if ( ++unreportedPages == PROGRESS_REPORT_INTERVAL )
+                {
+                    pageCacheTracer.warmupPages( unreportedPages );
+                    unreportedPages = 0;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public void close()
+        {
+            pageCacheTracer.warmupPages( unreportedPages );
+            cursor.close();
+        }
+    }
+}
@@ -22,12 +22,16 @@ package org.neo4j.kernel.impl.transaction.log;
 import java.io.Flushable;
 import java.io.IOException;
 import java.nio.channels.ClosedChannelException;
+import java.time.Duration;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReentrantLock;
 
+import org.neo4j.configuration.Config;
 import org.neo4j.kernel.impl.api.TransactionToApply;
 import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryWriter;
@@ -45,6 +49,8 @@ import org.neo4j.monitoring.Health;
 import org.neo4j.storageengine.api.TransactionIdStore;
 import org.neo4j.util.VisibleForTesting;
 
+import static org.neo4j.configuration.GraphDatabaseSettings.logical_log_group_commit_max_bytes;
+import static org.neo4j.configuration.GraphDatabaseSettings.logical_log_group_commit_max_wait;
 import static org.neo4j.kernel.impl.api.TransactionToApply.TRANSACTION_ID_NOT_SPECIFIED;
 
 /**
@@ -53,6 +59,8 @@ import static org.neo4j.kernel.impl.api.TransactionToApply.TRANSACTION_ID_NOT_SP
  */
 public class BatchingTransactionAppender extends LifecycleAdapter implements TransactionAppender
 {
+    private static final long GROUP_COMMIT_POLL_NANOS = TimeUnit.MICROSECONDS.toNanos( 50 );
+
     private final AtomicReference<ThreadLink> threadLinkHead = new AtomicReference<>( ThreadLink.END );
     private final TransactionMetadataCache transactionMetadataCache;
     private final LogFile logFile;
@@ -61,6 +69,12 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
     private final LogPositionMarker positionMarker = new LogPositionMarker();
     private final Health databaseHealth;
     private final Lock forceLock = new ReentrantLock();
+    // Bytes appended since the buffer was last emptied for a force
+    private final AtomicLong unforcedBytes = new AtomicLong();
+    // Committers that have entered append but not yet finished writing their transactions to the log
+    private final AtomicInteger appendingCommitters = new AtomicInteger();
+    private final long groupCommitMaxWaitNanos;
+    private final long groupCommitMaxBytes;
 
     private FlushablePositionAwareChecksumChannel writer;
     private TransactionLogWriter transactionLogWriter;
@@ -69,17 +83,29 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
     public BatchingTransactionAppender( LogFiles logFiles, LogRotation logRotation, TransactionMetadataCache transactionMetadataCache,
             TransactionIdStore transactionIdStore, Health databaseHealth )
     {
-        this.logFile = logFiles.getLogFile();
-        this.logRotation = logRotation;
-        this.transactionIdStore = transactionIdStore;
-        this.databaseHealth = databaseHealth;
-        this.transactionMetadataCache = transactionMetadataCache;
-        this.previousChecksum = transactionIdStore.getLastCommittedTransaction().checksum();
+        this( logFiles, logRotation, transactionMetadataCache, transactionIdStore, databaseHealth,
+                transactionIdStore.getLastCommittedTransaction().checksum(), Duration.ZERO, Long.MAX_VALUE );
+    }
+
+    public BatchingTransactionAppender( LogFiles logFiles, LogRotation logRotation, TransactionMetadataCache transactionMetadataCache,
+            TransactionIdStore transactionIdStore, Health databaseHealth, Config config )
+    {
+        this( logFiles, logRotation, transactionMetadataCache, transactionIdStore, databaseHealth,
+                transactionIdStore.getLastCommittedTransaction().checksum(), config.get( logical_log_group_commit_max_wait ),
+                config.get( logical_log_group_commit_max_bytes ) );
     }
 
     @VisibleForTesting
     public BatchingTransactionAppender( LogFiles logFiles, LogRotation logRotation, TransactionMetadataCache transactionMetadataCache,
             TransactionIdStore transactionIdStore, Health databaseHealth, int previousChecksum )
+    {
+        this( logFiles, logRotation, transactionMetadataCache, transactionIdStore, databaseHealth, previousChecksum, Duration.ZERO, Long.MAX_VALUE );
+    }
+
+    @VisibleForTesting
+    BatchingTransactionAppender( LogFiles logFiles, LogRotation logRotation, TransactionMetadataCache transactionMetadataCache,
+            TransactionIdStore transactionIdStore, Health databaseHealth, int previousChecksum, Duration groupCommitMaxWait,
+            long groupCommitMaxBytes )
     {
         this.logFile = logFiles.getLogFile();
         this.logRotation = logRotation;
@@ -87,6 +113,8 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
         this.databaseHealth = databaseHealth;
         this.transactionMetadataCache = transactionMetadataCache;
         this.previousChecksum = previousChecksum;
+        this.groupCommitMaxWaitNanos = groupCommitMaxWait.toNanos();
+        this.groupCommitMaxBytes = groupCommitMaxBytes;
     }
 
     @Override
@@ -101,34 +129,42 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
     {
         // Assigned base tx id just to make compiler happy
         long lastTransactionId = TransactionIdStore.BASE_TX_ID;
-        // Synchronized with logFile to get absolute control over concurrent rotations happening
-        synchronized ( logFile )
+        appendingCommitters.incrementAndGet();
+        try
         {
-            // Assert that kernel is healthy before making any changes
-            databaseHealth.assertHealthy( IOException.class );
-            try ( SerializeTransactionEvent serialiseEvent = logAppendEvent.beginSerializeTransaction() )
+            // Synchronized with logFile to get absolute control over concurrent rotations happening
+            synchronized ( logFile )
             {
-                // Append all transactions in this batch to the log under the same logFile monitor
-                TransactionToApply tx = batch;
-                while ( tx != null )
+                // Assert that kernel is healthy before making any changes
+                databaseHealth.assertHealthy( IOException.class );
+                try ( SerializeTransactionEvent serialiseEvent = logAppendEvent.beginSerializeTransaction() )
                 {
-                    long transactionId = transactionIdStore.nextCommittingTransactionId();
-
-                    // If we're in a scenario where we're merely replicating transactions, i.e. transaction
-                    // id have already been generated by another entity we simply check that our id
-                    // that we generated match that id. If it doesn't we've run into a problem we can't ´
-                    // really recover from and would point to a bug somewhere.
-                    matchAgainstExpectedTransactionIdIfAny( transactionId, tx );
-
-                    TransactionCommitment commitment = appendToLog( tx.transactionRepresentation(), transactionId, logAppendEvent, previousChecksum );
-                    previousChecksum = commitment.getTransactionChecksum();
-                    tx.commitment( commitment, transactionId );
-                    tx.logPosition( commitment.logPosition() );
-                    tx = tx.next();
-                    lastTransactionId = transactionId;
+                    // Append all transactions in this batch to the log under the same logFile monitor
+                    TransactionToApply tx = batch;
+                    while ( tx != null )
+                    {
+                        long transactionId = transactionIdStore.nextCommittingTransactionId();
+
+                        // If we're in a scenario where we're merely replicating transactions, i.e. transaction
+                        // id have already been generated by another entity we simply check that our id
+                        // that we generated match that id. If it doesn't we've run into a problem we can't ´
+                        // really recover from and would point to a bug somewhere.
+                        matchAgainstExpectedTransactionIdIfAny( transactionId, tx );
+
+                        TransactionCommitment commitment = appendToLog( tx.transactionRepresentation(), transactionId, logAppendEvent, previousChecksum );
+                        previousChecksum = commitment.getTransactionChecksum();
+                        tx.commitment( commitment, transactionId );
+                        tx.logPosition( commitment.logPosition() );
+                        tx = tx.next();
+                        lastTransactionId = transactionId;
+                    }
                 }
             }
         }
+        finally
+        {
+            appendingCommitters.decrementAndGet();
+        }
 
         // At this point we've appended all transactions in this batch, but we can't mark any of them
         // as committed since they haven't been forced to disk yet. So here we force, or potentially
@@ -215,6 +251,10 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
             int checksum = transactionLogWriter.append( transaction, transactionId, previousChecksum );
             LogPosition logPositionAfterCommit = writer.getCurrentPosition( positionMarker ).newPosition();
             logAppendEvent.appendToLogFile( logPositionBeforeCommit, logPositionAfterCommit );
+            if ( logPositionAfterCommit.getLogVersion() == logPositionBeforeCommit.getLogVersion() )
+            {
+                unforcedBytes.addAndGet( logPositionAfterCommit.getByteOffset() - logPositionBeforeCommit.getByteOffset() );
+            }
 
             transactionMetadataCache.cacheTransactionMetadata( transactionId, logPositionBeforeCommit, checksum, transaction.getTimeCommitted() );
 
@@ -251,6 +291,10 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
                     attemptedForce = true;
                     try
                     {
+                        if ( !threadLink.done )
+                        {
+                            awaitGroupCommitWindow();
+                        }
                         forceLog( logForceEvents );
                         // In the event of any failure a database panic will be raised and thrown here
                     }
@@ -284,6 +328,26 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
         return attemptedForce;
     }
 
+    /**
+     * Holds back the force for a short while when other committers are still appending their transactions, so that
+     * they can join this force instead of paying for one of their own. The window ends as soon as no more committers
+     * are appending, when {@code groupCommitMaxWaitNanos} have passed, or when {@code groupCommitMaxBytes} are
+     * waiting to be forced.
+     */
+    private void awaitGroupCommitWindow()
+    {
+        if ( groupCommitMaxWaitNanos == 0 )
+        {
+            return;
+        }
+        long deadline = System.nanoTime() + groupCommitMaxWaitNanos;
+        long remaining;
+        while ( appendingCommitters.get() > 0 && unforcedBytes.get() < groupCommitMaxBytes && (remaining = deadline - System.nanoTime()) > 0 )
+        {
+            LockSupport.parkNanos( this, Math.min( remaining, GROUP_COMMIT_POLL_NANOS ) );
+        }
+    }
+
     private void forceLog( LogForceEvents logForceEvents ) throws IOException
     {
         ThreadLink links = threadLinkHead.getAndSet( ThreadLink.END );
@@ -337,6 +401,7 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
         {
             databaseHealth.assertHealthy( IOException.class );
             flushable = writer.prepareForFlush();
+            unforcedBytes.set( 0 );
         }
         // Force the writer outside of the lock.
         // This allows other threads access to the buffer while the writer is being forced.
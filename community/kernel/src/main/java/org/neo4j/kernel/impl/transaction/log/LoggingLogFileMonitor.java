@@ -28,12 +28,14 @@ import org.neo4j.kernel.recovery.RecoveryStartInformationProvider;
 import org.neo4j.logging.Log;
 
 import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static org.neo4j.internal.helpers.Format.duration;
 
 public class LoggingLogFileMonitor implements RecoveryMonitor, RecoveryStartInformationProvider.Monitor, LogRotationMonitor
 {
     private long firstTransactionRecovered = -1;
     private long lastTransactionRecovered;
+    private long recoveryApplyTimeNanos;
     private final Log log;
 
     public LoggingLogFileMonitor( Log log )
@@ -52,8 +54,9 @@ public class LoggingLogFileMonitor implements RecoveryMonitor, RecoveryStartInfo
     {
         if ( numberOfRecoveredTransactions != 0 )
         {
-            log.info( format( "Recovery completed. %d transactions, first:%d, last:%d recovered, time spent: %s", numberOfRecoveredTransactions,
-                    firstTransactionRecovered, lastTransactionRecovered, duration( recoveryTimeInMilliseconds ) ) );
+            log.info( format( "Recovery completed. %d transactions, first:%d, last:%d recovered, time spent: %s, time spent applying: %s",
+                    numberOfRecoveredTransactions, firstTransactionRecovered, lastTransactionRecovered, duration( recoveryTimeInMilliseconds ),
+                    duration( NANOSECONDS.toMillis( recoveryApplyTimeNanos ) ) ) );
         }
         else
         {
@@ -92,6 +95,14 @@ public class LoggingLogFileMonitor implements RecoveryMonitor, RecoveryStartInfo
         lastTransactionRecovered = txId;
     }
 
+    @Override
+    public void chunkRecovered( int numberOfTransactions, long lastTxId, long applyTimeNanos )
+    {
+        recoveryApplyTimeNanos += applyTimeNanos;
+        log.debug( format( "Recovered %d transactions up to %d, time spent applying: %s", numberOfTransactions, lastTxId,
+                duration( NANOSECONDS.toMillis( applyTimeNanos ) ) ) );
+    }
+
     @Override
     public void noCommitsAfterLastCheckPoint( LogPosition logPosition )
     {
@@ -0,0 +1,308 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.files;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.neo4j.io.ByteUnit;
+import org.neo4j.io.fs.DelegatingStoreChannel;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.memory.ByteBuffers;
+
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+
+/**
+ * A {@link StoreChannel} for writing a transaction log file that has been opened for direct I/O.
+ * <p>
+ * Direct I/O requires the file position, the length and the memory address of every read and write to be aligned
+ * to the block size of the file system. The transaction log is written as a stream of arbitrarily sized chunks, so
+ * this channel keeps the partially filled last block of the log in an aligned buffer. Every write is appended to
+ * that buffer, and then written out as whole blocks, with the unused part of the last block padded with zeros.
+ * The next write will rewrite that last block, now with more of it filled in. The zero padding reads as the end of
+ * the log, the same way as the zeros at the end of a preallocated log file does.
+ * <p>
+ * Reads go through an aligned bounce buffer, and are only needed for finding the end of the log when it is opened.
+ */
+class DirectIOLogStoreChannel extends DelegatingStoreChannel
+{
+    private static final int BUFFER_SIZE = toIntExact( ByteUnit.kibiBytes( 512 ) );
+
+    private final int blockSize;
+    private final ByteBuffer writeBufferMemory;
+    private final ByteBuffer writeBuffer;
+    private final ByteBuffer readBufferMemory;
+    private final ByteBuffer readBuffer;
+    private long position;
+    // The file position of the first byte in the write buffer. This is always block aligned.
+    private long writeBufferPosition;
+    // The write buffer holds the last block up to the current position, unless we have moved or truncated the file.
+    private boolean writeBufferLoaded;
+
+    DirectIOLogStoreChannel( StoreChannel delegate, int blockSize, long position )
+    {
+        super( delegate );
+        if ( Integer.bitCount( blockSize ) != 1 || blockSize > BUFFER_SIZE )
+        {
+            throw new IllegalArgumentException( "Unsupported block size for direct I/O: " + blockSize );
+        }
+        this.blockSize = blockSize;
+        this.writeBufferMemory = ByteBuffers.allocateDirect( BUFFER_SIZE + blockSize );
+        this.writeBuffer = writeBufferMemory.alignedSlice( blockSize );
+        this.readBufferMemory = ByteBuffers.allocateDirect( BUFFER_SIZE + blockSize );
+        this.readBuffer = readBufferMemory.alignedSlice( blockSize );
+        this.position = position;
+    }
+
+    @Override
+    public void writeAll( ByteBuffer src, long position )
+    {
+        throw new UnsupportedOperationException( "Not needed" );
+    }
+
+    @Override
+    public void writeAll( ByteBuffer src ) throws IOException
+    {
+        write( src );
+    }
+
+    @Override
+    public int write( ByteBuffer src ) throws IOException
+    {
+        loadWriteBuffer();
+        int bytes = src.remaining();
+        while ( src.hasRemaining() )
+        {
+            int chunk = min( src.remaining(), writeBuffer.remaining() );
+            ByteBuffer slice = src.duplicate();
+            slice.limit( slice.position() + chunk );
+            writeBuffer.put( slice );
+            src.position( src.position() + chunk );
+            if ( !writeBuffer.hasRemaining() )
+            {
+                writeOut();
+            }
+        }
+        writeOut();
+        position += bytes;
+        return bytes;
+    }
+
+    @Override
+    public long write( ByteBuffer[] srcs ) throws IOException
+    {
+        return write( srcs, 0, srcs.length );
+    }
+
+    @Override
+    public long write( ByteBuffer[] srcs, int offset, int length ) throws IOException
+    {
+        long bytes = 0;
+        for ( int i = offset; i < offset + length; i++ )
+        {
+            bytes += write( srcs[i] );
+        }
+        return bytes;
+    }
+
+    /**
+     * Write the buffered bytes as whole blocks, and keep only the last partially filled block in the buffer.
+     */
+    private void writeOut() throws IOException
+    {
+        int filled = writeBuffer.position();
+        if ( filled == 0 )
+        {
+            return;
+        }
+        int partialBytes = filled % blockSize;
+        int completeBytes = filled - partialBytes;
+        int alignedEnd = partialBytes == 0 ? filled : completeBytes + blockSize;
+        for ( int i = filled; i < alignedEnd; i++ )
+        {
+            writeBuffer.put( i, (byte) 0 );
+        }
+
+        ByteBuffer blocks = writeBuffer.duplicate();
+        blocks.position( 0 );
+        blocks.limit( alignedEnd );
+        delegate.writeAll( blocks, writeBufferPosition );
+
+        if ( completeBytes > 0 )
+        {
+            writeBuffer.position( completeBytes );
+            writeBuffer.limit( filled );
+            writeBuffer.compact();
+            writeBufferPosition += completeBytes;
+        }
+    }
+
+    /**
+     * Make the write buffer hold the block at the current position, filled up to the current position.
+     */
+    private void loadWriteBuffer() throws IOException
+    {
+        if ( writeBufferLoaded )
+        {
+            return;
+        }
+        writeBufferPosition = position - position % blockSize;
+        int partialBytes = toIntExact( position - writeBufferPosition );
+        writeBuffer.clear();
+        if ( partialBytes > 0 )
+        {
+            readBlocks( writeBufferPosition, blockSize );
+            readBuffer.limit( partialBytes );
+            writeBuffer.put( readBuffer );
+        }
+        writeBufferLoaded = true;
+    }
+
+    @Override
+    public int read( ByteBuffer dst, long position )
+    {
+        throw new UnsupportedOperationException( "Not needed" );
+    }
+
+    @Override
+    public int read( ByteBuffer dst ) throws IOException
+    {
+        if ( !dst.hasRemaining() )
+        {
+            return 0;
+        }
+        long blockPosition = position - position % blockSize;
+        int skip = toIntExact( position - blockPosition );
+        int available = readBlocks( blockPosition, skip + dst.remaining() ) - skip;
+        if ( available <= 0 )
+        {
+            return -1;
+        }
+        readBuffer.position( skip );
+        readBuffer.limit( skip + min( available, dst.remaining() ) );
+        int bytes = readBuffer.remaining();
+        dst.put( readBuffer );
+        position += bytes;
+        writeBufferLoaded = false;
+        return bytes;
+    }
+
+    /**
+     * Read at most the given number of bytes, rounded up to whole blocks, from the given block aligned position
+     * into the read buffer.
+     *
+     * @return the number of bytes read, which can be less than requested at the end of the file.
+     */
+    private int readBlocks( long blockPosition, int bytes ) throws IOException
+    {
+        int length = min( ((bytes + blockSize - 1) / blockSize) * blockSize, readBuffer.capacity() );
+        readBuffer.clear();
+        readBuffer.limit( length );
+        int read = 0;
+        int n;
+        while ( readBuffer.hasRemaining() && (n = delegate.read( readBuffer, blockPosition + read )) > 0 )
+        {
+            read += n;
+        }
+        for ( int i = read; i < length; i++ )
+        {
+            readBuffer.put( i, (byte) 0 );
+        }
+        readBuffer.flip();
+        readBuffer.limit( length );
+        return read;
+    }
+
+    @Override
+    public void readAll( ByteBuffer dst ) throws IOException
+    {
+        while ( dst.hasRemaining() )
+        {
+            if ( read( dst ) == -1 )
+            {
+                throw new EOFException( "End of file reached with " + dst.remaining() + " bytes left to read." );
+            }
+        }
+    }
+
+    @Override
+    public long read( ByteBuffer[] dsts ) throws IOException
+    {
+        return read( dsts, 0, dsts.length );
+    }
+
+    @Override
+    public long read( ByteBuffer[] dsts, int offset, int length ) throws IOException
+    {
+        long bytes = 0;
+        for ( int i = offset; i < offset + length; i++ )
+        {
+            int read = read( dsts[i] );
+            if ( read == -1 )
+            {
+                return bytes == 0 ? -1 : bytes;
+            }
+            bytes += read;
+        }
+        return bytes;
+    }
+
+    @Override
+    public long position()
+    {
+        return position;
+    }
+
+    @Override
+    public StoreChannel position( long newPosition )
+    {
+        position = newPosition;
+        writeBufferLoaded = false;
+        return this;
+    }
+
+    @Override
+    public StoreChannel truncate( long size ) throws IOException
+    {
+        delegate.truncate( size );
+        if ( position > size )
+        {
+            position = size;
+        }
+        writeBufferLoaded = false;
+        return this;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        try
+        {
+            super.close();
+        }
+        finally
+        {
+            ByteBuffers.releaseBuffer( writeBufferMemory );
+            ByteBuffers.releaseBuffer( readBufferMemory );
+        }
+    }
+}
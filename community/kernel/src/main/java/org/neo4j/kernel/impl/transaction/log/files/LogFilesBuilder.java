@@ -48,6 +48,7 @@ import org.neo4j.storageengine.api.TransactionIdStore;
 
 import static java.util.Objects.requireNonNull;
 import static org.neo4j.configuration.GraphDatabaseSettings.logical_log_rotation_threshold;
+import static org.neo4j.configuration.GraphDatabaseSettings.logical_logs_direct_io;
 import static org.neo4j.configuration.GraphDatabaseSettings.preallocate_logical_logs;
 
 /**
@@ -262,9 +263,10 @@ public class LogFilesBuilder
         // Register listener for rotation threshold
         AtomicLong rotationThreshold = getRotationThresholdAndRegisterForUpdates();
         AtomicBoolean tryPreallocateTransactionLogs = getTryToPreallocateTransactionLogs();
+        boolean directIO = !readOnly && config.get( logical_logs_direct_io );
         var nativeAccess = getNativeAccess();
 
-        return new TransactionLogFilesContext( rotationThreshold, tryPreallocateTransactionLogs, logEntryReader, lastCommittedIdSupplier,
+        return new TransactionLogFilesContext( rotationThreshold, tryPreallocateTransactionLogs, directIO, logEntryReader, lastCommittedIdSupplier,
                 committingTransactionIdSupplier, lastClosedTransactionPositionSupplier, logVersionRepositorySupplier, fileSystem,
                 logProvider, databaseTracers, storeIdSupplier, nativeAccess );
     }
@@ -19,10 +19,14 @@
  */
 package org.neo4j.kernel.impl.transaction.log.files;
 
+import com.sun.nio.file.ExtendedOpenOption;
+
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.file.OpenOption;
+import java.util.Set;
 import java.util.function.LongSupplier;
 
 import org.neo4j.io.fs.FileSystemAbstraction;
@@ -35,13 +39,20 @@ import org.neo4j.kernel.impl.transaction.log.entry.LogHeaderWriter;
 import org.neo4j.kernel.impl.transaction.tracing.DatabaseTracer;
 import org.neo4j.kernel.impl.transaction.tracing.LogFileCreateEvent;
 
+import static java.lang.Math.toIntExact;
 import static java.lang.String.format;
+import static java.nio.file.StandardOpenOption.DSYNC;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.apache.commons.lang3.SystemUtils.IS_OS_LINUX;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogHeaderReader.readLogHeader;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogVersions.CURRENT_FORMAT_LOG_HEADER_SIZE;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogVersions.CURRENT_LOG_FORMAT_VERSION;
 
 class TransactionLogChannelAllocator
 {
+    private static final Set<OpenOption> DIRECT_IO_OPTIONS = Set.of( READ, WRITE, ExtendedOpenOption.DIRECT, DSYNC );
+
     private final TransactionLogFilesContext logFilesContext;
     private final FileSystemAbstraction fileSystem;
     private final TransactionLogFilesHelper fileHelper;
@@ -63,7 +74,7 @@ class TransactionLogChannelAllocator
     PhysicalLogVersionedStoreChannel createLogChannel( long version, LongSupplier lastCommittedTransactionId ) throws IOException
     {
         AllocatedFile allocatedFile = allocateFile( version );
-        var storeChannel = allocatedFile.getStoreChannel();
+        StoreChannel storeChannel = allocatedFile.getStoreChannel();
         var logFile = allocatedFile.getFile();
         ByteBuffer headerBuffer = ByteBuffers.allocate( CURRENT_FORMAT_LOG_HEADER_SIZE );
         LogHeader header = readLogHeader( headerBuffer, storeChannel, false, logFile );
@@ -79,10 +90,31 @@ class TransactionLogChannelAllocator
                 logHeaderCache.putHeader( version, logHeader );
             }
         }
+        if ( logFilesContext.isDirectIO() )
+        {
+            storeChannel = reopenForDirectIO( logFile, storeChannel );
+        }
         byte formatVersion = header == null ? CURRENT_LOG_FORMAT_VERSION : header.getLogFormatVersion();
         return new PhysicalLogVersionedStoreChannel( storeChannel, version, formatVersion, logFile, nativeChannelAccessor );
     }
 
+    /**
+     * The log header is read and written through the regular channel, since it is neither block aligned nor block sized.
+     * Once that is done, we switch over to a direct I/O channel for appending to the log.
+     */
+    private StoreChannel reopenForDirectIO( File logFile, StoreChannel storeChannel ) throws IOException
+    {
+        if ( !IS_OS_LINUX )
+        {
+            throw new IllegalArgumentException( "DirectIO support is available only on Linux." );
+        }
+        long position = storeChannel.position();
+        storeChannel.force( false );
+        storeChannel.close();
+        int blockSize = toIntExact( fileSystem.getBlockSize( logFile ) );
+        return new DirectIOLogStoreChannel( fileSystem.open( logFile, DIRECT_IO_OPTIONS ), blockSize, position );
+    }
+
     PhysicalLogVersionedStoreChannel openLogChannel( long version ) throws IOException
     {
         File fileToOpen = fileHelper.getLogFileForVersion( version );
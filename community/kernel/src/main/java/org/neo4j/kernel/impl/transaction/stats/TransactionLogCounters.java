@@ -44,4 +44,23 @@ public interface TransactionLogCounters
      * @return last log rotation time in milliseconds
      */
     long lastLogRotationTimeMillis();
+
+    /**
+     * Total number of transactions appended to transaction logs
+     * @return number of appended transactions
+     */
+    long numberOfAppendedTransactions();
+
+    /**
+     * Total number of transaction log forces. Forces are batched, so comparing this to
+     * {@link #numberOfAppendedTransactions()} tells how many transactions share a single force on average
+     * @return number of log forces
+     */
+    long numberOfLogForces();
+
+    /**
+     * Accumulated time committing transactions spent waiting for the transaction log to be forced, in milliseconds
+     * @return accumulated log force wait time in milliseconds
+     */
+    long logForceWaitAccumulatedTotalTimeMillis();
 }
@@ -84,6 +84,24 @@ public interface DatabaseTracer extends TransactionTracer, CheckPointTracer
         {
             return 0;
         }
+
+        @Override
+        public long numberOfAppendedTransactions()
+        {
+            return 0;
+        }
+
+        @Override
+        public long numberOfLogForces()
+        {
+            return 0;
+        }
+
+        @Override
+        public long logForceWaitAccumulatedTotalTimeMillis()
+        {
+            return 0;
+        }
     };
 
     LogFileCreateEvent createLogFile();
@@ -66,6 +66,24 @@ public interface TransactionTracer extends TransactionLogCounters
         {
             return 0;
         }
+
+        @Override
+        public long numberOfAppendedTransactions()
+        {
+            return 0;
+        }
+
+        @Override
+        public long numberOfLogForces()
+        {
+            return 0;
+        }
+
+        @Override
+        public long logForceWaitAccumulatedTotalTimeMillis()
+        {
+            return 0;
+        }
     };
 
     /**
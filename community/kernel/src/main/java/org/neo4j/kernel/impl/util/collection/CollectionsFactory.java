@@ -19,6 +19,8 @@
  */
 package org.neo4j.kernel.impl.util.collection;
 
+import org.eclipse.collections.api.LongIterable;
+import org.eclipse.collections.api.map.primitive.MutableLongLongMap;
 import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
 import org.eclipse.collections.api.set.primitive.MutableLongSet;
 
@@ -39,6 +41,14 @@ public interface CollectionsFactory
 
     MutableLongObjectMap<Value> newValuesMap( MemoryTracker memoryTracker );
 
+    MutableLongLongMap newLongLongMap( MemoryTracker memoryTracker );
+
+    /**
+     * Copies the given ids into an array sorted in ascending order, allocated the same way as the collections of this factory.
+     * The array must be closed after use.
+     */
+    SortedLongArray newSortedLongArray( LongIterable ids, MemoryTracker memoryTracker );
+
     /**
      * Release previously created collections. This method does not invalidate the factory.
      */
@@ -21,6 +21,7 @@ package org.neo4j.kernel.impl.util.collection;
 
 import org.eclipse.collections.api.map.MutableMap;
 import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
+import org.eclipse.collections.api.map.primitive.MutableLongLongMap;
 import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
 import org.eclipse.collections.api.set.MutableSet;
 import org.eclipse.collections.api.set.primitive.MutableLongSet;
@@ -49,6 +50,11 @@ public final class HeapTrackingCollections
         return HeapTrackingLongHashSet.createLongHashSet( memoryTracker );
     }
 
+    public static MutableLongLongMap newLongLongMap( MemoryTracker memoryTracker )
+    {
+        return HeapTrackingLongLongHashMap.createLongLongHashMap( memoryTracker );
+    }
+
     public static <V> MutableLongObjectMap<V> newLongObjectMap( MemoryTracker memoryTracker )
     {
         return HeapTrackingLongObjectHashMap.createLongObjectHashMap( memoryTracker );
@@ -19,30 +19,62 @@
  */
 package org.neo4j.kernel.impl.util.collection;
 
+import org.eclipse.collections.api.LongIterable;
+import org.eclipse.collections.api.map.primitive.MutableLongLongMap;
 import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
 import org.eclipse.collections.api.set.primitive.MutableLongSet;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
 
 import org.neo4j.graphdb.Resource;
+import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.kernel.impl.api.state.AppendOnlyValuesContainer;
-import org.neo4j.kernel.impl.api.state.ValuesContainer;
 import org.neo4j.kernel.impl.api.state.ValuesMap;
 import org.neo4j.kernel.impl.util.diffsets.MutableLongDiffSetsImpl;
 import org.neo4j.memory.MemoryTracker;
+import org.neo4j.util.FeatureToggles;
 import org.neo4j.values.storable.Value;
 
 public class OffHeapCollectionsFactory implements CollectionsFactory
 {
+    /**
+     * Whether or not property values of a transaction should be moved to a temporary file when the transaction state reaches
+     * the off-heap memory limit, instead of failing the transaction.
+     */
+    private static final boolean SPILL_VALUES = FeatureToggles.flag( OffHeapCollectionsFactory.class, "spillValues", false );
+
+    private final MemoryAllocator offHeapAllocator;
     private final MemoryAllocator allocator;
+    private final FileSystemAbstraction fs;
+    private final File spillDirectory;
 
     private final Collection<Resource> resources = new ArrayList<>();
-    private ValuesContainer valuesContainer;
+    private AppendOnlyValuesContainer valuesContainer;
 
+    /**
+     * Creates a factory that never spills values to disk.
+     */
     public OffHeapCollectionsFactory( OffHeapBlockAllocator blockAllocator )
     {
-        this.allocator = new OffHeapMemoryAllocator( blockAllocator );
+        this( blockAllocator, false, null, null );
+    }
+
+    /**
+     * @param spillDirectory where values are spilled to, if spilling is enabled by the feature toggle.
+     */
+    public OffHeapCollectionsFactory( OffHeapBlockAllocator blockAllocator, FileSystemAbstraction fs, File spillDirectory )
+    {
+        this( blockAllocator, SPILL_VALUES, fs, spillDirectory );
+    }
+
+    public OffHeapCollectionsFactory( OffHeapBlockAllocator blockAllocator, boolean spillValues, FileSystemAbstraction fs, File spillDirectory )
+    {
+        this.offHeapAllocator = new OffHeapMemoryAllocator( blockAllocator );
+        this.allocator = spillValues ? this::allocateSpillingValuesOnLimit : offHeapAllocator;
+        this.fs = fs;
+        this.spillDirectory = spillDirectory;
     }
 
     @Override
@@ -64,13 +96,43 @@ public class OffHeapCollectionsFactory implements CollectionsFactory
     {
         if ( valuesContainer == null )
         {
-            valuesContainer = new AppendOnlyValuesContainer( allocator, memoryTracker );
+            valuesContainer = new AppendOnlyValuesContainer( allocator, fs, spillDirectory, memoryTracker );
         }
         final LinearProbeLongLongHashMap refs = new LinearProbeLongLongHashMap( allocator, memoryTracker );
         resources.add( refs );
         return new ValuesMap( refs, valuesContainer );
     }
 
+    @Override
+    public MutableLongLongMap newLongLongMap( MemoryTracker memoryTracker )
+    {
+        final LinearProbeLongLongHashMap map = new LinearProbeLongLongHashMap( allocator, memoryTracker );
+        resources.add( map );
+        return map;
+    }
+
+    @Override
+    public SortedLongArray newSortedLongArray( LongIterable ids, MemoryTracker memoryTracker )
+    {
+        return SortedLongArray.allocate( ids, allocator, memoryTracker );
+    }
+
+    private Memory allocateSpillingValuesOnLimit( long size, boolean zeroed, MemoryTracker memoryTracker )
+    {
+        try
+        {
+            return offHeapAllocator.allocate( size, zeroed, memoryTracker );
+        }
+        catch ( MemoryAllocationLimitException e )
+        {
+            if ( valuesContainer == null || !valuesContainer.spill() )
+            {
+                throw e;
+            }
+            return allocateSpillingValuesOnLimit( size, zeroed, memoryTracker );
+        }
+    }
+
     @Override
     public void release()
     {
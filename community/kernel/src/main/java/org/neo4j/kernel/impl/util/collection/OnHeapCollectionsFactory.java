@@ -19,6 +19,8 @@
  */
 package org.neo4j.kernel.impl.util.collection;
 
+import org.eclipse.collections.api.LongIterable;
+import org.eclipse.collections.api.map.primitive.MutableLongLongMap;
 import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
 import org.eclipse.collections.api.set.primitive.MutableLongSet;
 
@@ -53,6 +55,18 @@ public class OnHeapCollectionsFactory implements CollectionsFactory
         return HeapTrackingCollections.newValuesMap( memoryTracker );
     }
 
+    @Override
+    public MutableLongLongMap newLongLongMap( MemoryTracker memoryTracker )
+    {
+        return HeapTrackingCollections.newLongLongMap( memoryTracker );
+    }
+
+    @Override
+    public SortedLongArray newSortedLongArray( LongIterable ids, MemoryTracker memoryTracker )
+    {
+        return SortedLongArray.onHeap( ids, memoryTracker );
+    }
+
     @Override
     public void release()
     {
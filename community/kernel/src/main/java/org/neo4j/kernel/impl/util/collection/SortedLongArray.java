@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.util.collection;
+
+import org.eclipse.collections.api.LongIterable;
+
+import org.neo4j.graphdb.Resource;
+import org.neo4j.memory.MemoryTracker;
+
+import static org.neo4j.memory.HeapEstimator.sizeOf;
+
+/**
+ * A snapshot of a set of ids in ascending order, see {@link CollectionsFactory#newSortedLongArray(LongIterable, MemoryTracker)}.
+ * Must be closed after use to release its memory.
+ */
+public final class SortedLongArray implements Resource
+{
+    private final long[] array;
+    private final Memory memory;
+    private final int size;
+    private final MemoryTracker memoryTracker;
+
+    private SortedLongArray( long[] array, Memory memory, int size, MemoryTracker memoryTracker )
+    {
+        this.array = array;
+        this.memory = memory;
+        this.size = size;
+        this.memoryTracker = memoryTracker;
+    }
+
+    static SortedLongArray onHeap( LongIterable ids, MemoryTracker memoryTracker )
+    {
+        long[] array = ids.toSortedArray();
+        memoryTracker.allocateHeap( sizeOf( array ) );
+        return new SortedLongArray( array, null, array.length, memoryTracker );
+    }
+
+    /**
+     * Copies the ids into memory from the given allocator and sorts them there, using heap sort since it needs no extra space.
+     */
+    static SortedLongArray allocate( LongIterable ids, MemoryAllocator allocator, MemoryTracker memoryTracker )
+    {
+        int size = ids.size();
+        if ( size == 0 )
+        {
+            return new SortedLongArray( null, null, 0, memoryTracker );
+        }
+        Memory memory = allocator.allocate( (long) size * Long.BYTES, false, memoryTracker );
+        long[] offset = {0};
+        ids.forEach( id ->
+        {
+            memory.writeLong( offset[0], id );
+            offset[0] += Long.BYTES;
+        } );
+        for ( int i = size / 2 - 1; i >= 0; i-- )
+        {
+            siftDown( memory, i, size );
+        }
+        for ( int end = size - 1; end > 0; end-- )
+        {
+            swap( memory, 0, end );
+            siftDown( memory, 0, end );
+        }
+        return new SortedLongArray( null, memory, size, memoryTracker );
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public long get( int index )
+    {
+        return array != null ? array[index] : memory.readLong( (long) index * Long.BYTES );
+    }
+
+    @Override
+    public void close()
+    {
+        if ( array != null )
+        {
+            memoryTracker.releaseHeap( sizeOf( array ) );
+        }
+        else if ( memory != null )
+        {
+            memory.free( memoryTracker );
+        }
+    }
+
+    private static void siftDown( Memory memory, int root, int end )
+    {
+        int parent = root;
+        int child;
+        while ( (child = 2 * parent + 1) < end )
+        {
+            if ( child + 1 < end && read( memory, child + 1 ) > read( memory, child ) )
+            {
+                child++;
+            }
+            if ( read( memory, parent ) >= read( memory, child ) )
+            {
+                return;
+            }
+            swap( memory, parent, child );
+            parent = child;
+        }
+    }
+
+    private static void swap( Memory memory, int a, int b )
+    {
+        long value = read( memory, a );
+        memory.writeLong( (long) a * Long.BYTES, read( memory, b ) );
+        memory.writeLong( (long) b * Long.BYTES, value );
+    }
+
+    private static long read( Memory memory, int index )
+    {
+        return memory.readLong( (long) index * Long.BYTES );
+    }
+}
@@ -19,6 +19,8 @@
  */
 package org.neo4j.kernel.recovery;
 
+import java.util.List;
+
 import org.neo4j.internal.helpers.collection.Visitor;
 import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
 
@@ -27,4 +29,19 @@ import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
  */
 public interface RecoveryApplier extends Visitor<CommittedTransactionRepresentation,Exception>, AutoCloseable
 {
+    /**
+     * Applies a chunk of consecutive transactions, in the order they were committed. Appliers can override this to apply
+     * the whole chunk as one batch, which lets the storage engine apply independent transactions concurrently and
+     * group index and counts updates. By default the transactions are visited one by one.
+     *
+     * @param transactions transactions to apply, in commit order.
+     * @throws Exception if any of the transactions failed to apply.
+     */
+    default void visitChunk( List<CommittedTransactionRepresentation> transactions ) throws Exception
+    {
+        for ( CommittedTransactionRepresentation transaction : transactions )
+        {
+            visit( transaction );
+        }
+    }
 }
@@ -34,6 +34,11 @@ public interface RecoveryMonitor
         //noop
     }
 
+    default void chunkRecovered( int numberOfTransactions, long lastTxId, long applyTimeNanos )
+    {
+        //noop
+    }
+
     default void recoveryCompleted( int numberOfRecoveredTransactions, long recoveryTimeInMilliseconds )
     {
         //noop
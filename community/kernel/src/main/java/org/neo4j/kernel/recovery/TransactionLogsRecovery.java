@@ -20,6 +20,8 @@
 package org.neo4j.kernel.recovery;
 
 import java.nio.channels.ClosedByInterruptException;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.neo4j.common.ProgressReporter;
 import org.neo4j.dbms.database.DatabaseStartAbortedException;
@@ -33,6 +35,7 @@ import org.neo4j.kernel.lifecycle.Lifecycle;
 import org.neo4j.kernel.lifecycle.LifecycleAdapter;
 import org.neo4j.storageengine.api.TransactionIdStore;
 import org.neo4j.time.Stopwatch;
+import org.neo4j.util.FeatureToggles;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.neo4j.kernel.recovery.Recovery.throwUnableToCleanRecover;
@@ -48,6 +51,10 @@ public class TransactionLogsRecovery extends LifecycleAdapter
     private static final String REVERSE_RECOVERY_TAG = "restoreDatabase";
     private static final String RECOVERY_TAG = "recoverDatabase";
     private static final String RECOVERY_COMPLETED_TAG = "databaseRecoveryCompleted";
+    /**
+     * Number of transactions read from the log before they are applied together as one batch.
+     */
+    private static final int RECOVERY_CHUNK_SIZE = Math.max( 1, FeatureToggles.getInteger( TransactionLogsRecovery.class, "chunkSize", 100 ) );
 
     private final RecoveryService recoveryService;
     private final RecoveryMonitor monitor;
@@ -128,17 +135,40 @@ public class TransactionLogsRecovery extends LifecycleAdapter
                         var cursorTracer = pageCacheTracer.createPageCursorTracer( RECOVERY_TAG );
                         RecoveryApplier recoveryVisitor = recoveryService.getRecoveryApplier( RECOVERY, cursorTracer ) )
                 {
-                    while ( transactionsToRecover.next() )
+                    List<CommittedTransactionRepresentation> chunk = new ArrayList<>( RECOVERY_CHUNK_SIZE );
+                    LogPosition chunkEndPosition = recoveryToPosition;
+                    while ( true )
                     {
                         recoveryStartupChecker.checkIfCanceled();
-                        lastTransaction = transactionsToRecover.get();
-                        long txId = lastTransaction.getCommitEntry().getTxId();
-                        recoveryVisitor.visit( lastTransaction );
-                        monitor.transactionRecovered( txId );
-                        numberOfRecoveredTransactions++;
-                        lastTransactionPosition = transactionsToRecover.position();
-                        recoveryToPosition = lastTransactionPosition;
-                        reportProgress();
+                        boolean hasNext;
+                        try
+                        {
+                            hasNext = transactionsToRecover.next();
+                        }
+                        catch ( Exception e )
+                        {
+                            // Transactions read before the unreadable one are recovered, just like when applied one at a time
+                            if ( !chunk.isEmpty() )
+                            {
+                                lastTransaction = recoverChunk( recoveryVisitor, chunk );
+                                lastTransactionPosition = recoveryToPosition = chunkEndPosition;
+                            }
+                            throw e;
+                        }
+                        if ( hasNext )
+                        {
+                            chunk.add( transactionsToRecover.get() );
+                            chunkEndPosition = transactionsToRecover.position();
+                        }
+                        if ( !chunk.isEmpty() && (!hasNext || chunk.size() == RECOVERY_CHUNK_SIZE) )
+                        {
+                            lastTransaction = recoverChunk( recoveryVisitor, chunk );
+                            lastTransactionPosition = recoveryToPosition = chunkEndPosition;
+                        }
+                        if ( !hasNext )
+                        {
+                            break;
+                        }
                     }
                     recoveryToPosition = transactionsToRecover.position();
                 }
@@ -177,6 +207,30 @@ public class TransactionLogsRecovery extends LifecycleAdapter
         monitor.recoveryCompleted( numberOfRecoveredTransactions, recoveryStartTime.elapsed( MILLISECONDS ) );
     }
 
+    /**
+     * Applies the given chunk of transactions and clears it.
+     *
+     * @return the last transaction of the chunk.
+     */
+    private CommittedTransactionRepresentation recoverChunk( RecoveryApplier recoveryVisitor, List<CommittedTransactionRepresentation> chunk )
+            throws Exception
+    {
+        long applyStartTime = System.nanoTime();
+        recoveryVisitor.visitChunk( chunk );
+        long applyTimeNanos = System.nanoTime() - applyStartTime;
+
+        CommittedTransactionRepresentation lastTransaction = chunk.get( chunk.size() - 1 );
+        for ( CommittedTransactionRepresentation transaction : chunk )
+        {
+            monitor.transactionRecovered( transaction.getCommitEntry().getTxId() );
+            numberOfRecoveredTransactions++;
+            reportProgress();
+        }
+        monitor.chunkRecovered( chunk.size(), lastTransaction.getCommitEntry().getTxId(), applyTimeNanos );
+        chunk.clear();
+        return lastTransaction;
+    }
+
     private void initProgressReporter( RecoveryStartInformation recoveryStartInformation,
             CommittedTransactionRepresentation lastReversedTransaction )
     {
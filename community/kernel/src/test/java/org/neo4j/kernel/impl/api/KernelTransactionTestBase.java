@@ -19,6 +19,8 @@
  */
 package org.neo4j.kernel.impl.api;
 
+import org.eclipse.collections.api.LongIterable;
+import org.eclipse.collections.api.map.primitive.MutableLongLongMap;
 import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
 import org.eclipse.collections.api.set.primitive.MutableLongSet;
 import org.eclipse.collections.impl.map.mutable.primitive.LongObjectHashMap;
@@ -60,6 +62,7 @@ import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.tracing.CommitEvent;
 import org.neo4j.kernel.impl.util.collection.CollectionsFactory;
 import org.neo4j.kernel.impl.util.collection.OnHeapCollectionsFactory;
+import org.neo4j.kernel.impl.util.collection.SortedLongArray;
 import org.neo4j.kernel.impl.util.diffsets.MutableLongDiffSetsImpl;
 import org.neo4j.kernel.internal.event.DatabaseTransactionEventListeners;
 import org.neo4j.lock.ResourceLocker;
@@ -219,6 +222,18 @@ class KernelTransactionTestBase
             return new LongObjectHashMap<>();
         }
 
+        @Override
+        public MutableLongLongMap newLongLongMap( MemoryTracker memoryTracker )
+        {
+            return OnHeapCollectionsFactory.INSTANCE.newLongLongMap( memoryTracker );
+        }
+
+        @Override
+        public SortedLongArray newSortedLongArray( LongIterable ids, MemoryTracker memoryTracker )
+        {
+            return OnHeapCollectionsFactory.INSTANCE.newSortedLongArray( ids, memoryTracker );
+        }
+
         @Override
         public void release()
         {
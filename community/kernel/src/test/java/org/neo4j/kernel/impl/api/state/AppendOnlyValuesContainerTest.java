@@ -31,6 +31,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestFactory;
 import org.junit.jupiter.api.extension.ExtendWith;
 
+import java.io.File;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -46,6 +47,7 @@ import java.util.function.Function;
 import java.util.stream.Stream;
 
 import org.neo4j.graphdb.spatial.Point;
+import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.kernel.impl.util.collection.CachingOffHeapBlockAllocator;
 import org.neo4j.kernel.impl.util.collection.OffHeapMemoryAllocator;
 import org.neo4j.memory.EmptyMemoryTracker;
@@ -53,7 +55,9 @@ import org.neo4j.memory.LocalMemoryTracker;
 import org.neo4j.memory.MemoryTracker;
 import org.neo4j.test.extension.Inject;
 import org.neo4j.test.extension.RandomExtension;
+import org.neo4j.test.extension.testdirectory.TestDirectoryExtension;
 import org.neo4j.test.rule.RandomRule;
+import org.neo4j.test.rule.TestDirectory;
 import org.neo4j.values.storable.CoordinateReferenceSystem;
 import org.neo4j.values.storable.DateTimeValue;
 import org.neo4j.values.storable.DateValue;
@@ -75,17 +79,24 @@ import static org.apache.commons.lang3.ArrayUtils.EMPTY_SHORT_ARRAY;
 import static org.apache.commons.lang3.ArrayUtils.EMPTY_STRING_ARRAY;
 import static org.eclipse.collections.impl.tuple.primitive.PrimitiveTuples.pair;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.neo4j.values.storable.Values.intValue;
 import static org.neo4j.values.storable.Values.longValue;
 import static org.neo4j.values.storable.Values.pointValue;
 import static org.neo4j.values.storable.Values.stringValue;
 
+@TestDirectoryExtension
 @ExtendWith( RandomExtension.class )
 class AppendOnlyValuesContainerTest
 {
     @Inject
     private RandomRule rnd;
+    @Inject
+    private FileSystemAbstraction fs;
+    @Inject
+    private TestDirectory testDirectory;
 
     private final CachingOffHeapBlockAllocator blockAllocator = new CachingOffHeapBlockAllocator();
     private final MemoryTracker memoryTracker = new LocalMemoryTracker();
@@ -262,6 +273,61 @@ class AppendOnlyValuesContainerTest
         assertThrows( IllegalStateException.class, container2::close );
     }
 
+    @Test
+    void spilledValuesCanBeReadAndRemoved()
+    {
+        final File spillDirectory = testDirectory.directory( "spill" );
+        final AppendOnlyValuesContainer container2 =
+                new AppendOnlyValuesContainer( 64, new OffHeapMemoryAllocator( blockAllocator ), fs, spillDirectory, memoryTracker );
+        final List<ObjectLongPair<Value>> valueRefPairs = new ArrayList<>();
+        for ( int i = 0; i < 1000; i++ )
+        {
+            final Value value = rnd.randomValues().nextValue();
+            valueRefPairs.add( pair( value, container2.add( value ) ) );
+            if ( rnd.nextInt( 100 ) == 0 )
+            {
+                container2.spill();
+            }
+        }
+
+        final long usedDirectMemoryBeforeSpill = memoryTracker.usedDirectMemory();
+        assertTrue( container2.spill() );
+        assertTrue( memoryTracker.usedDirectMemory() < usedDirectMemoryBeforeSpill );
+        assertFalse( container2.spill() );
+
+        final List<ObjectLongPair<Value>> removed = new ArrayList<>();
+        for ( final ObjectLongPair<Value> valueRefPair : valueRefPairs )
+        {
+            if ( rnd.nextBoolean() )
+            {
+                assertEquals( valueRefPair.getOne(), container2.remove( valueRefPair.getTwo() ) );
+                removed.add( valueRefPair );
+            }
+            else
+            {
+                assertEquals( valueRefPair.getOne(), container2.get( valueRefPair.getTwo() ) );
+            }
+        }
+        for ( final ObjectLongPair<Value> valueRefPair : removed )
+        {
+            assertThrows( IllegalArgumentException.class, () -> container2.get( valueRefPair.getTwo() ) );
+        }
+
+        assertEquals( 1, fs.listFiles( spillDirectory ).length );
+        container2.close();
+        assertEquals( 0, fs.listFiles( spillDirectory ).length );
+    }
+
+    @Test
+    void shouldNotSpillWithoutSpillDirectory()
+    {
+        final AppendOnlyValuesContainer container2 = new AppendOnlyValuesContainer( 4, new TestMemoryAllocator(), EmptyMemoryTracker.INSTANCE );
+        container2.add( longValue( 1 ) );
+        container2.add( longValue( 2 ) );
+        assertFalse( container2.spill() );
+        container2.close();
+    }
+
     @Test
     void randomizedTest()
     {
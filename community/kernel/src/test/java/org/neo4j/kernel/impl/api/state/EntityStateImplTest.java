@@ -37,11 +37,13 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class EntityStateImplTest
 {
+    private final PropertyChanges properties = new PropertyChanges( OnHeapCollectionsFactory.INSTANCE, EmptyMemoryTracker.INSTANCE );
+
     @Test
     void shouldListAddedProperties()
     {
         // Given
-        EntityStateImpl state = new EntityStateImpl( 1, OnHeapCollectionsFactory.INSTANCE, EmptyMemoryTracker.INSTANCE );
+        EntityStateImpl state = new EntityStateImpl( 1, properties );
         state.addProperty( 1, Values.of( "Hello" ) );
         state.addProperty( 2, Values.of( "Hello" ) );
         state.removeProperty( 1 );
@@ -57,7 +59,7 @@ class EntityStateImplTest
     void shouldListAddedPropertiesEvenIfPropertiesHaveBeenReplaced()
     {
         // Given
-        EntityStateImpl state = new EntityStateImpl( 1, OnHeapCollectionsFactory.INSTANCE, EmptyMemoryTracker.INSTANCE );
+        EntityStateImpl state = new EntityStateImpl( 1, properties );
         state.addProperty( 1, Values.of( "Hello" ) );
         state.addProperty( 1, Values.of( "WAT" ) );
         state.addProperty( 2, Values.of( "Hello" ) );
@@ -74,7 +76,7 @@ class EntityStateImplTest
     void shouldConvertAddRemoveToChange()
     {
         // Given
-        EntityStateImpl state = new EntityStateImpl( 1, OnHeapCollectionsFactory.INSTANCE, EmptyMemoryTracker.INSTANCE );
+        EntityStateImpl state = new EntityStateImpl( 1, properties );
 
         // When
         state.removeProperty( 4 );
@@ -85,4 +87,33 @@ class EntityStateImplTest
         assertFalse( state.addedProperties().hasNext() );
         assertTrue( state.removedProperties().isEmpty() );
     }
+
+    @Test
+    void shouldKeepPropertyChangesOfEntitiesApart()
+    {
+        // Given
+        EntityStateImpl first = new EntityStateImpl( 1, properties );
+        EntityStateImpl second = new EntityStateImpl( 2, properties );
+        first.addProperty( 1, Values.of( "first" ) );
+        second.addProperty( 1, Values.of( "second" ) );
+        second.changeProperty( 2, Values.of( "changed" ) );
+
+        // When
+        first.removeProperty( 1 );
+        second.removeProperty( 3 );
+
+        // Then
+        assertFalse( first.hasPropertyChanges() );
+        assertThat( Iterators.asList( second.addedProperties() ) ).isEqualTo( asList( new PropertyKeyValue( 1, Values.of( "second" ) ) ) );
+        assertThat( Iterators.asList( second.changedProperties() ) ).isEqualTo( asList( new PropertyKeyValue( 2, Values.of( "changed" ) ) ) );
+        assertThat( second.removedProperties().toArray() ).containsExactly( 3 );
+        assertThat( second.propertyValue( 3 ) ).isEqualTo( Values.NO_VALUE );
+
+        // When
+        second.clear();
+
+        // Then
+        assertFalse( second.hasPropertyChanges() );
+        assertThat( second.propertyValue( 1 ) ).isNull();
+    }
 }
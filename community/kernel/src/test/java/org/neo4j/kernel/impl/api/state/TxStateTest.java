@@ -21,8 +21,10 @@ package org.neo4j.kernel.impl.api.state;
 
 import org.apache.commons.lang3.mutable.MutableBoolean;
 import org.eclipse.collections.api.IntIterable;
+import org.eclipse.collections.api.list.primitive.MutableLongList;
 import org.eclipse.collections.api.set.primitive.LongSet;
 import org.eclipse.collections.impl.UnmodifiableMap;
+import org.eclipse.collections.impl.factory.primitive.LongLists;
 import org.eclipse.collections.impl.factory.primitive.LongSets;
 import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet;
 import org.junit.jupiter.api.AfterEach;
@@ -736,6 +738,49 @@ abstract class TxStateTest
         assertFalse( state.relationshipIsDeletedInThisTx( relationshipId ) );
     }
 
+    @Test
+    void shouldVisitNodesAndRelationshipsInIdOrder() throws Exception
+    {
+        // given
+        for ( int i = 0; i < 1_000; i++ )
+        {
+            long nodeId = random.nextInt( 1 << 20 );
+            state.nodeDoCreate( nodeId );
+            state.nodeDoAddProperty( nodeId, 1, Values.intValue( i ) );
+            state.relationshipDoCreate( random.nextInt( 1 << 20 ), 1, nodeId, nodeId );
+        }
+
+        // when
+        MutableLongList createdNodes = LongLists.mutable.empty();
+        MutableLongList changedNodes = LongLists.mutable.empty();
+        MutableLongList createdRelationships = LongLists.mutable.empty();
+        state.accept( new TxStateVisitor.Adapter()
+        {
+            @Override
+            public void visitCreatedNode( long id )
+            {
+                createdNodes.add( id );
+            }
+
+            @Override
+            public void visitNodePropertyChanges( long id, Iterator<StorageProperty> added, Iterator<StorageProperty> changed, IntIterable removed )
+            {
+                changedNodes.add( id );
+            }
+
+            @Override
+            public void visitCreatedRelationship( long id, int type, long startNode, long endNode )
+            {
+                createdRelationships.add( id );
+            }
+        } );
+
+        // then
+        assertEquals( createdNodes.toSortedList(), createdNodes );
+        assertEquals( changedNodes.toSortedList(), changedNodes );
+        assertEquals( createdRelationships.toSortedList(), createdRelationships );
+    }
+
     @RepeatedTest( 100 )
     void shouldVisitCreatedNodesBeforeDeletedNodes() throws Exception
     {
@@ -1010,19 +1055,29 @@ abstract class TxStateTest
     //    getOrCreateLabelStateNodeDiffSets
 
     @Test
-    void getOrCreateNodeState_props_useCollectionsFactory()
+    void nodeProperties_useCollectionsFactory()
     {
-        final NodeStateImpl nodeState = state.getOrCreateNodeState( 1 );
-
-        nodeState.addProperty( 2, stringValue( "foo" ) );
-        nodeState.removeProperty( 3 );
-        nodeState.changeProperty( 4, stringValue( "bar" ) );
+        state.nodeDoAddProperty( 1, 2, stringValue( "foo" ) );
+        state.nodeDoRemoveProperty( 1, 3 );
+        state.nodeDoChangeProperty( 1, 4, stringValue( "bar" ) );
+        state.nodeDoAddProperty( 5, 2, stringValue( "baz" ) );
 
+        // one values map per property key, one set of nodes with removed property 3 and one set of modified nodes
         verify( collectionsFactory, times( 2 ) ).newValuesMap( memoryTracker );
-        verify( collectionsFactory ).newLongSet( memoryTracker );
+        verify( collectionsFactory, times( 2 ) ).newLongSet( memoryTracker );
         verifyNoMoreInteractions( collectionsFactory );
     }
 
+    @Test
+    void createdRelationships_useCollectionsFactory()
+    {
+        state.relationshipDoCreate( 1, 2, 3, 4 );
+        state.relationshipDoCreate( 5, 2, 3, 4 );
+
+        // type, start node and end node columns
+        verify( collectionsFactory, times( 3 ) ).newLongLongMap( memoryTracker );
+    }
+
     @Test
     void getOrCreateLabelStateNodeDiffSets_useCollectionsFactory()
     {
@@ -24,10 +24,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 
 import java.nio.charset.StandardCharsets;
 
+import org.neo4j.io.pagecache.ByteArrayPageCursor;
+import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.kernel.impl.index.schema.config.IndexSpecificSpaceFillingCurveSettings;
 import org.neo4j.test.extension.Inject;
 import org.neo4j.test.extension.RandomExtension;
 import org.neo4j.test.rule.RandomRule;
+import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.Values;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -58,6 +61,38 @@ class CompositeGenericKeyTest
         }
     }
 
+    @Test
+    void shouldReadWhatIsWrittenForPrefixCompression()
+    {
+        IndexSpecificSpaceFillingCurveSettings settings = mock( IndexSpecificSpaceFillingCurveSettings.class );
+        CompositeGenericKey key = new CompositeGenericKey( 4, settings );
+        CompositeGenericKey readKey = new CompositeGenericKey( 4, settings );
+        for ( int i = 0; i < 100; i++ )
+        {
+            // Given
+            Value[] values = {
+                    random.randomValues().nextTextValue( 0, 20 ),
+                    random.randomValues().nextNumberValue(),
+                    random.randomValues().nextCharValue(),
+                    random.randomValues().nextTextValue( 0, 20 )};
+            key.initialize( random.nextLong( Long.MAX_VALUE ) );
+            for ( int slot = 0; slot < values.length; slot++ )
+            {
+                key.writeValue( slot, values[slot], NativeIndexKey.Inclusion.NEUTRAL );
+            }
+            PageCursor cursor = ByteArrayPageCursor.wrap( key.size() );
+
+            // When
+            key.putForPrefixCompression( cursor );
+            cursor.setOffset( 0 );
+
+            // Then
+            assertThat( readKey.getForPrefixCompression( cursor, key.size() ) ).isTrue();
+            assertThat( readKey.getEntityId() ).isEqualTo( key.getEntityId() );
+            assertThat( readKey.asValues() ).isEqualTo( values );
+        }
+    }
+
     private int includingEntityId( int keySize )
     {
         return Long.BYTES + keySize;
@@ -188,6 +188,33 @@ class GenericKeyStateTest
         assertEquals( value, readValue, "deserialized values are not equal" );
     }
 
+    @ParameterizedTest
+    @MethodSource( "validValueGenerators" )
+    void readWhatIsWrittenForPrefixCompression( ValueGenerator valueGenerator )
+    {
+        // Given
+        PageCursor cursor = newPageCursor();
+        GenericKey writeState = newKeyState();
+        Value value = valueGenerator.next();
+        int offset = cursor.getOffset();
+
+        // When
+        writeState.initialize( random.nextLong( Long.MAX_VALUE ) );
+        writeState.writeValue( value, NEUTRAL );
+        writeState.putForPrefixCompression( cursor );
+
+        // Then
+        GenericKey readState = newKeyState();
+        int size = writeState.size();
+        assertEquals( offset + size, cursor.getOffset(), "written size differs from key size" );
+        cursor.setOffset( offset );
+        assertTrue( readState.getForPrefixCompression( cursor, size ), "failed to read" );
+        assertEquals( offset + size, cursor.getOffset(), "read size differs from key size" );
+        assertEquals( 0, readState.compareValueTo( writeState ), "key states are not equal" );
+        assertEquals( writeState.getEntityId(), readState.getEntityId(), "entity ids are not equal" );
+        assertEquals( value, readState.asValue(), "deserialized values are not equal" );
+    }
+
     @ParameterizedTest
     @MethodSource( "validValueGenerators" )
     void copyShouldCopy( ValueGenerator valueGenerator )
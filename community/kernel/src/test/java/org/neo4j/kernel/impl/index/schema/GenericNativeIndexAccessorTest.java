@@ -19,25 +19,47 @@
  */
 package org.neo4j.kernel.impl.index.schema;
 
+import org.eclipse.collections.api.list.primitive.LongList;
+import org.eclipse.collections.api.list.primitive.MutableLongList;
+import org.eclipse.collections.impl.factory.primitive.LongLists;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
 
 import org.neo4j.gis.spatial.index.curves.SpaceFillingCurveConfiguration;
+import org.neo4j.internal.kernel.api.IndexQuery;
 import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.internal.schema.SchemaDescriptor;
 import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.kernel.api.index.IndexDirectoryStructure;
+import org.neo4j.kernel.api.index.IndexReader;
+import org.neo4j.kernel.api.index.IndexUpdater;
 import org.neo4j.kernel.impl.index.schema.config.IndexSpecificSpaceFillingCurveSettings;
+import org.neo4j.storageengine.api.schema.SimpleNodeValueClient;
 import org.neo4j.test.extension.Inject;
 import org.neo4j.test.extension.pagecache.PageCacheExtension;
 import org.neo4j.test.rule.TestDirectory;
+import org.neo4j.util.FeatureToggles;
+import org.neo4j.values.storable.Value;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.Mockito.mock;
 import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
+import static org.neo4j.internal.kernel.api.IndexQueryConstraints.unconstrained;
+import static org.neo4j.internal.kernel.api.QueryContext.NULL_CONTEXT;
 import static org.neo4j.internal.schema.IndexPrototype.forSchema;
+import static org.neo4j.internal.schema.IndexPrototype.uniqueForSchema;
+import static org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer.NULL;
+import static org.neo4j.kernel.impl.api.index.IndexUpdateMode.ONLINE;
+import static org.neo4j.kernel.impl.index.schema.NativeIndexAccessor.UNIQUE_BLOOM_FILTER_NAME;
+import static org.neo4j.storageengine.api.IndexEntryUpdate.add;
+import static org.neo4j.storageengine.api.IndexEntryUpdate.change;
+import static org.neo4j.values.storable.Values.doubleValue;
+import static org.neo4j.values.storable.Values.intValue;
 
 @PageCacheExtension
 class GenericNativeIndexAccessorTest
@@ -70,4 +92,79 @@ class GenericNativeIndexAccessorTest
         // then
         assertFalse( fs.fileExists( indexFiles.getBase() ) );
     }
+
+    @Test
+    void shouldFindValuesInUniqueIndexWithBloomFilter() throws Exception
+    {
+        // given
+        FeatureToggles.set( NativeIndexAccessor.class, UNIQUE_BLOOM_FILTER_NAME, true );
+        try
+        {
+            IndexDirectoryStructure directoryStructure =
+                    IndexDirectoryStructure.directoriesByProvider( testDirectory.homeDir() ).forProvider( GenericNativeIndexProvider.DESCRIPTOR );
+            IndexDescriptor descriptor = uniqueForSchema( SchemaDescriptor.forLabel( 1, 1 ) ).withName( "index" ).materialise( 8 );
+            IndexFiles indexFiles = new IndexFiles.Directory( fs, directoryStructure, descriptor.getId() );
+            try ( GenericNativeIndexAccessor accessor = newAccessor( indexFiles, descriptor ) )
+            {
+                assertNotNull( accessor.bloomFilter );
+                try ( IndexUpdater updater = accessor.newUpdater( ONLINE, NULL ) )
+                {
+                    for ( int i = 0; i < 100; i++ )
+                    {
+                        updater.process( add( i, descriptor, intValue( i * 2 ) ) );
+                    }
+                    updater.process( change( 0, descriptor, intValue( 0 ), intValue( 1001 ) ) );
+                }
+
+                // then
+                assertFoundInUniqueIndex( accessor, descriptor );
+                accessor.force( IOLimiter.UNLIMITED, NULL );
+            }
+
+            // and when opening it again, having to build the filter from the tree
+            try ( GenericNativeIndexAccessor reopened = newAccessor( indexFiles, descriptor ) )
+            {
+                assertFoundInUniqueIndex( reopened, descriptor );
+            }
+        }
+        finally
+        {
+            FeatureToggles.clear( NativeIndexAccessor.class, UNIQUE_BLOOM_FILTER_NAME );
+        }
+    }
+
+    private GenericNativeIndexAccessor newAccessor( IndexFiles indexFiles, IndexDescriptor descriptor )
+    {
+        IndexSpecificSpaceFillingCurveSettings spatialSettings = mock( IndexSpecificSpaceFillingCurveSettings.class );
+        DatabaseIndexContext databaseIndexContext = DatabaseIndexContext.builder( pageCache, fs ).build();
+        return new GenericNativeIndexAccessor( databaseIndexContext, indexFiles, new GenericLayout( 1, spatialSettings ), immediate(), descriptor,
+                spatialSettings, mock( SpaceFillingCurveConfiguration.class ) );
+    }
+
+    private static void assertFoundInUniqueIndex( GenericNativeIndexAccessor accessor, IndexDescriptor descriptor ) throws Exception
+    {
+        try ( IndexReader reader = accessor.newReader() )
+        {
+            for ( int i = 1; i < 100; i++ )
+            {
+                assertEquals( LongLists.immutable.of( i ), query( reader, descriptor, intValue( i * 2 ) ) );
+                assertEquals( LongLists.immutable.empty(), query( reader, descriptor, intValue( i * 2 + 1 ) ) );
+            }
+            assertEquals( LongLists.immutable.of( 0 ), query( reader, descriptor, intValue( 1001 ) ) );
+            assertEquals( LongLists.immutable.empty(), query( reader, descriptor, intValue( 0 ) ) );
+            assertEquals( LongLists.immutable.of( 3 ), query( reader, descriptor, doubleValue( 6.0 ) ) );
+        }
+    }
+
+    private static LongList query( IndexReader reader, IndexDescriptor descriptor, Value value ) throws Exception
+    {
+        SimpleNodeValueClient client = new SimpleNodeValueClient();
+        reader.query( NULL_CONTEXT, client, unconstrained(), NULL, IndexQuery.exact( descriptor.schema().getPropertyId(), value ) );
+        MutableLongList result = LongLists.mutable.empty();
+        while ( client.next() )
+        {
+            result.add( client.reference );
+        }
+        return result;
+    }
 }
@@ -43,6 +43,7 @@ import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
 import org.neo4j.kernel.api.index.IndexUpdater;
 import org.neo4j.storageengine.api.IndexEntryUpdate;
 import org.neo4j.storageengine.api.NodePropertyAccessor;
+import org.neo4j.test.Race;
 import org.neo4j.values.storable.Values;
 
 import static java.util.Arrays.asList;
@@ -63,6 +64,7 @@ import static org.neo4j.kernel.impl.api.index.PhaseTracker.nullInstance;
 import static org.neo4j.kernel.impl.index.schema.NativeIndexPopulator.BYTE_FAILED;
 import static org.neo4j.kernel.impl.index.schema.NativeIndexPopulator.BYTE_ONLINE;
 import static org.neo4j.kernel.impl.index.schema.NativeIndexPopulator.BYTE_POPULATING;
+import static org.neo4j.test.Race.throwing;
 
 abstract class NativeIndexPopulatorTests<KEY extends NativeIndexKey<KEY>,VALUE extends NativeIndexValue>
         extends NativeIndexTestUtil<KEY,VALUE>
@@ -209,6 +211,34 @@ abstract class NativeIndexPopulatorTests<KEY extends NativeIndexKey<KEY>,VALUE e
         verifyUpdates( updates );
     }
 
+    @Test
+    void concurrentUpdatersShouldApplyUpdates() throws Throwable
+    {
+        // given
+        populator.create();
+        populator.scanCompleted( nullInstance, jobScheduler, NULL );
+        IndexEntryUpdate<IndexDescriptor>[] updates = valueCreatorUtil.someUpdates( random );
+        int threads = 4;
+
+        // when
+        Race race = new Race();
+        race.addContestants( threads, i -> throwing( () ->
+        {
+            try ( IndexUpdater updater = populator.newPopulatingUpdater( null_property_accessor, NULL ) )
+            {
+                for ( int u = i; u < updates.length; u += threads )
+                {
+                    updater.process( updates[u] );
+                }
+            }
+        } ), 1 );
+        race.go();
+
+        // then
+        populator.close( true, NULL );
+        verifyUpdates( updates );
+    }
+
     @Test
     void updaterMustThrowIfProcessAfterClose() throws Exception
     {
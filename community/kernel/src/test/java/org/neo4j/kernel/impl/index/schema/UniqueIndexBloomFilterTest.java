@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.RandomExtension;
+import org.neo4j.test.rule.RandomRule;
+import org.neo4j.values.storable.Value;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.values.storable.Values.charValue;
+import static org.neo4j.values.storable.Values.doubleArray;
+import static org.neo4j.values.storable.Values.doubleValue;
+import static org.neo4j.values.storable.Values.intArray;
+import static org.neo4j.values.storable.Values.intValue;
+import static org.neo4j.values.storable.Values.longValue;
+import static org.neo4j.values.storable.Values.stringValue;
+
+@ExtendWith( RandomExtension.class )
+class UniqueIndexBloomFilterTest
+{
+    @Inject
+    private RandomRule random;
+
+    @Test
+    void shouldContainAllAddedTuples()
+    {
+        // given
+        UniqueIndexBloomFilter filter = UniqueIndexBloomFilter.withCapacity( 10_000 );
+        List<Value[]> tuples = new ArrayList<>();
+        for ( int i = 0; i < 10_000; i++ )
+        {
+            Value[] tuple = new Value[random.nextInt( 1, 3 )];
+            for ( int j = 0; j < tuple.length; j++ )
+            {
+                tuple[j] = random.nextValue();
+            }
+            tuples.add( tuple );
+            filter.add( tuple );
+        }
+
+        // then
+        for ( Value[] tuple : tuples )
+        {
+            assertTrue( filter.mightContain( tuple ) );
+        }
+    }
+
+    @Test
+    void shouldNotContainMostTuplesNotAdded()
+    {
+        // given
+        UniqueIndexBloomFilter filter = UniqueIndexBloomFilter.withCapacity( 10_000 );
+        for ( int i = 0; i < 10_000; i++ )
+        {
+            filter.add( new Value[]{intValue( i )} );
+        }
+
+        // when
+        int falsePositives = 0;
+        for ( int i = 10_000; i < 110_000; i++ )
+        {
+            if ( filter.mightContain( new Value[]{intValue( i )} ) )
+            {
+                falsePositives++;
+            }
+        }
+
+        // then
+        assertThat( falsePositives ).isLessThan( 5_000 );
+    }
+
+    @Test
+    void shouldContainEqualValuesOfOtherTypes()
+    {
+        // given
+        UniqueIndexBloomFilter filter = UniqueIndexBloomFilter.withCapacity( 10 );
+        filter.add( new Value[]{intValue( 1 )} );
+        filter.add( new Value[]{charValue( 'a' )} );
+        filter.add( new Value[]{intArray( new int[]{1, 2} )} );
+        filter.add( new Value[]{doubleValue( -0.0 )} );
+
+        // then
+        assertTrue( filter.mightContain( new Value[]{doubleValue( 1.0 )} ) );
+        assertTrue( filter.mightContain( new Value[]{longValue( 1 )} ) );
+        assertTrue( filter.mightContain( new Value[]{stringValue( "a" )} ) );
+        assertTrue( filter.mightContain( new Value[]{doubleArray( new double[]{1.0, 2.0} )} ) );
+        assertTrue( filter.mightContain( new Value[]{intValue( 0 )} ) );
+    }
+
+    @Test
+    void shouldMightContainAnythingWhenSaturated()
+    {
+        // given
+        UniqueIndexBloomFilter filter = UniqueIndexBloomFilter.withCapacity( 1 );
+        assertFalse( filter.mightContain( new Value[]{stringValue( "not added" )} ) );
+
+        // when
+        for ( int i = 0; i < 1_000; i++ )
+        {
+            filter.add( new Value[]{intValue( i )} );
+        }
+
+        // then
+        for ( int i = 0; i < 1_000; i++ )
+        {
+            assertTrue( filter.mightContain( new Value[]{stringValue( "not added " + i )} ) );
+        }
+    }
+}
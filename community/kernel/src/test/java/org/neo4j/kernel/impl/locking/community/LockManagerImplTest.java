@@ -22,13 +22,21 @@ package org.neo4j.kernel.impl.locking.community;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import org.neo4j.configuration.Config;
 import org.neo4j.lock.LockTracer;
 import org.neo4j.lock.ResourceTypes;
 import org.neo4j.time.Clocks;
 
+import static java.util.concurrent.TimeUnit.MINUTES;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -113,6 +121,113 @@ class LockManagerImplTest
         assertEquals( 0, countLocks( lockManager ) );
     }
 
+    @Test
+    void shouldKeepLocksOfDifferentTypesWithSameIdApart()
+    {
+        // given
+        LockResource node = new LockResource( ResourceTypes.NODE, 1L );
+        LockResource relationship = new LockResource( ResourceTypes.RELATIONSHIP, 1L );
+        LockTransaction nodeTransaction = new LockTransaction();
+        LockTransaction relationshipTransaction = new LockTransaction();
+        LockManagerImpl lockManager = createLockManager();
+
+        // expect
+        assertTrue( lockManager.getWriteLock( LockTracer.NONE, node, nodeTransaction ) );
+        assertTrue( lockManager.tryWriteLock( relationship, relationshipTransaction ) );
+        assertFalse( lockManager.tryReadLock( new LockResource( ResourceTypes.NODE, 1L ), relationshipTransaction ) );
+        assertEquals( 2, countLocks( lockManager ) );
+
+        lockManager.releaseWriteLock( node, nodeTransaction );
+        lockManager.releaseWriteLock( relationship, relationshipTransaction );
+        assertEquals( 0, countLocks( lockManager ) );
+    }
+
+    @Test
+    void shouldCleanupLocksAcquiredConcurrentlyOnManyResources() throws Exception
+    {
+        // given
+        LockManagerImpl lockManager = createLockManager();
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool( threads );
+        try
+        {
+            List<Future<?>> futures = new ArrayList<>();
+            for ( int t = 0; t < threads; t++ )
+            {
+                futures.add( executor.submit( () ->
+                {
+                    LockTransaction lockTransaction = new LockTransaction();
+                    for ( long id = 0; id < 10_000; id++ )
+                    {
+                        LockResource resource = new LockResource( ResourceTypes.NODE, id );
+                        if ( lockManager.tryWriteLock( resource, lockTransaction ) )
+                        {
+                            lockManager.releaseWriteLock( resource, lockTransaction );
+                        }
+                        assertTrue( lockManager.getReadLock( LockTracer.NONE, resource, lockTransaction ) );
+                        lockManager.releaseReadLock( resource, lockTransaction );
+                    }
+                } ) );
+            }
+            for ( Future<?> future : futures )
+            {
+                future.get();
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+
+        // then
+        assertEquals( 0, countLocks( lockManager ) );
+    }
+
+    @Test
+    void shouldAcquireAndReleaseUncontendedLocksWithoutDeadlockDetectionMonitor() throws Exception
+    {
+        // given
+        RagManager ragManager = new RagManager();
+        LockManagerImpl lockManager = new LockManagerImpl( ragManager, Config.defaults(), Clocks.systemClock() );
+        int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool( threads );
+        try
+        {
+            // when the deadlock detection monitor is held, as if by a transaction checking whether it can wait
+            synchronized ( ragManager )
+            {
+                List<Future<?>> futures = new ArrayList<>();
+                for ( int t = 0; t < threads; t++ )
+                {
+                    long firstId = t * 1_000L;
+                    futures.add( executor.submit( () ->
+                    {
+                        LockTransaction lockTransaction = new LockTransaction();
+                        for ( long id = firstId; id < firstId + 1_000; id++ )
+                        {
+                            LockResource resource = new LockResource( ResourceTypes.NODE, id );
+                            assertTrue( lockManager.getWriteLock( LockTracer.NONE, resource, lockTransaction ) );
+                            lockManager.releaseWriteLock( resource, lockTransaction );
+                            assertTrue( lockManager.tryReadLock( resource, lockTransaction ) );
+                            lockManager.releaseReadLock( resource, lockTransaction );
+                        }
+                    } ) );
+                }
+
+                // then locks on disjoint resources are still acquired and released
+                for ( Future<?> future : futures )
+                {
+                    future.get( 1, MINUTES );
+                }
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+        assertEquals( 0, countLocks( lockManager ) );
+    }
+
     private static LockManagerImpl createLockManager()
     {
         return new LockManagerImpl( new RagManager(), Config.defaults(), Clocks.systemClock() );
@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import org.eclipse.collections.api.factory.Sets;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.DelegatingPageCache;
+import org.neo4j.io.pagecache.DelegatingPagedFile;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.impl.FileIsNotMappedException;
+import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+import org.neo4j.io.pagecache.tracing.cursor.context.EmptyVersionContextSupplier;
+import org.neo4j.kernel.impl.scheduler.JobSchedulerFactory;
+import org.neo4j.logging.NullLog;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.testdirectory.EphemeralTestDirectoryExtension;
+import org.neo4j.test.rule.TestDirectory;
+import org.neo4j.time.Clocks;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_memory;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_prefetch;
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_TRANSIENT;
+import static org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer.NULL;
+
+@EphemeralTestDirectoryExtension
+class PageCacheWarmerTest
+{
+    private static final int FILE_PAGES = 100;
+
+    @Inject
+    private FileSystemAbstraction fs;
+    @Inject
+    private TestDirectory testDirectory;
+
+    private JobScheduler jobScheduler;
+    private File databaseDirectory;
+    private File file;
+
+    @BeforeEach
+    void setUp() throws IOException
+    {
+        jobScheduler = JobSchedulerFactory.createInitialisedScheduler();
+        databaseDirectory = testDirectory.directory( "db" );
+        file = new File( databaseDirectory, "store" );
+        try ( PageCache pageCache = createPageCache( Config.defaults( pagecache_memory, "8m" ), PageCacheTracer.NULL );
+              PagedFile pagedFile = pageCache.map( file, pageCache.pageSize(), Sets.immutable.of( CREATE ) );
+              PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK, NULL ) )
+        {
+            for ( int i = 0; i < FILE_PAGES; i++ )
+            {
+                assertTrue( cursor.next() );
+                cursor.putLong( i );
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws Exception
+    {
+        jobScheduler.close();
+    }
+
+    @Test
+    void reheatMustLoadProfiledPages() throws Exception
+    {
+        Config config = Config.defaults( pagecache_memory, "8m" );
+        try ( PageCache pageCache = createPageCache( config, PageCacheTracer.NULL );
+              PagedFile pagedFile = pageCache.map( file, pageCache.pageSize() ) )
+        {
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK, NULL ) )
+            {
+                assertTrue( cursor.next( 3 ) );
+                assertTrue( cursor.next( 7 ) );
+                assertTrue( cursor.next( 50 ) );
+            }
+            assertEquals( 3, createWarmer( pageCache, config, PageCacheTracer.NULL ).profile() );
+        }
+
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        try ( PageCache pageCache = createPageCache( config, tracer );
+              PagedFile pagedFile = pageCache.map( file, pageCache.pageSize() ) )
+        {
+            assertThat( pagesInMemory( pagedFile ) ).isEmpty();
+            assertEquals( 3, createWarmer( pageCache, config, tracer ).reheat() );
+            assertEquals( 3, tracer.warmupPages() );
+            assertThat( pagesInMemory( pagedFile ) ).containsExactly( 3L, 7L, 50L );
+        }
+    }
+
+    @Test
+    void reheatMustNotLoadAnythingWithoutProfile() throws Exception
+    {
+        Config config = Config.defaults( pagecache_memory, "8m" );
+        try ( PageCache pageCache = createPageCache( config, PageCacheTracer.NULL );
+              PagedFile pagedFile = pageCache.map( file, pageCache.pageSize() ) )
+        {
+            assertEquals( 0, createWarmer( pageCache, config, PageCacheTracer.NULL ).reheat() );
+            assertThat( pagesInMemory( pagedFile ) ).isEmpty();
+        }
+    }
+
+    @Test
+    void stoppingWarmerMustWriteProfile() throws Exception
+    {
+        Config config = Config.defaults( pagecache_memory, "8m" );
+        try ( PageCache pageCache = createPageCache( config, PageCacheTracer.NULL );
+              PagedFile pagedFile = pageCache.map( file, pageCache.pageSize() ) )
+        {
+            PageCacheWarmer warmer = createWarmer( pageCache, config, PageCacheTracer.NULL );
+            warmer.start();
+            File profile = new File( new File( databaseDirectory, PageCacheWarmer.PROFILES_DIRECTORY ), file.getName() + PageCacheWarmer.PROFILE_SUFFIX );
+            assertFalse( fs.fileExists( profile ) );
+            warmer.stop();
+            assertTrue( fs.fileExists( profile ) );
+        }
+    }
+
+    @Test
+    void profileMustNotCountAsPageAccess() throws Exception
+    {
+        Config config = Config.defaults( pagecache_memory, "8m" );
+        List<Integer> profileFlags = new ArrayList<>();
+        try ( PageCache pageCache = createPageCache( config, PageCacheTracer.NULL );
+              PagedFile pagedFile = pageCache.map( file, pageCache.pageSize() ) )
+        {
+            PageCache recordingPageCache = new DelegatingPageCache( pageCache )
+            {
+                @Override
+                public List<PagedFile> listExistingMappings() throws IOException
+                {
+                    List<PagedFile> files = new ArrayList<>();
+                    for ( PagedFile existing : super.listExistingMappings() )
+                    {
+                        files.add( new DelegatingPagedFile( existing )
+                        {
+                            @Override
+                            public PageCursor io( long pageId, int pf_flags, PageCursorTracer tracer ) throws IOException
+                            {
+                                profileFlags.add( pf_flags );
+                                return super.io( pageId, pf_flags, tracer );
+                            }
+                        } );
+                    }
+                    return files;
+                }
+            };
+            createWarmer( recordingPageCache, config, PageCacheTracer.NULL ).profile();
+        }
+        assertThat( profileFlags ).isNotEmpty().allMatch( flags -> (flags & PF_TRANSIENT) != 0 );
+    }
+
+    @Test
+    void profileMustSkipFilesUnmappedWhileProfiling() throws Exception
+    {
+        Config config = Config.defaults( pagecache_memory, "8m" );
+        File otherFile = new File( databaseDirectory, "other" );
+        try ( PageCache pageCache = createPageCache( config, PageCacheTracer.NULL );
+              PagedFile pagedFile = pageCache.map( file, pageCache.pageSize() );
+              PagedFile otherPagedFile = pageCache.map( otherFile, pageCache.pageSize(), Sets.immutable.of( CREATE ) ) )
+        {
+            try ( PageCursor cursor = otherPagedFile.io( 0, PF_SHARED_WRITE_LOCK, NULL ) )
+            {
+                assertTrue( cursor.next() );
+            }
+            PageCache unmappingPageCache = new DelegatingPageCache( pageCache )
+            {
+                @Override
+                public List<PagedFile> listExistingMappings() throws IOException
+                {
+                    List<PagedFile> files = new ArrayList<>();
+                    for ( PagedFile existing : super.listExistingMappings() )
+                    {
+                        files.add( !existing.file().equals( file ) ? existing : new DelegatingPagedFile( existing )
+                        {
+                            @Override
+                            public PageCursor io( long pageId, int pf_flags, PageCursorTracer tracer ) throws IOException
+                            {
+                                throw new FileIsNotMappedException( file() );
+                            }
+                        } );
+                    }
+                    return files;
+                }
+            };
+            assertEquals( 1, createWarmer( unmappingPageCache, config, PageCacheTracer.NULL ).profile() );
+        }
+        File profilesDirectory = new File( databaseDirectory, PageCacheWarmer.PROFILES_DIRECTORY );
+        assertTrue( fs.fileExists( new File( profilesDirectory, otherFile.getName() + PageCacheWarmer.PROFILE_SUFFIX ) ) );
+        assertFalse( fs.fileExists( new File( profilesDirectory, file.getName() + PageCacheWarmer.PROFILE_SUFFIX ) ) );
+    }
+
+    @Test
+    void prefetchMustNotLoadMorePagesThanFitInPageCache() throws Exception
+    {
+        Config config = Config.newBuilder()
+                .set( pagecache_memory, Long.toString( MuninnPageCache.memoryRequiredForPages( 60 ) ) )
+                .set( pagecache_warmup_prefetch, true )
+                .build();
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        try ( PageCache pageCache = createPageCache( config, tracer );
+              PagedFile pagedFile = pageCache.map( file, pageCache.pageSize() ) )
+        {
+            assertEquals( pageCache.maxCachedPages(), createWarmer( pageCache, config, tracer ).reheat() );
+            assertEquals( pageCache.maxCachedPages(), tracer.warmupPages() );
+        }
+    }
+
+    private PageCache createPageCache( Config config, PageCacheTracer tracer )
+    {
+        return new ConfiguringPageCacheFactory( fs, config, tracer, NullLog.getInstance(), EmptyVersionContextSupplier.EMPTY, jobScheduler,
+                Clocks.nanoClock() ).getOrCreatePageCache();
+    }
+
+    private PageCacheWarmer createWarmer( PageCache pageCache, Config config, PageCacheTracer tracer )
+    {
+        return new PageCacheWarmer( fs, pageCache, jobScheduler, databaseDirectory, config, NullLog.getInstance(), tracer );
+    }
+
+    private static List<Long> pagesInMemory( PagedFile pagedFile ) throws IOException
+    {
+        List<Long> pages = new ArrayList<>();
+        try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_NO_FAULT, NULL ) )
+        {
+            while ( cursor.next() )
+            {
+                if ( cursor.getCurrentPageId() != PageCursor.UNBOUND_PAGE_ID )
+                {
+                    pages.add( cursor.getCurrentPageId() );
+                }
+            }
+        }
+        return pages;
+    }
+}
@@ -26,8 +26,17 @@ import org.mockito.Mockito;
 
 import java.io.Flushable;
 import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.neo4j.io.memory.ByteBuffers;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
@@ -43,6 +52,7 @@ import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
 import org.neo4j.kernel.impl.transaction.log.files.TransactionLogFiles;
 import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
 import org.neo4j.kernel.impl.transaction.tracing.LogCheckPointEvent;
+import org.neo4j.kernel.impl.transaction.tracing.LogForceEvent;
 import org.neo4j.kernel.lifecycle.LifeSupport;
 import org.neo4j.monitoring.DatabaseHealth;
 import org.neo4j.monitoring.Health;
@@ -58,6 +68,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyByte;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -335,6 +346,71 @@ class BatchingTransactionAppenderTest
         verify( databaseHealth ).panic( e );
     }
 
+    @Test
+    void shouldNotHoldBackForceWithoutConcurrentCommitters()
+    {
+        // GIVEN
+        when( logFile.getWriter() ).thenReturn( channel );
+        when( transactionIdStore.nextCommittingTransactionId() ).thenReturn( 2L );
+        TransactionAppender appender = life.add( new BatchingTransactionAppender( logFiles, NO_ROTATION, positionCache, transactionIdStore,
+                databaseHealth, BASE_TX_CHECKSUM, Duration.ofMinutes( 10 ), Long.MAX_VALUE ) );
+
+        // WHEN/THEN
+        assertTimeoutPreemptively( Duration.ofMinutes( 1 ), () ->
+                appender.append( new TransactionToApply( transaction( singleTestCommand(), new byte[0], 0, 1, 0 ), NULL ), logAppendEvent ) );
+    }
+
+    @Test
+    void shouldForceConcurrentlyCommittingTransactionsTogetherWithinGroupCommitWindow() throws Exception
+    {
+        // GIVEN
+        InMemoryClosableChannel channel = new InMemoryClosableChannel();
+        when( logFile.getWriter() ).thenReturn( channel );
+        AtomicLong nextTransactionId = new AtomicLong( 1 );
+        when( transactionIdStore.nextCommittingTransactionId() ).thenAnswer( invocation -> nextTransactionId.incrementAndGet() );
+        TransactionAppender appender = life.add( new BatchingTransactionAppender( logFiles, NO_ROTATION, positionCache, transactionIdStore,
+                databaseHealth, BASE_TX_CHECKSUM, Duration.ofMillis( 500 ), Long.MAX_VALUE ) );
+        AtomicInteger forces = new AtomicInteger();
+        LogAppendEvent countingForces = new LogAppendEvent.Empty()
+        {
+            @Override
+            public LogForceEvent beginLogForce()
+            {
+                forces.incrementAndGet();
+                return LogForceEvent.NULL;
+            }
+        };
+
+        // WHEN
+        int committers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool( committers );
+        try
+        {
+            CountDownLatch start = new CountDownLatch( 1 );
+            List<Future<Long>> commits = new ArrayList<>();
+            for ( int i = 0; i < committers; i++ )
+            {
+                commits.add( executor.submit( () ->
+                {
+                    start.await();
+                    return appender.append( new TransactionToApply( transaction( singleTestCommand(), new byte[0], 0, 1, 0 ), NULL ), countingForces );
+                } ) );
+            }
+            start.countDown();
+            for ( Future<Long> commit : commits )
+            {
+                commit.get();
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+
+        // THEN
+        assertThat( forces.get() ).isGreaterThan( 0 ).isLessThan( committers );
+    }
+
     private BatchingTransactionAppender createTransactionAppender()
     {
         return new BatchingTransactionAppender( logFiles, NO_ROTATION, positionCache, transactionIdStore, databaseHealth, BASE_TX_CHECKSUM );
@@ -434,6 +434,12 @@ class TransactionLogFileTest
             return NativeCallResult.SUCCESS;
         }
 
+        @Override
+        public NativeCallResult tryAdviseHugePages( long address, long bytes )
+        {
+            return NativeCallResult.SUCCESS;
+        }
+
         @Override
         public String describe()
         {
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.files;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.neo4j.io.fs.DelegatingStoreChannel;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.RandomExtension;
+import org.neo4j.test.extension.testdirectory.EphemeralTestDirectoryExtension;
+import org.neo4j.test.rule.RandomRule;
+import org.neo4j.test.rule.TestDirectory;
+
+import static java.util.Arrays.copyOf;
+import static java.util.Arrays.copyOfRange;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@EphemeralTestDirectoryExtension
+@ExtendWith( RandomExtension.class )
+class DirectIOLogStoreChannelTest
+{
+    private static final int BLOCK_SIZE = 512;
+
+    @Inject
+    private FileSystemAbstraction fs;
+    @Inject
+    private TestDirectory testDirectory;
+    @Inject
+    private RandomRule random;
+
+    private File file;
+
+    @BeforeEach
+    void setUp()
+    {
+        file = testDirectory.file( "log" );
+    }
+
+    @Test
+    void mustOnlyIssueBlockAlignedWrites() throws IOException
+    {
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        try ( StoreChannel channel = openChannel( 0 ) )
+        {
+            writeRandomChunks( channel, expected, 100 );
+            assertEquals( expected.size(), channel.position() );
+        }
+        assertFileContents( expected.toByteArray() );
+    }
+
+    @Test
+    void mustContinueWritingInPartiallyWrittenBlock() throws IOException
+    {
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        try ( StoreChannel channel = openChannel( 0 ) )
+        {
+            writeRandomChunks( channel, expected, 10 );
+        }
+        try ( StoreChannel channel = openChannel( expected.size() ) )
+        {
+            writeRandomChunks( channel, expected, 10 );
+        }
+        assertFileContents( expected.toByteArray() );
+    }
+
+    @Test
+    void mustReadWhatWasWrittenAndContinueWritingAfterRepositioning() throws IOException
+    {
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        try ( StoreChannel channel = openChannel( 0 ) )
+        {
+            writeRandomChunks( channel, expected, 20 );
+            byte[] bytes = expected.toByteArray();
+
+            int readPosition = random.nextInt( bytes.length );
+            channel.position( readPosition );
+            ByteBuffer buffer = ByteBuffer.allocate( bytes.length - readPosition );
+            channel.readAll( buffer );
+            assertArrayEquals( copyOfRange( bytes, readPosition, bytes.length ), buffer.array() );
+
+            int writePosition = random.nextInt( bytes.length );
+            channel.position( writePosition );
+            expected.reset();
+            expected.write( bytes, 0, writePosition );
+            writeRandomChunks( channel, expected, 5 );
+            channel.truncate( channel.position() );
+        }
+        assertFileContents( expected.toByteArray() );
+    }
+
+    private StoreChannel openChannel( long position ) throws IOException
+    {
+        return new DirectIOLogStoreChannel( new AlignmentCheckingChannel( fs.write( file ) ), BLOCK_SIZE, position );
+    }
+
+    private void writeRandomChunks( StoreChannel channel, ByteArrayOutputStream expected, int chunks ) throws IOException
+    {
+        for ( int i = 0; i < chunks; i++ )
+        {
+            byte[] chunk = new byte[random.nextInt( 1, BLOCK_SIZE * 3 )];
+            random.nextBytes( chunk );
+            channel.writeAll( ByteBuffer.wrap( chunk ) );
+            expected.write( chunk );
+        }
+    }
+
+    private void assertFileContents( byte[] expected ) throws IOException
+    {
+        try ( StoreChannel channel = fs.read( file ) )
+        {
+            ByteBuffer buffer = ByteBuffer.allocate( (int) channel.size() );
+            channel.readAll( buffer );
+            byte[] actual = buffer.array();
+            assertArrayEquals( expected, copyOf( actual, expected.length ) );
+            for ( int i = expected.length; i < actual.length; i++ )
+            {
+                assertEquals( 0, actual[i], "Padding must be zeros" );
+            }
+        }
+    }
+
+    private static class AlignmentCheckingChannel extends DelegatingStoreChannel
+    {
+        AlignmentCheckingChannel( StoreChannel delegate )
+        {
+            super( delegate );
+        }
+
+        @Override
+        public void writeAll( ByteBuffer src, long position ) throws IOException
+        {
+            assertAligned( src, position );
+            super.writeAll( src, position );
+        }
+
+        @Override
+        public int read( ByteBuffer dst, long position ) throws IOException
+        {
+            assertAligned( dst, position );
+            return super.read( dst, position );
+        }
+
+        private static void assertAligned( ByteBuffer buffer, long position )
+        {
+            assertEquals( 0, position % BLOCK_SIZE, "File position must be block aligned" );
+            assertEquals( 0, buffer.remaining() % BLOCK_SIZE, "Length must be block aligned" );
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.util.collection;
+
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.eclipse.collections.impl.factory.primitive.LongSets;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.File;
+import java.util.Arrays;
+
+import org.neo4j.io.ByteUnit;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.memory.LocalMemoryTracker;
+import org.neo4j.memory.MemoryTracker;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.RandomExtension;
+import org.neo4j.test.extension.testdirectory.TestDirectoryExtension;
+import org.neo4j.test.rule.RandomRule;
+import org.neo4j.test.rule.TestDirectory;
+import org.neo4j.values.storable.Value;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.values.storable.Values.stringValue;
+
+@TestDirectoryExtension
+@ExtendWith( RandomExtension.class )
+class OffHeapCollectionsFactoryTest
+{
+    private static final int NUMBER_OF_VALUES = 1_000;
+
+    private final CachingOffHeapBlockAllocator blockAllocator = new CachingOffHeapBlockAllocator();
+    private final OffHeapBlockAllocator limitedAllocator = new CapacityLimitingBlockAllocatorDecorator( blockAllocator, ByteUnit.mebiBytes( 4 ) );
+    private final MemoryTracker memoryTracker = new LocalMemoryTracker();
+
+    @Inject
+    private RandomRule random;
+    @Inject
+    private FileSystemAbstraction fs;
+    @Inject
+    private TestDirectory testDirectory;
+
+    @AfterEach
+    void tearDown()
+    {
+        limitedAllocator.release();
+        assertEquals( 0, memoryTracker.usedDirectMemory(), "Got memory leak" );
+    }
+
+    @Test
+    void shouldFailOnMemoryLimitWithoutSpilling()
+    {
+        final OffHeapCollectionsFactory factory = new OffHeapCollectionsFactory( limitedAllocator, false, fs, spillDirectory() );
+        final MutableLongObjectMap<Value> values = factory.newValuesMap( memoryTracker );
+
+        assertThrows( MemoryAllocationLimitException.class, () ->
+        {
+            for ( int i = 0; i < NUMBER_OF_VALUES; i++ )
+            {
+                values.put( i, value( i ) );
+            }
+        } );
+        factory.release();
+    }
+
+    @Test
+    void shouldSpillValuesOnMemoryLimit()
+    {
+        final File spillDirectory = spillDirectory();
+        final OffHeapCollectionsFactory factory = new OffHeapCollectionsFactory( limitedAllocator, true, fs, spillDirectory );
+        final MutableLongObjectMap<Value> values = factory.newValuesMap( memoryTracker );
+
+        for ( int i = 0; i < NUMBER_OF_VALUES; i++ )
+        {
+            values.put( i, value( i ) );
+        }
+        assertTrue( fs.listFiles( spillDirectory ).length > 0, "Values should be spilled to the spill directory" );
+        for ( int i = 0; i < NUMBER_OF_VALUES; i += 2 )
+        {
+            values.remove( i );
+        }
+
+        for ( int i = 0; i < NUMBER_OF_VALUES; i++ )
+        {
+            assertEquals( i % 2 == 0 ? null : value( i ), values.get( i ) );
+        }
+        factory.release();
+        assertEquals( 0, fs.listFiles( spillDirectory ).length, "Spill file should be deleted on release" );
+    }
+
+    @Test
+    void shouldNotSpillWithoutSpillDirectory()
+    {
+        final OffHeapCollectionsFactory factory = new OffHeapCollectionsFactory( limitedAllocator );
+        final MutableLongObjectMap<Value> values = factory.newValuesMap( memoryTracker );
+
+        assertThrows( MemoryAllocationLimitException.class, () ->
+        {
+            for ( int i = 0; i < NUMBER_OF_VALUES; i++ )
+            {
+                values.put( i, value( i ) );
+            }
+        } );
+        factory.release();
+        assertFalse( fs.fileExists( spillDirectory() ) );
+    }
+
+    @Test
+    void shouldSortIdsInAllocatedMemory()
+    {
+        final OffHeapCollectionsFactory factory = new OffHeapCollectionsFactory( limitedAllocator );
+        final MutableLongSet ids = LongSets.mutable.empty();
+        for ( int i = 0; i < NUMBER_OF_VALUES; i++ )
+        {
+            ids.add( random.nextLong() );
+        }
+        ids.add( 0 );
+        ids.add( 1 );
+
+        final long[] sorted;
+        try ( SortedLongArray array = factory.newSortedLongArray( ids, memoryTracker ) )
+        {
+            sorted = new long[array.size()];
+            for ( int i = 0; i < array.size(); i++ )
+            {
+                sorted[i] = array.get( i );
+            }
+        }
+
+        final long[] expected = ids.toArray();
+        Arrays.sort( expected );
+        assertArrayEquals( expected, sorted );
+        factory.release();
+    }
+
+    @Test
+    void shouldHandleSortingNoIds()
+    {
+        final OffHeapCollectionsFactory factory = new OffHeapCollectionsFactory( limitedAllocator );
+        try ( SortedLongArray array = factory.newSortedLongArray( LongSets.immutable.empty(), memoryTracker ) )
+        {
+            assertEquals( 0, array.size() );
+        }
+        factory.release();
+    }
+
+    private File spillDirectory()
+    {
+        return testDirectory.file( "tx-state-spill" );
+    }
+
+    private static Value value( int i )
+    {
+        return stringValue( i + StringUtils.repeat( 'x', 10_000 ) );
+    }
+}
@@ -23,6 +23,7 @@ import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.mutable.MutableInt;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
 import java.io.File;
 import java.io.IOException;
@@ -38,6 +39,7 @@ import org.neo4j.io.layout.DatabaseLayout;
 import org.neo4j.io.memory.ByteBuffers;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.database.DatabaseStartupController;
+import org.neo4j.kernel.impl.api.TransactionToApply;
 import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.SimpleLogVersionRepository;
 import org.neo4j.kernel.impl.transaction.SimpleTransactionIdStore;
@@ -81,6 +83,7 @@ import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -427,6 +430,58 @@ class TransactionLogsRecoveryTest
         assertEquals( marker.getByteOffset(), lastClosedTransaction[2] );
     }
 
+    @Test
+    void shouldApplyRecoveredTransactionsAsOneBatch() throws Exception
+    {
+        // GIVEN
+        File file = logFiles.getLogFileForVersion( logVersion );
+        writeSomeData( file, pair ->
+        {
+            LogEntryWriter writer = pair.first();
+            int previousChecksum = BASE_TX_CHECKSUM;
+            for ( long txId = 2; txId <= 4; txId++ )
+            {
+                writer.writeStartEntry( txId, txId - 1, previousChecksum, new byte[0] );
+                previousChecksum = writer.writeCommitEntry( txId, txId );
+            }
+            return true;
+        } );
+
+        LifeSupport life = new LifeSupport();
+        RecoveryMonitor monitor = mock( RecoveryMonitor.class );
+        StorageEngine storageEngine = mock( StorageEngine.class );
+        try
+        {
+            final LogEntryReader reader = logEntryReader();
+            LogTailScanner tailScanner = getTailScanner( logFiles, reader );
+            TransactionMetadataCache metadataCache = new TransactionMetadataCache();
+            LogicalTransactionStore txStore = new PhysicalLogicalTransactionStore( logFiles, metadataCache, reader, monitors, false );
+            CorruptedLogsTruncator logPruner = new CorruptedLogsTruncator( storeDir, logFiles, fileSystem );
+            life.add( new TransactionLogsRecovery( new DefaultRecoveryService( storageEngine, tailScanner, transactionIdStore,
+                    txStore, versionRepository, logFiles, NO_MONITOR, mock( Log.class ) ),
+                    logPruner, schemaLife, monitor, ProgressReporter.SILENT, false, EMPTY_CHECKER, NULL ) );
+
+            // WHEN
+            life.start();
+        }
+        finally
+        {
+            life.shutdown();
+        }
+
+        // THEN
+        ArgumentCaptor<TransactionToApply> batch = ArgumentCaptor.forClass( TransactionToApply.class );
+        verify( storageEngine ).apply( batch.capture(), eq( TransactionApplicationMode.RECOVERY ) );
+        long expectedTxId = 2;
+        for ( TransactionToApply tx = batch.getValue(); tx != null; tx = tx.next() )
+        {
+            assertEquals( expectedTxId++, tx.transactionId() );
+        }
+        assertEquals( 5, expectedTxId );
+        verify( monitor ).chunkRecovered( eq( 3 ), eq( 4L ), anyLong() );
+        verify( monitor ).recoveryCompleted( eq( 3 ), anyLong() );
+    }
+
     @Test
     void shouldInitSchemaLifeWhenRecoveryNotRequired() throws Exception
     {
@@ -51,6 +51,12 @@ public class AbsentNativeAccess implements NativeAccess
         return NativeCallResult.SUCCESS;
     }
 
+    @Override
+    public NativeCallResult tryAdviseHugePages( long address, long bytes )
+    {
+        return NativeCallResult.SUCCESS;
+    }
+
     @Override
     public String describe()
     {
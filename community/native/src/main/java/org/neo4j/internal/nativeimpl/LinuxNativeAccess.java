@@ -47,6 +47,12 @@ public class LinuxNativeAccess implements NativeAccess
      */
     private static final int POSIX_FADV_DONTNEED = 4;
 
+    /**
+     * Constant defined in mman.h and suggest that the specified memory range should be backed by transparent huge pages.
+     * For more info check man page for madvise.
+     */
+    private static final int MADV_HUGEPAGE = 14;
+
     private static final boolean NATIVE_ACCESS_AVAILABLE;
     private static final Throwable INITIALIZATION_FAILURE;
 
@@ -95,6 +101,16 @@ public class LinuxNativeAccess implements NativeAccess
      */
     private static native int posix_fallocate( int fd, long offset, long len ) throws LastErrorException;
 
+    /**
+     * Give advice to the kernel about the use of the memory in the address range that starts at address and extends for
+     * length bytes. The address must be aligned to the operating system page size.
+     * @param address start of the memory range
+     * @param length length of the memory range in bytes
+     * @param advice advise options
+     * @return returns zero on success, or an error number on failure
+     */
+    private static native int madvise( long address, long length, int advice ) throws LastErrorException;
+
     /**
      * Return pointer to a string describing error number, possibly using the LC_MESSAGES part of the current locale to select the appropriate language.
      * @param errnum error number to describe
@@ -153,6 +169,20 @@ public class LinuxNativeAccess implements NativeAccess
         return wrapResult( () -> posix_fallocate( fd, 0, bytes ) );
     }
 
+    @Override
+    public NativeCallResult tryAdviseHugePages( long address, long bytes )
+    {
+        if ( address <= 0 )
+        {
+            return new NativeCallResult( NativeAccess.ERROR, "Incorrect memory address." );
+        }
+        if ( bytes <= 0 )
+        {
+            return new NativeCallResult( NativeAccess.ERROR, "Number of bytes to advise should be positive. Requested: " + bytes );
+        }
+        return wrapResult( () -> madvise( address, bytes, MADV_HUGEPAGE ) );
+    }
+
     @Override
     public String describe()
     {
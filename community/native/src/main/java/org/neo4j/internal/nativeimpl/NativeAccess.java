@@ -69,6 +69,15 @@ public interface NativeAccess
      */
     NativeCallResult tryPreallocateSpace( int fd, long bytes );
 
+    /**
+     * Try to advise that the given range of memory should be backed by transparent huge pages.
+     * Useful for large, long lived memory regions that are accessed randomly. For example: the page cache memory.
+     * @param address start of the memory region, must be aligned to the operating system page size
+     * @param bytes length of the memory region in bytes
+     * @return returns zero on success, or an error number on failure
+     */
+    NativeCallResult tryAdviseHugePages( long address, long bytes );
+
     /**
      * Details about native access provider
      * @return details about native access
@@ -162,6 +162,15 @@ class LinuxNativeAccessTest
                 assertFalse( nativeAccess.tryEvictFromCache( descriptor ).isError() );
             }
         }
+
+        @Test
+        void failToAdviseHugePagesOnLinuxForIncorrectMemoryRange()
+        {
+            assertEquals( ERROR, nativeAccess.tryAdviseHugePages( 0, 4096 ).getErrorCode() );
+            assertEquals( ERROR, nativeAccess.tryAdviseHugePages( -1, 4096 ).getErrorCode() );
+            assertEquals( ERROR, nativeAccess.tryAdviseHugePages( 4096, 0 ).getErrorCode() );
+            assertEquals( ERROR, nativeAccess.tryAdviseHugePages( 4096, -1 ).getErrorCode() );
+        }
     }
 
     private void preallocate( File file, long bytes ) throws IOException, IllegalAccessException
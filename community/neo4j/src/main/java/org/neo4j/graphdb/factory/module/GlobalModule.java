@@ -94,6 +94,7 @@ import static org.neo4j.configuration.GraphDatabaseSettings.default_database;
 import static org.neo4j.configuration.GraphDatabaseSettings.store_internal_log_path;
 import static org.neo4j.configuration.GraphDatabaseSettings.tx_state_off_heap_block_cache_size;
 import static org.neo4j.configuration.GraphDatabaseSettings.tx_state_off_heap_max_cacheable_block_size;
+import static org.neo4j.configuration.GraphDatabaseSettings.tx_state_spill_directory;
 import static org.neo4j.kernel.lifecycle.LifecycleAdapter.onShutdown;
 
 /**
@@ -184,7 +185,7 @@ public class GlobalModule
                 logService.getInternalLog( Tracers.class ), globalMonitors, jobScheduler, globalClock ) );
         globalDependencies.satisfyDependency( tracers.getPageCacheTracer() );
 
-        collectionsFactorySupplier = createCollectionsFactorySupplier( globalConfig, globalLife );
+        collectionsFactorySupplier = createCollectionsFactorySupplier( globalConfig, fileSystem, globalLife );
 
         pageCache = tryResolveOrCreate( PageCache.class,
                 () -> createPageCache( fileSystem, globalConfig, logService, tracers, jobScheduler, globalClock ) );
@@ -369,6 +370,7 @@ public class GlobalModule
         jobScheduler.setParallelism( Group.INDEX_POPULATION, globalConfig.get( GraphDatabaseSettings.index_population_parallelism ) );
         jobScheduler.setParallelism( Group.INDEX_POPULATION_WORK, globalConfig.get( GraphDatabaseSettings.index_population_workers ) );
         jobScheduler.setParallelism( Group.PAGE_CACHE_PRE_FETCHER, globalConfig.get( GraphDatabaseSettings.pagecache_scan_prefetch ) );
+        jobScheduler.setParallelism( Group.PARALLEL_APPLY, globalConfig.get( GraphDatabaseSettings.parallel_apply_threads ) );
         return jobScheduler;
     }
 
@@ -387,7 +389,7 @@ public class GlobalModule
         return pageCache;
     }
 
-    private static CollectionsFactorySupplier createCollectionsFactorySupplier( Config config, LifeSupport life )
+    private static CollectionsFactorySupplier createCollectionsFactorySupplier( Config config, FileSystemAbstraction fs, LifeSupport life )
     {
         final GraphDatabaseSettings.TransactionStateMemoryAllocation allocation = config.get( GraphDatabaseSettings.tx_state_memory_allocation );
         switch ( allocation )
@@ -409,12 +411,29 @@ public class GlobalModule
                 sharedBlockAllocator = allocator;
             }
             life.add( onShutdown( sharedBlockAllocator::release ) );
-            return () -> new OffHeapCollectionsFactory( sharedBlockAllocator );
+            final File spillDirectory = config.get( tx_state_spill_directory ).toFile();
+            deleteSpilledValues( fs, spillDirectory );
+            return () -> new OffHeapCollectionsFactory( sharedBlockAllocator, fs, spillDirectory );
         default:
             throw new IllegalArgumentException( "Unknown transaction state memory allocation value: " + allocation );
         }
     }
 
+    /**
+     * Spill files are deleted when their transaction closes, only a crash can leave some behind.
+     */
+    private static void deleteSpilledValues( FileSystemAbstraction fs, File spillDirectory )
+    {
+        try
+        {
+            fs.deleteRecursively( spillDirectory );
+        }
+        catch ( IOException e )
+        {
+            throw new RuntimeException( e );
+        }
+    }
+
     public FileWatcher getFileWatcher()
     {
         return fileSystemWatcher.getFileWatcher();
@@ -134,7 +134,7 @@ abstract class EntityImporter extends InputEntityVisitor.Adapter
     {
         Value value = property instanceof Value ? (Value) property : Values.of( property );
         PropertyStore.encodeValue( block, key, value, dynamicStringRecordAllocator, dynamicArrayRecordAllocator, propertyStore.allowStorePointsAndTemporal(),
-                PageCursorTracer.NULL );
+                propertyStore.compressStrings(), PageCursorTracer.NULL );
     }
 
     long createAndWritePropertyChain( PageCursorTracer cursorTracer )
@@ -51,14 +51,21 @@ public class NeoStoreTransactionApplier extends TransactionApplier.Adapter
 
     public NeoStoreTransactionApplier( CommandVersion version, NeoStores neoStores, CacheAccessBackDoor cacheAccess, LockService lockService,
             long transactionId, BatchContext batchContext, PageCursorTracer cursorTracer )
+    {
+        this( version, neoStores, cacheAccess, lockService, transactionId, batchContext.getLockGroup(), batchContext.getIdUpdateListener(),
+                cursorTracer );
+    }
+
+    NeoStoreTransactionApplier( CommandVersion version, NeoStores neoStores, CacheAccessBackDoor cacheAccess, LockService lockService,
+            long transactionId, LockGroup lockGroup, IdUpdateListener idUpdateListener, PageCursorTracer cursorTracer )
     {
         this.version = version;
-        this.lockGroup = batchContext.getLockGroup();
+        this.lockGroup = lockGroup;
         this.transactionId = transactionId;
         this.lockService = lockService;
         this.neoStores = neoStores;
         this.cacheAccess = cacheAccess;
-        this.idUpdateListener = batchContext.getIdUpdateListener();
+        this.idUpdateListener = idUpdateListener;
         this.cursorTracer = cursorTracer;
     }
 
@@ -19,7 +19,10 @@
  */
 package org.neo4j.internal.recordstorage;
 
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+import org.neo4j.kernel.impl.store.IdUpdateListener;
 import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.lock.LockGroup;
 import org.neo4j.lock.LockService;
 import org.neo4j.storageengine.api.CommandVersion;
 import org.neo4j.storageengine.api.CommandsToApply;
@@ -54,4 +57,13 @@ public class NeoStoreTransactionApplierFactory implements TransactionApplierFact
                 transaction.cursorTracer() );
     }
 
+    /**
+     * Starts an applier which isn't tied to a {@link BatchContext}, for applying the transaction concurrently with others of the same batch.
+     */
+    TransactionApplier startTx( CommandsToApply transaction, LockGroup lockGroup, IdUpdateListener idUpdateListener, PageCursorTracer cursorTracer )
+    {
+        return new NeoStoreTransactionApplier( version, neoStores, cacheAccess, lockService, transaction.transactionId(), lockGroup, idUpdateListener,
+                cursorTracer );
+    }
+
 }
@@ -0,0 +1,325 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.eclipse.collections.api.set.primitive.LongSet;
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+import org.neo4j.kernel.impl.store.IdUpdateListener;
+import org.neo4j.kernel.impl.store.record.DynamicRecord;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.lock.LockGroup;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobHandle;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.storageengine.api.CommandsToApply;
+
+/**
+ * Applies a batch of transactions using several threads. The batch is cut into runs of consecutive transactions which
+ * don't touch any of the same records. The record changes of the transactions in a run are written to the stores
+ * concurrently on the {@link Group#PARALLEL_APPLY} threads of the database {@link JobScheduler}, after which the remaining
+ * appliers, like counts and index updates, see the transactions of the run one after another in commit order.
+ * <p>
+ * Only batches consisting of node, relationship, property and counts changes can be applied this way. Token and schema
+ * changes affect how other transactions are applied and are left to the regular, serial application.
+ */
+class ParallelBatchApplier
+{
+    private static final String PARALLEL_APPLY_TAG = "parallelApply";
+    private static final int MAX_RUN_SIZE = 1024;
+
+    private final JobScheduler scheduler;
+    private final PageCacheTracer cacheTracer;
+
+    ParallelBatchApplier( JobScheduler scheduler, PageCacheTracer cacheTracer )
+    {
+        this.scheduler = scheduler;
+        this.cacheTracer = cacheTracer;
+    }
+
+    /**
+     * Applies the given batch, if it only changes records that can be applied concurrently.
+     *
+     * @param batch transactions to apply.
+     * @param recordAppliers creates the appliers writing the record changes of a transaction to the stores.
+     * @param idUpdateListeners provides id update listeners for the concurrently applied transactions.
+     * @param auxiliaryAppliers creates the appliers for everything but the record changes, applied in commit order.
+     * @param batchContext context of the batch, used by the auxiliary appliers.
+     * @return {@code true} if the batch was applied, or {@code false} if nothing was applied and the batch is left to the serial application.
+     */
+    boolean apply( CommandsToApply batch, NeoStoreTransactionApplierFactory recordAppliers, Supplier<IdUpdateListener> idUpdateListeners,
+            TransactionApplierFactory auxiliaryAppliers, BatchContext batchContext ) throws Exception
+    {
+        List<RecordIds> batchRecords = recordIds( batch );
+        if ( batchRecords == null )
+        {
+            return false;
+        }
+
+        RecordIds runRecords = new RecordIds();
+        List<CommandsToApply> run = new ArrayList<>();
+        for ( RecordIds transactionRecords : batchRecords )
+        {
+            if ( !run.isEmpty() && (run.size() == MAX_RUN_SIZE || !runRecords.isDisjoint( transactionRecords )) )
+            {
+                applyRun( run, recordAppliers, idUpdateListeners, auxiliaryAppliers, batchContext );
+                run.clear();
+                runRecords = new RecordIds();
+            }
+            run.add( batch );
+            runRecords.addAll( transactionRecords );
+            batch = batch.next();
+        }
+        applyRun( run, recordAppliers, idUpdateListeners, auxiliaryAppliers, batchContext );
+        return true;
+    }
+
+    /**
+     * Collects the ids of the records changed by each transaction of the batch in a single pass over the commands.
+     *
+     * @return the changed records per transaction, in commit order, or {@code null} if the batch can't be applied concurrently.
+     */
+    private static List<RecordIds> recordIds( CommandsToApply batch ) throws IOException
+    {
+        if ( batch.next() == null )
+        {
+            // Nothing to gain from a single transaction
+            return null;
+        }
+        List<RecordIds> batchRecords = new ArrayList<>();
+        while ( batch != null )
+        {
+            RecordIds transactionRecords = new RecordIds();
+            if ( batch.accept( transactionRecords ) )
+            {
+                return null;
+            }
+            batchRecords.add( transactionRecords );
+            batch = batch.next();
+        }
+        return batchRecords;
+    }
+
+    private void applyRun( List<CommandsToApply> run, NeoStoreTransactionApplierFactory recordAppliers, Supplier<IdUpdateListener> idUpdateListeners,
+            TransactionApplierFactory auxiliaryAppliers, BatchContext batchContext ) throws Exception
+    {
+        if ( run.size() == 1 )
+        {
+            applyRecordChanges( run.get( 0 ), recordAppliers, idUpdateListeners );
+        }
+        else
+        {
+            List<JobHandle<Void>> applications = new ArrayList<>( run.size() );
+            for ( CommandsToApply transaction : run )
+            {
+                applications.add( scheduler.schedule( Group.PARALLEL_APPLY, () ->
+                {
+                    applyRecordChanges( transaction, recordAppliers, idUpdateListeners );
+                    return null;
+                } ) );
+            }
+            awaitAll( applications );
+        }
+
+        for ( CommandsToApply transaction : run )
+        {
+            try ( TransactionApplier applier = auxiliaryAppliers.startTx( transaction, batchContext ) )
+            {
+                transaction.accept( applier );
+            }
+        }
+    }
+
+    private void applyRecordChanges( CommandsToApply transaction, NeoStoreTransactionApplierFactory recordAppliers,
+            Supplier<IdUpdateListener> idUpdateListeners ) throws Exception
+    {
+        // Locks are acquired and released by the same thread, and the id updates are done before the next run starts
+        try ( PageCursorTracer cursorTracer = cacheTracer.createPageCursorTracer( PARALLEL_APPLY_TAG );
+              LockGroup lockGroup = new LockGroup();
+              IdUpdateListener idUpdateListener = idUpdateListeners.get();
+              TransactionApplier applier = recordAppliers.startTx( transaction, lockGroup, idUpdateListener, cursorTracer ) )
+        {
+            transaction.accept( applier );
+        }
+    }
+
+    private static void awaitAll( List<JobHandle<Void>> applications ) throws Exception
+    {
+        Exception failure = null;
+        for ( JobHandle<Void> application : applications )
+        {
+            try
+            {
+                application.waitTermination();
+            }
+            catch ( ExecutionException e )
+            {
+                Exception cause = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                if ( failure == null )
+                {
+                    failure = cause;
+                }
+                else
+                {
+                    failure.addSuppressed( cause );
+                }
+            }
+        }
+        if ( failure != null )
+        {
+            throw failure;
+        }
+    }
+
+    /**
+     * Ids of the records changed by one or more transactions, per kind of record. Visiting stops at the first command
+     * which isn't a record or counts change, since the transaction can then not be applied concurrently.
+     */
+    private static class RecordIds extends TransactionApplier.Adapter
+    {
+        private final MutableLongSet nodes = new LongHashSet();
+        private final MutableLongSet relationships = new LongHashSet();
+        private final MutableLongSet properties = new LongHashSet();
+        private final MutableLongSet relationshipGroups = new LongHashSet();
+        private final MutableLongSet dynamicRecords = new LongHashSet();
+
+        boolean isDisjoint( RecordIds other )
+        {
+            return !intersects( nodes, other.nodes ) && !intersects( relationships, other.relationships ) &&
+                    !intersects( properties, other.properties ) && !intersects( relationshipGroups, other.relationshipGroups ) &&
+                    !intersects( dynamicRecords, other.dynamicRecords );
+        }
+
+        private static boolean intersects( LongSet a, LongSet b )
+        {
+            return a.size() <= b.size() ? a.anySatisfy( b::contains ) : b.anySatisfy( a::contains );
+        }
+
+        void addAll( RecordIds other )
+        {
+            nodes.addAll( other.nodes );
+            relationships.addAll( other.relationships );
+            properties.addAll( other.properties );
+            relationshipGroups.addAll( other.relationshipGroups );
+            dynamicRecords.addAll( other.dynamicRecords );
+        }
+
+        @Override
+        public boolean visitNodeCommand( Command.NodeCommand command )
+        {
+            nodes.add( command.getKey() );
+            addDynamicLabelRecords( command.getBefore() );
+            addDynamicLabelRecords( command.getAfter() );
+            return false;
+        }
+
+        @Override
+        public boolean visitRelationshipCommand( Command.RelationshipCommand command )
+        {
+            relationships.add( command.getKey() );
+            return false;
+        }
+
+        @Override
+        public boolean visitPropertyCommand( Command.PropertyCommand command )
+        {
+            properties.add( command.getKey() );
+            // Index updates of a transaction look at the owning entity, so transactions changing properties of the same
+            // entity conflict even if they change different property records
+            if ( command.getNodeId() != -1 )
+            {
+                nodes.add( command.getNodeId() );
+            }
+            else if ( command.getRelId() != -1 )
+            {
+                relationships.add( command.getRelId() );
+            }
+            addDynamicPropertyRecords( command.getBefore() );
+            addDynamicPropertyRecords( command.getAfter() );
+            return false;
+        }
+
+        @Override
+        public boolean visitRelationshipGroupCommand( Command.RelationshipGroupCommand command )
+        {
+            relationshipGroups.add( command.getKey() );
+            return false;
+        }
+
+        @Override
+        public boolean visitRelationshipTypeTokenCommand( Command.RelationshipTypeTokenCommand command )
+        {
+            return true;
+        }
+
+        @Override
+        public boolean visitLabelTokenCommand( Command.LabelTokenCommand command )
+        {
+            return true;
+        }
+
+        @Override
+        public boolean visitPropertyKeyTokenCommand( Command.PropertyKeyTokenCommand command )
+        {
+            return true;
+        }
+
+        @Override
+        public boolean visitSchemaRuleCommand( Command.SchemaRuleCommand command )
+        {
+            return true;
+        }
+
+        private void addDynamicLabelRecords( NodeRecord record )
+        {
+            addDynamicRecords( record.getDynamicLabelRecords() );
+        }
+
+        private void addDynamicPropertyRecords( PropertyRecord record )
+        {
+            for ( PropertyBlock block : record )
+            {
+                addDynamicRecords( block.getValueRecords() );
+            }
+            addDynamicRecords( record.getDeletedRecords() );
+        }
+
+        private void addDynamicRecords( Collection<DynamicRecord> records )
+        {
+            // String, array and label records live in different stores, but keeping them apart isn't worth the bother
+            for ( DynamicRecord record : records )
+            {
+                dynamicRecords.add( record.getId() );
+            }
+        }
+    }
+}
@@ -28,6 +28,7 @@ import org.neo4j.kernel.impl.store.LongerShortString;
 import org.neo4j.kernel.impl.store.PropertyStore;
 import org.neo4j.kernel.impl.store.PropertyType;
 import org.neo4j.kernel.impl.store.ShortArray;
+import org.neo4j.kernel.impl.store.StringCompression;
 import org.neo4j.kernel.impl.store.TemporalType;
 import org.neo4j.kernel.impl.store.record.RecordLoadOverride;
 import org.neo4j.kernel.impl.store.record.PropertyBlock;
@@ -64,6 +65,9 @@ public class RecordPropertyCursor extends PropertyRecord implements StoragePrope
     private PageCursor arrayPage;
     private boolean open;
     private RecordLoadOverride loadMode;
+    // Decompressing strings is costly enough to remember the last decompressed one, in case it's read again
+    private long decompressedStringReference = NO_ID;
+    private TextValue decompressedString;
 
     RecordPropertyCursor( PropertyStore read, PageCursorTracer cursorTracer )
     {
@@ -98,6 +102,7 @@ public class RecordPropertyCursor extends PropertyRecord implements StoragePrope
 
         //Set to high value to force a read
         this.block = Integer.MAX_VALUE;
+        clearDecompressedString();
         if ( reference != NO_ID )
         {
             if ( page == null )
@@ -168,6 +173,7 @@ public class RecordPropertyCursor extends PropertyRecord implements StoragePrope
         {
             open = false;
             loadMode = RecordLoadOverride.none();
+            clearDecompressedString();
             clear();
         }
     }
@@ -428,13 +434,29 @@ public class RecordPropertyCursor extends PropertyRecord implements StoragePrope
 
     private TextValue string( RecordPropertyCursor cursor, long reference, PageCursor page )
     {
+        if ( reference == decompressedStringReference )
+        {
+            return decompressedString;
+        }
         ByteBuffer buffer = cursor.buffer = read.loadString( reference, cursor.buffer, page, loadMode.orElse( ALWAYS ) );
         buffer.flip();
         byte[] bytes = new byte[buffer.limit()];
         buffer.get( bytes );
+        if ( StringCompression.isCompressed( bytes, bytes.length ) )
+        {
+            decompressedString = Values.utf8Value( StringCompression.decompress( bytes, bytes.length ) );
+            decompressedStringReference = reference;
+            return decompressedString;
+        }
         return Values.utf8Value( bytes );
     }
 
+    private void clearDecompressedString()
+    {
+        decompressedStringReference = NO_ID;
+        decompressedString = null;
+    }
+
     private ArrayValue array( RecordPropertyCursor cursor, long reference, PageCursor page )
     {
         ByteBuffer buffer = cursor.buffer = read.loadArray( reference, cursor.buffer, page, loadMode.orElse( ALWAYS ) );
@@ -26,6 +26,7 @@ import org.neo4j.kernel.impl.store.RelationshipStore;
 import org.neo4j.storageengine.api.ReadTracer;
 import org.neo4j.storageengine.api.RelationshipSelection;
 import org.neo4j.storageengine.api.StorageRelationshipTraversalCursor;
+import org.neo4j.util.FeatureToggles;
 
 import static org.neo4j.storageengine.api.RelationshipDirection.INCOMING;
 import static org.neo4j.storageengine.api.RelationshipDirection.LOOP;
@@ -34,6 +35,17 @@ import static org.neo4j.storageengine.api.RelationshipDirection.directionOfStric
 
 class RecordRelationshipTraversalCursor extends RecordRelationshipCursor implements StorageRelationshipTraversalCursor
 {
+    private static final boolean PREFETCH_CHAINS = FeatureToggles.flag( RecordRelationshipTraversalCursor.class, "prefetchChains", true );
+    /**
+     * Number of hops in a row, to a nearby page in the same direction, before the chain is considered to have locality worth pre-fetching.
+     */
+    static final int PREFETCH_HOPS_THRESHOLD = 4;
+    /**
+     * Max distance, in pages, between two consecutive records of a chain for the hop to be considered local.
+     * The pre-fetcher reads ahead about twice the observed stride, so this also bounds how far ahead it can go.
+     */
+    static final int PREFETCH_MAX_PAGE_DISTANCE = 16;
+
     private ReadTracer tracer;
 
     private enum GroupState
@@ -51,11 +63,17 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
     private final RecordRelationshipGroupCursor group;
     private GroupState groupState;
     private boolean open;
+    private final int recordsPerPage;
+    private long currentPageId = -1;
+    private int chainDirection;
+    private int localHops;
+    private boolean prefetching;
 
     RecordRelationshipTraversalCursor( RelationshipStore relationshipStore, RelationshipGroupStore groupStore, PageCursorTracer cursorTracer )
     {
         super( relationshipStore, cursorTracer );
         this.group = new RecordRelationshipGroupCursor( relationshipStore, groupStore, cursorTracer, loadMode );
+        this.recordsPerPage = relationshipStore.getRecordsPerPage();
     }
 
     void init( RecordNodeCursor nodeCursor, RelationshipSelection selection )
@@ -87,6 +105,7 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
         }
 
         this.selection = selection;
+        resetPrefetching();
         if ( isDense )
         {
             // The reference points to a relationship group record
@@ -169,6 +188,10 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
                 return false;
             }
 
+            if ( PREFETCH_CHAINS )
+            {
+                adaptPrefetching( next );
+            }
             relationshipFull( this, next, pageCursor );
             computeNext();
             if ( tracer != null )
@@ -275,6 +298,64 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
         }
     }
 
+    /**
+     * Each hop in a relationship chain can land on any page, so there's nothing to read ahead in general. But chains often have locality,
+     * e.g. after an import or when the relationships of a node were created together. When the chain keeps moving to nearby pages
+     * in one direction the page cursor is swapped for one that pre-fetches pages ahead of it in the background, the same way store scans do.
+     * As soon as the chain jumps far away or turns around it's swapped back, so that no pages are pre-fetched in vain.
+     */
+    private void adaptPrefetching( long reference )
+    {
+        long pageId = reference / recordsPerPage;
+        long pageDelta = pageId - currentPageId;
+        boolean firstHop = currentPageId == -1;
+        currentPageId = pageId;
+        if ( firstHop || pageDelta == 0 )
+        {
+            return;
+        }
+
+        int direction = Long.signum( pageDelta );
+        boolean local = direction == chainDirection && Math.abs( pageDelta ) <= PREFETCH_MAX_PAGE_DISTANCE;
+        chainDirection = direction;
+        if ( !local )
+        {
+            localHops = 0;
+            if ( prefetching )
+            {
+                swapPageCursor( false, reference );
+            }
+        }
+        else if ( ++localHops >= PREFETCH_HOPS_THRESHOLD && !prefetching )
+        {
+            swapPageCursor( true, reference );
+        }
+    }
+
+    private void swapPageCursor( boolean prefetch, long reference )
+    {
+        pageCursor.close();
+        pageCursor = prefetch ? relationshipPageWithPrefetching( reference ) : relationshipPage( reference );
+        prefetching = prefetch;
+    }
+
+    private void resetPrefetching()
+    {
+        if ( prefetching )
+        {
+            // A new chain can start anywhere, don't let the pre-fetcher continue along the previous one
+            swapPageCursor( false, 0 );
+        }
+        currentPageId = -1;
+        chainDirection = 0;
+        localHops = 0;
+    }
+
+    boolean isPrefetching()
+    {
+        return prefetching;
+    }
+
     private void computeNext()
     {
         final long source = sourceNodeReference(), target = targetNodeReference();
@@ -346,6 +427,7 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
             pageCursor.close();
             pageCursor = null;
         }
+        prefetching = false;
 
         group.close();
     }
@@ -56,7 +56,7 @@ class RecordStorageCommandCreationContext implements CommandCreationContext
         this.propertyCreator = new PropertyCreator(
                 new StandardDynamicRecordAllocator( propertyStore.getStringStore(), propertyStore.getStringStore().getRecordDataSize() ),
                 new StandardDynamicRecordAllocator( propertyStore.getArrayStore(), propertyStore.getArrayStore().getRecordDataSize() ), propertyStore,
-                propertyTraverser, propertyStore.allowStorePointsAndTemporal(), cursorTracer );
+                propertyTraverser, propertyStore.allowStorePointsAndTemporal(), propertyStore.compressStrings(), cursorTracer );
     }
 
     private long nextId( StoreType storeType )
@@ -71,6 +71,7 @@ import org.neo4j.lock.ResourceLocker;
 import org.neo4j.logging.Log;
 import org.neo4j.logging.LogProvider;
 import org.neo4j.monitoring.Health;
+import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.storageengine.api.CommandCreationContext;
 import org.neo4j.storageengine.api.CommandsToApply;
 import org.neo4j.storageengine.api.ConstraintRuleAccessor;
@@ -124,6 +125,10 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     private final int denseNodeThreshold;
     private final Map<IdType,WorkSync<IdGenerator,IdGeneratorUpdateWork>> idGeneratorWorkSyncs = new EnumMap<>( IdType.class );
     private final Map<TransactionApplicationMode,TransactionApplierFactoryChain> applierChains = new EnumMap<>( TransactionApplicationMode.class );
+    private final Map<TransactionApplicationMode,NeoStoreTransactionApplierFactory> recordAppliers = new EnumMap<>( TransactionApplicationMode.class );
+    private final Map<TransactionApplicationMode,TransactionApplierFactoryChain> auxiliaryApplierChains =
+            new EnumMap<>( TransactionApplicationMode.class );
+    private final ParallelBatchApplier parallelApplier;
 
     // installed later
     private IndexUpdateListener indexUpdateListener;
@@ -135,6 +140,7 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
             PageCache pageCache,
             FileSystemAbstraction fs,
             LogProvider logProvider,
+            JobScheduler jobScheduler,
             TokenHolders tokenHolders,
             SchemaState schemaState,
             ConstraintRuleAccessor constraintSemantics,
@@ -176,6 +182,10 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
             countsStore = openCountsStore( pageCache, fs, databaseLayout, config, logProvider, recoveryCleanupWorkCollector, cacheTracer );
 
             consistencyCheckApply = config.get( GraphDatabaseSettings.consistency_check_on_apply );
+            // The consistency checking applier checks the records of a transaction when it closes, which it can't do while later
+            // transactions of the batch are being applied concurrently
+            boolean parallelApply = !consistencyCheckApply && config.get( GraphDatabaseSettings.parallel_apply_threads ) > 0;
+            parallelApplier = parallelApply ? new ParallelBatchApplier( jobScheduler, cacheTracer ) : null;
         }
         catch ( Throwable failure )
         {
@@ -188,11 +198,13 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     {
         for ( TransactionApplicationMode mode : TransactionApplicationMode.values() )
         {
-            applierChains.put( mode, buildApplierFacadeChain( mode ) );
+            applierChains.put( mode, buildApplierFacadeChain( mode, true ) );
+            recordAppliers.put( mode, new NeoStoreTransactionApplierFactory( mode, neoStores, cacheAccess, lockService( mode ) ) );
+            auxiliaryApplierChains.put( mode, buildApplierFacadeChain( mode, false ) );
         }
     }
 
-    private TransactionApplierFactoryChain buildApplierFacadeChain( TransactionApplicationMode mode )
+    private TransactionApplierFactoryChain buildApplierFacadeChain( TransactionApplicationMode mode, boolean includeRecordApplier )
     {
         Supplier<IdUpdateListener> listenerSupplier = mode == REVERSE_RECOVERY ? () -> IdUpdateListener.IGNORE :
                                                       () -> new EnqueuingIdUpdateListener( idGeneratorWorkSyncs, cacheTracer );
@@ -202,7 +214,10 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
         {
             appliers.add( new ConsistencyCheckingApplierFactory( neoStores ) );
         }
-        appliers.add( new NeoStoreTransactionApplierFactory( mode, neoStores, cacheAccess, lockService( mode ) ) );
+        if ( includeRecordApplier )
+        {
+            appliers.add( new NeoStoreTransactionApplierFactory( mode, neoStores, cacheAccess, lockService( mode ) ) );
+        }
         if ( mode.needsHighIdTracking() )
         {
             appliers.add( new HighIdTransactionApplierFactory( neoStores ) );
@@ -346,6 +361,11 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
                 neoStores.getNodeStore(), neoStores.getPropertyStore(), this, schemaCache, initialBatch.cursorTracer(),
                 batchApplier.getIdUpdateListenerSupplier().get() ) )
         {
+            if ( parallelApplier != null && mode != REVERSE_RECOVERY && parallelApplier.apply( batch, recordAppliers.get( mode ),
+                    batchApplier.getIdUpdateListenerSupplier(), auxiliaryApplierChains.get( mode ), context ) )
+            {
+                batch = null;
+            }
             while ( batch != null )
             {
                 try ( TransactionApplier txApplier = batchApplier.startTx( batch, context ) )
@@ -157,6 +157,9 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord,NoStoreHea
     // this variable here can be removed once the support for older store versions (that do not have these two
     // capabilities) has ceased, the variable can be removed.
     private final boolean allowStorePointsAndTemporal;
+    // Strings are only compressed, see StringCompression, when written to a store whose format has the capability to hold them,
+    // so that versions that don't know about compressed strings never get to read them. They are always decompressed when read.
+    private final boolean compressStrings;
 
     public PropertyStore(
             File file,
@@ -178,6 +181,7 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord,NoStoreHea
         this.arrayStore = arrayPropertyStore;
         allowStorePointsAndTemporal = recordFormats.hasCapability( RecordStorageCapability.POINT_PROPERTIES ) &&
                 recordFormats.hasCapability( RecordStorageCapability.TEMPORAL_PROPERTIES );
+        compressStrings = recordFormats.hasCapability( RecordStorageCapability.COMPRESSED_STRINGS );
     }
 
     @Override
@@ -309,11 +313,17 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord,NoStoreHea
 
     public void encodeValue( PropertyBlock block, int keyId, Value value, PageCursorTracer cursorTracer )
     {
-        encodeValue( block, keyId, value, stringStore, arrayStore, allowStorePointsAndTemporal, cursorTracer );
+        encodeValue( block, keyId, value, stringStore, arrayStore, allowStorePointsAndTemporal, compressStrings, cursorTracer );
     }
 
     public static void encodeValue( PropertyBlock block, int keyId, Value value, DynamicRecordAllocator stringAllocator, DynamicRecordAllocator arrayAllocator,
             boolean allowStorePointsAndTemporal, PageCursorTracer cursorTracer )
+    {
+        encodeValue( block, keyId, value, stringAllocator, arrayAllocator, allowStorePointsAndTemporal, false, cursorTracer );
+    }
+
+    public static void encodeValue( PropertyBlock block, int keyId, Value value, DynamicRecordAllocator stringAllocator, DynamicRecordAllocator arrayAllocator,
+            boolean allowStorePointsAndTemporal, boolean compressStrings, PageCursorTracer cursorTracer )
     {
         if ( value instanceof ArrayValue )
         {
@@ -337,7 +347,7 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord,NoStoreHea
         }
         else
         {
-            value.writeTo( new PropertyBlockValueWriter( block, keyId, stringAllocator, allowStorePointsAndTemporal, cursorTracer ) );
+            value.writeTo( new PropertyBlockValueWriter( block, keyId, stringAllocator, allowStorePointsAndTemporal, compressStrings, cursorTracer ) );
         }
     }
 
@@ -408,15 +418,17 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord,NoStoreHea
         private final int keyId;
         private final DynamicRecordAllocator stringAllocator;
         private final boolean allowStorePointsAndTemporal;
+        private final boolean compressStrings;
         private final PageCursorTracer cursorTracer;
 
         PropertyBlockValueWriter( PropertyBlock block, int keyId, DynamicRecordAllocator stringAllocator, boolean allowStorePointsAndTemporal,
-                PageCursorTracer cursorTracer )
+                boolean compressStrings, PageCursorTracer cursorTracer )
         {
             this.block = block;
             this.keyId = keyId;
             this.stringAllocator = stringAllocator;
             this.allowStorePointsAndTemporal = allowStorePointsAndTemporal;
+            this.compressStrings = compressStrings;
             this.cursorTracer = cursorTracer;
         }
 
@@ -492,6 +504,10 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord,NoStoreHea
 
             // Fall back to dynamic string store
             byte[] encodedString = encodeString( value );
+            if ( compressStrings )
+            {
+                encodedString = StringCompression.compress( encodedString );
+            }
             List<DynamicRecord> valueRecords = new ArrayList<>();
             allocateStringRecords( valueRecords, encodedString, stringAllocator, cursorTracer );
             setSingleBlockValue( block, keyId, PropertyType.STRING, Iterables.first( valueRecords ).getId() );
@@ -662,7 +678,8 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord,NoStoreHea
     {
         Pair<byte[], byte[]> source = stringStore.readFullByteArray( dynamicRecords, PropertyType.STRING, cursorTracer );
         // A string doesn't have a header in the data array
-        return Values.utf8Value( source.other() );
+        byte[] bytes = source.other();
+        return Values.utf8Value( StringCompression.isCompressed( bytes, bytes.length ) ? StringCompression.decompress( bytes, bytes.length ) : bytes );
     }
 
     Value getArrayFor( PropertyBlock propertyBlock, PageCursorTracer cursorTracer )
@@ -693,6 +710,11 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord,NoStoreHea
         return allowStorePointsAndTemporal;
     }
 
+    public boolean compressStrings()
+    {
+        return compressStrings;
+    }
+
     /**
      * @return a calculator of property value sizes. The returned instance is designed to be used multiple times by a single thread only.
      */
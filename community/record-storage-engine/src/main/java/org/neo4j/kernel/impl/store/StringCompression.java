@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store;
+
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compression of strings stored in the dynamic string store.
+ * <p>
+ * A compressed string is stored as a {@link #COMPRESSED_STRING_MARKER} byte, followed by the length of its UTF-8 encoding as an int
+ * and the deflated UTF-8 encoding. The marker byte never occurs in UTF-8 encoded text, so strings stored uncompressed,
+ * either because they were written with compression disabled or because they didn't get smaller, can be read side by side
+ * with compressed strings.
+ */
+public final class StringCompression
+{
+    static final int MIN_COMPRESSED_LENGTH = 128;
+    private static final byte COMPRESSED_STRING_MARKER = (byte) 0xFF;
+    private static final int HEADER_SIZE = 1 + Integer.BYTES;
+
+    private StringCompression()
+    {
+    }
+
+    /**
+     * @param utf8 UTF-8 encoded string.
+     * @return the compressed form of {@code utf8}, or {@code utf8} itself if it is too short or doesn't get smaller by compressing it.
+     */
+    public static byte[] compress( byte[] utf8 )
+    {
+        if ( utf8.length < MIN_COMPRESSED_LENGTH )
+        {
+            return utf8;
+        }
+
+        Deflater deflater = new Deflater( Deflater.BEST_SPEED );
+        try
+        {
+            deflater.setInput( utf8 );
+            deflater.finish();
+            byte[] compressed = new byte[utf8.length];
+            compressed[0] = COMPRESSED_STRING_MARKER;
+            putInt( compressed, 1, utf8.length );
+            int length = HEADER_SIZE;
+            while ( !deflater.finished() && length < compressed.length )
+            {
+                length += deflater.deflate( compressed, length, compressed.length - length );
+            }
+            return deflater.finished() && length < utf8.length ? Arrays.copyOf( compressed, length ) : utf8;
+        }
+        finally
+        {
+            deflater.end();
+        }
+    }
+
+    /**
+     * @param bytes bytes of a string as stored in the dynamic string store.
+     * @param length number of bytes in {@code bytes} that belong to the string.
+     * @return whether or not the string is compressed.
+     */
+    public static boolean isCompressed( byte[] bytes, int length )
+    {
+        return length > 0 && bytes[0] == COMPRESSED_STRING_MARKER;
+    }
+
+    /**
+     * @param bytes bytes of a string as stored in the dynamic string store, for which {@link #isCompressed(byte[], int)} is {@code true}.
+     * @param length number of bytes in {@code bytes} that belong to the string.
+     * @return the UTF-8 encoding of the string.
+     * @throws InvalidRecordException if the compressed string is corrupt.
+     */
+    public static byte[] decompress( byte[] bytes, int length )
+    {
+        if ( length < HEADER_SIZE )
+        {
+            throw new InvalidRecordException( "Compressed string of " + length + " bytes is shorter than its header" );
+        }
+        byte[] utf8 = new byte[getInt( bytes, 1 )];
+        Inflater inflater = new Inflater();
+        try
+        {
+            inflater.setInput( bytes, HEADER_SIZE, length - HEADER_SIZE );
+            int decompressed = 0;
+            while ( decompressed < utf8.length )
+            {
+                int inflated = inflater.inflate( utf8, decompressed, utf8.length - decompressed );
+                if ( inflated == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary()) )
+                {
+                    throw new InvalidRecordException( "Compressed string ended after " + decompressed + " of " + utf8.length + " bytes" );
+                }
+                decompressed += inflated;
+            }
+            return utf8;
+        }
+        catch ( DataFormatException e )
+        {
+            throw new InvalidRecordException( "Corrupt compressed string", e );
+        }
+        finally
+        {
+            inflater.end();
+        }
+    }
+
+    private static void putInt( byte[] bytes, int offset, int value )
+    {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+    private static int getInt( byte[] bytes, int offset )
+    {
+        return (bytes[offset] & 0xFF) << 24 | (bytes[offset + 1] & 0xFF) << 16 | (bytes[offset + 2] & 0xFF) << 8 | bytes[offset + 3] & 0xFF;
+    }
+}
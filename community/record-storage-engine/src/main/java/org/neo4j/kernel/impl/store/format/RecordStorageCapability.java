@@ -77,7 +77,13 @@ public enum RecordStorageCapability implements Capability
      * ID files (neostore.xyz.id) are backed by {@link GBPTree}, transactional and recoverable.
      */
     GBPTREE_ID_FILES( false, CapabilityType.STORE ),
-    GBPTREE_COUNTS_STORE( CapabilityType.STORE );
+    GBPTREE_COUNTS_STORE( CapabilityType.STORE ),
+
+    /**
+     * Strings in the dynamic string store can be compressed. A compressed string starts with a byte that never occurs in UTF-8,
+     * which versions that don't know about compressed strings would read as garbage, so this is a format change and not an addition.
+     */
+    COMPRESSED_STRINGS( CapabilityType.FORMAT, CapabilityType.STORE );
 
     private final CapabilityType[] types;
     private boolean additive;
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store.format.compressed;
+
+import org.neo4j.annotations.service.ServiceProvider;
+import org.neo4j.kernel.impl.store.format.RecordFormats;
+
+@ServiceProvider
+public class CompressedFormatFactory implements RecordFormats.Factory
+{
+    @Override
+    public RecordFormats newInstance()
+    {
+        return CompressedV4_1.RECORD_FORMATS;
+    }
+
+    @Override
+    public String getName()
+    {
+        return CompressedV4_1.NAME;
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store.format.compressed;
+
+import org.neo4j.kernel.impl.store.format.FormatFamily;
+
+/**
+ * Compressed format family. Ranked above the standard and aligned families, so that stores can be migrated to it but never
+ * from it to a format without {@link org.neo4j.kernel.impl.store.format.RecordStorageCapability#COMPRESSED_STRINGS}.
+ * @see FormatFamily
+ */
+public class CompressedFormatFamily extends FormatFamily
+{
+    public static final FormatFamily INSTANCE = new CompressedFormatFamily();
+
+    private CompressedFormatFamily()
+    {
+    }
+
+    @Override
+    public String getName()
+    {
+        return "Compressed format family";
+    }
+
+    @Override
+    public int rank()
+    {
+        return 2;
+    }
+
+}
@@ -24,6 +24,7 @@ import java.util.Objects;
 
 import org.neo4j.kernel.impl.store.PropertyStore;
 import org.neo4j.kernel.impl.store.PropertyType;
+import org.neo4j.kernel.impl.store.StringCompression;
 
 public class DynamicRecord extends AbstractBaseRecord
 {
@@ -167,7 +168,12 @@ public class DynamicRecord extends AbstractBaseRecord
             buf.append( type.name() );
         }
         buf.append( ",data=" );
-        if ( type == PropertyType.STRING && data.length <= MAX_CHARS_IN_TO_STRING )
+        // Only a start record knows whether or not the string is compressed, so data of other records is printed as bytes
+        if ( type == PropertyType.STRING && startRecord && StringCompression.isCompressed( data, data.length ) )
+        {
+            buf.append( "compressed(size=" ).append( data.length ).append( ")," );
+        }
+        else if ( type == PropertyType.STRING && startRecord && data.length <= MAX_CHARS_IN_TO_STRING )
         {
             buf.append( '"' );
             buf.append( PropertyStore.decodeString( data ) );
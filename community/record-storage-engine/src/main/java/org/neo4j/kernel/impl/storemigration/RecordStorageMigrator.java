@@ -428,8 +428,11 @@ public class RecordStorageMigrator extends AbstractStoreMigrationParticipant
         prepareBatchImportMigration( sourceDirectoryStructure, migrationDirectoryStructure, oldFormat, newFormat );
 
         boolean requiresDynamicStoreMigration = !newFormat.dynamic().equals( oldFormat.dynamic() );
+        // Strings are re-encoded when moving to a format that compresses them, so that existing strings get compressed too
+        boolean requiresStringCompression = !oldFormat.hasCapability( RecordStorageCapability.COMPRESSED_STRINGS ) &&
+                newFormat.hasCapability( RecordStorageCapability.COMPRESSED_STRINGS );
         boolean requiresPropertyMigration =
-                !newFormat.property().equals( oldFormat.property() ) || requiresDynamicStoreMigration;
+                !newFormat.property().equals( oldFormat.property() ) || requiresDynamicStoreMigration || requiresStringCompression;
         File badFile = sourceDirectoryStructure.file( BadCollector.BAD_FILE_NAME );
         try ( NeoStores legacyStore = instantiateLegacyStore( oldFormat, sourceDirectoryStructure );
               OutputStream badOutput = new BufferedOutputStream( new FileOutputStream( badFile, false ) );
@@ -19,14 +19,17 @@
  */
 package org.neo4j.internal.recordstorage;
 
+import org.apache.commons.lang3.StringUtils;
 import org.eclipse.collections.api.factory.Sets;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 import org.neo4j.configuration.Config;
@@ -36,10 +39,15 @@ import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.layout.DatabaseLayout;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.store.AbstractDynamicStore;
 import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.PropertyType;
 import org.neo4j.kernel.impl.store.StoreFactory;
+import org.neo4j.kernel.impl.store.StringCompression;
 import org.neo4j.kernel.impl.store.format.RecordFormats;
 import org.neo4j.kernel.impl.store.format.standard.Standard;
+import org.neo4j.kernel.impl.store.record.DynamicRecord;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
 import org.neo4j.kernel.impl.store.record.PropertyBlock;
 import org.neo4j.logging.NullLogProvider;
@@ -49,6 +57,7 @@ import org.neo4j.test.extension.RandomExtension;
 import org.neo4j.test.extension.pagecache.EphemeralPageCacheExtension;
 import org.neo4j.test.rule.RandomRule;
 import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -122,6 +131,40 @@ public class RecordPropertyCursorTest
         assertPropertyChain( valuesB, firstPropertyIdB, cursor );
     }
 
+    @Test
+    void shouldReadCompressedStrings()
+    {
+        // given
+        PropertyStore propertyStore = neoStores.getPropertyStore();
+        Value[] values = new Value[random.nextInt( 1, 20 )];
+        PropertyBlock[] blocks = new PropertyBlock[values.length];
+        for ( int key = 0; key < values.length; key++ )
+        {
+            String string = StringUtils.repeat( random.nextAlphaNumericString( 1, 10 ), 100 );
+            List<DynamicRecord> valueRecords = new ArrayList<>();
+            byte[] compressed = StringCompression.compress( PropertyStore.encodeString( string ) );
+            AbstractDynamicStore.allocateRecordsFromBytes( valueRecords, compressed, propertyStore.getStringStore(), NULL );
+            valueRecords.forEach( record -> record.setType( PropertyType.STRING.intValue() ) );
+            blocks[key] = new PropertyBlock();
+            PropertyStore.setSingleBlockValue( blocks[key], key, PropertyType.STRING, valueRecords.get( 0 ).getId() );
+            blocks[key].setValueRecords( valueRecords );
+            values[key] = Values.stringValue( string );
+        }
+        DirectRecordAccessSet access = new DirectRecordAccessSet( neoStores, idGeneratorFactory );
+        long firstPropertyId = creator.createPropertyChain( owner, iterator( blocks ), access.getPropertyRecords() );
+        access.close();
+
+        // then
+        RecordPropertyCursor cursor = createCursor();
+        assertPropertyChain( values, firstPropertyId, cursor );
+        cursor.initNodeProperties( firstPropertyId );
+        while ( cursor.next() )
+        {
+            assertEquals( values[cursor.propertyKey()], cursor.propertyValue() );
+            assertEquals( values[cursor.propertyKey()], cursor.propertyValue() );
+        }
+    }
+
     @Test
     void closeShouldBeIdempotent()
     {
@@ -274,6 +274,47 @@ public class RecordRelationshipTraversalCursorTest
         }
     }
 
+    @Test
+    void shouldPrefetchChainsWithLocalityAndStopOnFarJump()
+    {
+        // given a chain visiting one record on each page in order, which then jumps far away
+        RelationshipStore relationshipStore = neoStores.getRelationshipStore();
+        int recordsPerPage = relationshipStore.getRecordsPerPage();
+        int localRecords = 20;
+        long[] ids = new long[localRecords + 1];
+        for ( int i = 0; i < localRecords; i++ )
+        {
+            ids[i] = (long) i * recordsPerPage;
+        }
+        ids[localRecords] = 1_000L * recordsPerPage;
+        relationshipStore.setHighId( ids[localRecords] + 1 );
+        RelationshipSpec spec = new RelationshipSpec( TYPE1, OUTGOING );
+        for ( int i = 0; i < ids.length; i++ )
+        {
+            long nextRelationshipId = i == ids.length - 1 ? NULL : ids[i + 1];
+            relationshipStore.updateRecord( createRelationship( ids[i], nextRelationshipId, spec ), PageCursorTracer.NULL );
+        }
+
+        try ( RecordRelationshipTraversalCursor cursor = getNodeRelationshipCursor() )
+        {
+            // when
+            cursor.init( FIRST_OWNING_NODE, ids[0], ALL_RELATIONSHIPS );
+
+            // then
+            for ( int i = 0; i < ids.length; i++ )
+            {
+                assertTrue( cursor.next() );
+                assertEquals( ids[i], cursor.entityReference() );
+                if ( i > RecordRelationshipTraversalCursor.PREFETCH_HOPS_THRESHOLD && i < localRecords )
+                {
+                    assertTrue( cursor.isPrefetching() );
+                }
+            }
+            assertFalse( cursor.isPrefetching() );
+            assertFalse( cursor.next() );
+        }
+    }
+
     private void assertRelationships( RecordRelationshipTraversalCursor cursor, int count, Direction direction, int... types )
     {
         IntSet expectedTypes = IntSets.immutable.of( types );
@@ -28,13 +28,16 @@ import org.mockito.InOrder;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import org.neo4j.configuration.GraphDatabaseSettings;
 import org.neo4j.exceptions.KernelException;
 import org.neo4j.exceptions.UnderlyingStorageException;
 import org.neo4j.internal.helpers.collection.Visitor;
@@ -45,7 +48,10 @@ import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.kernel.api.exceptions.Status;
 import org.neo4j.kernel.impl.store.IdUpdateListener;
+import org.neo4j.kernel.impl.store.NodeStore;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.Record;
+import org.neo4j.kernel.impl.store.record.RecordLoad;
 import org.neo4j.lock.Lock;
 import org.neo4j.lock.LockService;
 import org.neo4j.monitoring.DatabaseHealth;
@@ -65,6 +71,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doThrow;
@@ -73,6 +80,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer.NULL;
+import static org.neo4j.token.api.TokenConstants.ANY_LABEL;
 
 @EphemeralPageCacheExtension
 @EphemeralNeo4jLayoutExtension
@@ -222,6 +230,58 @@ class RecordStorageEngineTest
         inOrder.verifyNoMoreInteractions();
     }
 
+    @Test
+    void shouldApplyIndependentTransactionsOfBatchInParallelAndConflictingOnesInCommitOrder() throws Exception
+    {
+        // given
+        RecordStorageEngine engine = recordStorageEngineBuilder()
+                .setting( GraphDatabaseSettings.parallel_apply_threads, 4 )
+                .build();
+        int transactions = 200;
+        GroupOfCommands first = null;
+        GroupOfCommands last = null;
+        for ( int i = 0; i < transactions; i++ )
+        {
+            List<StorageCommand> commands = new ArrayList<>();
+            commands.add( new Command.NodeCommand( new NodeRecord( i ), inUseNode( i, Record.NO_NEXT_PROPERTY.longValue() ) ) );
+            if ( i > 0 && i % 10 == 0 )
+            {
+                // Every tenth transaction also updates the node of the first transaction, which must end up with the last update
+                commands.add( new Command.NodeCommand( inUseNode( 0, i - 10 ), inUseNode( 0, i ) ) );
+            }
+            commands.add( new Command.NodeCountsCommand( ANY_LABEL, 1 ) );
+            GroupOfCommands transaction = new GroupOfCommands( i + 2, commands.toArray( new StorageCommand[0] ) );
+            if ( first == null )
+            {
+                first = transaction;
+            }
+            else
+            {
+                last.next = transaction;
+            }
+            last = transaction;
+        }
+
+        // when
+        engine.apply( first, TransactionApplicationMode.INTERNAL );
+
+        // then
+        NodeStore nodeStore = engine.testAccessNeoStores().getNodeStore();
+        for ( int i = 0; i < transactions; i++ )
+        {
+            assertTrue( nodeStore.getRecord( i, nodeStore.newRecord(), RecordLoad.NORMAL, NULL ).inUse() );
+        }
+        assertEquals( 190, nodeStore.getRecord( 0, nodeStore.newRecord(), RecordLoad.NORMAL, NULL ).getNextProp() );
+        assertEquals( transactions, engine.countsAccessor().nodeCount( ANY_LABEL, NULL ) );
+    }
+
+    private static NodeRecord inUseNode( long id, long nextProp )
+    {
+        NodeRecord node = new NodeRecord( id );
+        node.initialize( true, nextProp, false, Record.NO_NEXT_RELATIONSHIP.longValue(), Record.NO_LABELS_FIELD.longValue() );
+        return node;
+    }
+
     private RecordStorageEngine buildRecordStorageEngine()
     {
         return recordStorageEngineBuilder().build();
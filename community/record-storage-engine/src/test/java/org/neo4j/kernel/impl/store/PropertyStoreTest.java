@@ -19,10 +19,12 @@
  */
 package org.neo4j.kernel.impl.store;
 
+import org.apache.commons.lang3.StringUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 
@@ -32,6 +34,8 @@ import org.neo4j.io.fs.EphemeralFileSystemAbstraction;
 import org.neo4j.io.layout.DatabaseLayout;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.kernel.impl.store.format.RecordFormatSelector;
+import org.neo4j.kernel.impl.store.format.RecordFormats;
+import org.neo4j.kernel.impl.store.format.compressed.CompressedV4_1;
 import org.neo4j.kernel.impl.store.record.DynamicRecord;
 import org.neo4j.kernel.impl.store.record.PropertyBlock;
 import org.neo4j.kernel.impl.store.record.PropertyKeyTokenRecord;
@@ -40,9 +44,13 @@ import org.neo4j.logging.NullLogProvider;
 import org.neo4j.test.extension.EphemeralNeo4jLayoutExtension;
 import org.neo4j.test.extension.Inject;
 import org.neo4j.test.extension.pagecache.PageCacheSupportExtension;
+import org.neo4j.values.storable.Values;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.eclipse.collections.api.factory.Sets.immutable;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
@@ -119,6 +127,53 @@ class PropertyStoreTest
         }
     }
 
+    @Test
+    void shouldOnlyCompressStringsInFormatsWithCompressedStringsCapability()
+    {
+        PageCache pageCache = pageCacheExtension.getPageCache( fs );
+        assertFalse( newPropertyStore( pageCache, RecordFormatSelector.defaultFormat() ).compressStrings() );
+        assertTrue( newPropertyStore( pageCache, CompressedV4_1.RECORD_FORMATS ).compressStrings() );
+    }
+
+    @Test
+    void shouldCompressDynamicStringsOnlyWhenAskedTo()
+    {
+        // given
+        String string = StringUtils.repeat( "abc", 1_000 );
+        byte[] utf8 = PropertyStore.encodeString( string );
+
+        // when
+        PropertyBlock plain = new PropertyBlock();
+        PropertyStore.encodeValue( plain, 0, Values.stringValue( string ), new StandaloneDynamicRecordAllocator(), null, true, false, NULL );
+        PropertyBlock compressed = new PropertyBlock();
+        PropertyStore.encodeValue( compressed, 0, Values.stringValue( string ), new StandaloneDynamicRecordAllocator(), null, true, true, NULL );
+
+        // then
+        assertArrayEquals( utf8, concatData( plain ) );
+        byte[] compressedData = concatData( compressed );
+        assertTrue( StringCompression.isCompressed( compressedData, compressedData.length ) );
+        assertArrayEquals( utf8, StringCompression.decompress( compressedData, compressedData.length ) );
+        DynamicRecord startRecord = compressed.getValueRecords().get( 0 );
+        assertThat( startRecord.toString() ).contains( "data=compressed(size=" + startRecord.getLength() + ")" );
+    }
+
+    private PropertyStore newPropertyStore( PageCache pageCache, RecordFormats formats )
+    {
+        return new PropertyStore( storeFile, idFile, Config.defaults(), new DefaultIdGeneratorFactory( fs, immediate() ), pageCache,
+                NullLogProvider.getInstance(), mock( DynamicStringStore.class ), mock( PropertyKeyTokenStore.class ), mock( DynamicArrayStore.class ),
+                formats, immutable.empty() );
+    }
+
+    private static byte[] concatData( PropertyBlock block )
+    {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        for ( DynamicRecord record : block.getValueRecords() )
+        {
+            data.writeBytes( record.getData() );
+        }
+        return data.toByteArray();
+    }
+
     private static DynamicRecord dynamicRecord()
     {
         DynamicRecord dynamicRecord = new DynamicRecord( 42 );
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.Arrays;
+
+import org.neo4j.string.UTF8;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.RandomExtension;
+import org.neo4j.test.rule.RandomRule;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.kernel.impl.store.StringCompression.MIN_COMPRESSED_LENGTH;
+
+@ExtendWith( RandomExtension.class )
+class StringCompressionTest
+{
+    @Inject
+    private RandomRule random;
+
+    @Test
+    void shouldCompressAndDecompressRepetitiveStrings()
+    {
+        for ( int i = 0; i < 100; i++ )
+        {
+            // given
+            String word = random.nextAlphaNumericString( 1, 10 );
+            byte[] utf8 = UTF8.encode( StringUtils.repeat( word, " ", MIN_COMPRESSED_LENGTH + random.nextInt( 1_000 ) ) );
+
+            // when
+            byte[] compressed = StringCompression.compress( utf8 );
+
+            // then
+            assertTrue( StringCompression.isCompressed( compressed, compressed.length ) );
+            assertTrue( compressed.length < utf8.length );
+            assertArrayEquals( utf8, StringCompression.decompress( compressed, compressed.length ) );
+        }
+    }
+
+    @Test
+    void shouldNotCompressShortStrings()
+    {
+        byte[] utf8 = UTF8.encode( StringUtils.repeat( 'a', MIN_COMPRESSED_LENGTH - 1 ) );
+
+        assertSame( utf8, StringCompression.compress( utf8 ) );
+        assertFalse( StringCompression.isCompressed( utf8, utf8.length ) );
+    }
+
+    @Test
+    void shouldNotCompressStringsThatDoNotGetSmaller()
+    {
+        for ( int i = 0; i < 100; i++ )
+        {
+            byte[] utf8 = UTF8.encode( random.randomValues().nextTextValue( MIN_COMPRESSED_LENGTH, MIN_COMPRESSED_LENGTH * 2 ).stringValue() );
+            byte[] compressed = StringCompression.compress( utf8 );
+
+            if ( compressed == utf8 )
+            {
+                assertFalse( StringCompression.isCompressed( compressed, compressed.length ) );
+            }
+            else
+            {
+                assertTrue( compressed.length < utf8.length );
+                assertArrayEquals( utf8, StringCompression.decompress( compressed, compressed.length ) );
+            }
+        }
+    }
+
+    @Test
+    void shouldFailOnTruncatedCompressedString()
+    {
+        byte[] utf8 = UTF8.encode( StringUtils.repeat( "abc", MIN_COMPRESSED_LENGTH ) );
+        byte[] compressed = StringCompression.compress( utf8 );
+        byte[] truncated = Arrays.copyOf( compressed, compressed.length / 2 );
+
+        assertThrows( InvalidRecordException.class, () -> StringCompression.decompress( truncated, truncated.length ) );
+    }
+}
@@ -49,11 +49,13 @@ import org.neo4j.monitoring.DatabaseEventListeners;
 import org.neo4j.monitoring.DatabaseHealth;
 import org.neo4j.monitoring.DatabasePanicEventGenerator;
 import org.neo4j.monitoring.Health;
+import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.storageengine.api.ConstraintRuleAccessor;
 import org.neo4j.storageengine.api.EntityTokenUpdateListener;
 import org.neo4j.storageengine.api.IndexUpdateListener;
 import org.neo4j.storageengine.api.TransactionApplicationMode;
 import org.neo4j.token.TokenHolders;
+import org.neo4j.test.scheduler.ThreadPoolJobScheduler;
 import org.neo4j.token.api.TokenHolder;
 
 import static org.mockito.Mockito.mock;
@@ -71,11 +73,13 @@ import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.imme
 public class RecordStorageEngineRule extends ExternalResource
 {
     private final LifeSupport life = new LifeSupport();
+    private final JobScheduler jobScheduler = new ThreadPoolJobScheduler();
 
     @Override
     public void before() throws Throwable
     {
         super.before();
+        life.add( jobScheduler );
         life.start();
     }
 
@@ -93,7 +97,7 @@ public class RecordStorageEngineRule extends ExternalResource
         IdGeneratorFactory idGeneratorFactory = new DefaultIdGeneratorFactory( fs, immediate() );
         NullLogProvider nullLogProvider = NullLogProvider.getInstance();
         RecordStorageEngine engine =
-                new ExtendedRecordStorageEngine( databaseLayout, config, pageCache, fs, nullLogProvider, tokenHolders, mock( SchemaState.class ),
+                new ExtendedRecordStorageEngine( databaseLayout, config, pageCache, fs, nullLogProvider, jobScheduler, tokenHolders, mock( SchemaState.class ),
                         constraintSemantics, indexConfigCompleter, lockService, databaseHealth, idGeneratorFactory,
                         new DefaultIdController(), transactionApplierTransformer );
         engine.addIndexUpdateListener( indexUpdateListener );
@@ -235,15 +239,15 @@ public class RecordStorageEngineRule extends ExternalResource
                 transactionApplierTransformer;
 
         ExtendedRecordStorageEngine( DatabaseLayout databaseLayout, Config config, PageCache pageCache, FileSystemAbstraction fs,
-                LogProvider logProvider, TokenHolders tokenHolders, SchemaState schemaState,
+                LogProvider logProvider, JobScheduler jobScheduler, TokenHolders tokenHolders, SchemaState schemaState,
                 ConstraintRuleAccessor constraintSemantics,
                 IndexConfigCompleter indexConfigCompleter,
                 LockService lockService, Health databaseHealth,
                 IdGeneratorFactory idGeneratorFactory, IdController idController,
                 Function<TransactionApplierFactoryChain,TransactionApplierFactoryChain> transactionApplierTransformer )
         {
-            super( databaseLayout, config, pageCache, fs, logProvider, tokenHolders, schemaState, constraintSemantics, indexConfigCompleter, lockService,
-                    databaseHealth, idGeneratorFactory, idController, RecoveryCleanupWorkCollector.immediate(), PageCacheTracer.NULL, true );
+            super( databaseLayout, config, pageCache, fs, logProvider, jobScheduler, tokenHolders, schemaState, constraintSemantics, indexConfigCompleter,
+                    lockService, databaseHealth, idGeneratorFactory, idController, RecoveryCleanupWorkCollector.immediate(), PageCacheTracer.NULL, true );
             this.transactionApplierTransformer = transactionApplierTransformer;
         }
 